@@ -0,0 +1,171 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.index.codec;
+
+import org.apache.lucene.codecs.DocValuesFormat;
+import org.apache.lucene.codecs.lucene91.Lucene91Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default doc values format with the {@link ES83TSDBDocValuesFormat} on a synthetic metrics index sorted like
+ * a time series index. Reading every value of a field is what {@code sum} or {@code max} aggregations spend their time on.
+ * The size of the doc values of each codec is reported as the {@code docValuesBytes} secondary result.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TSDBDocValuesFormatBenchmark {
+
+    private static final int TIME_SERIES = 1000;
+    private static final int SAMPLES_PER_SERIES = 1000;
+
+    @Param({ "default", "tsdb" })
+    public String codec;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private long docValuesBytes;
+
+    /**
+     * Reports the size of the doc values on disk next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DocValuesSize {
+        public long docValuesBytes;
+
+        @Setup(Level.Iteration)
+        public void setup(TSDBDocValuesFormatBenchmark benchmark) {
+            docValuesBytes = benchmark.docValuesBytes;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        directory = new ByteBuffersDirectory();
+        IndexWriterConfig config = new IndexWriterConfig();
+        config.setIndexSort(
+            new Sort(new SortField("_tsid", SortField.Type.STRING), new SortedNumericSortField("@timestamp", SortField.Type.LONG, true))
+        );
+        if (codec.equals("tsdb")) {
+            DocValuesFormat tsdb = new ES83TSDBDocValuesFormat();
+            config.setCodec(new Lucene91Codec() {
+                @Override
+                public DocValuesFormat getDocValuesFormatForField(String field) {
+                    return field.equals("_tsid") ? super.getDocValuesFormatForField(field) : tsdb;
+                }
+            });
+        }
+        Random random = new Random(0);
+        long start = 1_650_000_000_000L;
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            Document doc = new Document();
+            for (int t = 0; t < TIME_SERIES; t++) {
+                double gauge = random.nextDouble() * 100;
+                long counter = random.nextInt(1000);
+                for (int s = 0; s < SAMPLES_PER_SERIES; s++) {
+                    gauge += random.nextBoolean() ? 0 : random.nextGaussian();
+                    counter += random.nextInt(100);
+                    doc.clear();
+                    doc.add(new SortedDocValuesField("_tsid", new BytesRef("host=host-" + t)));
+                    doc.add(new SortedNumericDocValuesField("@timestamp", start + s * 10_000L));
+                    doc.add(new SortedNumericDocValuesField("gauge", NumericUtils.doubleToSortableLong(gauge)));
+                    doc.add(new SortedNumericDocValuesField("counter", counter));
+                    writer.addDocument(doc);
+                }
+            }
+            writer.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+        docValuesBytes = 0;
+        for (String file : directory.listAll()) {
+            if (file.endsWith(".dvd") || file.endsWith(".dvm")) {
+                docValuesBytes += directory.fileLength(file);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        IOUtils.closeWhileHandlingException(reader, directory);
+    }
+
+    @Benchmark
+    public long maxTimestamp(DocValuesSize size) throws IOException {
+        return max("@timestamp");
+    }
+
+    @Benchmark
+    public double sumGauge(DocValuesSize size) throws IOException {
+        LeafReader leaf = reader.leaves().get(0).reader();
+        NumericDocValues values = DocValues.unwrapSingleton(DocValues.getSortedNumeric(leaf, "gauge"));
+        double sum = 0;
+        while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            sum += NumericUtils.sortableLongToDouble(values.longValue());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long maxCounter(DocValuesSize size) throws IOException {
+        return max("counter");
+    }
+
+    private long max(String field) throws IOException {
+        LeafReader leaf = reader.leaves().get(0).reader();
+        SortedNumericDocValues values = DocValues.getSortedNumeric(leaf, field);
+        long max = Long.MIN_VALUE;
+        while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            for (int i = 0; i < values.docValueCount(); i++) {
+                max = Math.max(max, values.nextValue());
+            }
+        }
+        return max;
+    }
+}
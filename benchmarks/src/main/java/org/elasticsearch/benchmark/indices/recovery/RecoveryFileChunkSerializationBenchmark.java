@@ -0,0 +1,94 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.indices.recovery;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.indices.recovery.RecoveryFileChunkRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-chunk cost the source of a file based peer recovery or relocation pays to put a file chunk on the wire, comparing
+ * copying the chunk into the message buffer with sending the chunk's bytes as they are after the rest of the message.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RecoveryFileChunkSerializationBenchmark {
+
+    @Param({ "65536", "524288", "2097152" })
+    public int chunkSize;
+
+    private RecoveryFileChunkRequest request;
+
+    private BytesStreamOutput out;
+
+    @Setup
+    public void setup() {
+        final byte[] bytes = new byte[chunkSize];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        final ReleasableBytesReference content = ReleasableBytesReference.wrap(new BytesArray(bytes));
+        request = new RecoveryFileChunkRequest(
+            1L,
+            1L,
+            new ShardId("index", "_na_", 0),
+            new StoreFileMetadata("_0.cfs", 50L * chunkSize, "checksum", org.apache.lucene.util.Version.LATEST.toString()),
+            10L * chunkSize,
+            content,
+            false,
+            0,
+            0L
+        );
+        content.decRef();
+        out = new BytesStreamOutput(chunkSize + 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        request.decRef();
+    }
+
+    @Benchmark
+    public BytesReference copyChunk() throws IOException {
+        out.reset();
+        request.writeTo(out);
+        return out.bytes();
+    }
+
+    @Benchmark
+    public void sendChunkAsTrailingBytes(Blackhole bh) throws IOException {
+        out.reset();
+        bh.consume(request.writeWithoutTrailingBytes(out));
+        bh.consume(out.bytes());
+    }
+}
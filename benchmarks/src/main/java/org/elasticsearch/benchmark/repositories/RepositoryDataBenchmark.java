@@ -0,0 +1,179 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.repositories;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.repositories.ShardGeneration;
+import org.elasticsearch.repositories.ShardGenerations;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.snapshots.SnapshotState;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentFactory;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the master-side cost of the {@link RepositoryData} updates and the {@code index-N} round trip that every snapshot create
+ * and delete goes through, as a function of the number of snapshots and indices in the repository.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RepositoryDataBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int snapshotCount;
+
+    @Param({ "100", "1000", "5000" })
+    public int indexCount;
+
+    /**
+     * Number of indices contained in every snapshot. Snapshots cover a sliding window over all indices so that deleting a snapshot
+     * leaves some indices partially referenced.
+     */
+    @Param({ "50" })
+    public int indicesPerSnapshot;
+
+    private RepositoryData repositoryData;
+
+    private BytesReference serialized;
+
+    private List<SnapshotId> oldestSnapshot;
+
+    private SnapshotId newSnapshotId;
+
+    private ShardGenerations newShardGenerations;
+
+    private Map<IndexId, String> newIndexMetaBlobs;
+
+    private Map<String, String> newIdentifiers;
+
+    @Setup
+    public void setup() throws IOException {
+        final IndexId[] indices = new IndexId[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            indices[i] = new IndexId("index-" + i, UUIDs.randomBase64UUID());
+        }
+        RepositoryData data = RepositoryData.EMPTY.withClusterUuid(UUIDs.randomBase64UUID());
+        SnapshotId first = null;
+        for (int i = 0; i < snapshotCount; i++) {
+            final SnapshotId snapshotId = new SnapshotId("snapshot-" + i, UUIDs.randomBase64UUID());
+            if (first == null) {
+                first = snapshotId;
+            }
+            data = addSnapshot(data, snapshotId, indices, i);
+        }
+        repositoryData = data.withGenId(snapshotCount);
+        oldestSnapshot = List.of(first);
+        serialized = serialize(repositoryData);
+
+        newSnapshotId = new SnapshotId("snapshot-" + snapshotCount, UUIDs.randomBase64UUID());
+        final ShardGenerations.Builder builder = ShardGenerations.builder();
+        newIndexMetaBlobs = new HashMap<>();
+        newIdentifiers = new HashMap<>();
+        for (int i = 0; i < Math.min(indicesPerSnapshot, indexCount); i++) {
+            final IndexId indexId = indices[(snapshotCount + i) % indexCount];
+            builder.put(indexId, 0, ShardGeneration.newGeneration());
+            final String identifier = indexId.getId() + "-" + snapshotCount;
+            newIndexMetaBlobs.put(indexId, identifier);
+            newIdentifiers.put(identifier, UUIDs.randomBase64UUID());
+        }
+        newShardGenerations = builder.build();
+    }
+
+    private RepositoryData addSnapshot(RepositoryData data, SnapshotId snapshotId, IndexId[] indices, int offset) {
+        final ShardGenerations.Builder builder = ShardGenerations.builder();
+        final Map<IndexId, String> indexMetaBlobs = new HashMap<>();
+        final Map<String, String> identifiers = new HashMap<>();
+        for (int i = 0; i < Math.min(indicesPerSnapshot, indexCount); i++) {
+            final IndexId indexId = indices[(offset + i) % indexCount];
+            builder.put(indexId, 0, ShardGeneration.newGeneration());
+            // index metadata is assumed to be unchanged between snapshots so that identifiers are shared like in a real repository
+            final String identifier = indexId.getId() + "-meta";
+            indexMetaBlobs.put(indexId, identifier);
+            final String existing = data.indexMetaDataGenerations().getIndexMetaBlobId(identifier);
+            if (existing == null) {
+                identifiers.put(identifier, UUIDs.randomBase64UUID());
+            }
+        }
+        return data.addSnapshot(
+            snapshotId,
+            new RepositoryData.SnapshotDetails(SnapshotState.SUCCESS, Version.CURRENT, offset, offset + 1, "daily-policy"),
+            builder.build(),
+            indexMetaBlobs,
+            identifiers
+        );
+    }
+
+    private static BytesReference serialize(RepositoryData repositoryData) throws IOException {
+        final XContentBuilder builder = XContentFactory.jsonBuilder();
+        repositoryData.snapshotsToXContent(builder, Version.CURRENT);
+        return BytesReference.bytes(builder);
+    }
+
+    @Benchmark
+    public RepositoryData addSnapshot() {
+        return repositoryData.addSnapshot(
+            newSnapshotId,
+            new RepositoryData.SnapshotDetails(SnapshotState.SUCCESS, Version.CURRENT, 0L, 1L, "daily-policy"),
+            newShardGenerations,
+            newIndexMetaBlobs,
+            newIdentifiers
+        );
+    }
+
+    @Benchmark
+    public RepositoryData deleteOldestSnapshot(Blackhole bh) {
+        bh.consume(repositoryData.indicesToUpdateAfterRemovingSnapshot(oldestSnapshot));
+        bh.consume(repositoryData.indexMetaDataToRemoveAfterRemovingSnapshots(oldestSnapshot));
+        return repositoryData.removeSnapshots(oldestSnapshot, ShardGenerations.EMPTY);
+    }
+
+    @Benchmark
+    public BytesReference writeIndexN() throws IOException {
+        return serialize(repositoryData);
+    }
+
+    @Benchmark
+    public RepositoryData readIndexN() throws IOException {
+        try (
+            XContentParser parser = XContentType.JSON.xContent()
+                .createParser(NamedXContentRegistry.EMPTY, LoggingDeprecationHandler.INSTANCE, serialized.streamInput())
+        ) {
+            return RepositoryData.snapshotsFromXContent(parser, repositoryData.getGenId(), false);
+        }
+    }
+}
@@ -89,7 +89,7 @@ public class ScriptScoreBenchmark {
         (mft, lookup) -> mft.fielddataBuilder("test", lookup).build(fieldDataCache, breakerService)
     );
 
-    @Param({ "expression", "metal", "painless_cast", "painless_def" })
+    @Param({ "expression", "metal", "painless_cast", "painless_def", "painless_def_params" })
     private String script;
 
     @Param({ "16" })
@@ -100,7 +100,7 @@ public class ScriptScoreBenchmark {
     private IndexReader reader;
 
     @Setup
-    public void setupScript() {
+    public void setupScript() throws IOException {
         factory = switch (script) {
             case "expression" -> scriptModule.engines.get("expression").compile("test", "doc['n'].value", ScoreScript.CONTEXT, Map.of());
             case "metal" -> bareMetalScript();
@@ -112,8 +112,11 @@ public class ScriptScoreBenchmark {
                     Map.of()
                 );
             case "painless_def" -> scriptModule.engines.get("painless").compile("test", "doc['n'].value", ScoreScript.CONTEXT, Map.of());
+            case "painless_def_params" -> scriptModule.engines.get("painless")
+                .compile("test", "doc['n'].value * params.factor", ScoreScript.CONTEXT, Map.of());
             default -> throw new IllegalArgumentException("Don't know how to implement script [" + script + "]");
         };
+        primeCallSites();
     }
 
     @Setup
@@ -133,19 +136,32 @@ public class ScriptScoreBenchmark {
             w.commit();
         }
         reader = DirectoryReader.open(directory);
+        primeCallSites();
+    }
+
+    /**
+     * The call sites of a compiled script are shared by every request that runs it. Run the script once with a double
+     * {@code factor} before measuring with an integer one so the operator call site has seen more than one combination
+     * of operand types, like it would on a node that serves different requests with the same script.
+     */
+    private void primeCallSites() throws IOException {
+        if (factory == null || reader == null || script.equals("painless_def_params") == false) {
+            return;
+        }
+        new IndexSearcher(reader).search(scriptScoreQuery(factory, Map.of("factor", 1.0d)), 10);
     }
 
     @Benchmark
     public TopDocs benchmark() throws IOException {
-        TopDocs topDocs = new IndexSearcher(reader).search(scriptScoreQuery(factory), 10);
+        TopDocs topDocs = new IndexSearcher(reader).search(scriptScoreQuery(factory, Map.of("factor", 1)), 10);
         if (topDocs.scoreDocs[0].score != 1_000_000) {
             throw new AssertionError("Expected score to be 1,000,000 but was [" + topDocs.scoreDocs[0].score + "]");
         }
         return topDocs;
     }
 
-    private Query scriptScoreQuery(ScoreScript.Factory factory) {
-        ScoreScript.LeafFactory leafFactory = factory.newFactory(Map.of(), lookup);
+    private Query scriptScoreQuery(ScoreScript.Factory factory, Map<String, Object> params) {
+        ScoreScript.LeafFactory leafFactory = factory.newFactory(params, lookup);
         return new ScriptScoreQuery(new MatchAllDocsQuery(), null, leafFactory, lookup, null, "test", 0, Version.CURRENT);
     }
 
@@ -0,0 +1,154 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.search.aggregations;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.search.aggregations.AggregationExecutionContext;
+import org.elasticsearch.search.aggregations.BucketCollector;
+import org.elasticsearch.search.aggregations.LeafBucketCollector;
+import org.elasticsearch.search.aggregations.timeseries.TimeSeriesIndexSearcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks a synthetic metrics index in tsid and timestamp order the way time series aggregations do. Every segment holds a
+ * slice of time for all of the time series so the walk has to switch between segments for every time series.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TimeSeriesIndexSearcherBenchmark {
+
+    private static final int DOCS_PER_SERIES_PER_SEGMENT = 10;
+
+    @Param({ "1000", "10000" })
+    public int timeSeries;
+
+    @Param({ "1", "5", "20" })
+    public int segments;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexOrdinalsFieldData tsidFieldData;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = new ByteBuffersDirectory();
+        IndexWriterConfig config = new IndexWriterConfig();
+        config.setIndexSort(
+            new Sort(
+                new SortField(TimeSeriesIdFieldMapper.NAME, SortField.Type.STRING),
+                new SortedNumericSortField(DataStream.TimestampField.FIXED_TIMESTAMP_FIELD, SortField.Type.LONG, true)
+            )
+        );
+        config.setMergePolicy(NoMergePolicy.INSTANCE);
+        config.setRAMBufferSizeMB(256);
+        Random random = new Random(0);
+        long timestamp = 1_650_000_000_000L;
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            Document doc = new Document();
+            for (int s = 0; s < segments; s++) {
+                for (int d = 0; d < DOCS_PER_SERIES_PER_SEGMENT; d++) {
+                    timestamp += 1000;
+                    for (int t = 0; t < timeSeries; t++) {
+                        doc.clear();
+                        // tsids share a long prefix like real ones that start with the same dimension names
+                        doc.add(new SortedDocValuesField(TimeSeriesIdFieldMapper.NAME, new BytesRef("host=host-name-" + t)));
+                        long time = timestamp + random.nextInt(100);
+                        doc.add(new SortedNumericDocValuesField(DataStream.TimestampField.FIXED_TIMESTAMP_FIELD, time));
+                        writer.addDocument(doc);
+                    }
+                }
+                writer.flush();
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        if (reader.leaves().size() != segments) {
+            throw new IllegalStateException("expected [" + segments + "] segments but got [" + reader.leaves().size() + "]");
+        }
+        // global ordinals are cached per reader, so searches only pay for building them once
+        IndexOrdinalsFieldData fieldData = (IndexOrdinalsFieldData) TimeSeriesIdFieldMapper.FIELD_TYPE.fielddataBuilder("benchmark", () -> {
+            throw new UnsupportedOperationException();
+        }).build(new IndexFieldDataCache.None(), new NoneCircuitBreakerService());
+        tsidFieldData = fieldData.loadGlobal(reader);
+    }
+
+    @TearDown
+    public void tearDown() {
+        IOUtils.closeWhileHandlingException(reader, directory);
+    }
+
+    @Benchmark
+    public void walk(Blackhole bh) throws IOException {
+        TimeSeriesIndexSearcher searcher = new TimeSeriesIndexSearcher(new IndexSearcher(reader), tsidFieldData, List.of());
+        searcher.search(new MatchAllDocsQuery(), new BucketCollector() {
+            @Override
+            public LeafBucketCollector getLeafCollector(AggregationExecutionContext aggCtx) {
+                return new LeafBucketCollector() {
+                    @Override
+                    public void collect(int doc, long owningBucketOrd) {
+                        bh.consume(aggCtx.getTsid());
+                        bh.consume(aggCtx.getTimestamp());
+                    }
+                };
+            }
+
+            @Override
+            public void preCollection() {}
+
+            @Override
+            public void postCollection() {}
+
+            @Override
+            public ScoreMode scoreMode() {
+                return ScoreMode.COMPLETE_NO_SCORES;
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.search.aggregations.bucket.terms;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.DirectPagePool;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.common.util.OffHeapBigArrays;
+import org.elasticsearch.common.util.PageCacheRecycler;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.search.aggregations.CardinalityUpperBound;
+import org.elasticsearch.search.aggregations.bucket.terms.LongKeyedBucketOrds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link LongKeyedBucketOrds} on heap {@link BigArrays} to
+ * {@link OffHeapBigArrays}. Unlike {@link LongKeyedBucketOrdsBenchmark}
+ * it collects many distinct values so the hashes grow past the size
+ * where the off heap arrays kick in.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(1_000_000)
+@State(Scope.Benchmark)
+public class LongKeyedBucketOrdsOffHeapBenchmark {
+    private static final long LIMIT = 1_000_000;
+    /**
+     * The number of buckets to create in the {@link #multiBucketMany} case.
+     */
+    private static final long DISTINCT_BUCKETS = 21;
+
+    @Param({ "heap", "off_heap" })
+    public String arrays;
+
+    /**
+     * The number of distinct values to add to the buckets.
+     */
+    @Param({ "10000", "100000", "1000000" })
+    public long distinctValues;
+
+    private final PageCacheRecycler recycler = new PageCacheRecycler(Settings.EMPTY);
+    private final BigArrays heap = new BigArrays(recycler, null, "REQUEST");
+    private final DirectPagePool pool = new DirectPagePool(ByteSizeUnit.MB.toBytes(64), Long.MAX_VALUE);
+
+    /**
+     * Build the {@link BigArrays} for one "request". Off heap arrays are
+     * an arena that has to be closed at the end of the request.
+     */
+    private BigArrays bigArrays() {
+        return switch (arrays) {
+            case "heap" -> heap;
+            case "off_heap" -> new OffHeapBigArrays(recycler, pool, null, "REQUEST");
+            default -> throw new IllegalArgumentException("Unknown arrays [" + arrays + "]");
+        };
+    }
+
+    private static void closeRequest(BigArrays bigArrays) {
+        if (bigArrays instanceof Releasable arena) {
+            Releasables.close(arena);
+        }
+    }
+
+    /**
+     * Emulates the way that most aggregations use {@link LongKeyedBucketOrds}.
+     */
+    @Benchmark
+    public void singleBucket(Blackhole bh) {
+        BigArrays bigArrays = bigArrays();
+        try (LongKeyedBucketOrds ords = LongKeyedBucketOrds.build(bigArrays, CardinalityUpperBound.ONE)) {
+            for (long i = 0; i < LIMIT; i++) {
+                ords.add(0, i % distinctValues);
+            }
+            if (ords.size() != distinctValues) {
+                throw new IllegalArgumentException("Expected [" + distinctValues + "] but found [" + ords.size() + "]");
+            }
+            bh.consume(ords);
+        } finally {
+            closeRequest(bigArrays);
+        }
+    }
+
+    /**
+     * Emulates an aggregation that collects from many buckets.
+     */
+    @Benchmark
+    public void multiBucketMany(Blackhole bh) {
+        BigArrays bigArrays = bigArrays();
+        try (LongKeyedBucketOrds ords = LongKeyedBucketOrds.build(bigArrays, CardinalityUpperBound.MANY)) {
+            for (long i = 0; i < LIMIT; i++) {
+                ords.add(i % DISTINCT_BUCKETS, i % distinctValues);
+            }
+            bh.consume(ords);
+        } finally {
+            closeRequest(bigArrays);
+        }
+    }
+
+    /**
+     * Emulates the doc counts that bucketing aggregations keep next to
+     * their ords.
+     */
+    @Benchmark
+    public void docCounts(Blackhole bh) {
+        BigArrays bigArrays = bigArrays();
+        LongArray docCounts = bigArrays.newLongArray(1, true);
+        try {
+            for (long i = 0; i < LIMIT; i++) {
+                long ord = i % distinctValues;
+                docCounts = bigArrays.grow(docCounts, ord + 1);
+                docCounts.increment(ord, 1);
+            }
+            bh.consume(docCounts.get(0));
+        } finally {
+            Releasables.close(docCounts);
+            closeRequest(bigArrays);
+        }
+    }
+}
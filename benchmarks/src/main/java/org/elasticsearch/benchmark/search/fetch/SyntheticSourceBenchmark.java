@@ -0,0 +1,227 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.search.fetch;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterModule;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.analysis.AnalyzerScope;
+import org.elasticsearch.index.analysis.IndexAnalyzers;
+import org.elasticsearch.index.analysis.NamedAnalyzer;
+import org.elasticsearch.index.fieldvisitor.FieldsVisitor;
+import org.elasticsearch.index.mapper.MapperRegistry;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.ProvidedIdFieldMapper;
+import org.elasticsearch.index.mapper.SourceToParse;
+import org.elasticsearch.index.mapper.SyntheticSourceLoader;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.similarity.SimilarityService;
+import org.elasticsearch.indices.IndicesModule;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptCompiler;
+import org.elasticsearch.script.ScriptContext;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+import org.elasticsearch.xcontent.XContentType;
+import org.elasticsearch.xcontent.json.JsonXContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading the {@code _source} of a page of hits from stored fields with rebuilding it from doc values for a
+ * metrics-like mapping where every field is a keyword, a number or a date.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SyntheticSourceBenchmark {
+
+    private static final int DOCS = 100_000;
+
+    private static final int DIMENSIONS = 4;
+
+    /**
+     * The number of hits to load, in doc id order like the fetch phase does.
+     */
+    @Param({ "10", "100", "1000" })
+    public int hits;
+
+    @Param({ "10", "50" })
+    public int metrics;
+
+    private Directory storedDirectory;
+    private DirectoryReader storedReader;
+    private Directory syntheticDirectory;
+    private DirectoryReader syntheticReader;
+    private SyntheticSourceLoader syntheticSourceLoader;
+    private int[] docs;
+
+    @Setup
+    public void setup() throws IOException {
+        MapperService stored = createMapperService(mapping(false));
+        MapperService synthetic = createMapperService(mapping(true));
+        storedDirectory = new ByteBuffersDirectory();
+        syntheticDirectory = new ByteBuffersDirectory();
+        Random random = new Random(0);
+        try (
+            IndexWriter storedWriter = new IndexWriter(storedDirectory, new IndexWriterConfig(IndexShard.buildIndexAnalyzer(stored)));
+            IndexWriter syntheticWriter = new IndexWriter(
+                syntheticDirectory,
+                new IndexWriterConfig(IndexShard.buildIndexAnalyzer(synthetic))
+            )
+        ) {
+            for (int i = 0; i < DOCS; i++) {
+                SourceToParse source = new SourceToParse(Integer.toString(i), doc(random, i), XContentType.JSON);
+                storedWriter.addDocument(stored.documentMapper().parse(source).rootDoc());
+                syntheticWriter.addDocument(synthetic.documentMapper().parse(source).rootDoc());
+            }
+            storedWriter.forceMerge(1);
+            syntheticWriter.forceMerge(1);
+        }
+        storedReader = DirectoryReader.open(storedDirectory);
+        syntheticReader = DirectoryReader.open(syntheticDirectory);
+        syntheticSourceLoader = SyntheticSourceLoader.build(synthetic.mappingLookup());
+
+        docs = random.ints(0, DOCS).distinct().limit(hits).sorted().toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        IOUtils.closeWhileHandlingException(storedReader, storedDirectory, syntheticReader, syntheticDirectory);
+    }
+
+    @Benchmark
+    public void storedSource(Blackhole bh) throws IOException {
+        LeafReader reader = storedReader.leaves().get(0).reader();
+        for (int doc : docs) {
+            FieldsVisitor visitor = new FieldsVisitor(true);
+            reader.document(doc, visitor);
+            bh.consume(visitor.source());
+        }
+    }
+
+    @Benchmark
+    public void syntheticSource(Blackhole bh) throws IOException {
+        SyntheticSourceLoader.Leaf leaf = syntheticSourceLoader.leaf(syntheticReader.leaves().get(0).reader());
+        for (int doc : docs) {
+            bh.consume(leaf.source(doc));
+        }
+    }
+
+    private String mapping(boolean synthetic) throws IOException {
+        XContentBuilder b = JsonXContent.contentBuilder().startObject().startObject("_doc");
+        if (synthetic) {
+            b.startObject("_source").field("synthetic", true).endObject();
+        }
+        b.startObject("properties");
+        b.startObject("@timestamp").field("type", "date").endObject();
+        for (int d = 0; d < DIMENSIONS; d++) {
+            b.startObject("dim" + d).field("type", "keyword").endObject();
+        }
+        b.startObject("metrics").startObject("properties");
+        for (int m = 0; m < metrics; m++) {
+            b.startObject("m" + m).field("type", m % 2 == 0 ? "double" : "long").endObject();
+        }
+        b.endObject().endObject();
+        b.endObject();
+        return BytesReference.bytes(b.endObject().endObject()).utf8ToString();
+    }
+
+    private BytesReference doc(Random random, int i) throws IOException {
+        XContentBuilder b = JsonXContent.contentBuilder().startObject();
+        b.field("@timestamp", 1_650_000_000_000L + i * 1000L);
+        for (int d = 0; d < DIMENSIONS; d++) {
+            b.field("dim" + d, "value-" + random.nextInt(100));
+        }
+        b.startObject("metrics");
+        for (int m = 0; m < metrics; m++) {
+            if (m % 2 == 0) {
+                b.field("m" + m, random.nextDouble() * 100);
+            } else {
+                b.field("m" + m, random.nextInt(1_000_000));
+            }
+        }
+        b.endObject();
+        return BytesReference.bytes(b.endObject());
+    }
+
+    private static MapperService createMapperService(String mappings) {
+        Settings settings = Settings.builder()
+            .put("index.number_of_replicas", 0)
+            .put("index.number_of_shards", 1)
+            .put("index.version.created", Version.CURRENT)
+            .build();
+        IndexMetadata meta = IndexMetadata.builder("index").settings(settings).build();
+        IndexSettings indexSettings = new IndexSettings(meta, settings);
+        MapperRegistry mapperRegistry = new IndicesModule(Collections.emptyList()).getMapperRegistry();
+
+        SimilarityService similarityService = new SimilarityService(indexSettings, null, Map.of());
+        MapperService mapperService = new MapperService(
+            indexSettings,
+            new IndexAnalyzers(
+                Map.of("default", new NamedAnalyzer("default", AnalyzerScope.INDEX, new StandardAnalyzer())),
+                Map.of(),
+                Map.of()
+            ),
+            XContentParserConfiguration.EMPTY.withRegistry(new NamedXContentRegistry(ClusterModule.getNamedXWriteables()))
+                .withDeprecationHandler(LoggingDeprecationHandler.INSTANCE),
+            similarityService,
+            mapperRegistry,
+            () -> { throw new UnsupportedOperationException(); },
+            new ProvidedIdFieldMapper(() -> true),
+            new ScriptCompiler() {
+                @Override
+                public <T> T compile(Script script, ScriptContext<T> scriptContext) {
+                    throw new UnsupportedOperationException();
+                }
+            }
+        );
+        try {
+            mapperService.merge("_doc", new CompressedXContent(mappings), MapperService.MergeReason.MAPPING_UPDATE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return mapperService;
+    }
+}
@@ -275,23 +275,30 @@ public final class DefBootstrap {
     }
 
     /**
-     * CallSite that implements the monomorphic inlining cache (for operators).
+     * CallSite that implements the inlining cache for operators.
+     * <p>
+     * Each combination of operand types seen at the call site gets a specialized handle behind a guard on those types. Scripts
+     * usually see one combination, but the call site is shared by every execution of the compiled script, so for example
+     * {@code doc['field'].value * params.factor} sees a different combination whenever a request passes an integer factor
+     * instead of a double. Once more than {@code MAX_DEPTH} combinations are seen we give up and switch to the generic, slower,
+     * operator handling for good.
      */
     static final class MIC extends MutableCallSite {
-        private boolean initialized;
+        /** maximum number of operand type combinations before we go generic */
+        static final int MAX_DEPTH = 3;
 
         private final String name;
         private final int flavor;
         private final int flags;
+        int depth; // pkg-protected for testing
 
         MIC(String name, MethodType type, int initialDepth, int flavor, int flags) {
             super(type);
             this.name = name;
             this.flavor = flavor;
             this.flags = flags;
-            if (initialDepth > 0) {
-                initialized = true;
-            }
+            // a positive initial depth means the call site should go straight to the generic implementation
+            this.depth = initialDepth > 0 ? MAX_DEPTH : 0;
 
             MethodHandle fallback = FALLBACK.bindTo(this).asCollector(Object[].class, type.parameterCount()).asType(type);
 
@@ -343,12 +350,12 @@ public final class DefBootstrap {
         }
 
         /**
-         * Called when a new type is encountered or if cached type does not match.
-         * In that case we revert to a generic, but slower operator handling.
+         * Called when a new type is encountered or if none of the cached types match.
+         * If we have seen too many types we revert to a generic, but slower operator handling.
          */
         @SuppressForbidden(reason = "slow path")
         Object fallback(Object[] args) throws Throwable {
-            if (initialized) {
+            if (depth >= MAX_DEPTH) {
                 // caching defeated
                 MethodHandle generic = lookupGeneric();
                 setTarget(generic.asType(type()));
@@ -402,7 +409,7 @@ public final class DefBootstrap {
                 guard = MethodHandles.catchException(guard, NullPointerException.class, handler);
             }
 
-            initialized = true;
+            depth++;
 
             setTarget(guard);
             return target.invokeWithArguments(args);
@@ -149,6 +149,62 @@ public class DefBootstrapTests extends ESTestCase {
         );
     }
 
+    public void testOperatorTypes() throws Throwable {
+        DefBootstrap.MIC site = (DefBootstrap.MIC) DefBootstrap.bootstrap(
+            painlessLookup,
+            new FunctionTable(),
+            Collections.emptyMap(),
+            MethodHandles.publicLookup(),
+            "mul",
+            MethodType.methodType(Object.class, Object.class, Object.class),
+            0,
+            DefBootstrap.BINARY_OPERATOR,
+            0
+        );
+        MethodHandle handle = site.dynamicInvoker();
+        assertEquals(0, site.depth);
+
+        assertEquals(6L, (Object) handle.invokeExact((Object) 2L, (Object) 3L));
+        assertEquals(1, site.depth);
+        assertEquals(3.0d, (Object) handle.invokeExact((Object) 2L, (Object) 1.5d));
+        assertEquals(2, site.depth);
+
+        // both these should be cached
+        assertEquals(8L, (Object) handle.invokeExact((Object) 4L, (Object) 2L));
+        assertEquals(2, site.depth);
+        assertEquals(2.0d, (Object) handle.invokeExact((Object) 4L, (Object) 0.5d));
+        assertEquals(2, site.depth);
+    }
+
+    public void testTooManyOperatorTypes() throws Throwable {
+        // if this changes, test must be rewritten
+        assertEquals(3, DefBootstrap.MIC.MAX_DEPTH);
+        DefBootstrap.MIC site = (DefBootstrap.MIC) DefBootstrap.bootstrap(
+            painlessLookup,
+            new FunctionTable(),
+            Collections.emptyMap(),
+            MethodHandles.publicLookup(),
+            "add",
+            MethodType.methodType(Object.class, Object.class, Object.class),
+            0,
+            DefBootstrap.BINARY_OPERATOR,
+            0
+        );
+        MethodHandle handle = site.dynamicInvoker();
+
+        assertEquals(2, (Object) handle.invokeExact((Object) 1, (Object) 1));
+        assertEquals(2L, (Object) handle.invokeExact((Object) 1L, (Object) 1L));
+        assertEquals(2.0d, (Object) handle.invokeExact((Object) 1.0d, (Object) 1.0d));
+        assertEquals(3, site.depth);
+
+        // generic from here on, but still correct for all the types
+        assertEquals(2.0f, (Object) handle.invokeExact((Object) 1.0f, (Object) 1.0f));
+        assertEquals(3, site.depth);
+        assertEquals(3, (Object) handle.invokeExact((Object) 1, (Object) 2));
+        assertEquals(3L, (Object) handle.invokeExact((Object) 1L, (Object) 2L));
+        assertEquals("ab", (Object) handle.invokeExact((Object) "a", (Object) "b"));
+    }
+
     // test operators with null guards
 
     public void testNullGuardAdd() throws Throwable {
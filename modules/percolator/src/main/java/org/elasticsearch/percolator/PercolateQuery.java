@@ -17,20 +17,31 @@ import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.SimpleCollector;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TwoPhaseIterator;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.Releasable;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 final class PercolateQuery extends Query implements Accountable {
@@ -45,6 +56,8 @@ final class PercolateQuery extends Query implements Accountable {
     private final Query verifiedMatchesQuery;
     private final IndexSearcher percolatorIndexSearcher;
     private final Query nonNestedDocsFilter;
+    private final boolean batch;
+    private final MatchedDocs matchedDocs;
 
     PercolateQuery(
         String name,
@@ -54,6 +67,28 @@ final class PercolateQuery extends Query implements Accountable {
         IndexSearcher percolatorIndexSearcher,
         Query nonNestedDocsFilter,
         Query verifiedMatchesQuery
+    ) {
+        this(
+            name,
+            queryStore,
+            documents,
+            candidateMatchesQuery,
+            percolatorIndexSearcher,
+            nonNestedDocsFilter,
+            verifiedMatchesQuery,
+            new MatchedDocs(MatchedDocs.DEFAULT_BUDGET_BYTES)
+        );
+    }
+
+    private PercolateQuery(
+        String name,
+        QueryStore queryStore,
+        List<BytesReference> documents,
+        Query candidateMatchesQuery,
+        IndexSearcher percolatorIndexSearcher,
+        Query nonNestedDocsFilter,
+        Query verifiedMatchesQuery,
+        MatchedDocs matchedDocs
     ) {
         this.name = name;
         this.documents = Objects.requireNonNull(documents);
@@ -62,6 +97,8 @@ final class PercolateQuery extends Query implements Accountable {
         this.percolatorIndexSearcher = Objects.requireNonNull(percolatorIndexSearcher);
         this.nonNestedDocsFilter = nonNestedDocsFilter;
         this.verifiedMatchesQuery = Objects.requireNonNull(verifiedMatchesQuery);
+        this.batch = percolatorIndexSearcher.getIndexReader().maxDoc() > 1;
+        this.matchedDocs = matchedDocs;
     }
 
     @Override
@@ -75,7 +112,8 @@ final class PercolateQuery extends Query implements Accountable {
                 rewritten,
                 percolatorIndexSearcher,
                 nonNestedDocsFilter,
-                verifiedMatchesQuery
+                verifiedMatchesQuery,
+                matchedDocs
             );
         } else {
             return this;
@@ -131,6 +169,16 @@ final class PercolateQuery extends Query implements Accountable {
                                         .add(nonNestedDocsFilter, Occur.FILTER)
                                         .build();
                                 }
+                                if (batch) {
+                                    MatchingDocsCollector collector = matchAllDocuments(
+                                        leafReaderContext,
+                                        docId,
+                                        query,
+                                        ScoreMode.COMPLETE
+                                    );
+                                    score = collector.maxScore;
+                                    return collector.size > 0;
+                                }
                                 TopDocs topDocs = percolatorIndexSearcher.search(query, 1);
                                 if (topDocs.scoreDocs.length > 0) {
                                     score = topDocs.scoreDocs[0].score;
@@ -174,6 +222,9 @@ final class PercolateQuery extends Query implements Accountable {
                             if (nonNestedDocsFilter != null) {
                                 query = new BooleanQuery.Builder().add(query, Occur.MUST).add(nonNestedDocsFilter, Occur.FILTER).build();
                             }
+                            if (batch) {
+                                return matchAllDocuments(leafReaderContext, docId, query, ScoreMode.COMPLETE_NO_SCORES).size > 0;
+                            }
                             return Lucene.exists(percolatorIndexSearcher, query);
                         }
                     };
@@ -189,6 +240,42 @@ final class PercolateQuery extends Query implements Accountable {
         };
     }
 
+    /**
+     * Run a stored query against every document being percolated rather than
+     * stopping at the first match, and remember the documents that it matched
+     * so the fetch phase can add them to the hit without running it again.
+     */
+    private MatchingDocsCollector matchAllDocuments(LeafReaderContext ctx, int docId, Query query, ScoreMode scoreMode)
+        throws IOException {
+        MatchingDocsCollector collector = new MatchingDocsCollector(scoreMode);
+        percolatorIndexSearcher.search(query, collector);
+        if (collector.size > 0) {
+            matchedDocs.add(ctx.docBase + docId, collector.docs());
+        }
+        return collector;
+    }
+
+    /**
+     * The ids of the documents being percolated that the stored query in the
+     * provided doc matched, in order, or {@code null} if we don't know them.
+     * We only know them if more than one document is being percolated, the
+     * query phase verified the stored query in this search context and they
+     * fit in the {@link MatchedDocs budget}, so they are available when the
+     * fetch phase runs with the query phase, on single shard searches.
+     * @param doc the top level doc id of the stored query
+     */
+    int[] getMatchedDocs(int doc) {
+        return matchedDocs.get(doc);
+    }
+
+    /**
+     * The documents matched by the stored queries that the query phase
+     * verified, shared by all rewrites of this query.
+     */
+    MatchedDocs matchedDocs() {
+        return matchedDocs;
+    }
+
     String getName() {
         return name;
     }
@@ -253,7 +340,131 @@ final class PercolateQuery extends Query implements Accountable {
         for (BytesReference document : documents) {
             ramUsed += document.ramBytesUsed();
         }
-        return ramUsed;
+        return ramUsed + matchedDocs.ramBytesUsed();
+    }
+
+    /**
+     * The documents that each stored query matched when the query phase ran
+     * it against all of the documents being percolated. They are kept up to a
+     * budget and, once the search hands us its request circuit breaker, they
+     * are accounted for on it. The stored queries whose matches aren't kept,
+     * because they didn't fit or the breaker tripped, are run again by the
+     * fetch phase.
+     */
+    static final class MatchedDocs implements Accountable, Releasable {
+        static final long DEFAULT_BUDGET_BYTES = ByteSizeUnit.MB.toBytes(1);
+        /**
+         * Rough size of a map entry with its boxed key, not counting the array.
+         */
+        private static final long ENTRY_BYTES = 64;
+
+        private final long budgetBytes;
+        private final Map<Integer, int[]> docs = new HashMap<>();
+        private CircuitBreaker breaker;
+        private long bytesUsed;
+        private boolean full;
+
+        MatchedDocs(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        /**
+         * Account for the kept documents on {@code breaker} from now on.
+         */
+        synchronized void setBreaker(CircuitBreaker breaker) {
+            if (this.breaker == null) {
+                this.breaker = breaker;
+                breaker.addWithoutBreaking(bytesUsed);
+            }
+        }
+
+        synchronized void add(int doc, int[] matched) {
+            if (full) {
+                return;
+            }
+            long bytes = ENTRY_BYTES + RamUsageEstimator.sizeOf(matched);
+            if (bytesUsed + bytes > budgetBytes) {
+                full = true;
+                return;
+            }
+            if (breaker != null) {
+                try {
+                    breaker.addEstimateBytesAndMaybeBreak(bytes, "<percolate_matched_docs>");
+                } catch (CircuitBreakingException e) {
+                    // the fetch phase can run the stored queries again
+                    full = true;
+                    return;
+                }
+            }
+            docs.put(doc, matched);
+            bytesUsed += bytes;
+        }
+
+        synchronized int[] get(int doc) {
+            return docs.get(doc);
+        }
+
+        @Override
+        public synchronized long ramBytesUsed() {
+            return bytesUsed;
+        }
+
+        /**
+         * Forget the kept documents and give their bytes back to the breaker.
+         */
+        @Override
+        public synchronized void close() {
+            if (breaker != null) {
+                breaker.addWithoutBreaking(-bytesUsed);
+            }
+            docs.clear();
+            bytesUsed = 0;
+            full = true;
+        }
+    }
+
+    /**
+     * Collects the ids of all documents being percolated that match a stored query.
+     */
+    private static final class MatchingDocsCollector extends SimpleCollector {
+        private final ScoreMode scoreMode;
+        private Scorable scorer;
+        private int docBase;
+        private int[] docs = new int[1];
+        private int size;
+        private float maxScore;
+
+        MatchingDocsCollector(ScoreMode scoreMode) {
+            this.scoreMode = scoreMode;
+        }
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) {
+            docBase = context.docBase;
+        }
+
+        @Override
+        public void setScorer(Scorable scorer) {
+            this.scorer = scorer;
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            docs = ArrayUtil.grow(docs, size + 1);
+            docs[size++] = docBase + doc;
+            if (scoreMode.needsScores()) {
+                maxScore = size == 1 ? scorer.score() : Math.max(maxScore, scorer.score());
+            }
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return scoreMode;
+        }
+
+        int[] docs() {
+            return Arrays.copyOf(docs, size);
+        }
     }
 
     @FunctionalInterface
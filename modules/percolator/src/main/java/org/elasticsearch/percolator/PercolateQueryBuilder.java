@@ -39,7 +39,6 @@ import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.InputStreamStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
-import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.logging.DeprecationLogger;
@@ -51,6 +50,7 @@ import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.mapper.LuceneDocument;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.MappingLookup;
 import org.elasticsearch.index.mapper.NestedLookup;
 import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.index.mapper.SourceToParse;
@@ -62,6 +62,7 @@ import org.elasticsearch.index.query.Rewriteable;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.search.lookup.SearchLookup;
 import org.elasticsearch.xcontent.ConstructingObjectParser;
 import org.elasticsearch.xcontent.NamedXContentRegistry;
 import org.elasticsearch.xcontent.ParseField;
@@ -531,10 +532,14 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
 
         PercolatorFieldMapper.PercolatorFieldType pft = (PercolatorFieldMapper.PercolatorFieldType) fieldType;
         String queryName = this.name != null ? this.name : pft.name();
-        SearchExecutionContext percolateShardContext = wrap(context);
-        PercolatorFieldMapper.configureContext(percolateShardContext, pft.mapUnmappedFieldsAsText);
-        ;
-        PercolateQuery.QueryStore queryStore = createStore(pft.queryBuilderField, percolateShardContext);
+        Supplier<PercolateSearchExecutionContext> percolateShardContext = () -> {
+            PercolateSearchExecutionContext percolateContext = wrap(context);
+            PercolatorFieldMapper.configureContext(percolateContext, pft.mapUnmappedFieldsAsText);
+            return percolateContext;
+        };
+        PercolateQuery.QueryStore queryStore = pft.queryCache == null || context.hasRequestScopedFields()
+            ? createStore(pft.queryBuilderField, percolateShardContext.get())
+            : createCachingStore(pft.queryBuilderField, context.mappingCacheKey(), pft.queryCache, percolateShardContext);
 
         return pft.percolateQuery(queryName, queryStore, documents, docSearcher, excludeNestedDocuments, context.indexVersionCreated());
     }
@@ -574,8 +579,6 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
     }
 
     static PercolateQuery.QueryStore createStore(MappedFieldType queryBuilderFieldType, SearchExecutionContext context) {
-        Version indexVersion = context.indexVersionCreated();
-        NamedWriteableRegistry registry = context.getWriteableRegistry();
         return ctx -> {
             LeafReader leafReader = ctx.reader();
             BinaryDocValues binaryDocValues = leafReader.getBinaryDocValues(queryBuilderFieldType.name());
@@ -584,29 +587,7 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
             }
             return docId -> {
                 if (binaryDocValues.advanceExact(docId)) {
-                    BytesRef qbSource = binaryDocValues.binaryValue();
-                    try (InputStream in = new ByteArrayInputStream(qbSource.bytes, qbSource.offset, qbSource.length)) {
-                        try (
-                            StreamInput input = new NamedWriteableAwareStreamInput(
-                                new InputStreamStreamInput(in, qbSource.length),
-                                registry
-                            )
-                        ) {
-                            input.setVersion(indexVersion);
-                            // Query builder's content is stored via BinaryFieldMapper, which has a custom encoding
-                            // to encode multiple binary values into a single binary doc values field.
-                            // This is the reason we need to first need to read the number of values and
-                            // then the length of the field value in bytes.
-                            int numValues = input.readVInt();
-                            assert numValues == 1;
-                            int valueLength = input.readVInt();
-                            assert valueLength > 0;
-                            QueryBuilder queryBuilder = input.readNamedWriteable(QueryBuilder.class);
-                            assert in.read() == -1;
-                            queryBuilder = Rewriteable.rewrite(queryBuilder, context);
-                            return queryBuilder.toQuery(context);
-                        }
-                    }
+                    return parseQuery(binaryDocValues.binaryValue(), context);
                 } else {
                     return null;
                 }
@@ -614,42 +595,122 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
         };
     }
 
-    static SearchExecutionContext wrap(SearchExecutionContext delegate) {
-        return new SearchExecutionContext(delegate) {
-
-            @Override
-            public IndexReader getIndexReader() {
-                // The reader that matters in this context is not the reader of the shard but
-                // the reader of the MemoryIndex. We just use `null` for simplicity.
-                return null;
+    /**
+     * Like {@link #createStore} but checks the {@link PercolatorQueryCache} before
+     * parsing a query. Each query is parsed with a fresh context so we can tell if
+     * parsing it used anything that could change between requests, like {@code now}
+     * or the doc values of the documents being percolated. Those queries aren't cached.
+     */
+    static PercolateQuery.QueryStore createCachingStore(
+        MappedFieldType queryBuilderFieldType,
+        MappingLookup.CacheKey mappingCacheKey,
+        PercolatorQueryCache queryCache,
+        Supplier<PercolateSearchExecutionContext> contextSupplier
+    ) {
+        return ctx -> {
+            LeafReader leafReader = ctx.reader();
+            BinaryDocValues binaryDocValues = leafReader.getBinaryDocValues(queryBuilderFieldType.name());
+            if (binaryDocValues == null) {
+                return docId -> null;
             }
+            return queryCache.leafStore(leafReader, queryBuilderFieldType.name(), mappingCacheKey, docId -> {
+                if (binaryDocValues.advanceExact(docId)) {
+                    PercolateSearchExecutionContext context = contextSupplier.get();
+                    Query query = parseQuery(binaryDocValues.binaryValue(), context);
+                    return new PercolatorQueryCache.LoadedQuery(query, context.isQueryCacheable());
+                } else {
+                    return null;
+                }
+            });
+        };
+    }
 
-            @Override
-            public BitSetProducer bitsetFilter(Query query) {
-                return context -> {
-                    final IndexReaderContext topLevelContext = ReaderUtil.getTopLevelContext(context);
-                    final IndexSearcher searcher = new IndexSearcher(topLevelContext);
-                    searcher.setQueryCache(null);
-                    final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
-                    final Scorer s = weight.scorer(context);
-
-                    if (s != null) {
-                        return new BitDocIdSet(BitSet.of(s.iterator(), context.reader().maxDoc())).bits();
-                    } else {
-                        return null;
-                    }
-                };
+    private static Query parseQuery(BytesRef qbSource, SearchExecutionContext context) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(qbSource.bytes, qbSource.offset, qbSource.length)) {
+            try (
+                StreamInput input = new NamedWriteableAwareStreamInput(
+                    new InputStreamStreamInput(in, qbSource.length),
+                    context.getWriteableRegistry()
+                )
+            ) {
+                input.setVersion(context.indexVersionCreated());
+                // Query builder's content is stored via BinaryFieldMapper, which has a custom encoding
+                // to encode multiple binary values into a single binary doc values field.
+                // This is the reason we need to first need to read the number of values and
+                // then the length of the field value in bytes.
+                int numValues = input.readVInt();
+                assert numValues == 1;
+                int valueLength = input.readVInt();
+                assert valueLength > 0;
+                QueryBuilder queryBuilder = input.readNamedWriteable(QueryBuilder.class);
+                assert in.read() == -1;
+                queryBuilder = Rewriteable.rewrite(queryBuilder, context);
+                return queryBuilder.toQuery(context);
             }
+        }
+    }
 
-            @Override
-            @SuppressWarnings("unchecked")
-            public <IFD extends IndexFieldData<?>> IFD getForField(MappedFieldType fieldType) {
-                IndexFieldData.Builder builder = fieldType.fielddataBuilder(delegate.getFullyQualifiedIndex().getName(), delegate::lookup);
-                IndexFieldDataCache cache = new IndexFieldDataCache.None();
-                CircuitBreakerService circuitBreaker = new NoneCircuitBreakerService();
-                return (IFD) builder.build(cache, circuitBreaker);
-            }
-        };
+    static PercolateSearchExecutionContext wrap(SearchExecutionContext delegate) {
+        return new PercolateSearchExecutionContext(delegate);
+    }
+
+    static final class PercolateSearchExecutionContext extends SearchExecutionContext {
+        private final SearchExecutionContext delegate;
+        private boolean usedSearchLookup;
+
+        private PercolateSearchExecutionContext(SearchExecutionContext delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public IndexReader getIndexReader() {
+            // The reader that matters in this context is not the reader of the shard but
+            // the reader of the MemoryIndex. We just use `null` for simplicity.
+            return null;
+        }
+
+        @Override
+        public BitSetProducer bitsetFilter(Query query) {
+            return context -> {
+                final IndexReaderContext topLevelContext = ReaderUtil.getTopLevelContext(context);
+                final IndexSearcher searcher = new IndexSearcher(topLevelContext);
+                searcher.setQueryCache(null);
+                final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+                final Scorer s = weight.scorer(context);
+
+                if (s != null) {
+                    return new BitDocIdSet(BitSet.of(s.iterator(), context.reader().maxDoc())).bits();
+                } else {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <IFD extends IndexFieldData<?>> IFD getForField(MappedFieldType fieldType) {
+            usedSearchLookup = true;
+            IndexFieldData.Builder builder = fieldType.fielddataBuilder(delegate.getFullyQualifiedIndex().getName(), delegate::lookup);
+            IndexFieldDataCache cache = new IndexFieldDataCache.None();
+            CircuitBreakerService circuitBreaker = new NoneCircuitBreakerService();
+            return (IFD) builder.build(cache, circuitBreaker);
+        }
+
+        @Override
+        public SearchLookup lookup() {
+            usedSearchLookup = true;
+            return super.lookup();
+        }
+
+        /**
+         * Can queries parsed with this context be reused by other requests? They can't
+         * if they use {@code now} or non-deterministic scripts, or if they hold on to
+         * field data or a {@link SearchLookup} because those are bound to this request.
+         */
+        boolean isQueryCacheable() {
+            return isCacheable() && usedSearchLookup == false;
+        }
     }
 
     @Override
@@ -38,6 +38,7 @@ import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.mapper.BinaryFieldMapper;
 import org.elasticsearch.index.mapper.DocumentParserContext;
@@ -103,7 +104,7 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     @Override
     public FieldMapper.Builder getMergeBuilder() {
-        return new Builder(simpleName(), searchExecutionContext, mapUnmappedFieldsAsText, indexCreatedVersion).init(this);
+        return new Builder(simpleName(), searchExecutionContext, mapUnmappedFieldsAsText, indexCreatedVersion, queryCache).init(this);
     }
 
     static class Builder extends FieldMapper.Builder {
@@ -114,17 +115,20 @@ public class PercolatorFieldMapper extends FieldMapper {
         private final boolean mapUnmappedFieldsAsText;
 
         private final Version indexCreatedVersion;
+        private final PercolatorQueryCache queryCache;
 
         Builder(
             String fieldName,
             Supplier<SearchExecutionContext> searchExecutionContext,
             boolean mapUnmappedFieldsAsText,
-            Version indexCreatedVersion
+            Version indexCreatedVersion,
+            @Nullable PercolatorQueryCache queryCache
         ) {
             super(fieldName);
             this.searchExecutionContext = searchExecutionContext;
             this.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
             this.indexCreatedVersion = Objects.requireNonNull(indexCreatedVersion);
+            this.queryCache = queryCache;
         }
 
         @Override
@@ -159,6 +163,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             NumberFieldMapper minimumShouldMatchFieldMapper = createMinimumShouldMatchField(context, indexCreatedVersion);
             fieldType.minimumShouldMatchField = minimumShouldMatchFieldMapper.fieldType();
             fieldType.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
+            fieldType.queryCache = queryCache;
 
             return new PercolatorFieldMapper(
                 name(),
@@ -172,7 +177,8 @@ public class PercolatorFieldMapper extends FieldMapper {
                 rangeFieldMapper,
                 minimumShouldMatchFieldMapper,
                 mapUnmappedFieldsAsText,
-                indexCreatedVersion
+                indexCreatedVersion,
+                queryCache
             );
         }
 
@@ -206,6 +212,11 @@ public class PercolatorFieldMapper extends FieldMapper {
     }
 
     static class TypeParser implements Mapper.TypeParser {
+        private final PercolatorQueryCache queryCache;
+
+        TypeParser(@Nullable PercolatorQueryCache queryCache) {
+            this.queryCache = queryCache;
+        }
 
         @Override
         public Builder parse(String name, Map<String, Object> node, MappingParserContext parserContext) throws MapperParsingException {
@@ -213,7 +224,8 @@ public class PercolatorFieldMapper extends FieldMapper {
                 name,
                 parserContext.searchExecutionContext(),
                 getMapUnmappedFieldAsText(parserContext.getSettings()),
-                parserContext.indexVersionCreated()
+                parserContext.indexVersionCreated(),
+                queryCache
             );
         }
     }
@@ -231,6 +243,7 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         RangeFieldMapper.RangeFieldType rangeField;
         boolean mapUnmappedFieldsAsText;
+        PercolatorQueryCache queryCache;
 
         private PercolatorFieldType(String name, Map<String, String> meta) {
             super(name, false, false, false, TextSearchInfo.NONE, meta);
@@ -361,6 +374,7 @@ public class PercolatorFieldMapper extends FieldMapper {
     private final RangeFieldMapper rangeFieldMapper;
     private final boolean mapUnmappedFieldsAsText;
     private final Version indexCreatedVersion;
+    private final PercolatorQueryCache queryCache;
 
     PercolatorFieldMapper(
         String simpleName,
@@ -374,7 +388,8 @@ public class PercolatorFieldMapper extends FieldMapper {
         RangeFieldMapper rangeFieldMapper,
         NumberFieldMapper minimumShouldMatchFieldMapper,
         boolean mapUnmappedFieldsAsText,
-        Version indexCreatedVersion
+        Version indexCreatedVersion,
+        PercolatorQueryCache queryCache
     ) {
         super(simpleName, mappedFieldType, multiFields, copyTo);
         this.searchExecutionContext = searchExecutionContext;
@@ -385,6 +400,7 @@ public class PercolatorFieldMapper extends FieldMapper {
         this.rangeFieldMapper = rangeFieldMapper;
         this.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
         this.indexCreatedVersion = indexCreatedVersion;
+        this.queryCache = queryCache;
     }
 
     @Override
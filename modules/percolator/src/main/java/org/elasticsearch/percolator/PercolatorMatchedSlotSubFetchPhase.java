@@ -70,22 +70,28 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
             public void process(HitContext hitContext) throws IOException {
                 for (PercolateContext pc : percolateContexts) {
                     String fieldName = pc.fieldName();
-                    Query query = pc.percolateQuery.getQueryStore().getQueries(ctx).apply(hitContext.docId());
-                    if (query == null) {
-                        // This is not a document with a percolator field.
-                        continue;
+                    IntStream slots;
+                    int[] matchedDocs = pc.percolateQuery.getMatchedDocs(ctx.docBase + hitContext.docId());
+                    if (matchedDocs != null) {
+                        // The query phase already ran the query against all the documents
+                        slots = convertDocsToSlots(Arrays.stream(matchedDocs), pc.rootDocsBySlot);
+                    } else {
+                        Query query = pc.percolateQuery.getQueryStore().getQueries(ctx).apply(hitContext.docId());
+                        if (query == null) {
+                            // This is not a document with a percolator field.
+                            continue;
+                        }
+                        query = pc.filterNestedDocs(query);
+                        IndexSearcher percolatorIndexSearcher = pc.percolateQuery.getPercolatorIndexSearcher();
+                        int memoryIndexMaxDoc = percolatorIndexSearcher.getIndexReader().maxDoc();
+                        TopDocs topDocs = percolatorIndexSearcher.search(query, memoryIndexMaxDoc, new Sort(SortField.FIELD_DOC));
+                        if (topDocs.totalHits.value == 0) {
+                            // This hit didn't match with a percolate query,
+                            // likely to happen when percolating multiple documents
+                            continue;
+                        }
+                        slots = convertTopDocsToSlots(topDocs, pc.rootDocsBySlot);
                     }
-                    query = pc.filterNestedDocs(query);
-                    IndexSearcher percolatorIndexSearcher = pc.percolateQuery.getPercolatorIndexSearcher();
-                    int memoryIndexMaxDoc = percolatorIndexSearcher.getIndexReader().maxDoc();
-                    TopDocs topDocs = percolatorIndexSearcher.search(query, memoryIndexMaxDoc, new Sort(SortField.FIELD_DOC));
-                    if (topDocs.totalHits.value == 0) {
-                        // This hit didn't match with a percolate query,
-                        // likely to happen when percolating multiple documents
-                        continue;
-                    }
-
-                    IntStream slots = convertTopDocsToSlots(topDocs, pc.rootDocsBySlot);
                     // _percolator_document_slot fields are document fields and should be under "fields" section in a hit
                     hitContext.hit().setDocumentField(fieldName, new DocumentField(fieldName, slots.boxed().collect(Collectors.toList())));
                 }
@@ -131,11 +137,14 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
     }
 
     static IntStream convertTopDocsToSlots(TopDocs topDocs, int[] rootDocsBySlot) {
-        IntStream stream = Arrays.stream(topDocs.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc);
+        return convertDocsToSlots(Arrays.stream(topDocs.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc), rootDocsBySlot);
+    }
+
+    static IntStream convertDocsToSlots(IntStream docs, int[] rootDocsBySlot) {
         if (rootDocsBySlot != null) {
-            stream = stream.map(docId -> Arrays.binarySearch(rootDocsBySlot, docId));
+            return docs.map(docId -> Arrays.binarySearch(rootDocsBySlot, docId));
         }
-        return stream;
+        return docs;
     }
 
     static int[] buildRootDocsSlots(BitSet rootDocs) {
@@ -8,21 +8,100 @@
 
 package org.elasticsearch.percolator;
 
+import org.apache.lucene.util.SetOnce;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.client.internal.Client;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.IndexScopedSettings;
 import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.settings.SettingsFilter;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.index.IndexModule;
+import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.mapper.Mapper;
+import org.elasticsearch.index.shard.IndexEventListener;
+import org.elasticsearch.index.shard.SearchOperationListener;
+import org.elasticsearch.plugins.ActionPlugin;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.SearchPlugin;
+import org.elasticsearch.repositories.RepositoriesService;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestHandler;
+import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.search.fetch.FetchSubPhase;
+import org.elasticsearch.search.internal.SearchContext;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.watcher.ResourceWatcherService;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 
-public class PercolatorPlugin extends Plugin implements MapperPlugin, SearchPlugin {
+public class PercolatorPlugin extends Plugin implements MapperPlugin, SearchPlugin, ActionPlugin {
+    private final PercolatorQueryCache queryCache;
+
+    public PercolatorPlugin(Settings settings) {
+        this.queryCache = new PercolatorQueryCache(settings);
+    }
+
+    @Override
+    public Collection<Object> createComponents(
+        Client client,
+        ClusterService clusterService,
+        ThreadPool threadPool,
+        ResourceWatcherService resourceWatcherService,
+        ScriptService scriptService,
+        NamedXContentRegistry xContentRegistry,
+        Environment environment,
+        NodeEnvironment nodeEnvironment,
+        NamedWriteableRegistry namedWriteableRegistry,
+        IndexNameExpressionResolver indexNameExpressionResolver,
+        Supplier<RepositoriesService> repositoriesServiceSupplier
+    ) {
+        return List.of(queryCache);
+    }
+
+    @Override
+    public void onIndexModule(IndexModule indexModule) {
+        SetOnce<CircuitBreaker> requestBreaker = new SetOnce<>();
+        indexModule.addIndexEventListener(new IndexEventListener() {
+            @Override
+            public void afterIndexCreated(IndexService indexService) {
+                requestBreaker.set(indexService.getBigArrays().breakerService().getBreaker(CircuitBreaker.REQUEST));
+            }
+        });
+        indexModule.addSearchOperationListener(new SearchOperationListener() {
+            @Override
+            public void onPreQueryPhase(SearchContext searchContext) {
+                CircuitBreaker breaker = requestBreaker.get();
+                if (breaker == null) {
+                    return;
+                }
+                // account for the matches that the query phase keeps for the fetch phase until the search is done
+                for (PercolateQuery query : PercolatorHighlightSubFetchPhase.locatePercolatorQuery(searchContext.query())) {
+                    PercolateQuery.MatchedDocs matchedDocs = query.matchedDocs();
+                    matchedDocs.setBreaker(breaker);
+                    searchContext.addReleasable(matchedDocs);
+                }
+            }
+        });
+    }
+
     @Override
     public List<QuerySpec<?>> getQueries() {
         return singletonList(new QuerySpec<>(PercolateQueryBuilder.NAME, PercolateQueryBuilder::new, PercolateQueryBuilder::fromXContent));
@@ -35,12 +114,29 @@ public class PercolatorPlugin extends Plugin implements MapperPlugin, SearchPlug
 
     @Override
     public List<Setting<?>> getSettings() {
-        return Arrays.asList(PercolatorFieldMapper.INDEX_MAP_UNMAPPED_FIELDS_AS_TEXT_SETTING);
+        return Arrays.asList(PercolatorFieldMapper.INDEX_MAP_UNMAPPED_FIELDS_AS_TEXT_SETTING, PercolatorQueryCache.SIZE_SETTING);
     }
 
     @Override
     public Map<String, Mapper.TypeParser> getMappers() {
-        return singletonMap(PercolatorFieldMapper.CONTENT_TYPE, new PercolatorFieldMapper.TypeParser());
+        return singletonMap(PercolatorFieldMapper.CONTENT_TYPE, new PercolatorFieldMapper.TypeParser(queryCache));
     }
 
+    @Override
+    public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+        return List.of(new ActionHandler<>(PercolatorQueryCacheStatsAction.INSTANCE, PercolatorQueryCacheStatsTransportAction.class));
+    }
+
+    @Override
+    public List<RestHandler> getRestHandlers(
+        Settings settings,
+        RestController restController,
+        ClusterSettings clusterSettings,
+        IndexScopedSettings indexScopedSettings,
+        SettingsFilter settingsFilter,
+        IndexNameExpressionResolver indexNameExpressionResolver,
+        Supplier<DiscoveryNodes> nodesInCluster
+    ) {
+        return List.of(new RestPercolatorQueryCacheStatsAction());
+    }
 }
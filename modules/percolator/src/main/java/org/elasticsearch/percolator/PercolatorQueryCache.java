@@ -0,0 +1,204 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.index.mapper.MappingLookup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Node level cache of the {@link Query}s parsed from the queries stored in
+ * percolator fields. Parsing the stored queries is most of the work in a percolate
+ * request and the stored queries rarely change so this saves most of it. Entries
+ * are keyed on the segment core, doc id, field and mapping. They are weighed by an
+ * estimate of the memory that the query uses and are dropped when their segment is
+ * closed, usually because it was merged away.
+ */
+public class PercolatorQueryCache {
+    public static final Setting<ByteSizeValue> SIZE_SETTING = Setting.memorySizeSetting(
+        "percolator.query_cache.size",
+        "1%",
+        Setting.Property.NodeScope
+    );
+
+    private static final long TERM_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Term.class)
+        + RamUsageEstimator.shallowSizeOfInstance(BytesRef.class);
+
+    private final Cache<Key, Query> cache;
+    /**
+     * The keys cached for each open segment core, so closing a core only has to
+     * look at its own entries.
+     */
+    private final Map<IndexReader.CacheKey, Set<Key>> keysByCore = ConcurrentCollections.newConcurrentMap();
+    private final CounterMetric uncacheable = new CounterMetric();
+    private final boolean enabled;
+
+    public PercolatorQueryCache(Settings settings) {
+        long sizeInBytes = SIZE_SETTING.get(settings).getBytes();
+        this.enabled = sizeInBytes > 0;
+        this.cache = CacheBuilder.<Key, Query>builder()
+            .setMaximumWeight(sizeInBytes)
+            .weigher((key, query) -> Key.RAM_BYTES_USED + ramBytesUsed(query))
+            .removalListener(notification -> {
+                Set<Key> keys = keysByCore.get(notification.getKey().coreKey());
+                if (keys != null) {
+                    keys.remove(notification.getKey());
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Loads the query for a doc, saying if it may be cached.
+     */
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * Load the query for a doc or return {@code null} if the doc doesn't have one.
+         */
+        LoadedQuery load(int docId) throws IOException;
+    }
+
+    /**
+     * A freshly parsed query and whether it parses the same way for all requests.
+     */
+    record LoadedQuery(Query query, boolean cacheable) {}
+
+    /**
+     * Wrap a {@link Loader} for one segment so it checks this cache first.
+     */
+    CheckedFunction<Integer, Query, IOException> leafStore(
+        LeafReader reader,
+        String field,
+        MappingLookup.CacheKey mappingKey,
+        Loader loader
+    ) {
+        IndexReader.CacheHelper cacheHelper = reader.getCoreCacheHelper();
+        if (enabled == false || cacheHelper == null) {
+            return docId -> {
+                LoadedQuery loaded = loader.load(docId);
+                return loaded == null ? null : loaded.query();
+            };
+        }
+        IndexReader.CacheKey coreKey = cacheHelper.getKey();
+        Set<Key> coreKeys = keysByCore.get(coreKey);
+        if (coreKeys == null) {
+            Set<Key> newKeys = ConcurrentCollections.newConcurrentSet();
+            coreKeys = keysByCore.putIfAbsent(coreKey, newKeys);
+            if (coreKeys == null) {
+                coreKeys = newKeys;
+                cacheHelper.addClosedListener(this::onClose);
+            }
+        }
+        Set<Key> keys = coreKeys;
+        return docId -> {
+            Key key = new Key(coreKey, docId, field, mappingKey);
+            Query query = cache.get(key);
+            if (query != null) {
+                return query;
+            }
+            LoadedQuery loaded = loader.load(docId);
+            if (loaded == null) {
+                return null;
+            }
+            if (loaded.cacheable()) {
+                // put first because replacing an entry removes its key
+                cache.put(key, loaded.query());
+                keys.add(key);
+            } else {
+                uncacheable.inc();
+            }
+            return loaded.query();
+        };
+    }
+
+    private void onClose(IndexReader.CacheKey coreKey) {
+        Set<Key> keys = keysByCore.remove(coreKey);
+        if (keys != null) {
+            for (Key key : keys) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    public PercolatorQueryCacheStats stats() {
+        Cache.CacheStats stats = cache.stats();
+        return new PercolatorQueryCacheStats(
+            cache.weight(),
+            cache.count(),
+            stats.getHits(),
+            stats.getMisses(),
+            stats.getEvictions(),
+            uncacheable.count()
+        );
+    }
+
+    /**
+     * Estimate the memory used by a query. Most of Lucene's queries aren't
+     * {@link Accountable} so we add up the clauses and the bytes in their terms.
+     */
+    static long ramBytesUsed(Query query) {
+        long[] bytes = new long[] { 0 };
+        query.visit(new QueryVisitor() {
+            @Override
+            public void consumeTerms(Query query, Term... terms) {
+                bytes[0] += queryRamBytesUsed(query);
+                for (Term term : terms) {
+                    bytes[0] += TERM_RAM_BYTES_USED + term.bytes().length;
+                }
+            }
+
+            @Override
+            public void visitLeaf(Query query) {
+                bytes[0] += queryRamBytesUsed(query);
+            }
+
+            @Override
+            public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+                bytes[0] += RamUsageEstimator.shallowSizeOf(parent);
+                return this;
+            }
+        });
+        return bytes[0];
+    }
+
+    private static long queryRamBytesUsed(Query query) {
+        return query instanceof Accountable accountable ? accountable.ramBytesUsed() : RamUsageEstimator.shallowSizeOf(query);
+    }
+
+    private record Key(IndexReader.CacheKey coreKey, int docId, String field, MappingLookup.CacheKey mappingKey) {
+        static final long RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+
+        private Key {
+            Objects.requireNonNull(coreKey);
+            Objects.requireNonNull(field);
+            Objects.requireNonNull(mappingKey);
+        }
+    }
+}
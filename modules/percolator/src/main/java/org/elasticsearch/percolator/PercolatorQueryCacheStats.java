@@ -0,0 +1,136 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.xcontent.ToXContentFragment;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Statistics about the {@link PercolatorQueryCache} on one node.
+ */
+public class PercolatorQueryCacheStats implements Writeable, ToXContentFragment {
+    private final long memorySizeInBytes;
+    private final long cacheSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictions;
+    private final long uncacheableCount;
+
+    public PercolatorQueryCacheStats(
+        long memorySizeInBytes,
+        long cacheSize,
+        long hitCount,
+        long missCount,
+        long evictions,
+        long uncacheableCount
+    ) {
+        this.memorySizeInBytes = memorySizeInBytes;
+        this.cacheSize = cacheSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictions = evictions;
+        this.uncacheableCount = uncacheableCount;
+    }
+
+    public PercolatorQueryCacheStats(StreamInput in) throws IOException {
+        memorySizeInBytes = in.readVLong();
+        cacheSize = in.readVLong();
+        hitCount = in.readVLong();
+        missCount = in.readVLong();
+        evictions = in.readVLong();
+        uncacheableCount = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(memorySizeInBytes);
+        out.writeVLong(cacheSize);
+        out.writeVLong(hitCount);
+        out.writeVLong(missCount);
+        out.writeVLong(evictions);
+        out.writeVLong(uncacheableCount);
+    }
+
+    public long getMemorySizeInBytes() {
+        return memorySizeInBytes;
+    }
+
+    /**
+     * The number of queries in the cache.
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * The number of queries that were loaded from the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The number of queries that had to be parsed.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * The number of queries that were removed to make room for others.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * The number of parsed queries that couldn't be cached because they
+     * depend on the request, for example because they use {@code now}.
+     */
+    public long getUncacheableCount() {
+        return uncacheableCount;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.humanReadableField("memory_size_in_bytes", "memory_size", new ByteSizeValue(memorySizeInBytes));
+        builder.field("total_count", hitCount + missCount);
+        builder.field("hit_count", hitCount);
+        builder.field("miss_count", missCount);
+        builder.field("cache_size", cacheSize);
+        builder.field("evictions", evictions);
+        builder.field("uncacheable_count", uncacheableCount);
+        return builder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PercolatorQueryCacheStats that = (PercolatorQueryCacheStats) o;
+        return memorySizeInBytes == that.memorySizeInBytes
+            && cacheSize == that.cacheSize
+            && hitCount == that.hitCount
+            && missCount == that.missCount
+            && evictions == that.evictions
+            && uncacheableCount == that.uncacheableCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(memorySizeInBytes, cacheSize, hitCount, missCount, evictions, uncacheableCount);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.action.FailedNodeException;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.nodes.TransportNodesAction;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.percolator.PercolatorQueryCacheStatsAction.NodeRequest;
+import org.elasticsearch.percolator.PercolatorQueryCacheStatsAction.NodeResponse;
+import org.elasticsearch.percolator.PercolatorQueryCacheStatsAction.Request;
+import org.elasticsearch.percolator.PercolatorQueryCacheStatsAction.Response;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+
+public class PercolatorQueryCacheStatsTransportAction extends TransportNodesAction<Request, Response, NodeRequest, NodeResponse> {
+
+    private final TransportService transportService;
+    private final PercolatorQueryCache queryCache;
+
+    @Inject
+    public PercolatorQueryCacheStatsTransportAction(
+        TransportService transportService,
+        ClusterService clusterService,
+        ThreadPool threadPool,
+        ActionFilters actionFilters,
+        PercolatorQueryCache queryCache
+    ) {
+        super(
+            PercolatorQueryCacheStatsAction.NAME,
+            threadPool,
+            clusterService,
+            transportService,
+            actionFilters,
+            Request::new,
+            NodeRequest::new,
+            ThreadPool.Names.MANAGEMENT,
+            NodeResponse.class
+        );
+        this.transportService = transportService;
+        this.queryCache = queryCache;
+    }
+
+    @Override
+    protected Response newResponse(Request request, List<NodeResponse> nodeResponses, List<FailedNodeException> failures) {
+        return new Response(clusterService.getClusterName(), nodeResponses, failures);
+    }
+
+    @Override
+    protected NodeRequest newNodeRequest(Request request) {
+        return new NodeRequest();
+    }
+
+    @Override
+    protected NodeResponse newNodeResponse(StreamInput in, DiscoveryNode node) throws IOException {
+        return new NodeResponse(in);
+    }
+
+    @Override
+    protected NodeResponse nodeOperation(NodeRequest request, Task task) {
+        return new NodeResponse(transportService.getLocalNode(), queryCache.stats());
+    }
+}
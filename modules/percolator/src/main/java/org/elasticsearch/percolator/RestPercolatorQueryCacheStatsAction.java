@@ -0,0 +1,42 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.action.RestToXContentListener;
+
+import java.util.List;
+
+import static org.elasticsearch.rest.RestRequest.Method.GET;
+
+public class RestPercolatorQueryCacheStatsAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "percolator_query_cache_stats";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, "/_percolator/query_cache/stats"), new Route(GET, "/_percolator/query_cache/stats/{node_id}"));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) {
+        String[] nodesIds = Strings.splitStringByCommaToArray(request.param("node_id"));
+        return channel -> client.execute(
+            PercolatorQueryCacheStatsAction.INSTANCE,
+            new PercolatorQueryCacheStatsAction.Request(nodesIds),
+            new RestToXContentListener<>(channel)
+        );
+    }
+}
@@ -11,6 +11,7 @@ package org.elasticsearch.percolator;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
@@ -32,6 +33,9 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.After;
@@ -40,9 +44,12 @@ import org.junit.Before;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
 public class PercolateQueryTests extends ESTestCase {
@@ -198,4 +205,106 @@ public class PercolateQueryTests extends ESTestCase {
         assertThat(explanation.getDetails(), arrayWithSize(1));
     }
 
+    public void testBatchRemembersMatchedDocs() throws Exception {
+        List<Query> queries = List.of(
+            new TermQuery(new Term("field", "fox")),
+            new TermQuery(new Term("field", "dog")),
+            new TermQuery(new Term("field", "cat"))
+        );
+        AtomicInteger parsedQueries = new AtomicInteger();
+        PercolateQuery.QueryStore queryStore = ctx -> docId -> {
+            parsedQueries.incrementAndGet();
+            return queries.get(docId);
+        };
+        for (int i = 0; i < queries.size(); i++) {
+            indexWriter.addDocument(Collections.singleton(new StringField("select", "a", Field.Store.NO)));
+        }
+        indexWriter.close();
+        directoryReader = DirectoryReader.open(directory);
+        IndexSearcher shardSearcher = new IndexSearcher(directoryReader);
+
+        try (Directory percolateDirectory = newDirectory()) {
+            try (IndexWriter percolateWriter = new IndexWriter(percolateDirectory, new IndexWriterConfig(new WhitespaceAnalyzer()))) {
+                for (String text : new String[] { "the quick brown fox", "the lazy dog", "the fox and the dog" }) {
+                    percolateWriter.addDocument(Collections.singleton(new TextField("field", text, Field.Store.NO)));
+                }
+            }
+            try (DirectoryReader percolateReader = DirectoryReader.open(percolateDirectory)) {
+                PercolateQuery percolateQuery = new PercolateQuery(
+                    "_name",
+                    queryStore,
+                    List.of(new BytesArray("a"), new BytesArray("b"), new BytesArray("c")),
+                    new TermQuery(new Term("select", "a")),
+                    new IndexSearcher(percolateReader),
+                    null,
+                    new MatchNoDocsQuery("")
+                );
+                Query query = randomBoolean() ? percolateQuery : new ConstantScoreQuery(percolateQuery);
+                TopDocs topDocs = shardSearcher.search(query, 10);
+                assertThat(topDocs.totalHits.value, equalTo(2L));
+                // every stored query is parsed and run once, against all the documents
+                assertThat(parsedQueries.get(), equalTo(3));
+                assertArrayEquals(new int[] { 0, 2 }, percolateQuery.getMatchedDocs(0));
+                assertArrayEquals(new int[] { 1, 2 }, percolateQuery.getMatchedDocs(1));
+                assertNull(percolateQuery.getMatchedDocs(2));
+            }
+        }
+    }
+
+    public void testMatchedDocsStayWithinBudget() {
+        int[] matched = new int[] { 0, 1, 2 };
+        long perEntry = 64 + RamUsageEstimator.sizeOf(matched);
+        try (PercolateQuery.MatchedDocs matchedDocs = new PercolateQuery.MatchedDocs(perEntry * 2)) {
+            matchedDocs.add(0, matched);
+            matchedDocs.add(1, matched);
+            // doesn't fit so the fetch phase has to run the stored query again
+            matchedDocs.add(2, matched);
+            // and neither do the ones after it, even if they are smaller
+            matchedDocs.add(3, new int[0]);
+            assertArrayEquals(matched, matchedDocs.get(0));
+            assertArrayEquals(matched, matchedDocs.get(1));
+            assertNull(matchedDocs.get(2));
+            assertNull(matchedDocs.get(3));
+            assertThat(matchedDocs.ramBytesUsed(), equalTo(perEntry * 2));
+        }
+    }
+
+    public void testMatchedDocsAreChargedToTheBreaker() {
+        AtomicLong used = new AtomicLong();
+        long limit = randomLongBetween(200, 1000);
+        NoopCircuitBreaker breaker = new NoopCircuitBreaker("request") {
+            @Override
+            public void addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+                if (used.get() + bytes > limit) {
+                    throw new CircuitBreakingException("broken", getDurability());
+                }
+                used.addAndGet(bytes);
+            }
+
+            @Override
+            public void addWithoutBreaking(long bytes) {
+                used.addAndGet(bytes);
+            }
+        };
+        PercolateQuery.MatchedDocs matchedDocs = new PercolateQuery.MatchedDocs(PercolateQuery.MatchedDocs.DEFAULT_BUDGET_BYTES);
+        matchedDocs.add(0, new int[] { 0 });
+        // what was kept before the search handed us the breaker is charged too
+        matchedDocs.setBreaker(breaker);
+        assertThat(used.get(), greaterThan(0L));
+        assertThat(used.get(), equalTo(matchedDocs.ramBytesUsed()));
+        int doc = 1;
+        while (used.get() + 64 + RamUsageEstimator.sizeOf(new int[] { doc }) <= limit) {
+            matchedDocs.add(doc, new int[] { doc });
+            assertArrayEquals(new int[] { doc }, matchedDocs.get(doc));
+            doc++;
+        }
+        // the breaker trips so the fetch phase has to run the stored query again
+        matchedDocs.add(doc, new int[] { doc });
+        assertNull(matchedDocs.get(doc));
+        assertThat(used.get(), equalTo(matchedDocs.ramBytesUsed()));
+
+        matchedDocs.close();
+        assertThat(used.get(), equalTo(0L));
+        assertNull(matchedDocs.get(0));
+    }
 }
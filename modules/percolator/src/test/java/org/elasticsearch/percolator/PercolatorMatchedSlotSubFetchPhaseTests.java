@@ -9,11 +9,16 @@ package org.elasticsearch.percolator;
 
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.memory.MemoryIndex;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.ScoreDoc;
@@ -31,6 +36,8 @@ import org.elasticsearch.search.fetch.FetchSubPhaseProcessor;
 import org.elasticsearch.test.ESTestCase;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static org.mockito.Mockito.mock;
@@ -135,6 +142,58 @@ public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
         }
     }
 
+    public void testUsesMatchedDocsFromQueryPhase() throws Exception {
+        try (Directory directory = newDirectory(); Directory percolateDirectory = newDirectory()) {
+            // Need a one doc index:
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                indexWriter.addDocument(new Document());
+            }
+            try (IndexWriter percolateWriter = new IndexWriter(percolateDirectory, new IndexWriterConfig(new WhitespaceAnalyzer()))) {
+                for (String value : new String[] { "value", "value1", "value" }) {
+                    Document document = new Document();
+                    document.add(new TextField("field", value, Field.Store.NO));
+                    document.add(new NumericDocValuesField(SeqNoFieldMapper.PRIMARY_TERM_NAME, 0));
+                    percolateWriter.addDocument(document);
+                }
+            }
+
+            AtomicInteger parsedQueries = new AtomicInteger();
+            PercolateQuery.QueryStore queryStore = ctx -> docId -> {
+                parsedQueries.incrementAndGet();
+                return new TermQuery(new Term("field", "value"));
+            };
+            try (
+                DirectoryReader reader = DirectoryReader.open(directory);
+                DirectoryReader percolateReader = DirectoryReader.open(percolateDirectory)
+            ) {
+                PercolateQuery percolateQuery = new PercolateQuery(
+                    "_name",
+                    queryStore,
+                    Collections.emptyList(),
+                    new MatchAllDocsQuery(),
+                    new IndexSearcher(percolateReader),
+                    null,
+                    new MatchNoDocsQuery()
+                );
+                assertEquals(1, new IndexSearcher(reader).count(percolateQuery));
+                assertEquals(1, parsedQueries.get());
+
+                FetchContext sc = mock(FetchContext.class);
+                when(sc.query()).thenReturn(percolateQuery);
+                FetchSubPhaseProcessor processor = new PercolatorMatchedSlotSubFetchPhase().getProcessor(sc);
+                assertNotNull(processor);
+                LeafReaderContext context = reader.leaves().get(0);
+                processor.setNextReader(context);
+                HitContext hit = new HitContext(new SearchHit(0), context, 0);
+                processor.process(hit);
+
+                assertEquals(List.of(0, 2), hit.hit().field(PercolatorMatchedSlotSubFetchPhase.FIELD_NAME_PREFIX).getValues());
+                // the fetch phase didn't need to parse the query again
+                assertEquals(1, parsedQueries.get());
+            }
+        }
+    }
+
     public void testConvertTopDocsToSlots() {
         ScoreDoc[] scoreDocs = new ScoreDoc[randomInt(128)];
         for (int i = 0; i < scoreDocs.length; i++) {
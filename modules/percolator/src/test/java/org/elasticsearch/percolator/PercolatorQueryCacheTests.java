@@ -0,0 +1,152 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PercolatorQueryCacheTests extends ESTestCase {
+
+    public void testCachesQueries() throws IOException {
+        PercolatorQueryCache cache = new PercolatorQueryCache(Settings.EMPTY);
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        AtomicInteger loads = new AtomicInteger();
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                writer.addDocument(new Document());
+                writer.addDocument(new Document());
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+                PercolatorQueryCache.Loader loader = docId -> {
+                    loads.incrementAndGet();
+                    return new PercolatorQueryCache.LoadedQuery(new TermQuery(new Term("field", Integer.toString(docId))), docId == 0);
+                };
+
+                CheckedFunction<Integer, Query, IOException> store = cache.leafStore(leafReader, "query", mappingKey, loader);
+                Query first = store.apply(0);
+                assertThat(store.apply(0), sameInstance(first));
+                assertThat(loads.get(), equalTo(1));
+
+                // A new store for the same segment shares the cached queries
+                store = cache.leafStore(leafReader, "query", mappingKey, loader);
+                assertThat(store.apply(0), sameInstance(first));
+                assertThat(loads.get(), equalTo(1));
+
+                // But not with other fields
+                cache.leafStore(leafReader, "other", mappingKey, loader).apply(0);
+                assertThat(loads.get(), equalTo(2));
+
+                // Queries that aren't cacheable are parsed every time
+                store.apply(1);
+                store.apply(1);
+                assertThat(loads.get(), equalTo(4));
+
+                PercolatorQueryCacheStats stats = cache.stats();
+                assertThat(stats.getCacheSize(), equalTo(2L));
+                assertThat(stats.getHitCount(), equalTo(2L));
+                assertThat(stats.getMissCount(), equalTo(4L));
+                assertThat(stats.getUncacheableCount(), equalTo(2L));
+                assertThat(stats.getMemorySizeInBytes(), greaterThan(0L));
+            }
+            // Closing the segment drops its queries
+            assertThat(cache.stats().getCacheSize(), equalTo(0L));
+            assertThat(cache.stats().getMemorySizeInBytes(), equalTo(0L));
+        }
+    }
+
+    public void testClosingASegmentOnlyDropsItsQueries() throws IOException {
+        PercolatorQueryCache cache = new PercolatorQueryCache(Settings.EMPTY);
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        PercolatorQueryCache.Loader loader = docId -> new PercolatorQueryCache.LoadedQuery(
+            new TermQuery(new Term("field", Integer.toString(docId))),
+            true
+        );
+        try (Directory dir = newDirectory(); Directory otherDir = newDirectory()) {
+            for (Directory d : new Directory[] { dir, otherDir }) {
+                try (IndexWriter writer = new IndexWriter(d, newIndexWriterConfig())) {
+                    writer.addDocument(new Document());
+                    writer.addDocument(new Document());
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                CheckedFunction<Integer, Query, IOException> store = cache.leafStore(
+                    reader.leaves().get(0).reader(),
+                    "query",
+                    mappingKey,
+                    loader
+                );
+                Query first = store.apply(0);
+                store.apply(1);
+                try (DirectoryReader otherReader = DirectoryReader.open(otherDir)) {
+                    cache.leafStore(otherReader.leaves().get(0).reader(), "query", mappingKey, loader).apply(0);
+                    assertThat(cache.stats().getCacheSize(), equalTo(3L));
+                }
+                assertThat(cache.stats().getCacheSize(), equalTo(2L));
+                assertThat(store.apply(0), sameInstance(first));
+            }
+            assertThat(cache.stats().getCacheSize(), equalTo(0L));
+        }
+    }
+
+    public void testDisabled() throws IOException {
+        PercolatorQueryCache cache = new PercolatorQueryCache(Settings.builder().put("percolator.query_cache.size", "0b").build());
+        AtomicInteger loads = new AtomicInteger();
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                writer.addDocument(new Document());
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                CheckedFunction<Integer, Query, IOException> store = cache.leafStore(
+                    reader.leaves().get(0).reader(),
+                    "query",
+                    MappingLookup.EMPTY.cacheKey(),
+                    docId -> {
+                        loads.incrementAndGet();
+                        return new PercolatorQueryCache.LoadedQuery(new TermQuery(new Term("field", "value")), true);
+                    }
+                );
+                store.apply(0);
+                store.apply(0);
+                assertThat(loads.get(), equalTo(2));
+                assertThat(cache.stats().getCacheSize(), equalTo(0L));
+            }
+        }
+    }
+
+    public void testRamBytesUsed() {
+        Query small = new TermQuery(new Term("field", "value"));
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (int i = 0; i < 10; i++) {
+            builder.add(new TermQuery(new Term("field", "value" + i)), BooleanClause.Occur.SHOULD);
+        }
+        Query large = builder.build();
+        assertThat(PercolatorQueryCache.ramBytesUsed(small), greaterThan(0L));
+        assertThat(PercolatorQueryCache.ramBytesUsed(large), greaterThan(5 * PercolatorQueryCache.ramBytesUsed(small)));
+    }
+}
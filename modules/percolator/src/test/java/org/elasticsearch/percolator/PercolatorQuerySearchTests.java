@@ -50,6 +50,7 @@ import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitC
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertSearchHits;
 import static org.elasticsearch.xcontent.XContentFactory.jsonBuilder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 
 public class PercolatorQuerySearchTests extends ESSingleNodeTestCase {
 
@@ -344,4 +345,49 @@ public class PercolatorQuerySearchTests extends ESSingleNodeTestCase {
         }
     }
 
+    public void testQueryCache() throws Exception {
+        client().admin().indices().prepareCreate("index").setMapping("field1", "type=keyword", "query", "type=percolator").get();
+        client().prepareIndex("index")
+            .setId("1")
+            .setSource(jsonBuilder().startObject().field("query", termQuery("field1", "value")).endObject())
+            .get();
+        client().prepareIndex("index")
+            .setId("2")
+            .setSource(
+                jsonBuilder().startObject()
+                    .field("query", scriptQuery(new Script(ScriptType.INLINE, CustomScriptPlugin.NAME, "1==1", emptyMap())))
+                    .endObject()
+            )
+            .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE)
+            .get();
+        BytesReference source = BytesReference.bytes(jsonBuilder().startObject().field("field1", "value").endObject());
+
+        PercolatorQueryCacheStats before = queryCacheStats();
+        PercolateQueryBuilder query = new PercolateQueryBuilder("query", source, XContentType.JSON);
+        SearchResponse response = client().prepareSearch("index").setQuery(query).get();
+        assertHitCount(response, 2);
+        PercolatorQueryCacheStats first = queryCacheStats();
+        assertThat(first.getCacheSize(), equalTo(before.getCacheSize() + 1));
+        assertThat(first.getUncacheableCount(), greaterThan(before.getUncacheableCount()));
+
+        response = client().prepareSearch("index").setQuery(query).get();
+        assertHitCount(response, 2);
+        PercolatorQueryCacheStats second = queryCacheStats();
+        assertThat(second.getCacheSize(), equalTo(first.getCacheSize()));
+        assertThat(second.getHitCount(), greaterThan(first.getHitCount()));
+        // script queries hold on to the request's lookup so they are parsed every time
+        assertThat(second.getUncacheableCount(), greaterThan(first.getUncacheableCount()));
+
+        client().admin().indices().prepareDelete("index").get();
+        assertBusy(() -> assertThat(queryCacheStats().getCacheSize(), equalTo(before.getCacheSize())));
+    }
+
+    private PercolatorQueryCacheStats queryCacheStats() {
+        PercolatorQueryCacheStatsAction.Response response = client().execute(
+            PercolatorQueryCacheStatsAction.INSTANCE,
+            new PercolatorQueryCacheStatsAction.Request()
+        ).actionGet();
+        assertThat(response.getNodes().size(), equalTo(1));
+        return response.getNodes().get(0).getStats();
+    }
 }
@@ -8,16 +8,27 @@
 package org.elasticsearch.action.search;
 
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.dfs.DfsSearchResult;
+import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.search.query.QuerySearchRequest;
 import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.vectors.KnnScoreDocQueryBuilder;
 import org.elasticsearch.transport.Transport;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -67,13 +78,15 @@ final class DfsQueryPhase extends SearchPhase {
             () -> context.executeNextPhase(this, nextPhaseFactory.apply(queryResult)),
             context
         );
+        final Map<Integer, List<ScoreDoc>> knnResults = mergeKnnResults(context.getRequest(), searchResults);
         for (final DfsSearchResult dfsResult : searchResults) {
             final SearchShardTarget shardTarget = dfsResult.getSearchShardTarget();
             Transport.Connection connection = context.getConnection(shardTarget.getClusterAlias(), shardTarget.getNodeId());
+            ShardSearchRequest shardRequest = rewriteShardSearchRequest(knnResults, dfsResult);
             QuerySearchRequest querySearchRequest = new QuerySearchRequest(
                 context.getOriginalIndices(dfsResult.getShardIndex()),
                 dfsResult.getContextId(),
-                dfsResult.getShardSearchRequest(),
+                shardRequest,
                 dfs
             );
             final int shardIndex = dfsResult.getShardIndex();
@@ -119,4 +132,55 @@ final class DfsQueryPhase extends SearchPhase {
             );
         }
     }
+    /**
+     * Merge the nearest neighbors that every shard found in the dfs phase into
+     * the global top {@code k}, grouped by the shard that they came from.
+     * Returns {@code null} if the request doesn't have a {@code knn} section.
+     */
+    static Map<Integer, List<ScoreDoc>> mergeKnnResults(SearchRequest request, List<DfsSearchResult> dfsSearchResults) {
+        if (request.source() == null || request.source().knnSearch() == null) {
+            return null;
+        }
+        List<TopDocs> topDocsList = new ArrayList<>(dfsSearchResults.size());
+        for (DfsSearchResult dfsSearchResult : dfsSearchResults) {
+            if (dfsSearchResult.knnResults() == null) {
+                continue;
+            }
+            ScoreDoc[] scoreDocs = dfsSearchResult.knnResults().scoreDocs();
+            for (ScoreDoc scoreDoc : scoreDocs) {
+                scoreDoc.shardIndex = dfsSearchResult.getShardIndex();
+            }
+            topDocsList.add(new TopDocs(new TotalHits(scoreDocs.length, TotalHits.Relation.EQUAL_TO), scoreDocs));
+        }
+        TopDocs merged = TopDocs.merge(request.source().knnSearch().k(), topDocsList.toArray(new TopDocs[0]));
+        Map<Integer, List<ScoreDoc>> byShard = new HashMap<>();
+        for (ScoreDoc scoreDoc : merged.scoreDocs) {
+            byShard.computeIfAbsent(scoreDoc.shardIndex, i -> new ArrayList<>()).add(scoreDoc);
+        }
+        return byShard;
+    }
+
+    /**
+     * Replace the {@code knn} section of the request with a query that scores this
+     * shard's share of the global top {@code k}, combined with the {@code query} of
+     * the request if there is one.
+     */
+    static ShardSearchRequest rewriteShardSearchRequest(Map<Integer, List<ScoreDoc>> knnResults, DfsSearchResult dfsResult) {
+        ShardSearchRequest request = dfsResult.getShardSearchRequest();
+        if (knnResults == null || request == null || request.source() == null || request.source().knnSearch() == null) {
+            return request;
+        }
+        SearchSourceBuilder source = request.source();
+        ScoreDoc[] scoreDocs = knnResults.getOrDefault(dfsResult.getShardIndex(), List.of()).toArray(new ScoreDoc[0]);
+        QueryBuilder knnQuery = new KnnScoreDocQueryBuilder(scoreDocs).boost(source.knnSearch().boost());
+        SearchSourceBuilder rewrittenSource = source.shallowCopy().knnSearch(null);
+        if (source.query() == null) {
+            rewrittenSource.query(knnQuery);
+        } else {
+            rewrittenSource.query(new BoolQueryBuilder().should(source.query()).should(knnQuery));
+        }
+        ShardSearchRequest rewritten = new ShardSearchRequest(request);
+        rewritten.source(rewrittenSource);
+        return rewritten;
+    }
 }
@@ -331,6 +331,9 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
                 if (source.rescores() != null && source.rescores().isEmpty() == false) {
                     validationException = addValidationError("using [rescore] is not allowed in a scroll context", validationException);
                 }
+                if (source.knnSearch() != null) {
+                    validationException = addValidationError("using [knn] is not allowed in a scroll context", validationException);
+                }
             }
             if (requestCache != null && requestCache) {
                 validationException = addValidationError("[request_cache] cannot be used in a scroll context", validationException);
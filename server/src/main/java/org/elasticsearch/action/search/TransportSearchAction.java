@@ -492,6 +492,10 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
             return false;
         }
         SearchSourceBuilder source = searchRequest.source();
+        if (source != null && source.knnSearch() != null) {
+            // every cluster would return its own top k nearest neighbors
+            return false;
+        }
         return source == null
             || source.collapse() == null
             || source.collapse().getInnerHits() == null
@@ -985,8 +989,11 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
 
         Map<String, Float> concreteIndexBoosts = resolveIndexBoosts(searchRequest, clusterState);
 
-        // optimize search type for cases where there is only one shard group to search on
-        if (shardIterators.size() == 1) {
+        if (searchRequest.source() != null && searchRequest.source().knnSearch() != null) {
+            // the dfs phase collects the nearest neighbors of every shard so the coordinating node can pick the global top k
+            searchRequest.searchType(DFS_QUERY_THEN_FETCH);
+        } else if (shardIterators.size() == 1) {
+            // optimize search type for cases where there is only one shard group to search on
             // if we only have one group, then we always want Q_T_F, no need for DFS, and no need to do THEN since we hit one shard
             searchRequest.searchType(QUERY_THEN_FETCH);
         }
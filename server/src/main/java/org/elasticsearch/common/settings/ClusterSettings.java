@@ -386,6 +386,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
         ScriptService.SCRIPT_CACHE_SIZE_SETTING,
         ScriptService.SCRIPT_CACHE_EXPIRE_SETTING,
         ScriptService.SCRIPT_DISABLE_MAX_COMPILATIONS_RATE_SETTING,
+        ScriptService.SCRIPT_CACHE_PERSIST_SETTING,
         ScriptService.SCRIPT_GENERAL_CACHE_EXPIRE_SETTING,
         ScriptService.SCRIPT_GENERAL_CACHE_SIZE_SETTING,
         ScriptService.SCRIPT_GENERAL_MAX_COMPILATIONS_RATE_SETTING,
@@ -424,6 +425,9 @@ public final class ClusterSettings extends AbstractScopedSettings {
         SearchService.LOW_LEVEL_CANCELLATION_SETTING,
         SearchService.MAX_OPEN_SCROLL_CONTEXT,
         SearchService.ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER,
+        SearchService.AGGS_USE_OFF_HEAP_BIG_ARRAYS,
+        SearchService.AGGS_OFF_HEAP_PAGE_POOL_SIZE,
+        SearchService.AGGS_OFF_HEAP_MAX_SIZE,
         SearchService.MAX_ASYNC_SEARCH_RESPONSE_SIZE_SETTING,
         Node.WRITE_PORTS_FILE_SETTING,
         Node.NODE_EXTERNAL_ID_SETTING,
@@ -188,6 +188,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
         result.add(IndexSettings.TIME_SERIES_START_TIME);
         result.add(IndexSettings.TIME_SERIES_END_TIME);
         result.add(IndexSettings.LOOK_AHEAD_TIME);
+        result.add(IndexSettings.TIME_SERIES_DOC_VALUES_FORMAT_ENABLED);
         return Set.copyOf(result);
     }
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of direct memory pages of {@link PageCacheRecycler#PAGE_SIZE_IN_BYTES} bytes
+ * for the arrays of {@link OffHeapBigArrays}.
+ * <p>
+ * Direct buffers can't be freed explicitly, the garbage collector frees
+ * them some time after they become unreachable. So pages go back to this
+ * pool when the arrays that hold them are closed and the next arrays take
+ * them from here. Pages that don't fit in the pool are dropped and left
+ * to the garbage collector.
+ * <p>
+ * The circuit breakers are sized by the heap and can't protect the direct
+ * memory, which the JVM caps with {@code -XX:MaxDirectMemorySize}. So the
+ * pool also limits the bytes of the pages that are in use by arrays at any
+ * time. Arrays {@link #reserve reserve} their pages before taking them and
+ * the reservation fails with a {@link CircuitBreakingException} rather than
+ * running into {@code OutOfMemoryError: Direct buffer memory}.
+ */
+public final class DirectPagePool {
+    private static final byte[] ZEROS = new byte[PageCacheRecycler.PAGE_SIZE_IN_BYTES];
+
+    private final Queue<ByteBuffer> pages = ConcurrentCollections.newQueue();
+    private final AtomicInteger pooledPages = new AtomicInteger();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final int maxPooledPages;
+    private final long maxReservedBytes;
+
+    /**
+     * Build the pool.
+     * @param maxPooledBytes the maximum number of bytes of the pages that are kept around for reuse
+     * @param maxReservedBytes the maximum number of bytes of the pages that are in use by arrays at once
+     */
+    public DirectPagePool(long maxPooledBytes, long maxReservedBytes) {
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("[maxPooledBytes] must be >= 0 but was [" + maxPooledBytes + "]");
+        }
+        if (maxReservedBytes < 0) {
+            throw new IllegalArgumentException("[maxReservedBytes] must be >= 0 but was [" + maxReservedBytes + "]");
+        }
+        this.maxPooledPages = (int) Math.min(Integer.MAX_VALUE, maxPooledBytes / PageCacheRecycler.PAGE_SIZE_IN_BYTES);
+        this.maxReservedBytes = maxReservedBytes;
+    }
+
+    /**
+     * Reserve direct memory for pages that are about to be {@link #acquire acquired}.
+     * Every page that is {@link #release released} gives its bytes back.
+     * @throws CircuitBreakingException if the reservation would take more than the limit of this pool
+     */
+    void reserve(long bytes) {
+        assert bytes >= 0 && bytes % PageCacheRecycler.PAGE_SIZE_IN_BYTES == 0 : bytes;
+        long newReserved = reservedBytes.addAndGet(bytes);
+        if (newReserved > maxReservedBytes) {
+            reservedBytes.addAndGet(-bytes);
+            throw new CircuitBreakingException(
+                "[off_heap_big_arrays] Data too large, direct memory for ["
+                    + new ByteSizeValue(bytes)
+                    + "] would be ["
+                    + new ByteSizeValue(newReserved)
+                    + "], which is larger than the limit of ["
+                    + new ByteSizeValue(maxReservedBytes)
+                    + "]",
+                bytes,
+                maxReservedBytes,
+                CircuitBreaker.Durability.TRANSIENT
+            );
+        }
+    }
+
+    /**
+     * Give back a reservation for pages that were never {@link #acquire acquired}.
+     */
+    void unreserve(long bytes) {
+        assert bytes >= 0 && bytes % PageCacheRecycler.PAGE_SIZE_IN_BYTES == 0 : bytes;
+        reservedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Take a page from the pool or allocate a new one if the pool is empty.
+     * The page must have been {@link #reserve reserved} first.
+     * Pages are in the {@link ByteOrder#nativeOrder() native order}.
+     * @param clear should the page be filled with zeros? Newly allocated pages always are.
+     */
+    ByteBuffer acquire(boolean clear) {
+        ByteBuffer page = pages.poll();
+        if (page == null) {
+            return ByteBuffer.allocateDirect(PageCacheRecycler.PAGE_SIZE_IN_BYTES).order(ByteOrder.nativeOrder());
+        }
+        pooledPages.decrementAndGet();
+        if (clear) {
+            page.put(0, ZEROS);
+        }
+        return page;
+    }
+
+    /**
+     * Give a page back to the pool.
+     */
+    void release(ByteBuffer page) {
+        assert page.isDirect() && page.capacity() == PageCacheRecycler.PAGE_SIZE_IN_BYTES;
+        reservedBytes.addAndGet(-PageCacheRecycler.PAGE_SIZE_IN_BYTES);
+        if (pooledPages.incrementAndGet() <= maxPooledPages) {
+            pages.offer(page);
+        } else {
+            pooledPages.decrementAndGet();
+        }
+    }
+
+    /**
+     * The number of pages waiting in the pool.
+     */
+    public int pooledPages() {
+        return pooledPages.get();
+    }
+
+    /**
+     * The number of bytes of the pages that are in use by arrays.
+     */
+    public long reservedBytes() {
+        return reservedBytes.get();
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * {@link BigArrays} that keeps the values of large {@link LongArray}s,
+ * {@link DoubleArray}s and {@link IntArray}s in direct memory pages from a
+ * {@link DirectPagePool} rather than on the heap.
+ * <p>
+ * Each instance is an arena for a single request: {@link #close() closing}
+ * it closes all of the off heap arrays that it built and that are still
+ * open, giving their pages back to the pool. Arrays smaller than half a page
+ * and all other kinds of arrays are built on the heap like
+ * {@link BigArrays} does because a whole page for them would be wasteful and
+ * because {@link ByteArray}s hand out references to their pages.
+ * <p>
+ * Off heap pages are accounted for on the circuit breaker like heap pages.
+ * The breaker is sized by the heap though, so the pool limits the direct
+ * memory that is in use by arrays on its own, see {@link DirectPagePool}.
+ * Use {@link #withBreakerService} to start a new arena on a
+ * {@link org.elasticsearch.common.breaker.PreallocatedCircuitBreakerService}
+ * and {@link #arena} to start one that shares the page recycler and breakers
+ * of the node's {@link BigArrays}.
+ */
+public class OffHeapBigArrays extends BigArrays implements Releasable {
+    private final DirectPagePool pool;
+    private final String breakerName;
+    private final Set<OffHeapArray> arrays = ConcurrentCollections.newConcurrentSet();
+    private volatile boolean closed;
+
+    public OffHeapBigArrays(
+        @Nullable PageCacheRecycler recycler,
+        DirectPagePool pool,
+        @Nullable CircuitBreakerService breakerService,
+        String breakerName
+    ) {
+        super(recycler, breakerService, breakerName, true);
+        this.pool = pool;
+        this.breakerName = breakerName;
+    }
+
+    /**
+     * Start a new arena that builds its heap arrays from the pages of
+     * {@code bigArrays}'s recycler and accounts on its breakers.
+     */
+    public static OffHeapBigArrays arena(BigArrays bigArrays, DirectPagePool pool, String breakerName) {
+        return new OffHeapBigArrays(bigArrays.recycler, pool, bigArrays.breakerService(), breakerName);
+    }
+
+    @Override
+    public OffHeapBigArrays withBreakerService(CircuitBreakerService breakerService) {
+        return new OffHeapBigArrays(recycler, pool, breakerService, breakerName);
+    }
+
+    @Override
+    public IntArray newIntArray(long size, boolean clearOnResize) {
+        if (size < PageCacheRecycler.INT_PAGE_SIZE / 2) {
+            return super.newIntArray(size, clearOnResize);
+        }
+        reserve(OffHeapArray.estimateRamBytes(size, Integer.BYTES));
+        return register(new OffHeapIntArray(this, size, clearOnResize));
+    }
+
+    @Override
+    public IntArray resize(IntArray array, long size) {
+        if (array instanceof OffHeapIntArray offHeap) {
+            resizeInPlace(offHeap, size);
+            return array;
+        }
+        return super.resize(array, size);
+    }
+
+    @Override
+    public LongArray newLongArray(long size, boolean clearOnResize) {
+        if (size < PageCacheRecycler.LONG_PAGE_SIZE / 2) {
+            return super.newLongArray(size, clearOnResize);
+        }
+        reserve(OffHeapArray.estimateRamBytes(size, Long.BYTES));
+        return register(new OffHeapLongArray(this, size, clearOnResize));
+    }
+
+    @Override
+    public LongArray resize(LongArray array, long size) {
+        if (array instanceof OffHeapLongArray offHeap) {
+            resizeInPlace(offHeap, size);
+            return array;
+        }
+        return super.resize(array, size);
+    }
+
+    @Override
+    public DoubleArray newDoubleArray(long size, boolean clearOnResize) {
+        if (size < PageCacheRecycler.DOUBLE_PAGE_SIZE / 2) {
+            return super.newDoubleArray(size, clearOnResize);
+        }
+        reserve(OffHeapArray.estimateRamBytes(size, Double.BYTES));
+        return register(new OffHeapDoubleArray(this, size, clearOnResize));
+    }
+
+    @Override
+    public DoubleArray resize(DoubleArray array, long size) {
+        if (array instanceof OffHeapDoubleArray offHeap) {
+            resizeInPlace(offHeap, size);
+            return array;
+        }
+        return super.resize(array, size);
+    }
+
+    /**
+     * The number of off heap arrays built by this arena that are still open.
+     */
+    public int openArrays() {
+        return arrays.size();
+    }
+
+    /**
+     * Close all of the off heap arrays built by this arena that are
+     * still open. Building more of them afterwards fails.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Releasables.close(arrays);
+    }
+
+    private <T extends OffHeapArray> T register(T array) {
+        arrays.add(array);
+        if (closed) {
+            // the arena was closed concurrently, don't leak the pages
+            array.close();
+            throw new IllegalStateException("off heap big arrays are already closed");
+        }
+        return array;
+    }
+
+    private void resizeInPlace(OffHeapArray array, long newSize) {
+        final long oldMemSize = array.ramBytesUsed();
+        final long newMemSize = array.ramBytesEstimated(newSize);
+        // reserve the new pages before taking them, giving pages back can't trip anything
+        final long delta = newMemSize - oldMemSize;
+        if (delta > 0) {
+            reserve(delta);
+        } else {
+            adjustBreaker(delta, false);
+        }
+        array.resize(newSize);
+    }
+
+    /**
+     * Account for new pages on the circuit breaker and reserve their direct
+     * memory in the pool, undoing both if either of them trips.
+     */
+    private void reserve(long bytes) {
+        adjustBreaker(bytes, false);
+        try {
+            pool.reserve(bytes);
+        } catch (CircuitBreakingException e) {
+            adjustBreaker(-bytes, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Give back the reservation of the pages between {@code from} and
+     * {@code to} after failing to acquire some of them. The pages that
+     * were acquired go back to the pool.
+     */
+    private void releaseReservation(ByteBuffer[] pages, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (pages[i] == null) {
+                pool.unreserve(PageCacheRecycler.PAGE_SIZE_IN_BYTES);
+            } else {
+                pool.release(pages[i]);
+                pages[i] = null;
+            }
+        }
+        adjustBreaker(-(long) (to - from) * PageCacheRecycler.PAGE_SIZE_IN_BYTES, true);
+    }
+
+    /**
+     * Base class for arrays over pages of direct memory.
+     */
+    abstract static class OffHeapArray extends AbstractArray {
+        private static final int PAGE_SHIFT_IN_BYTES = Integer.numberOfTrailingZeros(PageCacheRecycler.PAGE_SIZE_IN_BYTES);
+
+        private final OffHeapBigArrays arena;
+        /**
+         * Shift from an index to the offset of its value in its page.
+         */
+        protected final int elementShift;
+        private final int pageShift;
+        private final int pageMask;
+        protected ByteBuffer[] pages;
+        private long size;
+
+        OffHeapArray(OffHeapBigArrays arena, int bytesPerElement, long size, boolean clearOnResize) {
+            super(arena, clearOnResize);
+            this.arena = arena;
+            this.elementShift = Integer.numberOfTrailingZeros(bytesPerElement);
+            this.pageShift = PAGE_SHIFT_IN_BYTES - elementShift;
+            this.pageMask = (1 << pageShift) - 1;
+            this.pages = new ByteBuffer[numPages(size)];
+            acquire(0, pages.length);
+            this.size = size;
+        }
+
+        static long estimateRamBytes(long size, int bytesPerElement) {
+            long bytes = size * bytesPerElement;
+            return ((bytes + PageCacheRecycler.PAGE_SIZE_IN_BYTES - 1) >>> PAGE_SHIFT_IN_BYTES) * PageCacheRecycler.PAGE_SIZE_IN_BYTES;
+        }
+
+        @Override
+        public final long size() {
+            return size;
+        }
+
+        /**
+         * The page holding the value at {@code index}.
+         */
+        protected final ByteBuffer page(long index) {
+            return pages[(int) (index >>> pageShift)];
+        }
+
+        /**
+         * The offset in bytes of the value at {@code index} in its {@link #page page}.
+         */
+        protected final int offset(long index) {
+            return ((int) index & pageMask) << elementShift;
+        }
+
+        private int numPages(long size) {
+            final long numPages = (size + pageMask) >>> pageShift;
+            if (numPages > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("pageSize=" + (pageMask + 1) + " is too small for such as capacity: " + size);
+            }
+            return (int) numPages;
+        }
+
+        /**
+         * Change the size of this array. Content between indexes {@code 0} and {@code min(size(), newSize)} will be preserved.
+         */
+        final void resize(long newSize) {
+            final int numPages = numPages(newSize);
+            if (numPages > pages.length) {
+                pages = Arrays.copyOf(pages, ArrayUtil.oversize(numPages, RamUsageEstimator.NUM_BYTES_OBJECT_REF));
+            }
+            int firstMissing = numPages;
+            while (firstMissing > 0 && pages[firstMissing - 1] == null) {
+                firstMissing--;
+            }
+            acquire(firstMissing, numPages);
+            for (int i = numPages; i < pages.length && pages[i] != null; ++i) {
+                arena.pool.release(pages[i]);
+                pages[i] = null;
+            }
+            size = newSize;
+        }
+
+        /**
+         * Acquire the reserved pages between {@code from} and {@code to}. If
+         * allocating one of them fails the whole reservation is given back
+         * because the caller can't tell how far we got.
+         */
+        private void acquire(int from, int to) {
+            boolean success = false;
+            try {
+                for (int i = from; i < to; i++) {
+                    pages[i] = arena.pool.acquire(clearOnResize);
+                }
+                success = true;
+            } finally {
+                if (success == false) {
+                    arena.releaseReservation(pages, from, to);
+                }
+            }
+        }
+
+        /**
+         * Bulk set from a {@code byte[]} in the native byte order. {@code offset} and {@code len} are in elements.
+         */
+        protected final void setBytes(long index, byte[] buf, int offset, int len) {
+            assert index + len <= size();
+            int byteOffset = offset << elementShift;
+            while (len > 0) {
+                final int indexInPage = (int) index & pageMask;
+                final int copy = Math.min(len, pageMask + 1 - indexInPage);
+                page(index).put(indexInPage << elementShift, buf, byteOffset, copy << elementShift);
+                index += copy;
+                byteOffset += copy << elementShift;
+                len -= copy;
+            }
+        }
+
+        @Override
+        public final long ramBytesUsed() {
+            return ramBytesEstimated(size);
+        }
+
+        final long ramBytesEstimated(long size) {
+            return (long) numPages(size) * PageCacheRecycler.PAGE_SIZE_IN_BYTES;
+        }
+
+        @Override
+        protected final void doClose() {
+            for (int i = 0; i < pages.length && pages[i] != null; i++) {
+                arena.pool.release(pages[i]);
+                pages[i] = null;
+            }
+            arena.arrays.remove(this);
+        }
+    }
+
+    private static class OffHeapIntArray extends OffHeapArray implements IntArray {
+        OffHeapIntArray(OffHeapBigArrays arena, long size, boolean clearOnResize) {
+            super(arena, Integer.BYTES, size, clearOnResize);
+        }
+
+        @Override
+        public int get(long index) {
+            return page(index).getInt(offset(index));
+        }
+
+        @Override
+        public int set(long index, int value) {
+            final ByteBuffer page = page(index);
+            final int offset = offset(index);
+            final int ret = page.getInt(offset);
+            page.putInt(offset, value);
+            return ret;
+        }
+
+        @Override
+        public int increment(long index, int inc) {
+            final ByteBuffer page = page(index);
+            final int offset = offset(index);
+            final int newVal = page.getInt(offset) + inc;
+            page.putInt(offset, newVal);
+            return newVal;
+        }
+
+        @Override
+        public void fill(long fromIndex, long toIndex, int value) {
+            if (fromIndex > toIndex) {
+                throw new IllegalArgumentException();
+            }
+            for (long i = fromIndex; i < toIndex; i++) {
+                page(i).putInt(offset(i), value);
+            }
+        }
+
+        @Override
+        public void set(long index, byte[] buf, int offset, int len) {
+            setBytes(index, buf, offset, len);
+        }
+    }
+
+    private static class OffHeapLongArray extends OffHeapArray implements LongArray {
+        OffHeapLongArray(OffHeapBigArrays arena, long size, boolean clearOnResize) {
+            super(arena, Long.BYTES, size, clearOnResize);
+        }
+
+        @Override
+        public long get(long index) {
+            return page(index).getLong(offset(index));
+        }
+
+        @Override
+        public long set(long index, long value) {
+            final ByteBuffer page = page(index);
+            final int offset = offset(index);
+            final long ret = page.getLong(offset);
+            page.putLong(offset, value);
+            return ret;
+        }
+
+        @Override
+        public long increment(long index, long inc) {
+            final ByteBuffer page = page(index);
+            final int offset = offset(index);
+            final long newVal = page.getLong(offset) + inc;
+            page.putLong(offset, newVal);
+            return newVal;
+        }
+
+        @Override
+        public void fill(long fromIndex, long toIndex, long value) {
+            if (fromIndex > toIndex) {
+                throw new IllegalArgumentException();
+            }
+            for (long i = fromIndex; i < toIndex; i++) {
+                page(i).putLong(offset(i), value);
+            }
+        }
+
+        @Override
+        public void set(long index, byte[] buf, int offset, int len) {
+            setBytes(index, buf, offset, len);
+        }
+    }
+
+    private static class OffHeapDoubleArray extends OffHeapArray implements DoubleArray {
+        OffHeapDoubleArray(OffHeapBigArrays arena, long size, boolean clearOnResize) {
+            super(arena, Double.BYTES, size, clearOnResize);
+        }
+
+        @Override
+        public double get(long index) {
+            return page(index).getDouble(offset(index));
+        }
+
+        @Override
+        public double set(long index, double value) {
+            final ByteBuffer page = page(index);
+            final int offset = offset(index);
+            final double ret = page.getDouble(offset);
+            page.putDouble(offset, value);
+            return ret;
+        }
+
+        @Override
+        public double increment(long index, double inc) {
+            final ByteBuffer page = page(index);
+            final int offset = offset(index);
+            final double newVal = page.getDouble(offset) + inc;
+            page.putDouble(offset, newVal);
+            return newVal;
+        }
+
+        @Override
+        public void fill(long fromIndex, long toIndex, double value) {
+            if (fromIndex > toIndex) {
+                throw new IllegalArgumentException();
+            }
+            for (long i = fromIndex; i < toIndex; i++) {
+                page(i).putDouble(offset(i), value);
+            }
+        }
+
+        @Override
+        public void set(long index, byte[] buf, int offset, int len) {
+            setBytes(index, buf, offset, len);
+        }
+    }
+}
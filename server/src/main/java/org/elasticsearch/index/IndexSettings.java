@@ -546,6 +546,17 @@ public final class IndexSettings {
         Property.Final
     );
 
+    /**
+     * Should the metrics and the {@code @timestamp} of a time series index be written with the
+     * {@link org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat} rather than the default doc values format?
+     */
+    public static final Setting<Boolean> TIME_SERIES_DOC_VALUES_FORMAT_ENABLED = Setting.boolSetting(
+        "index.time_series.tsdb_doc_values_format.enabled",
+        false,
+        Property.IndexScope,
+        Property.Final
+    );
+
     private final Index index;
     private final Version version;
     private final Logger logger;
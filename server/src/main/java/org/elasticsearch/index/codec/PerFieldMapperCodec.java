@@ -15,7 +15,14 @@ import org.apache.lucene.codecs.PostingsFormat;
 import org.apache.lucene.codecs.lucene90.Lucene90DocValuesFormat;
 import org.apache.lucene.codecs.lucene91.Lucene91Codec;
 import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.index.IndexMode;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat;
+import org.elasticsearch.index.mapper.DataStreamTimestampFieldMapper;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
 
 /**
  * {@link PerFieldMapperCodec This Lucene codec} provides the default
@@ -24,11 +31,16 @@ import org.elasticsearch.index.mapper.MapperService;
  * allows users to change the low level postings format and vectors format for individual fields
  * per index in real time via the mapping API. If no specific postings format or vector format is
  * configured for a specific field the default postings or vector format is used.
+ * <p>
+ * In time series indices that set {@code index.time_series.tsdb_doc_values_format.enabled} the metric fields and
+ * the {@code @timestamp} use the {@link ES83TSDBDocValuesFormat}.
  */
 public class PerFieldMapperCodec extends Lucene91Codec {
     private final MapperService mapperService;
+    private final boolean tsdbDocValuesFormatEnabled;
 
     private final DocValuesFormat docValuesFormat = new Lucene90DocValuesFormat();
+    private final DocValuesFormat tsdbDocValuesFormat = new ES83TSDBDocValuesFormat();
 
     static {
         assert Codec.forName(Lucene.LATEST_CODEC).getClass().isAssignableFrom(PerFieldMapperCodec.class)
@@ -38,6 +50,9 @@ public class PerFieldMapperCodec extends Lucene91Codec {
     public PerFieldMapperCodec(Mode compressionMode, MapperService mapperService) {
         super(compressionMode);
         this.mapperService = mapperService;
+        IndexSettings indexSettings = mapperService.getIndexSettings();
+        this.tsdbDocValuesFormatEnabled = indexSettings.getMode() == IndexMode.TIME_SERIES
+            && IndexSettings.TIME_SERIES_DOC_VALUES_FORMAT_ENABLED.get(indexSettings.getSettings());
     }
 
     @Override
@@ -60,6 +75,20 @@ public class PerFieldMapperCodec extends Lucene91Codec {
 
     @Override
     public DocValuesFormat getDocValuesFormatForField(String field) {
+        if (useTSDBDocValuesFormat(field)) {
+            return tsdbDocValuesFormat;
+        }
         return docValuesFormat;
     }
+
+    boolean useTSDBDocValuesFormat(String field) {
+        if (tsdbDocValuesFormatEnabled == false) {
+            return false;
+        }
+        MappedFieldType fieldType = mapperService.mappingLookup().getFieldType(field);
+        if (fieldType instanceof NumberFieldMapper.NumberFieldType) {
+            return fieldType.getMetricType() != null;
+        }
+        return fieldType instanceof DateFieldMapper.DateFieldType && field.equals(DataStreamTimestampFieldMapper.DEFAULT_PATH);
+    }
 }
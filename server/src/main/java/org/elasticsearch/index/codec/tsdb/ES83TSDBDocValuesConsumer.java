@@ -0,0 +1,225 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.DocValuesConsumer;
+import org.apache.lucene.codecs.DocValuesProducer;
+import org.apache.lucene.codecs.lucene90.IndexedDISI;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.packed.DirectMonotonicWriter;
+import org.apache.lucene.util.packed.PackedInts;
+import org.apache.lucene.util.packed.PackedLongValues;
+import org.elasticsearch.core.CheckedSupplier;
+import org.elasticsearch.core.IOUtils;
+
+import java.io.IOException;
+
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.DENSE_RANK_POWER;
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.DIRECT_MONOTONIC_BLOCK_SHIFT;
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE;
+
+/**
+ * Writes doc values in the {@link ES83TSDBDocValuesFormat}. Merges go through the default implementations of
+ * {@link DocValuesConsumer} that feed the merged values of all segments to {@link #addNumericField} and
+ * {@link #addSortedNumericField}. All other doc values go to the {@code delegate}.
+ */
+final class ES83TSDBDocValuesConsumer extends DocValuesConsumer {
+
+    private IndexOutput data;
+    private IndexOutput meta;
+    private DocValuesConsumer delegate;
+    private final int maxDoc;
+
+    ES83TSDBDocValuesConsumer(
+        SegmentWriteState state,
+        String dataCodec,
+        String dataExtension,
+        String metaCodec,
+        String metaExtension,
+        DocValuesConsumer delegate
+    ) throws IOException {
+        this.delegate = delegate;
+        boolean success = false;
+        try {
+            String dataName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, dataExtension);
+            data = state.directory.createOutput(dataName, state.context);
+            CodecUtil.writeIndexHeader(
+                data,
+                dataCodec,
+                ES83TSDBDocValuesFormat.VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            String metaName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, metaExtension);
+            meta = state.directory.createOutput(metaName, state.context);
+            CodecUtil.writeIndexHeader(
+                meta,
+                metaCodec,
+                ES83TSDBDocValuesFormat.VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            maxDoc = state.segmentInfo.maxDoc();
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(this);
+            }
+        }
+    }
+
+    @Override
+    public void addNumericField(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
+        meta.writeInt(field.number);
+        meta.writeByte(ES83TSDBDocValuesFormat.NUMERIC);
+        writeField(() -> DocValues.singleton(valuesProducer.getNumeric(field)), false);
+    }
+
+    @Override
+    public void addSortedNumericField(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
+        meta.writeInt(field.number);
+        meta.writeByte(ES83TSDBDocValuesFormat.SORTED_NUMERIC);
+        writeField(() -> valuesProducer.getSortedNumeric(field), true);
+    }
+
+    private void writeField(CheckedSupplier<SortedNumericDocValues, IOException> values, boolean multiValued) throws IOException {
+        int numDocsWithField = 0;
+        long numValues = 0;
+        SortedNumericDocValues counting = values.get();
+        for (int doc = counting.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = counting.nextDoc()) {
+            numDocsWithField++;
+            numValues += counting.docValueCount();
+        }
+
+        if (numDocsWithField == 0) {
+            meta.writeLong(-2); // docsWithFieldOffset
+            meta.writeLong(0L); // docsWithFieldLength
+            meta.writeShort((short) -1); // jumpTableEntryCount
+            meta.writeByte((byte) -1); // denseRankPower
+        } else if (numDocsWithField == maxDoc) {
+            meta.writeLong(-1); // docsWithFieldOffset
+            meta.writeLong(0L); // docsWithFieldLength
+            meta.writeShort((short) -1); // jumpTableEntryCount
+            meta.writeByte((byte) -1); // denseRankPower
+        } else {
+            long offset = data.getFilePointer();
+            meta.writeLong(offset); // docsWithFieldOffset
+            short jumpTableEntryCount = IndexedDISI.writeBitSet(values.get(), data, DENSE_RANK_POWER);
+            meta.writeLong(data.getFilePointer() - offset); // docsWithFieldLength
+            meta.writeShort(jumpTableEntryCount);
+            meta.writeByte(DENSE_RANK_POWER);
+        }
+        meta.writeInt(numDocsWithField);
+        meta.writeLong(numValues);
+
+        if (numValues > 0) {
+            writeValues(values.get(), numValues);
+        }
+
+        if (multiValued && numValues > numDocsWithField) {
+            long start = data.getFilePointer();
+            meta.writeLong(start);
+            DirectMonotonicWriter addresses = DirectMonotonicWriter.getInstance(
+                meta,
+                data,
+                numDocsWithField + 1L,
+                DIRECT_MONOTONIC_BLOCK_SHIFT
+            );
+            long address = 0;
+            addresses.add(address);
+            SortedNumericDocValues docs = values.get();
+            for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+                address += docs.docValueCount();
+                addresses.add(address);
+            }
+            addresses.finish();
+            meta.writeLong(data.getFilePointer() - start);
+        }
+    }
+
+    private void writeValues(SortedNumericDocValues values, long numValues) throws IOException {
+        long valuesStart = data.getFilePointer();
+        meta.writeLong(valuesStart);
+        // block offsets can only be written once all blocks are written because they go to the same file
+        PackedLongValues.Builder blockOffsets = PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+        long[] buffer = new long[NUMERIC_BLOCK_SIZE];
+        int buffered = 0;
+        for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+            for (int i = 0, count = values.docValueCount(); i < count; i++) {
+                buffer[buffered++] = values.nextValue();
+                if (buffered == NUMERIC_BLOCK_SIZE) {
+                    blockOffsets.add(data.getFilePointer() - valuesStart);
+                    ES83TSDBDocValuesEncoder.encode(buffer, buffered, data);
+                    buffered = 0;
+                }
+            }
+        }
+        if (buffered > 0) {
+            blockOffsets.add(data.getFilePointer() - valuesStart);
+            ES83TSDBDocValuesEncoder.encode(buffer, buffered, data);
+        }
+        meta.writeLong(data.getFilePointer() - valuesStart); // valuesLength
+
+        PackedLongValues offsets = blockOffsets.build();
+        assert offsets.size() == (numValues + NUMERIC_BLOCK_SIZE - 1) / NUMERIC_BLOCK_SIZE;
+        long offsetsStart = data.getFilePointer();
+        meta.writeLong(offsetsStart);
+        DirectMonotonicWriter writer = DirectMonotonicWriter.getInstance(meta, data, offsets.size(), DIRECT_MONOTONIC_BLOCK_SHIFT);
+        for (PackedLongValues.Iterator it = offsets.iterator(); it.hasNext();) {
+            writer.add(it.next());
+        }
+        writer.finish();
+        meta.writeLong(data.getFilePointer() - offsetsStart);
+    }
+
+    @Override
+    public void addBinaryField(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
+        delegate.addBinaryField(field, valuesProducer);
+    }
+
+    @Override
+    public void addSortedField(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
+        delegate.addSortedField(field, valuesProducer);
+    }
+
+    @Override
+    public void addSortedSetField(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
+        delegate.addSortedSetField(field, valuesProducer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        boolean success = false;
+        try {
+            if (meta != null) {
+                meta.writeInt(-1); // write EOF marker
+                CodecUtil.writeFooter(meta); // write checksum
+            }
+            if (data != null) {
+                CodecUtil.writeFooter(data); // write checksum
+            }
+            success = true;
+        } finally {
+            if (success) {
+                IOUtils.close(data, meta, delegate);
+            } else {
+                IOUtils.closeWhileHandlingException(data, meta, delegate);
+            }
+            meta = data = null;
+            delegate = null;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.util.packed.PackedInts;
+
+import java.io.IOException;
+
+/**
+ * Encodes blocks of up to {@link ES83TSDBDocValuesFormat#NUMERIC_BLOCK_SIZE} longs. Each block is written with whichever of
+ * these encodings is the smallest:
+ * <ul>
+ *     <li>{@link #FRAME_OF_REFERENCE}: the minimum value followed by the bit packed difference of every value to the minimum.
+ *     Good for values that move around within a small range.</li>
+ *     <li>{@link #DELTA_OF_DELTA}: the first value and the first delta followed by the bit packed difference between
+ *     consecutive deltas. Timestamps sampled at a fixed interval and steadily growing counters need next to no bits.</li>
+ *     <li>{@link #XOR}: every value is xor-ed with the previous one and only the meaningful bits of the result are written,
+ *     like in Facebook's Gorilla paper. Floating point gauges that change slowly share their sign, exponent and the top of
+ *     their mantissa with the previous value.</li>
+ * </ul>
+ * All arithmetic wraps around so any long can be encoded.
+ */
+final class ES83TSDBDocValuesEncoder {
+
+    static final byte FRAME_OF_REFERENCE = 0;
+    static final byte DELTA_OF_DELTA = 1;
+    static final byte XOR = 2;
+
+    private ES83TSDBDocValuesEncoder() {}
+
+    /**
+     * Encode the first {@code count} values of {@code in}.
+     */
+    static void encode(long[] in, int count, DataOutput out) throws IOException {
+        assert count > 0 && count <= ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE : count;
+        long min = in[0];
+        long max = in[0];
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, in[i]);
+            max = Math.max(max, in[i]);
+        }
+        int forBits = PackedInts.unsignedBitsRequired(max - min);
+        long forSize = 64 + packedSize((long) forBits * count);
+
+        long dodSize = Long.MAX_VALUE;
+        long minDod = 0;
+        int dodBits = 0;
+        if (count > 2) {
+            minDod = Long.MAX_VALUE;
+            long maxDod = Long.MIN_VALUE;
+            for (int i = 2; i < count; i++) {
+                long dod = (in[i] - in[i - 1]) - (in[i - 1] - in[i - 2]);
+                minDod = Math.min(minDod, dod);
+                maxDod = Math.max(maxDod, dod);
+            }
+            dodBits = PackedInts.unsignedBitsRequired(maxDod - minDod);
+            dodSize = 64 * 3 + packedSize((long) dodBits * (count - 2));
+        }
+
+        long xorSize = packedSize(xorBits(in, count));
+
+        if (dodSize <= forSize && dodSize <= xorSize) {
+            out.writeByte(DELTA_OF_DELTA);
+            out.writeZLong(in[0]);
+            out.writeZLong(in[1] - in[0]);
+            out.writeZLong(minDod);
+            out.writeByte((byte) dodBits);
+            BitWriter writer = new BitWriter(out);
+            for (int i = 2; i < count; i++) {
+                long dod = (in[i] - in[i - 1]) - (in[i - 1] - in[i - 2]);
+                writer.write(dod - minDod, dodBits);
+            }
+            writer.finish();
+        } else if (forSize <= xorSize) {
+            out.writeByte(FRAME_OF_REFERENCE);
+            out.writeZLong(min);
+            out.writeByte((byte) forBits);
+            BitWriter writer = new BitWriter(out);
+            for (int i = 0; i < count; i++) {
+                writer.write(in[i] - min, forBits);
+            }
+            writer.finish();
+        } else {
+            out.writeByte(XOR);
+            BitWriter writer = new BitWriter(out);
+            writer.write(in[0], 64);
+            for (int i = 1; i < count; i++) {
+                long xor = in[i] ^ in[i - 1];
+                if (xor == 0) {
+                    writer.write(0, 1);
+                } else {
+                    int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 63);
+                    int trailingZeros = Long.numberOfTrailingZeros(xor);
+                    int meaningfulBits = 64 - leadingZeros - trailingZeros;
+                    writer.write(1, 1);
+                    writer.write(leadingZeros, 6);
+                    writer.write(meaningfulBits - 1, 6);
+                    writer.write(xor >>> trailingZeros, meaningfulBits);
+                }
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * Decode a block of {@code count} values into {@code out}.
+     */
+    static void decode(DataInput in, long[] out, int count) throws IOException {
+        byte encoding = in.readByte();
+        switch (encoding) {
+            case DELTA_OF_DELTA -> {
+                out[0] = in.readZLong();
+                long delta = in.readZLong();
+                if (count > 1) {
+                    out[1] = out[0] + delta;
+                }
+                long minDod = in.readZLong();
+                int bits = in.readByte();
+                BitReader reader = new BitReader(in);
+                for (int i = 2; i < count; i++) {
+                    delta += reader.read(bits) + minDod;
+                    out[i] = out[i - 1] + delta;
+                }
+            }
+            case FRAME_OF_REFERENCE -> {
+                long min = in.readZLong();
+                int bits = in.readByte();
+                BitReader reader = new BitReader(in);
+                for (int i = 0; i < count; i++) {
+                    out[i] = min + reader.read(bits);
+                }
+            }
+            case XOR -> {
+                BitReader reader = new BitReader(in);
+                out[0] = reader.read(64);
+                for (int i = 1; i < count; i++) {
+                    if (reader.read(1) == 0) {
+                        out[i] = out[i - 1];
+                    } else {
+                        int leadingZeros = (int) reader.read(6);
+                        int meaningfulBits = (int) reader.read(6) + 1;
+                        int trailingZeros = 64 - leadingZeros - meaningfulBits;
+                        out[i] = out[i - 1] ^ (reader.read(meaningfulBits) << trailingZeros);
+                    }
+                }
+            }
+            default -> throw new IOException("unknown block encoding [" + encoding + "]");
+        }
+    }
+
+    private static long xorBits(long[] in, int count) {
+        long bits = 64;
+        for (int i = 1; i < count; i++) {
+            long xor = in[i] ^ in[i - 1];
+            if (xor == 0) {
+                bits += 1;
+            } else {
+                int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 63);
+                bits += 13 + 64 - leadingZeros - Long.numberOfTrailingZeros(xor);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Number of bits taken by {@code bits} once written by a {@link BitWriter}, which pads to whole longs.
+     */
+    private static long packedSize(long bits) {
+        return (bits + 63) & ~63L;
+    }
+
+    /**
+     * Writes values of arbitrary bit widths, least significant bits first, in little endian longs.
+     */
+    private static final class BitWriter {
+        private final DataOutput out;
+        private long buffer;
+        private int bufferedBits;
+
+        BitWriter(DataOutput out) {
+            this.out = out;
+        }
+
+        void write(long value, int bits) throws IOException {
+            if (bits == 0) {
+                return;
+            }
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+            int free = 64 - bufferedBits;
+            buffer |= value << bufferedBits;
+            if (bits < free) {
+                bufferedBits += bits;
+            } else {
+                out.writeLong(buffer);
+                buffer = bits == free ? 0 : value >>> free;
+                bufferedBits = bits - free;
+            }
+        }
+
+        void finish() throws IOException {
+            if (bufferedBits > 0) {
+                out.writeLong(buffer);
+                buffer = 0;
+                bufferedBits = 0;
+            }
+        }
+    }
+
+    /**
+     * Reads values written by a {@link BitWriter}.
+     */
+    private static final class BitReader {
+        private final DataInput in;
+        private long buffer;
+        private int bufferedBits;
+
+        BitReader(DataInput in) {
+            this.in = in;
+        }
+
+        long read(int bits) throws IOException {
+            if (bits == 0) {
+                return 0;
+            }
+            if (bits <= bufferedBits) {
+                long value = bits == 64 ? buffer : buffer & ((1L << bits) - 1);
+                buffer = bits == 64 ? 0 : buffer >>> bits;
+                bufferedBits -= bits;
+                return value;
+            }
+            long low = buffer;
+            int lowBits = bufferedBits;
+            int highBits = bits - lowBits;
+            buffer = in.readLong();
+            long high = highBits == 64 ? buffer : buffer & ((1L << highBits) - 1);
+            buffer = highBits == 64 ? 0 : buffer >>> highBits;
+            bufferedBits = 64 - highBits;
+            return low | (high << lowBits);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.apache.lucene.codecs.DocValuesConsumer;
+import org.apache.lucene.codecs.DocValuesFormat;
+import org.apache.lucene.codecs.DocValuesProducer;
+import org.apache.lucene.codecs.lucene90.Lucene90DocValuesFormat;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+
+import java.io.IOException;
+
+/**
+ * Doc values format for the numeric fields of time series indices: the metrics and the {@code @timestamp}. Documents in
+ * these indices are sorted by {@code _tsid} and {@code @timestamp} so neighbouring values of a field tend to be close to
+ * each other. Values are written in blocks of {@link #NUMERIC_BLOCK_SIZE} and each block picks the smallest of a
+ * delta-of-delta, a frame of reference or an XOR encoding, see {@link ES83TSDBDocValuesEncoder}.
+ * <p>
+ * {@code BINARY}, {@code SORTED} and {@code SORTED_SET} doc values are left to the {@link Lucene90DocValuesFormat},
+ * which writes them to its own files next to ours.
+ */
+public final class ES83TSDBDocValuesFormat extends DocValuesFormat {
+
+    static final String CODEC_NAME = "ES83TSDB";
+    static final String DATA_CODEC = "ES83TSDBDocValuesData";
+    static final String DATA_EXTENSION = "dvd";
+    static final String META_CODEC = "ES83TSDBDocValuesMetadata";
+    static final String META_EXTENSION = "dvm";
+    static final int VERSION_START = 0;
+    static final int VERSION_CURRENT = VERSION_START;
+
+    static final byte NUMERIC = 0;
+    static final byte SORTED_NUMERIC = 1;
+
+    static final int NUMERIC_BLOCK_SHIFT = 7;
+    static final int NUMERIC_BLOCK_SIZE = 1 << NUMERIC_BLOCK_SHIFT;
+    static final int NUMERIC_BLOCK_MASK = NUMERIC_BLOCK_SIZE - 1;
+
+    static final int DIRECT_MONOTONIC_BLOCK_SHIFT = 16;
+    static final byte DENSE_RANK_POWER = 9;
+
+    private final DocValuesFormat delegate = new Lucene90DocValuesFormat();
+
+    public ES83TSDBDocValuesFormat() {
+        super(CODEC_NAME);
+    }
+
+    @Override
+    public DocValuesConsumer fieldsConsumer(SegmentWriteState state) throws IOException {
+        DocValuesConsumer delegateConsumer = delegate.fieldsConsumer(new SegmentWriteState(state, delegateSuffix(state.segmentSuffix)));
+        return new ES83TSDBDocValuesConsumer(state, DATA_CODEC, DATA_EXTENSION, META_CODEC, META_EXTENSION, delegateConsumer);
+    }
+
+    @Override
+    public DocValuesProducer fieldsProducer(SegmentReadState state) throws IOException {
+        DocValuesProducer delegateProducer = delegate.fieldsProducer(new SegmentReadState(state, delegateSuffix(state.segmentSuffix)));
+        return new ES83TSDBDocValuesProducer(state, DATA_CODEC, DATA_EXTENSION, META_CODEC, META_EXTENSION, delegateProducer);
+    }
+
+    /**
+     * The segment suffix of the files of the {@link Lucene90DocValuesFormat}, which uses the same extensions as we do.
+     */
+    private static String delegateSuffix(String segmentSuffix) {
+        return segmentSuffix.isEmpty() ? "delegate" : segmentSuffix + "_delegate";
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.DocValuesProducer;
+import org.apache.lucene.codecs.lucene90.IndexedDISI;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.packed.DirectMonotonicReader;
+import org.elasticsearch.core.IOUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.DIRECT_MONOTONIC_BLOCK_SHIFT;
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+import static org.elasticsearch.index.codec.tsdb.ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE;
+
+/**
+ * Reads doc values written in the {@link ES83TSDBDocValuesFormat}. Values are decoded a whole block at a time and the last
+ * decoded block is kept so that iterating documents in order decodes every block once. All other doc values come from
+ * the {@code delegate}.
+ */
+final class ES83TSDBDocValuesProducer extends DocValuesProducer {
+
+    private final Map<String, NumericEntry> numerics = new HashMap<>();
+    private final Map<String, SortedNumericEntry> sortedNumerics = new HashMap<>();
+    private final IndexInput data;
+    private final DocValuesProducer delegate;
+    private final int maxDoc;
+
+    ES83TSDBDocValuesProducer(
+        SegmentReadState state,
+        String dataCodec,
+        String dataExtension,
+        String metaCodec,
+        String metaExtension,
+        DocValuesProducer delegate
+    ) throws IOException {
+        boolean opened = false;
+        try {
+            this.data = open(state, dataCodec, dataExtension, metaCodec, metaExtension);
+            opened = true;
+        } finally {
+            if (opened == false) {
+                IOUtils.closeWhileHandlingException(delegate);
+            }
+        }
+        this.delegate = delegate;
+        this.maxDoc = state.segmentInfo.maxDoc();
+    }
+
+    private IndexInput open(SegmentReadState state, String dataCodec, String dataExtension, String metaCodec, String metaExtension)
+        throws IOException {
+        String metaName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, metaExtension);
+
+        int version = -1;
+        try (ChecksumIndexInput in = state.directory.openChecksumInput(metaName, state.context)) {
+            Throwable priorE = null;
+            try {
+                version = CodecUtil.checkIndexHeader(
+                    in,
+                    metaCodec,
+                    ES83TSDBDocValuesFormat.VERSION_START,
+                    ES83TSDBDocValuesFormat.VERSION_CURRENT,
+                    state.segmentInfo.getId(),
+                    state.segmentSuffix
+                );
+                readFields(in, state.fieldInfos);
+            } catch (Throwable exception) {
+                priorE = exception;
+            } finally {
+                CodecUtil.checkFooter(in, priorE);
+            }
+        }
+
+        String dataName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, dataExtension);
+        IndexInput data = state.directory.openInput(dataName, state.context);
+        boolean success = false;
+        try {
+            final int version2 = CodecUtil.checkIndexHeader(
+                data,
+                dataCodec,
+                ES83TSDBDocValuesFormat.VERSION_START,
+                ES83TSDBDocValuesFormat.VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            if (version != version2) {
+                throw new CorruptIndexException("Format versions mismatch: meta=" + version + ", data=" + version2, data);
+            }
+            // NOTE: data file is too costly to verify checksum against all the bytes on open,
+            // but for now we at least verify proper structure of the checksum footer: which looks
+            // for FOOTER_MAGIC + algorithmID. This is cheap and can detect some forms of corruption
+            // such as file truncation.
+            CodecUtil.retrieveChecksum(data);
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(data);
+            }
+        }
+        return data;
+    }
+
+    private void readFields(IndexInput meta, FieldInfos infos) throws IOException {
+        for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
+            FieldInfo info = infos.fieldInfo(fieldNumber);
+            if (info == null) {
+                throw new CorruptIndexException("Invalid field number: " + fieldNumber, meta);
+            }
+            byte type = meta.readByte();
+            if (type == ES83TSDBDocValuesFormat.NUMERIC) {
+                numerics.put(info.name, readNumeric(meta));
+            } else if (type == ES83TSDBDocValuesFormat.SORTED_NUMERIC) {
+                sortedNumerics.put(info.name, readSortedNumeric(meta));
+            } else {
+                throw new CorruptIndexException("invalid type: " + type, meta);
+            }
+        }
+    }
+
+    private static NumericEntry readNumeric(IndexInput meta) throws IOException {
+        NumericEntry entry = new NumericEntry();
+        readNumeric(meta, entry);
+        return entry;
+    }
+
+    private static void readNumeric(IndexInput meta, NumericEntry entry) throws IOException {
+        entry.docsWithFieldOffset = meta.readLong();
+        entry.docsWithFieldLength = meta.readLong();
+        entry.jumpTableEntryCount = meta.readShort();
+        entry.denseRankPower = meta.readByte();
+        entry.numDocsWithField = meta.readInt();
+        entry.numValues = meta.readLong();
+        if (entry.numValues > 0) {
+            entry.valuesOffset = meta.readLong();
+            entry.valuesLength = meta.readLong();
+            entry.blockOffsetsOffset = meta.readLong();
+            long numBlocks = (entry.numValues + NUMERIC_BLOCK_SIZE - 1) >>> NUMERIC_BLOCK_SHIFT;
+            entry.blockOffsetsMeta = DirectMonotonicReader.loadMeta(meta, numBlocks, DIRECT_MONOTONIC_BLOCK_SHIFT);
+            entry.blockOffsetsLength = meta.readLong();
+        }
+    }
+
+    private static SortedNumericEntry readSortedNumeric(IndexInput meta) throws IOException {
+        SortedNumericEntry entry = new SortedNumericEntry();
+        readNumeric(meta, entry);
+        if (entry.numValues > entry.numDocsWithField) {
+            entry.addressesOffset = meta.readLong();
+            entry.addressesMeta = DirectMonotonicReader.loadMeta(meta, entry.numDocsWithField + 1L, DIRECT_MONOTONIC_BLOCK_SHIFT);
+            entry.addressesLength = meta.readLong();
+        }
+        return entry;
+    }
+
+    @Override
+    public NumericDocValues getNumeric(FieldInfo field) throws IOException {
+        return getNumeric(numerics.get(field.name));
+    }
+
+    private NumericDocValues getNumeric(NumericEntry entry) throws IOException {
+        if (entry.docsWithFieldOffset == -2) {
+            return DocValues.emptyNumeric();
+        }
+        BlockValues values = new BlockValues(entry);
+        if (entry.docsWithFieldOffset == -1) {
+            return new NumericDocValues() {
+                private int doc = -1;
+
+                @Override
+                public long longValue() throws IOException {
+                    return values.get(doc);
+                }
+
+                @Override
+                public int docID() {
+                    return doc;
+                }
+
+                @Override
+                public int nextDoc() {
+                    return advance(doc + 1);
+                }
+
+                @Override
+                public int advance(int target) {
+                    if (target >= maxDoc) {
+                        return doc = NO_MORE_DOCS;
+                    }
+                    return doc = target;
+                }
+
+                @Override
+                public boolean advanceExact(int target) {
+                    doc = target;
+                    return true;
+                }
+
+                @Override
+                public long cost() {
+                    return maxDoc;
+                }
+            };
+        }
+        IndexedDISI disi = new IndexedDISI(
+            data,
+            entry.docsWithFieldOffset,
+            entry.docsWithFieldLength,
+            entry.jumpTableEntryCount,
+            entry.denseRankPower,
+            entry.numDocsWithField
+        );
+        return new NumericDocValues() {
+            @Override
+            public long longValue() throws IOException {
+                return values.get(disi.index());
+            }
+
+            @Override
+            public int docID() {
+                return disi.docID();
+            }
+
+            @Override
+            public int nextDoc() throws IOException {
+                return disi.nextDoc();
+            }
+
+            @Override
+            public int advance(int target) throws IOException {
+                return disi.advance(target);
+            }
+
+            @Override
+            public boolean advanceExact(int target) throws IOException {
+                return disi.advanceExact(target);
+            }
+
+            @Override
+            public long cost() {
+                return disi.cost();
+            }
+        };
+    }
+
+    @Override
+    public SortedNumericDocValues getSortedNumeric(FieldInfo field) throws IOException {
+        SortedNumericEntry entry = sortedNumerics.get(field.name);
+        if (entry.numValues == entry.numDocsWithField) {
+            return DocValues.singleton(getNumeric(entry));
+        }
+        BlockValues values = new BlockValues(entry);
+        LongValues addresses = DirectMonotonicReader.getInstance(
+            entry.addressesMeta,
+            data.randomAccessSlice(entry.addressesOffset, entry.addressesLength)
+        );
+        if (entry.docsWithFieldOffset == -1) {
+            return new SortedNumericDocValues() {
+                private int doc = -1;
+                private long start;
+                private long end;
+                private int count;
+
+                @Override
+                public long nextValue() throws IOException {
+                    return values.get(start++);
+                }
+
+                @Override
+                public int docValueCount() {
+                    return count;
+                }
+
+                @Override
+                public int docID() {
+                    return doc;
+                }
+
+                @Override
+                public int nextDoc() {
+                    return advance(doc + 1);
+                }
+
+                @Override
+                public int advance(int target) {
+                    if (target >= maxDoc) {
+                        return doc = NO_MORE_DOCS;
+                    }
+                    setDoc(target);
+                    return doc;
+                }
+
+                @Override
+                public boolean advanceExact(int target) {
+                    setDoc(target);
+                    return true;
+                }
+
+                private void setDoc(int target) {
+                    doc = target;
+                    start = addresses.get(target);
+                    end = addresses.get(target + 1L);
+                    count = (int) (end - start);
+                }
+
+                @Override
+                public long cost() {
+                    return maxDoc;
+                }
+            };
+        }
+        IndexedDISI disi = new IndexedDISI(
+            data,
+            entry.docsWithFieldOffset,
+            entry.docsWithFieldLength,
+            entry.jumpTableEntryCount,
+            entry.denseRankPower,
+            entry.numDocsWithField
+        );
+        return new SortedNumericDocValues() {
+            private boolean set;
+            private long start;
+            private long end;
+            private int count;
+
+            @Override
+            public long nextValue() throws IOException {
+                set();
+                return values.get(start++);
+            }
+
+            @Override
+            public int docValueCount() {
+                set();
+                return count;
+            }
+
+            @Override
+            public int docID() {
+                return disi.docID();
+            }
+
+            @Override
+            public int nextDoc() throws IOException {
+                set = false;
+                return disi.nextDoc();
+            }
+
+            @Override
+            public int advance(int target) throws IOException {
+                set = false;
+                return disi.advance(target);
+            }
+
+            @Override
+            public boolean advanceExact(int target) throws IOException {
+                set = false;
+                return disi.advanceExact(target);
+            }
+
+            private void set() {
+                if (set == false) {
+                    int index = disi.index();
+                    start = addresses.get(index);
+                    end = addresses.get(index + 1L);
+                    count = (int) (end - start);
+                    set = true;
+                }
+            }
+
+            @Override
+            public long cost() {
+                return disi.cost();
+            }
+        };
+    }
+
+    @Override
+    public BinaryDocValues getBinary(FieldInfo field) throws IOException {
+        return delegate.getBinary(field);
+    }
+
+    @Override
+    public SortedDocValues getSorted(FieldInfo field) throws IOException {
+        return delegate.getSorted(field);
+    }
+
+    @Override
+    public SortedSetDocValues getSortedSet(FieldInfo field) throws IOException {
+        return delegate.getSortedSet(field);
+    }
+
+    @Override
+    public void checkIntegrity() throws IOException {
+        CodecUtil.checksumEntireFile(data);
+        delegate.checkIntegrity();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(data, delegate);
+    }
+
+    /**
+     * Random access to the values of a field that decodes a block at a time.
+     */
+    private class BlockValues {
+        private final IndexInput values;
+        private final LongValues blockOffsets;
+        private final long numValues;
+        private final long[] buffer = new long[NUMERIC_BLOCK_SIZE];
+        private long currentBlock = -1;
+
+        BlockValues(NumericEntry entry) throws IOException {
+            this.values = data.slice("values", entry.valuesOffset, entry.valuesLength);
+            this.blockOffsets = DirectMonotonicReader.getInstance(
+                entry.blockOffsetsMeta,
+                data.randomAccessSlice(entry.blockOffsetsOffset, entry.blockOffsetsLength)
+            );
+            this.numValues = entry.numValues;
+        }
+
+        long get(long index) throws IOException {
+            long block = index >>> NUMERIC_BLOCK_SHIFT;
+            if (block != currentBlock) {
+                values.seek(blockOffsets.get(block));
+                int count = (int) Math.min(NUMERIC_BLOCK_SIZE, numValues - (block << NUMERIC_BLOCK_SHIFT));
+                ES83TSDBDocValuesEncoder.decode(values, buffer, count);
+                currentBlock = block;
+            }
+            return buffer[(int) (index & NUMERIC_BLOCK_MASK)];
+        }
+    }
+
+    private static class NumericEntry {
+        long docsWithFieldOffset;
+        long docsWithFieldLength;
+        short jumpTableEntryCount;
+        byte denseRankPower;
+        int numDocsWithField;
+        long numValues;
+        long valuesOffset;
+        long valuesLength;
+        long blockOffsetsOffset;
+        DirectMonotonicReader.Meta blockOffsetsMeta;
+        long blockOffsetsLength;
+    }
+
+    private static class SortedNumericEntry extends NumericEntry {
+        long addressesOffset;
+        DirectMonotonicReader.Meta addressesMeta;
+        long addressesLength;
+    }
+}
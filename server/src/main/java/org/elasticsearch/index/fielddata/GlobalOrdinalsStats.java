@@ -0,0 +1,137 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.fielddata;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.xcontent.ToXContentFragment;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Statistics about the global ordinals part of the {@link FieldDataStats}.
+ */
+public class GlobalOrdinalsStats implements Writeable, ToXContentFragment {
+
+    private static final String GLOBAL_ORDINALS = "global_ordinals";
+    private static final String MEMORY_SIZE = "memory_size";
+    private static final String MEMORY_SIZE_IN_BYTES = "memory_size_in_bytes";
+    private static final String BUILD_TIME = "build_time";
+    private static final String BUILD_TIME_IN_MILLIS = "build_time_in_millis";
+    private static final String BUILDS = "builds";
+    private static final String REUSED_ORDINAL_MAPS = "reused_ordinal_maps";
+
+    private long memorySize;
+    private long buildTimeInMillis;
+    private long builds;
+    private long reusedOrdinalMaps;
+
+    public GlobalOrdinalsStats() {
+
+    }
+
+    public GlobalOrdinalsStats(StreamInput in) throws IOException {
+        memorySize = in.readVLong();
+        buildTimeInMillis = in.readVLong();
+        builds = in.readVLong();
+        reusedOrdinalMaps = in.readVLong();
+    }
+
+    public GlobalOrdinalsStats(long memorySize, long buildTimeInMillis, long builds, long reusedOrdinalMaps) {
+        this.memorySize = memorySize;
+        this.buildTimeInMillis = buildTimeInMillis;
+        this.builds = builds;
+        this.reusedOrdinalMaps = reusedOrdinalMaps;
+    }
+
+    public void add(GlobalOrdinalsStats stats) {
+        this.memorySize += stats.memorySize;
+        this.buildTimeInMillis += stats.buildTimeInMillis;
+        this.builds += stats.builds;
+        this.reusedOrdinalMaps += stats.reusedOrdinalMaps;
+    }
+
+    /**
+     * The memory taken by the global ordinals, which is part of the
+     * {@link FieldDataStats#getMemorySize() fielddata memory}.
+     */
+    public ByteSizeValue getMemorySize() {
+        return new ByteSizeValue(memorySize);
+    }
+
+    public long getMemorySizeInBytes() {
+        return memorySize;
+    }
+
+    /**
+     * The total time spent building global ordinals.
+     */
+    public TimeValue getBuildTime() {
+        return new TimeValue(buildTimeInMillis);
+    }
+
+    public long getBuildTimeInMillis() {
+        return buildTimeInMillis;
+    }
+
+    /**
+     * How many times global ordinals were built.
+     */
+    public long getBuilds() {
+        return builds;
+    }
+
+    /**
+     * How many of the {@link #getBuilds() builds} reused the ordinal map of
+     * the previous reader because its segments hadn't changed.
+     */
+    public long getReusedOrdinalMaps() {
+        return reusedOrdinalMaps;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(memorySize);
+        out.writeVLong(buildTimeInMillis);
+        out.writeVLong(builds);
+        out.writeVLong(reusedOrdinalMaps);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(GLOBAL_ORDINALS);
+        builder.humanReadableField(MEMORY_SIZE_IN_BYTES, MEMORY_SIZE, getMemorySize());
+        builder.humanReadableField(BUILD_TIME_IN_MILLIS, BUILD_TIME, getBuildTime());
+        builder.field(BUILDS, builds);
+        builder.field(REUSED_ORDINAL_MAPS, reusedOrdinalMaps);
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GlobalOrdinalsStats that = (GlobalOrdinalsStats) o;
+        return memorySize == that.memorySize
+            && buildTimeInMillis == that.buildTimeInMillis
+            && builds == that.builds
+            && reusedOrdinalMaps == that.reusedOrdinalMaps;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(memorySize, buildTimeInMillis, builds, reusedOrdinalMaps);
+    }
+}
@@ -251,5 +251,14 @@ public interface IndexFieldData<FD extends LeafFieldData> {
 
         IndexFieldData<FD> loadGlobalDirect(DirectoryReader indexReader) throws Exception;
 
+        /**
+         * Like {@link #loadGlobalDirect(DirectoryReader)} but may reuse what
+         * is still valid in {@code previous}, the global field data last
+         * loaded for an older reader of the same shard.
+         */
+        default IndexFieldData<FD> loadGlobalDirect(DirectoryReader indexReader, @Nullable IndexFieldData<FD> previous) throws Exception {
+            return loadGlobalDirect(indexReader);
+        }
+
     }
 }
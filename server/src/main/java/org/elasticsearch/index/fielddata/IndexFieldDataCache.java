@@ -44,6 +44,13 @@ public interface IndexFieldDataCache {
          * Called after the fielddata is unloaded
          */
         default void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, long sizeInBytes) {}
+
+        /**
+         * Called after the fielddata is unloaded with the unloaded fielddata
+         */
+        default void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, long sizeInBytes, Accountable value) {
+            onRemoval(shardId, fieldName, wasEvicted, sizeInBytes);
+        }
     }
 
     class None implements IndexFieldDataCache {
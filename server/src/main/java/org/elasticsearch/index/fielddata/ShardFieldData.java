@@ -14,17 +14,23 @@ import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.common.util.CollectionUtils;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsIndexFieldData;
 import org.elasticsearch.index.shard.ShardId;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 public class ShardFieldData implements IndexFieldDataCache.Listener {
 
     private final CounterMetric evictionsMetric = new CounterMetric();
     private final CounterMetric totalMetric = new CounterMetric();
     private final ConcurrentMap<String, CounterMetric> perFieldTotals = ConcurrentCollections.newConcurrentMap();
+    private final CounterMetric globalOrdinalsMemory = new CounterMetric();
+    private final CounterMetric globalOrdinalsBuildTimeInNanos = new CounterMetric();
+    private final CounterMetric globalOrdinalsBuilds = new CounterMetric();
+    private final CounterMetric globalOrdinalsReusedOrdinalMaps = new CounterMetric();
 
     public FieldDataStats stats(String... fields) {
         Map<String, Long> fieldTotals = null;
@@ -39,13 +45,27 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
         return new FieldDataStats(
             totalMetric.count(),
             evictionsMetric.count(),
-            fieldTotals == null ? null : new FieldMemoryStats(fieldTotals)
+            fieldTotals == null ? null : new FieldMemoryStats(fieldTotals),
+            new GlobalOrdinalsStats(
+                globalOrdinalsMemory.count(),
+                TimeUnit.NANOSECONDS.toMillis(globalOrdinalsBuildTimeInNanos.count()),
+                globalOrdinalsBuilds.count(),
+                globalOrdinalsReusedOrdinalMaps.count()
+            )
         );
     }
 
     @Override
     public void onCache(ShardId shardId, String fieldName, Accountable ramUsage) {
         totalMetric.inc(ramUsage.ramBytesUsed());
+        if (ramUsage instanceof GlobalOrdinalsIndexFieldData globalOrdinals) {
+            globalOrdinalsMemory.inc(globalOrdinals.ramBytesUsed());
+            globalOrdinalsBuildTimeInNanos.inc(globalOrdinals.getBuildTimeInNanos());
+            globalOrdinalsBuilds.inc();
+            if (globalOrdinals.reusedOrdinalMap()) {
+                globalOrdinalsReusedOrdinalMaps.inc();
+            }
+        }
         CounterMetric total = perFieldTotals.get(fieldName);
         if (total != null) {
             total.inc(ramUsage.ramBytesUsed());
@@ -73,4 +93,12 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
             }
         }
     }
+
+    @Override
+    public void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, long sizeInBytes, Accountable value) {
+        onRemoval(shardId, fieldName, wasEvicted, sizeInBytes);
+        if (value instanceof GlobalOrdinalsIndexFieldData && sizeInBytes != -1) {
+            globalOrdinalsMemory.dec(sizeInBytes);
+        }
+    }
 }
@@ -10,12 +10,15 @@ package org.elasticsearch.index.fielddata.ordinals;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.packed.PackedInts;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
@@ -24,6 +27,7 @@ import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
@@ -43,6 +47,26 @@ public enum GlobalOrdinalsBuilder {
         CircuitBreakerService breakerService,
         Logger logger,
         ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
+    ) throws IOException {
+        return build(indexReader, indexFieldData, null, breakerService, logger, toScriptFieldFactory);
+    }
+
+    /**
+     * Build global ordinals for the provided {@link IndexReader}, reusing the
+     * {@link OrdinalMap} of the global ordinals built for a previous reader of
+     * the same shard if that reader had the same segments with the same values.
+     * That is the case after a refresh that only brought deletes, which changes
+     * the reader but not the terms of any of its segments. If any segment was
+     * added or merged away the map is built from scratch: Lucene's {@link OrdinalMap}
+     * can't be extended with the terms of new segments.
+     */
+    public static IndexOrdinalsFieldData build(
+        final IndexReader indexReader,
+        IndexOrdinalsFieldData indexFieldData,
+        @Nullable GlobalOrdinalsIndexFieldData previous,
+        CircuitBreakerService breakerService,
+        Logger logger,
+        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
     ) throws IOException {
         assert indexReader.leaves().size() > 1;
         long startTimeNS = System.nanoTime();
@@ -53,16 +77,26 @@ public enum GlobalOrdinalsBuilder {
             atomicFD[i] = indexFieldData.load(indexReader.leaves().get(i));
             subs[i] = atomicFD[i].getOrdinalsValues();
         }
-        final OrdinalMap ordinalMap = OrdinalMap.build(null, subs, PackedInts.DEFAULT);
+        final SegmentKey[] segmentKeys = segmentKeys(indexReader, indexFieldData.getFieldName());
+        final boolean reused = previous != null && segmentKeys != null && Arrays.equals(segmentKeys, previous.segmentKeys());
+        final OrdinalMap ordinalMap = reused ? previous.getOrdinalMap() : OrdinalMap.build(null, subs, PackedInts.DEFAULT);
+        /*
+         * A reused map is accounted for by every cache entry that holds it. It
+         * is counted twice until the cache drops the previous global ordinals,
+         * which it does as soon as these are cached or the previous reader is
+         * closed, whichever comes last.
+         */
         final long memorySizeInBytes = ordinalMap.ramBytesUsed();
         breakerService.getBreaker(CircuitBreaker.FIELDDATA).addWithoutBreaking(memorySizeInBytes);
 
+        long buildTimeInNanos = System.nanoTime() - startTimeNS;
         if (logger.isDebugEnabled()) {
             logger.debug(
-                "global-ordinals [{}][{}] took [{}]",
+                "global-ordinals [{}][{}] took [{}]{}",
                 indexFieldData.getFieldName(),
                 ordinalMap.getValueCount(),
-                new TimeValue(System.nanoTime() - startTimeNS, TimeUnit.NANOSECONDS)
+                new TimeValue(buildTimeInNanos, TimeUnit.NANOSECONDS),
+                reused ? ", reused the previous ordinal map" : ""
             );
         }
         return new GlobalOrdinalsIndexFieldData(
@@ -71,10 +105,38 @@ public enum GlobalOrdinalsBuilder {
             atomicFD,
             ordinalMap,
             memorySizeInBytes,
-            toScriptFieldFactory
+            toScriptFieldFactory,
+            segmentKeys,
+            buildTimeInNanos,
+            reused
         );
     }
 
+    /**
+     * Identifies the values of a field in a segment. The core cache key
+     * doesn't change when docs are deleted but it doesn't change either when
+     * doc values are updated so we also need the doc values generation.
+     */
+    record SegmentKey(IndexReader.CacheKey coreKey, long docValuesGen) {}
+
+    /**
+     * The {@link SegmentKey}s of all segments, in order, or {@code null} if a
+     * segment can't be identified.
+     */
+    private static SegmentKey[] segmentKeys(IndexReader indexReader, String field) {
+        SegmentKey[] keys = new SegmentKey[indexReader.leaves().size()];
+        for (int i = 0; i < keys.length; i++) {
+            LeafReader reader = indexReader.leaves().get(i).reader();
+            IndexReader.CacheHelper cacheHelper = reader.getCoreCacheHelper();
+            if (cacheHelper == null) {
+                return null;
+            }
+            FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+            keys[i] = new SegmentKey(cacheHelper.getKey(), fieldInfo == null ? -1 : fieldInfo.getDocValuesGen());
+        }
+        return keys;
+    }
+
     public static IndexOrdinalsFieldData buildEmpty(
         IndexReader indexReader,
         IndexOrdinalsFieldData indexFieldData,
@@ -113,7 +175,10 @@ public enum GlobalOrdinalsBuilder {
             atomicFD,
             ordinalMap,
             0,
-            toScriptFieldFactory
+            toScriptFieldFactory,
+            null,
+            0,
+            false
         );
     }
 
@@ -50,6 +50,10 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
     private final OrdinalMap ordinalMap;
     private final LeafOrdinalsFieldData[] segmentAfd;
     private final ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory;
+    @Nullable
+    private final GlobalOrdinalsBuilder.SegmentKey[] segmentKeys;
+    private final long buildTimeInNanos;
+    private final boolean reusedOrdinalMap;
 
     protected GlobalOrdinalsIndexFieldData(
         String fieldName,
@@ -57,7 +61,10 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         LeafOrdinalsFieldData[] segmentAfd,
         OrdinalMap ordinalMap,
         long memorySizeInBytes,
-        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
+        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory,
+        @Nullable GlobalOrdinalsBuilder.SegmentKey[] segmentKeys,
+        long buildTimeInNanos,
+        boolean reusedOrdinalMap
     ) {
         this.fieldName = fieldName;
         this.valuesSourceType = valuesSourceType;
@@ -65,6 +72,9 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         this.ordinalMap = ordinalMap;
         this.segmentAfd = segmentAfd;
         this.toScriptFieldFactory = toScriptFieldFactory;
+        this.segmentKeys = segmentKeys;
+        this.buildTimeInNanos = buildTimeInNanos;
+        this.reusedOrdinalMap = reusedOrdinalMap;
     }
 
     public IndexOrdinalsFieldData newConsumer(DirectoryReader source) {
@@ -141,6 +151,29 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         return true;
     }
 
+    /**
+     * The segments the ordinal map was built for, {@code null} if it can't
+     * be reused.
+     */
+    GlobalOrdinalsBuilder.SegmentKey[] segmentKeys() {
+        return segmentKeys;
+    }
+
+    /**
+     * How long it took to build these global ordinals.
+     */
+    public long getBuildTimeInNanos() {
+        return buildTimeInNanos;
+    }
+
+    /**
+     * Did these global ordinals reuse the {@link OrdinalMap} of the global
+     * ordinals of a previous reader instead of building their own?
+     */
+    public boolean reusedOrdinalMap() {
+        return reusedOrdinalMap;
+    }
+
     /**
      * A non-thread safe {@link IndexOrdinalsFieldData} for global ordinals that creates the {@link TermsEnum} of each
      * segment once and use them to provide a single lookup per segment.
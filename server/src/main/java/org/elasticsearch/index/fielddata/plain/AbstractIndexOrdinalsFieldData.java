@@ -17,6 +17,7 @@ import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
@@ -139,6 +140,13 @@ public abstract class AbstractIndexOrdinalsFieldData implements IndexOrdinalsFie
         return GlobalOrdinalsBuilder.build(indexReader, this, breakerService, logger, toScriptFieldFactory);
     }
 
+    @Override
+    public IndexOrdinalsFieldData loadGlobalDirect(DirectoryReader indexReader, IndexFieldData<LeafOrdinalsFieldData> previous)
+        throws Exception {
+        GlobalOrdinalsIndexFieldData reusable = previous instanceof GlobalOrdinalsIndexFieldData global ? global : null;
+        return GlobalOrdinalsBuilder.build(indexReader, this, reusable, breakerService, logger, toScriptFieldFactory);
+    }
+
     @Override
     public boolean supportsGlobalOrdinalsMapping() {
         return false;
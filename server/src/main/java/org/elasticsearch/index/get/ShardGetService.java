@@ -28,6 +28,7 @@ import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.MappingLookup;
 import org.elasticsearch.index.mapper.RoutingFieldMapper;
 import org.elasticsearch.index.mapper.SourceFieldMapper;
+import org.elasticsearch.index.mapper.SyntheticSourceLoader;
 import org.elasticsearch.index.shard.AbstractIndexShardComponent;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
@@ -172,8 +173,14 @@ public final class ShardGetService extends AbstractIndexShardComponent {
     ) {
         fetchSourceContext = normalizeFetchSourceContent(fetchSourceContext, gFields);
 
+        /*
+         * Documents read from the translog come with their original _source.
+         * Indices with synthetic _source refresh instead so they always return
+         * the _source rebuilt from doc values, whether the doc is refreshed or not.
+         */
+        boolean readFromTranslog = realtime && mapperService.mappingLookup().isSourceSynthetic() == false;
         Engine.GetResult get = indexShard.get(
-            new Engine.Get(realtime, realtime, id).version(version)
+            new Engine.Get(realtime, readFromTranslog, id).version(version)
                 .versionType(versionType)
                 .setIfSeqNo(ifSeqNo)
                 .setIfPrimaryTerm(ifPrimaryTerm)
@@ -228,6 +235,13 @@ public final class ShardGetService extends AbstractIndexShardComponent {
                 throw new ElasticsearchException("Failed to get id [" + id + "]", e);
             }
             source = fieldVisitor.source();
+            if (source == null && fetchSourceContext.fetchSource() && mappingLookup.isSourceSynthetic()) {
+                try {
+                    source = SyntheticSourceLoader.build(mappingLookup).leaf(docIdAndVersion.reader).source(docIdAndVersion.docId);
+                } catch (IOException e) {
+                    throw new ElasticsearchException("Failed to get id [" + id + "]", e);
+                }
+            }
 
             // put stored fields into result objects
             if (fieldVisitor.fields().isEmpty() == false) {
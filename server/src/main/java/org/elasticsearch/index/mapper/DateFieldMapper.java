@@ -793,6 +793,27 @@ public final class DateFieldMapper extends FieldMapper {
         return fieldType().resolution.type();
     }
 
+    @Override
+    public SyntheticSourceLoader.SyntheticFieldLoader syntheticFieldLoader() {
+        if (hasDocValues == false) {
+            throw new IllegalArgumentException(
+                "field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source because it doesn't have doc values"
+            );
+        }
+        if (ignoreMalformed) {
+            throw new IllegalArgumentException(
+                "field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source because it ignores malformed dates"
+            );
+        }
+        if (nullValue != null) {
+            throw new IllegalArgumentException(
+                "field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source because it declares null_value"
+            );
+        }
+        DocValueFormat format = fieldType().docValueFormat(null, null);
+        return SyntheticSourceLoader.numeric(name(), (b, value) -> b.value(format.format(value)));
+    }
+
     @Override
     protected void parseCreateField(DocumentParserContext context) throws IOException {
         String dateAsString = context.parser().textOrNull();
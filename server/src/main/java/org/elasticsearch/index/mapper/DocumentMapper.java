@@ -91,6 +91,10 @@ public class DocumentMapper {
             }
         }
         settings.getMode().validateMapping(mappingLookup);
+        if (mappingLookup.isSourceSynthetic()) {
+            // fails if any of the fields can't be rebuilt from doc values
+            SyntheticSourceLoader.build(mappingLookup);
+        }
         if (settings.getIndexSortConfig().hasIndexSort() && mappers().nestedLookup() != NestedLookup.EMPTY) {
             throw new IllegalArgumentException("cannot have nested fields when index sort is activated");
         }
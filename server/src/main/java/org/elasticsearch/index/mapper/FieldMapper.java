@@ -294,6 +294,14 @@ public abstract class FieldMapper extends Mapper implements Cloneable {
         return hasScript;
     }
 
+    /**
+     * Returns a loader that rebuilds this field's values for synthetic {@code _source}.
+     * @throws IllegalArgumentException if this field can't be part of a synthetic {@code _source}
+     */
+    public SyntheticSourceLoader.SyntheticFieldLoader syntheticFieldLoader() {
+        throw new IllegalArgumentException("field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source");
+    }
+
     /**
      * Execute the index-time script associated with this field mapper.
      *
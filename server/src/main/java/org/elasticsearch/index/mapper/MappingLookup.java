@@ -394,6 +394,14 @@ public final class MappingLookup {
         return sfm != null && sfm.enabled();
     }
 
+    /**
+     * Is the {@code _source} of documents rebuilt from doc values rather than stored?
+     */
+    public boolean isSourceSynthetic() {
+        SourceFieldMapper sfm = mapping.getMetadataMapperByClass(SourceFieldMapper.class);
+        return sfm != null && sfm.isSynthetic();
+    }
+
     /**
      * Returns if this mapping contains a data-stream's timestamp meta-field and this field is enabled.
      * Only indices that are a part of a data-stream have this meta-field enabled.
@@ -1443,6 +1443,34 @@ public class NumberFieldMapper extends FieldMapper {
         return fieldType().type.typeName();
     }
 
+    @Override
+    public SyntheticSourceLoader.SyntheticFieldLoader syntheticFieldLoader() {
+        if (hasDocValues == false) {
+            throw new IllegalArgumentException(
+                "field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source because it doesn't have doc values"
+            );
+        }
+        if (ignoreMalformed.value()) {
+            throw new IllegalArgumentException(
+                "field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source because it ignores malformed numbers"
+            );
+        }
+        if (nullValue != null) {
+            throw new IllegalArgumentException(
+                "field [" + name() + "] of type [" + typeName() + "] doesn't support synthetic source because it declares null_value"
+            );
+        }
+        return switch (type) {
+            case HALF_FLOAT -> SyntheticSourceLoader.numeric(
+                name(),
+                (b, value) -> b.value(HalfFloatPoint.sortableShortToHalfFloat((short) value))
+            );
+            case FLOAT -> SyntheticSourceLoader.numeric(name(), (b, value) -> b.value(NumericUtils.sortableIntToFloat((int) value)));
+            case DOUBLE -> SyntheticSourceLoader.numeric(name(), (b, value) -> b.value(NumericUtils.sortableLongToDouble(value)));
+            case BYTE, SHORT, INTEGER, LONG -> SyntheticSourceLoader.numeric(name(), XContentBuilder::value);
+        };
+    }
+
     @Override
     protected void parseCreateField(DocumentParserContext context) throws IOException {
         Number value;
@@ -0,0 +1,310 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.mapper;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.json.JsonXContent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds the {@code _source} of documents in indices that use {@code _source.synthetic} from the doc values of their fields
+ * instead of reading a stored copy of it. The rebuilt source contains every mapped field that has a value, with objects nested
+ * by field name. Values of a field come back in doc values order, so multi-valued fields are sorted and keyword values are
+ * de-duplicated.
+ */
+public final class SyntheticSourceLoader {
+
+    /**
+     * Loads the values of a single field for synthetic {@code _source}.
+     */
+    public interface SyntheticFieldLoader {
+        /**
+         * Build a loader for the values of this field in a segment.
+         */
+        DocValuesLoader docValuesLoader(LeafReader reader) throws IOException;
+    }
+
+    /**
+     * Loads the values of a single field in a segment.
+     */
+    public interface DocValuesLoader {
+        /**
+         * Position the loader on a document. Documents must be visited in increasing doc id order.
+         * @return {@code true} if the document has values for this field
+         */
+        boolean advanceToDoc(int docId) throws IOException;
+
+        /**
+         * Write the values of the current document, a single value or an array of values. Only called if the last call to
+         * {@link #advanceToDoc} returned {@code true}.
+         */
+        void write(String simpleName, XContentBuilder b) throws IOException;
+    }
+
+    /**
+     * Writes the value of a single entry of numeric doc values.
+     */
+    @FunctionalInterface
+    public interface NumericValueWriter {
+        void write(XContentBuilder b, long value) throws IOException;
+    }
+
+    /**
+     * Loads the values of a field that is indexed as {@link SortedNumericDocValues}.
+     */
+    public static SyntheticFieldLoader numeric(String name, NumericValueWriter writer) {
+        return reader -> {
+            SortedNumericDocValues dv = DocValues.getSortedNumeric(reader, name);
+            return new DocValuesLoader() {
+                @Override
+                public boolean advanceToDoc(int docId) throws IOException {
+                    return dv.advanceExact(docId);
+                }
+
+                @Override
+                public void write(String simpleName, XContentBuilder b) throws IOException {
+                    if (dv.docValueCount() == 1) {
+                        b.field(simpleName);
+                        writer.write(b, dv.nextValue());
+                        return;
+                    }
+                    b.startArray(simpleName);
+                    for (int i = 0; i < dv.docValueCount(); i++) {
+                        writer.write(b, dv.nextValue());
+                    }
+                    b.endArray();
+                }
+            };
+        };
+    }
+
+    /**
+     * Loads the values of a field that is indexed as {@link SortedSetDocValues} containing utf-8 strings.
+     */
+    public static SyntheticFieldLoader keyword(String name) {
+        return reader -> {
+            SortedSetDocValues dv = DocValues.getSortedSet(reader, name);
+            return new DocValuesLoader() {
+                private boolean hasValue;
+
+                @Override
+                public boolean advanceToDoc(int docId) throws IOException {
+                    return hasValue = dv.advanceExact(docId);
+                }
+
+                @Override
+                public void write(String simpleName, XContentBuilder b) throws IOException {
+                    assert hasValue;
+                    long first = dv.nextOrd();
+                    long next = dv.nextOrd();
+                    if (next == SortedSetDocValues.NO_MORE_ORDS) {
+                        b.field(simpleName);
+                        writeTerm(b, first);
+                        return;
+                    }
+                    b.startArray(simpleName);
+                    writeTerm(b, first);
+                    for (long ord = next; ord != SortedSetDocValues.NO_MORE_ORDS; ord = dv.nextOrd()) {
+                        writeTerm(b, ord);
+                    }
+                    b.endArray();
+                }
+
+                private void writeTerm(XContentBuilder b, long ord) throws IOException {
+                    BytesRef term = dv.lookupOrd(ord);
+                    b.utf8Value(term.bytes, term.offset, term.length);
+                }
+            };
+        };
+    }
+
+    private final ObjectNode root;
+
+    private SyntheticSourceLoader(ObjectNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Build the loader for a mapping, failing if the mapping contains fields that can't be part of a synthetic {@code _source}.
+     */
+    public static SyntheticSourceLoader build(MappingLookup mappingLookup) {
+        RootObjectMapper rootMapper = mappingLookup.getMapping().getRoot();
+        if (rootMapper.runtimeFields().isEmpty() == false) {
+            // runtime fields without a script load their values from _source, so these values would only live in the _source
+            String name = rootMapper.runtimeFields().iterator().next().name();
+            throw new IllegalArgumentException("runtime field [" + name + "] doesn't support synthetic source");
+        }
+        ObjectNode root = new ObjectNode();
+        addObject(root, rootMapper, rootMapper.dynamic() == null ? ObjectMapper.Dynamic.TRUE : rootMapper.dynamic());
+        return new SyntheticSourceLoader(root);
+    }
+
+    private static void addObject(ObjectNode node, ObjectMapper objectMapper, ObjectMapper.Dynamic dynamic) {
+        // values of unmapped fields are only kept in _source, so they would silently disappear from the rebuilt source
+        if (objectMapper.isEnabled() == false) {
+            throw new IllegalArgumentException(
+                "object [" + objectMapper.name() + "] doesn't support synthetic source because it sets [enabled] to [false]"
+            );
+        }
+        if (dynamic == ObjectMapper.Dynamic.FALSE || dynamic == ObjectMapper.Dynamic.RUNTIME) {
+            throw new IllegalArgumentException(
+                "object ["
+                    + objectMapper.name()
+                    + "] doesn't support synthetic source because it sets [dynamic] to ["
+                    + dynamic.name().toLowerCase(Locale.ROOT)
+                    + "]"
+            );
+        }
+        for (Mapper mapper : objectMapper) {
+            if (mapper instanceof NestedObjectMapper) {
+                throw new IllegalArgumentException("field [" + mapper.name() + "] of type [nested] doesn't support synthetic source");
+            }
+            if (mapper instanceof ObjectMapper object) {
+                addObject(
+                    node.objects.computeIfAbsent(object.simpleName(), k -> new ObjectNode()),
+                    object,
+                    object.dynamic() == null ? dynamic : object.dynamic()
+                );
+            } else if (mapper instanceof FieldMapper field) {
+                if (field.hasScript()) {
+                    // values calculated by a script were never part of the source
+                    continue;
+                }
+                if (field.copyTo().copyToFields().isEmpty() == false) {
+                    throw new IllegalArgumentException(
+                        "field ["
+                            + field.name()
+                            + "] of type ["
+                            + field.typeName()
+                            + "] doesn't support synthetic source because it declares copy_to"
+                    );
+                }
+                node.fields.put(field.simpleName(), field.syntheticFieldLoader());
+            }
+        }
+    }
+
+    /**
+     * Build the loader for a segment.
+     */
+    public Leaf leaf(LeafReader reader) throws IOException {
+        return new Leaf(root.leaf(reader));
+    }
+
+    /**
+     * Rebuilds the {@code _source} of documents in a single segment.
+     */
+    public static final class Leaf {
+        private final LeafObject root;
+
+        private Leaf(LeafObject root) {
+            this.root = root;
+        }
+
+        /**
+         * Rebuild the {@code _source} of a document. Documents must be visited in increasing doc id order.
+         */
+        public BytesReference source(int docId) throws IOException {
+            root.advanceToDoc(docId);
+            XContentBuilder b = JsonXContent.contentBuilder();
+            b.startObject();
+            root.write(b);
+            b.endObject();
+            return BytesReference.bytes(b);
+        }
+    }
+
+    private static final class ObjectNode {
+        private final Map<String, SyntheticFieldLoader> fields = new TreeMap<>();
+        private final Map<String, ObjectNode> objects = new TreeMap<>();
+
+        LeafObject leaf(LeafReader reader) throws IOException {
+            List<String> fieldNames = new ArrayList<>(fields.size());
+            List<DocValuesLoader> fieldLoaders = new ArrayList<>(fields.size());
+            for (Map.Entry<String, SyntheticFieldLoader> e : fields.entrySet()) {
+                fieldNames.add(e.getKey());
+                fieldLoaders.add(e.getValue().docValuesLoader(reader));
+            }
+            List<String> objectNames = new ArrayList<>(objects.size());
+            List<LeafObject> leafObjects = new ArrayList<>(objects.size());
+            for (Map.Entry<String, ObjectNode> e : objects.entrySet()) {
+                objectNames.add(e.getKey());
+                leafObjects.add(e.getValue().leaf(reader));
+            }
+            return new LeafObject(
+                fieldNames.toArray(String[]::new),
+                fieldLoaders.toArray(DocValuesLoader[]::new),
+                objectNames.toArray(String[]::new),
+                leafObjects.toArray(LeafObject[]::new)
+            );
+        }
+    }
+
+    private static final class LeafObject {
+        private final String[] fieldNames;
+        private final DocValuesLoader[] fieldLoaders;
+        private final boolean[] fieldHasValue;
+        private final String[] objectNames;
+        private final LeafObject[] objects;
+        private final boolean[] objectHasValue;
+
+        LeafObject(String[] fieldNames, DocValuesLoader[] fieldLoaders, String[] objectNames, LeafObject[] objects) {
+            this.fieldNames = fieldNames;
+            this.fieldLoaders = fieldLoaders;
+            this.fieldHasValue = new boolean[fieldLoaders.length];
+            this.objectNames = objectNames;
+            this.objects = objects;
+            this.objectHasValue = new boolean[objects.length];
+        }
+
+        /**
+         * Position all fields of this object on a document.
+         * @return {@code true} if any field of this object, or of its sub-objects, has a value
+         */
+        boolean advanceToDoc(int docId) throws IOException {
+            boolean any = false;
+            for (int i = 0; i < fieldLoaders.length; i++) {
+                fieldHasValue[i] = fieldLoaders[i].advanceToDoc(docId);
+                any |= fieldHasValue[i];
+            }
+            for (int i = 0; i < objects.length; i++) {
+                objectHasValue[i] = objects[i].advanceToDoc(docId);
+                any |= objectHasValue[i];
+            }
+            return any;
+        }
+
+        void write(XContentBuilder b) throws IOException {
+            for (int i = 0; i < fieldLoaders.length; i++) {
+                if (fieldHasValue[i]) {
+                    fieldLoaders[i].write(fieldNames[i], b);
+                }
+            }
+            for (int i = 0; i < objects.length; i++) {
+                if (objectHasValue[i]) {
+                    b.startObject(objectNames[i]);
+                    objects[i].write(b);
+                    b.endObject();
+                }
+            }
+        }
+    }
+}
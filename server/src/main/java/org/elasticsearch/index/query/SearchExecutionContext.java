@@ -28,6 +28,7 @@ import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexSortConfig;
@@ -47,6 +48,7 @@ import org.elasticsearch.index.mapper.NestedLookup;
 import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.index.mapper.RuntimeField;
 import org.elasticsearch.index.mapper.SourceToParse;
+import org.elasticsearch.index.mapper.SyntheticSourceLoader;
 import org.elasticsearch.index.mapper.TextFieldMapper;
 import org.elasticsearch.index.query.support.NestedScope;
 import org.elasticsearch.index.similarity.SimilarityService;
@@ -389,6 +391,15 @@ public class SearchExecutionContext extends QueryRewriteContext {
         return mappingLookup.isSourceEnabled();
     }
 
+    /**
+     * Build a loader that rebuilds {@code _source} from doc values if the index uses synthetic {@code _source}.
+     * @return the loader or {@code null} if the {@code _source} is stored
+     */
+    @Nullable
+    public SyntheticSourceLoader newSyntheticSourceLoader() {
+        return mappingLookup.isSourceSynthetic() ? SyntheticSourceLoader.build(mappingLookup) : null;
+    }
+
     /**
      * Given a type (eg. long, string, ...), returns an anonymous field type that can be used for search operations.
      * Generally used to handle unmapped fields in the context of sorting.
@@ -697,6 +708,15 @@ public class SearchExecutionContext extends QueryRewriteContext {
         return mappingLookup.cacheKey();
     }
 
+    /**
+     * Does this context resolve fields differently than the mapping does? It does if
+     * the request defined runtime fields or restricted the fields that it can see, so
+     * anything built from field lookups isn't covered by {@link #mappingCacheKey()}.
+     */
+    public boolean hasRequestScopedFields() {
+        return runtimeMappings.isEmpty() == false || allowedFields != null;
+    }
+
     public NestedDocuments getNestedDocuments() {
         return new NestedDocuments(mappingLookup, bitsetFilterCache::getBitSetProducer);
     }
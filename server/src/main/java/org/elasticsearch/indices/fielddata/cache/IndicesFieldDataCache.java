@@ -35,7 +35,13 @@ import org.elasticsearch.index.shard.ShardUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.ToLongBiFunction;
 
 public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCache.Key, Accountable>, Releasable {
@@ -77,16 +83,19 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
     public void onRemoval(RemovalNotification<Key, Accountable> notification) {
         Key key = notification.getKey();
         assert key != null && key.listeners != null;
-        IndexFieldCache indexCache = key.indexCache;
         final Accountable value = notification.getValue();
+        final boolean evicted = notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED;
+        if (key.indexCache.retainOnRemoval(key, value, evicted)) {
+            // the listeners hear about it once it is dropped
+            return;
+        }
+        notifyRemoval(key, value, evicted);
+    }
+
+    private static void notifyRemoval(Key key, Accountable value, boolean evicted) {
         for (IndexFieldDataCache.Listener listener : key.listeners) {
             try {
-                listener.onRemoval(
-                    key.shardId,
-                    indexCache.fieldName,
-                    notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED,
-                    value.ramBytesUsed()
-                );
+                listener.onRemoval(key.shardId, key.indexCache.fieldName, evicted, value.ramBytesUsed(), value);
             } catch (Exception e) {
                 // load anyway since listeners should not throw exceptions
                 logger.error("Failed to call listener on field data cache unloading", e);
@@ -111,6 +120,11 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
         final String fieldName;
         private final Cache<Key, Accountable> cache;
         private final Listener[] listeners;
+        /**
+         * The global field data last loaded for each shard, so the next reader
+         * of the shard can reuse parts of it. Guarded by {@code this}.
+         */
+        private final Map<ShardId, LastGlobal> lastGlobal = new HashMap<>();
 
         IndexFieldCache(Logger logger, final Cache<Key, Accountable> cache, Index index, String fieldName, Listener... listeners) {
             this.logger = logger;
@@ -162,7 +176,12 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
             final Accountable accountable = cache.computeIfAbsent(key, k -> {
                 ElasticsearchDirectoryReader.addReaderCloseListener(indexReader, IndexFieldCache.this);
                 Collections.addAll(k.listeners, this.listeners);
-                final Accountable ifd = (Accountable) indexFieldData.loadGlobalDirect(indexReader);
+                final Accountable previous = lastGlobal(shardId);
+                final Accountable ifd = (Accountable) indexFieldData.loadGlobalDirect(
+                    indexReader,
+                    previous instanceof IndexFieldData<?> previousFieldData ? (IndexFieldData<FD>) previousFieldData : null
+                );
+                rememberGlobal(k, ifd, indexReader);
                 for (Listener listener : k.listeners) {
                     try {
                         listener.onCache(shardId, fieldName, ifd);
@@ -176,14 +195,98 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
             return (IFD) accountable;
         }
 
+        private synchronized Accountable lastGlobal(@Nullable ShardId shardId) {
+            LastGlobal last = shardId == null ? null : lastGlobal.get(shardId);
+            return last == null ? null : last.value;
+        }
+
+        /**
+         * Remember the global field data that was just loaded as the last one
+         * of its shard, dropping the previous one if it was only kept around
+         * for reuse.
+         */
+        private void rememberGlobal(Key key, Accountable value, DirectoryReader indexReader) {
+            if (key.shardId == null) {
+                return;
+            }
+            final Set<CacheKey> cores = new HashSet<>();
+            for (LeafReaderContext leaf : indexReader.leaves()) {
+                IndexReader.CacheHelper coreCacheHelper = leaf.reader().getCoreCacheHelper();
+                if (coreCacheHelper == null) {
+                    // we can't tell when the segments go away so we can't keep it past its reader
+                    cores.clear();
+                    break;
+                }
+                coreCacheHelper.addClosedListener(this);
+                cores.add(coreCacheHelper.getKey());
+            }
+            final LastGlobal replaced;
+            synchronized (this) {
+                replaced = lastGlobal.put(key.shardId, new LastGlobal(key, value, cores));
+            }
+            if (replaced != null && replaced.retained) {
+                notifyRemoval(replaced.key, replaced.value, false);
+            }
+        }
+
+        /**
+         * Called when {@code value} is removed from the cache. If it is the
+         * last global field data of its shard and its reader was closed rather
+         * than evicted, keep it until one of its segments is closed. That way
+         * the next reader of the shard can reuse its ordinal map if it has the
+         * same segments, even if it loads global ordinals long after this reader
+         * is gone. It stays accounted for until it is dropped.
+         * @return {@code true} if {@code value} is kept
+         */
+        private synchronized boolean retainOnRemoval(Key key, Accountable value, boolean evicted) {
+            if (key.shardId == null) {
+                return false;
+            }
+            LastGlobal last = lastGlobal.get(key.shardId);
+            if (last == null || last.value != value) {
+                return false;
+            }
+            if (evicted || last.cores.isEmpty()) {
+                lastGlobal.remove(key.shardId);
+                return false;
+            }
+            last.retained = true;
+            return true;
+        }
+
+        /**
+         * Drop the last global field data of the shards that match {@code predicate},
+         * notifying the listeners for the ones that were only kept for reuse.
+         */
+        private void dropLastGlobal(Predicate<LastGlobal> predicate) {
+            final List<LastGlobal> dropped = new ArrayList<>();
+            synchronized (this) {
+                Iterator<LastGlobal> itr = lastGlobal.values().iterator();
+                while (itr.hasNext()) {
+                    LastGlobal last = itr.next();
+                    if (predicate.test(last)) {
+                        itr.remove();
+                        if (last.retained) {
+                            dropped.add(last);
+                        }
+                    }
+                }
+            }
+            for (LastGlobal last : dropped) {
+                notifyRemoval(last.key, last.value, false);
+            }
+        }
+
         @Override
         public void onClose(CacheKey key) {
             cache.invalidate(new Key(this, key, null));
             // don't call cache.cleanUp here as it would have bad performance implications
+            dropLastGlobal(last -> last.cores.contains(key));
         }
 
         @Override
         public void clear() {
+            dropLastGlobal(last -> true);
             for (Key key : cache.keys()) {
                 if (key.indexCache.index.equals(index)) {
                     cache.invalidate(key);
@@ -195,6 +298,9 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
 
         @Override
         public void clear(String fieldName) {
+            if (this.fieldName.equals(fieldName)) {
+                dropLastGlobal(last -> true);
+            }
             for (Key key : cache.keys()) {
                 if (key.indexCache.index.equals(index)) {
                     if (key.indexCache.fieldName.equals(fieldName)) {
@@ -209,6 +315,28 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
         }
     }
 
+    /**
+     * The global field data last loaded for a shard.
+     */
+    private static class LastGlobal {
+        private final Key key;
+        private final Accountable value;
+        /**
+         * The core cache keys of the segments it was loaded for, empty if they can't be tracked.
+         */
+        private final Set<CacheKey> cores;
+        /**
+         * Was it removed from the cache and only kept for reuse? Guarded by the {@link IndexFieldCache}.
+         */
+        private boolean retained;
+
+        LastGlobal(Key key, Accountable value, Set<CacheKey> cores) {
+            this.key = key;
+            this.value = value;
+            this.cores = cores;
+        }
+    }
+
     public static class Key {
         public final IndexFieldCache indexCache;
         public final IndexReader.CacheKey readerKey;
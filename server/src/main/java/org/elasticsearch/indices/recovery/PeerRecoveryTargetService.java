@@ -19,6 +19,7 @@ import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.support.ChannelActionListener;
+import org.elasticsearch.action.support.GroupedActionListener;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.ClusterStateObserver;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
@@ -61,6 +62,8 @@ import org.elasticsearch.transport.TransportResponseHandler;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -98,6 +101,12 @@ public class PeerRecoveryTargetService implements IndexEventListener {
 
     private final RecoveriesCollection onGoingRecoveries;
 
+    /**
+     * Minimum number of operations in each partition of a batch of operations that is applied concurrently on the recovery target, to avoid
+     * forking for small batches.
+     */
+    static final int MIN_OPERATIONS_PER_PARTITION = 100;
+
     public PeerRecoveryTargetService(
         ThreadPool threadPool,
         TransportService transportService,
@@ -476,14 +485,13 @@ public class PeerRecoveryTargetService implements IndexEventListener {
             };
             final IndexMetadata indexMetadata = clusterService.state().metadata().index(request.shardId().getIndex());
             final long mappingVersionOnTarget = indexMetadata != null ? indexMetadata.getMappingVersion() : 0L;
-            recoveryTarget.indexTranslogOperations(
+            final List<List<Translog.Operation>> partitions = partitionOperationsById(
                 request.operations(),
-                request.totalTranslogOps(),
-                request.maxSeenAutoIdTimestampOnPrimary(),
-                request.maxSeqNoOfUpdatesOrDeletesOnPrimary(),
-                request.retentionLeases(),
-                request.mappingVersionOnPrimary(),
-                ActionListener.wrap(checkpoint -> listener.onResponse(null), e -> {
+                recoverySettings.getMaxConcurrentOperations()
+            );
+            // the local checkpoint returned to the source is read only once all partitions have been applied
+            final ActionListener<Long> allPartitionsListener = new GroupedActionListener<>(
+                ActionListener.wrap(checkpoints -> listener.onResponse(null), e -> {
                     // do not retry if the mapping on replica is at least as recent as the mapping
                     // that the primary used to index the operations in the request.
                     if (mappingVersionOnTarget < request.mappingVersionOnPrimary() && e instanceof MapperException) {
@@ -491,9 +499,67 @@ public class PeerRecoveryTargetService implements IndexEventListener {
                     } else {
                         listener.onFailure(e);
                     }
-                })
+                }),
+                partitions.size()
             );
+            for (int i = 1; i < partitions.size(); i++) {
+                final List<Translog.Operation> partition = partitions.get(i);
+                threadPool.generic().execute(ActionRunnable.wrap(allPartitionsListener, l -> {
+                    try (RecoveryRef partitionRecoveryRef = onGoingRecoveries.getRecoverySafe(request.recoveryId(), request.shardId())) {
+                        indexTranslogOperations(partitionRecoveryRef.target(), request, partition, l);
+                    }
+                }));
+            }
+            indexTranslogOperations(recoveryTarget, request, partitions.get(0), allPartitionsListener);
+        }
+
+        private static void indexTranslogOperations(
+            RecoveryTarget recoveryTarget,
+            RecoveryTranslogOperationsRequest request,
+            List<Translog.Operation> operations,
+            ActionListener<Long> listener
+        ) {
+            recoveryTarget.indexTranslogOperations(
+                operations,
+                request.totalTranslogOps(),
+                request.maxSeenAutoIdTimestampOnPrimary(),
+                request.maxSeqNoOfUpdatesOrDeletesOnPrimary(),
+                request.retentionLeases(),
+                request.mappingVersionOnPrimary(),
+                listener
+            );
+        }
+    }
+
+    /**
+     * Splits a batch of operations received during phase 2 of a peer recovery into at most {@code maxPartitions} partitions that can be
+     * applied concurrently. All operations on the same {@code _id} end up in the same partition in their original order, so that
+     * operations on different partitions never touch the same document. No-ops are spread evenly across partitions. Each operation marks
+     * its own sequence number as processed, so the local checkpoint is correct once all partitions have been applied.
+     */
+    static List<List<Translog.Operation>> partitionOperationsById(List<Translog.Operation> operations, int maxPartitions) {
+        final int partitionCount = Math.min(maxPartitions, operations.size() / MIN_OPERATIONS_PER_PARTITION);
+        if (partitionCount <= 1) {
+            return List.of(operations);
+        }
+        final List<List<Translog.Operation>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>(operations.size() / partitionCount + 1));
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            final Translog.Operation operation = operations.get(i);
+            final int partition;
+            if (operation instanceof Translog.Index index) {
+                partition = Math.floorMod(index.id().hashCode(), partitionCount);
+            } else if (operation instanceof Translog.Delete delete) {
+                partition = Math.floorMod(delete.id().hashCode(), partitionCount);
+            } else {
+                partition = i % partitionCount;
+            }
+            partitions.get(partition).add(operation);
         }
+        partitions.removeIf(List::isEmpty);
+        return partitions;
     }
 
     class FilesInfoRequestHandler implements TransportRequestHandler<RecoveryFilesInfoRequest> {
@@ -8,16 +8,26 @@
 
 package org.elasticsearch.indices.recovery;
 
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.transport.TrailingBytesTransportMessage;
 
 import java.io.IOException;
 
-public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted {
+public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted, TrailingBytesTransportMessage {
+
+    /**
+     * Version from which on the chunk's content is the last field on the wire so that the network layer can send it without copying it.
+     */
+    static final Version CONTENT_LAST_VERSION = Version.V_8_3_0;
+
     private final boolean lastChunk;
     private final long recoveryId;
     private final ShardId shardId;
@@ -36,12 +46,21 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         position = in.readVLong();
         final long length = in.readVLong();
         final String checksum = in.readString();
-        content = in.readReleasableBytesReference();
-        final String writtenBy = in.readString();
-        metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
-        lastChunk = in.readBoolean();
-        totalTranslogOps = in.readVInt();
-        sourceThrottleTimeInNanos = in.readLong();
+        if (in.getVersion().onOrAfter(CONTENT_LAST_VERSION)) {
+            final String writtenBy = in.readString();
+            metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
+            lastChunk = in.readBoolean();
+            totalTranslogOps = in.readVInt();
+            sourceThrottleTimeInNanos = in.readLong();
+            content = in.readReleasableBytesReference();
+        } else {
+            content = in.readReleasableBytesReference();
+            final String writtenBy = in.readString();
+            metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
+            lastChunk = in.readBoolean();
+            totalTranslogOps = in.readVInt();
+            sourceThrottleTimeInNanos = in.readLong();
+        }
     }
 
     public RecoveryFileChunkRequest(
@@ -100,6 +119,12 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        final BytesReference trailingBytes = writeWithoutTrailingBytes(out);
+        trailingBytes.writeTo(out);
+    }
+
+    @Override
+    public BytesReference writeWithoutTrailingBytes(StreamOutput out) throws IOException {
         super.writeTo(out);
         out.writeLong(recoveryId);
         shardId.writeTo(out);
@@ -107,11 +132,21 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         out.writeVLong(position);
         out.writeVLong(metadata.length());
         out.writeString(metadata.checksum());
-        out.writeBytesReference(content);
-        out.writeString(metadata.writtenBy());
-        out.writeBoolean(lastChunk);
-        out.writeVInt(totalTranslogOps);
-        out.writeLong(sourceThrottleTimeInNanos);
+        if (out.getVersion().onOrAfter(CONTENT_LAST_VERSION)) {
+            out.writeString(metadata.writtenBy());
+            out.writeBoolean(lastChunk);
+            out.writeVInt(totalTranslogOps);
+            out.writeLong(sourceThrottleTimeInNanos);
+            out.writeVInt(content.length());
+            return content;
+        } else {
+            out.writeBytesReference(content);
+            out.writeString(metadata.writtenBy());
+            out.writeBoolean(lastChunk);
+            out.writeVInt(totalTranslogOps);
+            out.writeLong(sourceThrottleTimeInNanos);
+            return BytesArray.EMPTY;
+        }
     }
 
     @Override
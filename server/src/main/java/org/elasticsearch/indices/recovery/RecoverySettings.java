@@ -244,7 +244,8 @@ public class RecoverySettings {
     );
 
     /**
-     * Controls the maximum number of operation chunk requests that can be sent concurrently from the source node to the target node.
+     * Controls the maximum number of operation chunk requests that can be sent concurrently from the source node to the target node, as
+     * well as the maximum number of partitions that the target node applies a single operation chunk request in concurrently.
      */
     public static final Setting<Integer> INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING = Setting.intSetting(
         "indices.recovery.max_concurrent_operations",
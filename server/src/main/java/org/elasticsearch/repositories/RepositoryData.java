@@ -328,13 +328,18 @@ public final class RepositoryData {
      * @return List of indices that are changed but not removed
      */
     public List<IndexId> indicesToUpdateAfterRemovingSnapshot(Collection<SnapshotId> snapshotIds) {
+        final Set<SnapshotId> toRemove = asSet(snapshotIds);
         return indexSnapshots.entrySet().stream().filter(entry -> {
-            final Collection<SnapshotId> existingIds = entry.getValue();
-            if (snapshotIds.containsAll(existingIds)) {
-                return existingIds.size() > snapshotIds.size();
-            }
-            for (SnapshotId snapshotId : snapshotIds) {
-                if (entry.getValue().contains(snapshotId)) {
+            // an index is updated if it is referenced by at least one of the removed snapshots and by at least one surviving snapshot
+            boolean removesAny = false;
+            boolean retainsAny = false;
+            for (SnapshotId existingId : entry.getValue()) {
+                if (toRemove.contains(existingId)) {
+                    removesAny = true;
+                } else {
+                    retainsAny = true;
+                }
+                if (removesAny && retainsAny) {
                     return true;
                 }
             }
@@ -351,16 +356,17 @@ public final class RepositoryData {
      * @return map of index to index metadata blob id to delete
      */
     public Map<IndexId, Collection<String>> indexMetaDataToRemoveAfterRemovingSnapshots(Collection<SnapshotId> snapshotIds) {
-        Collection<IndexId> indicesForSnapshot = indicesToUpdateAfterRemovingSnapshot(snapshotIds);
+        final Set<SnapshotId> snapshotsToRemove = asSet(snapshotIds);
+        Collection<IndexId> indicesForSnapshot = indicesToUpdateAfterRemovingSnapshot(snapshotsToRemove);
         final Set<String> allRemainingIdentifiers = indexMetaDataGenerations.lookup.entrySet()
             .stream()
-            .filter(e -> snapshotIds.contains(e.getKey()) == false)
+            .filter(e -> snapshotsToRemove.contains(e.getKey()) == false)
             .flatMap(e -> e.getValue().values().stream())
             .map(indexMetaDataGenerations::getIndexMetaBlobId)
             .collect(Collectors.toSet());
         final Map<IndexId, Collection<String>> toRemove = new HashMap<>();
         for (IndexId indexId : indicesForSnapshot) {
-            for (SnapshotId snapshotId : snapshotIds) {
+            for (SnapshotId snapshotId : snapshotsToRemove) {
                 final String identifier = indexMetaDataGenerations.indexMetaBlobId(snapshotId, indexId);
                 if (allRemainingIdentifiers.contains(identifier) == false) {
                     toRemove.computeIfAbsent(indexId, k -> new HashSet<>()).add(identifier);
@@ -500,7 +506,8 @@ public final class RepositoryData {
      *                                The {@code String[]} passed for each {@link IndexId} contains the new shard generation id for each
      *                                changed shard indexed by its shardId
      */
-    public RepositoryData removeSnapshots(final Collection<SnapshotId> snapshots, final ShardGenerations updatedShardGenerations) {
+    public RepositoryData removeSnapshots(final Collection<SnapshotId> snapshotsToRemove, final ShardGenerations updatedShardGenerations) {
+        final Set<SnapshotId> snapshots = asSet(snapshotsToRemove);
         Map<String, SnapshotId> newSnapshotIds = snapshotIds.values()
             .stream()
             .filter(Predicate.not(snapshots::contains))
@@ -545,6 +552,14 @@ public final class RepositoryData {
         );
     }
 
+    /**
+     * Returns the given snapshot ids as a set so that the membership checks run against them when removing snapshots do not become
+     * quadratic in the number of snapshots in the repository.
+     */
+    private static Set<SnapshotId> asSet(Collection<SnapshotId> snapshotIds) {
+        return snapshotIds instanceof Set<SnapshotId> set ? set : new HashSet<>(snapshotIds);
+    }
+
     /**
      * Returns an immutable collection of the snapshot ids for the snapshots that contain the given index.
      */
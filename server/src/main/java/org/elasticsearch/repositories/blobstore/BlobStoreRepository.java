@@ -254,6 +254,13 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     public static final Setting<Boolean> USE_FOR_PEER_RECOVERY_SETTING = Setting.boolSetting("use_for_peer_recovery", false);
 
+    /**
+     * Number of stale shard level blobs that a single worker passes to {@link BlobContainer#deleteBlobsIgnoringIfNotExists} at once when
+     * cleaning up after a snapshot delete. Blob container implementations split these chunks further into bulk requests of the largest
+     * size their storage provider supports.
+     */
+    static final int STALE_BLOBS_DELETE_CHUNK_SIZE = 10_000;
+
     protected final boolean supportURLRepo;
 
     private final boolean compress;
@@ -992,17 +999,68 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             listener.onResponse(null);
             return;
         }
-        threadPool.executor(ThreadPool.Names.SNAPSHOT).execute(ActionRunnable.wrap(listener, l -> {
+        deleteStaleShardBlobs(snapshotIds, filesToDelete, listener);
+    }
+
+    /**
+     * Deletes the given stale shard level blobs in chunks of {@link #STALE_BLOBS_DELETE_CHUNK_SIZE} blobs on the snapshot pool.
+     */
+    void deleteStaleShardBlobs(Collection<SnapshotId> snapshotIds, Iterator<String> filesToDelete, ActionListener<Void> listener) {
+        // The stale blobs of all shards are streamed into repository-wide chunks that are deleted concurrently. We only use up to half of
+        // the snapshot pool so that a large cleanup does not hold up shard snapshots and restores that run at the same time. Blobs that
+        // are left behind because of a failure or a master fail-over are unreferenced by the new repository data and are picked up again
+        // by the next delete or repository cleanup.
+        final Executor executor = threadPool.executor(ThreadPool.Names.SNAPSHOT);
+        final int workers = Math.max(1, threadPool.info(ThreadPool.Names.SNAPSHOT).getMax() / 2);
+        final AtomicLong deletedBlobs = new AtomicLong();
+        final ActionListener<Void> allChunksListener = new GroupedActionListener<>(listener.map(ignored -> {
+            logger.debug("[{}] deleted [{}] stale shard level blobs for snapshots {}", metadata.name(), deletedBlobs.get(), snapshotIds);
+            return null;
+        }), workers);
+        for (int i = 0; i < workers; ++i) {
+            executeOneStaleBlobsDelete(filesToDelete, snapshotIds, deletedBlobs, executor, allChunksListener);
+        }
+    }
+
+    private void executeOneStaleBlobsDelete(
+        Iterator<String> filesToDelete,
+        Collection<SnapshotId> snapshotIds,
+        AtomicLong deletedBlobs,
+        Executor executor,
+        ActionListener<Void> listener
+    ) {
+        final List<String> chunk = nextStaleBlobsChunk(filesToDelete);
+        if (chunk.isEmpty()) {
+            listener.onResponse(null);
+            return;
+        }
+        executor.execute(ActionRunnable.wrap(listener, l -> {
             try {
-                deleteFromContainer(blobContainer(), filesToDelete);
-                l.onResponse(null);
+                deleteFromContainer(blobContainer(), chunk.iterator());
             } catch (Exception e) {
                 logger.warn(() -> new ParameterizedMessage("{} Failed to delete some blobs during snapshot delete", snapshotIds), e);
                 throw e;
             }
+            logger.trace(
+                "[{}] deleted [{}] stale shard level blobs for snapshots {} so far",
+                metadata.name(),
+                deletedBlobs.addAndGet(chunk.size()),
+                snapshotIds
+            );
+            executeOneStaleBlobsDelete(filesToDelete, snapshotIds, deletedBlobs, executor, l);
         }));
     }
 
+    private static List<String> nextStaleBlobsChunk(Iterator<String> filesToDelete) {
+        synchronized (filesToDelete) {
+            final List<String> chunk = new ArrayList<>();
+            while (chunk.size() < STALE_BLOBS_DELETE_CHUNK_SIZE && filesToDelete.hasNext()) {
+                chunk.add(filesToDelete.next());
+            }
+            return chunk;
+        }
+    }
+
     // updates the shard state metadata for shards of a snapshot that is to be deleted. Also computes the files to be cleaned up.
     private void writeUpdatedShardMetaDataAndComputeDeletes(
         Collection<SnapshotId> snapshotIds,
@@ -19,6 +19,8 @@ import org.elasticsearch.common.cache.RemovalNotification;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
@@ -83,7 +85,7 @@ public class ScriptCache {
         Map<String, String> options
     ) {
         String lang = scriptEngine.getType();
-        CacheKey cacheKey = new CacheKey(lang, idOrCode, context.name, options);
+        CacheKey cacheKey = new CacheKey(lang, id, idOrCode, type, context.name, options);
 
         // Relying on computeIfAbsent to avoid multiple threads from compiling the same script
         try {
@@ -105,25 +107,72 @@ public class ScriptCache {
                     // Check whether too many compilations have happened
                     checkCompilationLimit();
                 }
+                long start = System.nanoTime();
                 Object compiledScript = scriptEngine.compile(id, idOrCode, context, options);
                 // Since the cache key is the script content itself we don't need to
                 // invalidate/check the cache if an indexed script changes.
-                scriptMetrics.onCompilation();
+                scriptMetrics.onCompilation(System.nanoTime() - start);
                 return compiledScript;
             }));
         } catch (ExecutionException executionException) {
-            Throwable cause = executionException.getCause();
-            if (cause instanceof ScriptException) {
-                throw (ScriptException) cause;
-            } else if (cause instanceof Exception) {
-                throw new GeneralScriptException("Failed to compile " + type + " script [" + id + "] using lang [" + lang + "]", cause);
-            } else {
-                rethrow(cause);
-                throw new AssertionError(cause);
-            }
+            throw unwrapCompilationFailure(executionException, id, type, lang);
         }
     }
 
+    /**
+     * Compiles a script that this node compiled before it was restarted and adds it to the cache. Unlike
+     * {@link #compile(ScriptContext, ScriptEngine, String, String, ScriptType, Map)} this does not count against the compilation rate
+     * limit: the script was already paid for by the request that first compiled it.
+     *
+     * @return {@code true} if the script was compiled, {@code false} if it was already in the cache
+     */
+    boolean warm(ScriptContext<?> context, ScriptEngine scriptEngine, CachedScript script) {
+        assert script.context().equals(context.name);
+        assert script.lang().equals(scriptEngine.getType());
+        CacheKey cacheKey = new CacheKey(script.lang(), script.id(), script.source(), script.type(), context.name, script.options());
+        boolean[] compiled = new boolean[1];
+        try {
+            cache.computeIfAbsent(cacheKey, key -> {
+                long start = System.nanoTime();
+                Object compiledScript = scriptEngine.compile(script.id(), script.source(), context, script.options());
+                scriptMetrics.onWarmedCompilation(System.nanoTime() - start);
+                compiled[0] = true;
+                return compiledScript;
+            });
+        } catch (ExecutionException executionException) {
+            throw unwrapCompilationFailure(executionException, script.id(), script.type(), script.lang());
+        }
+        return compiled[0];
+    }
+
+    private static RuntimeException unwrapCompilationFailure(
+        ExecutionException executionException,
+        String id,
+        ScriptType type,
+        String lang
+    ) {
+        Throwable cause = executionException.getCause();
+        if (cause instanceof ScriptException) {
+            return (ScriptException) cause;
+        } else if (cause instanceof Exception) {
+            return new GeneralScriptException("Failed to compile " + type + " script [" + id + "] using lang [" + lang + "]", cause);
+        } else {
+            rethrow(cause);
+            throw new AssertionError(cause);
+        }
+    }
+
+    /**
+     * The scripts that are currently in the cache, in no particular order.
+     */
+    List<CachedScript> cachedScripts() {
+        List<CachedScript> scripts = new ArrayList<>(cache.count());
+        for (CacheKey key : cache.keys()) {
+            scripts.add(new CachedScript(key.lang, key.id, key.idOrCode, key.type, key.context, key.options));
+        }
+        return scripts;
+    }
+
     /** Hack to rethrow unknown Exceptions from compile: */
     @SuppressWarnings("unchecked")
     static <T extends Throwable> void rethrow(Throwable t) throws T {
@@ -201,17 +250,27 @@ public class ScriptCache {
         }
     }
 
+    /**
+     * A script in the cache, with everything needed to compile it again.
+     */
+    record CachedScript(String lang, String id, String source, ScriptType type, String context, Map<String, String> options) {}
+
     private static final class CacheKey {
         final String lang;
         final String idOrCode;
         final String context;
         final Map<String, String> options;
+        // Not part of the key, we only keep them so the script can be compiled under the same name when warming the cache
+        final String id;
+        final ScriptType type;
 
-        private CacheKey(String lang, String idOrCode, String context, Map<String, String> options) {
+        private CacheKey(String lang, String id, String idOrCode, ScriptType type, String context, Map<String, String> options) {
             this.lang = lang;
             this.idOrCode = idOrCode;
             this.context = context;
             this.options = options;
+            this.id = id;
+            this.type = type;
         }
 
         @Override
@@ -0,0 +1,166 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.script;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentFactory;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+import org.elasticsearch.xcontent.XContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Remembers the scripts in the script cache across node restarts so they can be compiled before the first request needs them.
+ * <p>
+ * On shutdown the lang, source, context and options of every cached script are written to a file in the node's data path. On startup
+ * the file is read back and the scripts are compiled again from source in the background, without counting against the compilation
+ * rate limit. We deliberately store sources rather than the generated classes: the classes hold state that is injected when they are
+ * defined, and recompiling against the current whitelists means that a node upgrade or a plugin change can never load stale bytecode.
+ */
+public class ScriptCacheWarmer {
+
+    private static final Logger logger = LogManager.getLogger(ScriptCacheWarmer.class);
+
+    static final String FILE_NAME = "script_cache.json";
+
+    private final ScriptService scriptService;
+    private final Path file;
+
+    public ScriptCacheWarmer(ScriptService scriptService, Path dataPath) {
+        this.scriptService = scriptService;
+        this.file = dataPath.resolve(FILE_NAME);
+    }
+
+    /**
+     * Compiles the scripts that were cached when the node was last stopped. Scripts that no longer compile are skipped.
+     */
+    public void warm() {
+        final List<ScriptCache.CachedScript> scripts;
+        try {
+            scripts = read();
+        } catch (Exception e) {
+            logger.warn(new ParameterizedMessage("failed to read script cache file [{}], not warming the script cache", file), e);
+            return;
+        }
+        if (scripts.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int compiled = 0;
+        for (ScriptCache.CachedScript script : scripts) {
+            try {
+                if (scriptService.warm(script)) {
+                    compiled++;
+                }
+            } catch (Exception e) {
+                logger.debug(
+                    new ParameterizedMessage(
+                        "failed to compile [{}] script [{}] for context [{}]",
+                        script.type(),
+                        script.id(),
+                        script.context()
+                    ),
+                    e
+                );
+            }
+        }
+        logger.info(
+            "warmed script cache with [{}] of [{}] scripts in [{}]",
+            compiled,
+            scripts.size(),
+            TimeValue.timeValueNanos(System.nanoTime() - start)
+        );
+    }
+
+    /**
+     * Writes the scripts that are currently cached to disk so that the next start of the node can compile them ahead of time.
+     */
+    public void persist() {
+        try {
+            write(scriptService.cachedScripts());
+        } catch (Exception e) {
+            logger.warn(new ParameterizedMessage("failed to write script cache file [{}]", file), e);
+        }
+    }
+
+    List<ScriptCache.CachedScript> read() throws IOException {
+        if (Files.exists(file) == false) {
+            return List.of();
+        }
+        List<ScriptCache.CachedScript> scripts = new ArrayList<>();
+        try (
+            InputStream in = Files.newInputStream(file);
+            XContentParser parser = XContentType.JSON.xContent().createParser(XContentParserConfiguration.EMPTY, in)
+        ) {
+            Map<String, Object> map = parser.map();
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> entries = (List<Map<String, Object>>) map.getOrDefault(Fields.SCRIPTS, List.of());
+            for (Map<String, Object> entry : entries) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> options = (Map<String, String>) entry.get(Fields.OPTIONS);
+                scripts.add(
+                    new ScriptCache.CachedScript(
+                        (String) entry.get(Fields.LANG),
+                        (String) entry.get(Fields.ID),
+                        (String) entry.get(Fields.SOURCE),
+                        ScriptType.valueOf(((String) entry.get(Fields.TYPE)).toUpperCase(Locale.ROOT)),
+                        (String) entry.get(Fields.CONTEXT),
+                        options == null ? Map.of() : options
+                    )
+                );
+            }
+        }
+        return scripts;
+    }
+
+    void write(List<ScriptCache.CachedScript> scripts) throws IOException {
+        Path tmpFile = file.resolveSibling(FILE_NAME + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmpFile); XContentBuilder builder = XContentFactory.jsonBuilder(out)) {
+            builder.startObject();
+            builder.startArray(Fields.SCRIPTS);
+            for (ScriptCache.CachedScript script : scripts) {
+                builder.startObject();
+                builder.field(Fields.LANG, script.lang());
+                builder.field(Fields.ID, script.id());
+                builder.field(Fields.SOURCE, script.source());
+                builder.field(Fields.TYPE, script.type().getName());
+                builder.field(Fields.CONTEXT, script.context());
+                builder.stringStringMap(Fields.OPTIONS, script.options());
+                builder.endObject();
+            }
+            builder.endArray();
+            builder.endObject();
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static final class Fields {
+        static final String SCRIPTS = "scripts";
+        static final String LANG = "lang";
+        static final String ID = "id";
+        static final String SOURCE = "source";
+        static final String TYPE = "type";
+        static final String CONTEXT = "context";
+        static final String OPTIONS = "options";
+    }
+}
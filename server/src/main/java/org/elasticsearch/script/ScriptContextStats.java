@@ -12,11 +12,13 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class ScriptContextStats implements Writeable, ToXContentFragment, Comparable<ScriptContextStats> {
     private final String context;
@@ -25,12 +27,25 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
     private final long cacheEvictions;
     private final TimeSeries cacheEvictionsHistory;
     private final long compilationLimitTriggered;
+    private final long compilationTimeInNanos;
+    private final long warmedCompilations;
 
     public ScriptContextStats(
         String context,
         long compilationLimitTriggered,
         TimeSeries compilationsHistory,
         TimeSeries cacheEvictionsHistory
+    ) {
+        this(context, compilationLimitTriggered, compilationsHistory, cacheEvictionsHistory, 0, 0);
+    }
+
+    public ScriptContextStats(
+        String context,
+        long compilationLimitTriggered,
+        TimeSeries compilationsHistory,
+        TimeSeries cacheEvictionsHistory,
+        long compilationTimeInNanos,
+        long warmedCompilations
     ) {
         this.context = Objects.requireNonNull(context);
         this.compilations = compilationsHistory.total;
@@ -38,6 +53,8 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
         this.compilationLimitTriggered = compilationLimitTriggered;
         this.compilationsHistory = compilationsHistory;
         this.cacheEvictionsHistory = cacheEvictionsHistory;
+        this.compilationTimeInNanos = compilationTimeInNanos;
+        this.warmedCompilations = warmedCompilations;
     }
 
     public ScriptContextStats(StreamInput in) throws IOException {
@@ -55,6 +72,13 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
             compilationsHistory = new TimeSeries(compilations);
             cacheEvictionsHistory = new TimeSeries(cacheEvictions);
         }
+        if (in.getVersion().onOrAfter(Version.V_8_3_0)) {
+            compilationTimeInNanos = in.readVLong();
+            warmedCompilations = in.readVLong();
+        } else {
+            compilationTimeInNanos = 0;
+            warmedCompilations = 0;
+        }
     }
 
     @Override
@@ -67,6 +91,10 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
             compilationsHistory.writeTo(out);
             cacheEvictionsHistory.writeTo(out);
         }
+        if (out.getVersion().onOrAfter(Version.V_8_3_0)) {
+            out.writeVLong(compilationTimeInNanos);
+            out.writeVLong(warmedCompilations);
+        }
     }
 
     public String getContext() {
@@ -93,6 +121,21 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
         return compilationLimitTriggered;
     }
 
+    public TimeValue getCompilationTime() {
+        return new TimeValue(compilationTimeInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getCompilationTimeInNanos() {
+        return compilationTimeInNanos;
+    }
+
+    /**
+     * The number of compilations that were done ahead of time to warm the script cache after a restart.
+     */
+    public long getWarmedCompilations() {
+        return warmedCompilations;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
@@ -115,6 +158,8 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
         }
 
         builder.field(Fields.COMPILATION_LIMIT_TRIGGERED, getCompilationLimitTriggered());
+        builder.humanReadableField(Fields.COMPILATION_TIME_IN_MILLIS, Fields.COMPILATION_TIME, getCompilationTime());
+        builder.field(Fields.WARMED_COMPILATIONS, getWarmedCompilations());
         builder.endObject();
         return builder;
     }
@@ -131,6 +176,9 @@ public class ScriptContextStats implements Writeable, ToXContentFragment, Compar
         static final String CACHE_EVICTIONS = "cache_evictions";
         static final String CACHE_EVICTIONS_HISTORY = "cache_evictions_history";
         static final String COMPILATION_LIMIT_TRIGGERED = "compilation_limit_triggered";
+        static final String COMPILATION_TIME = "compilation_time";
+        static final String COMPILATION_TIME_IN_MILLIS = "compilation_time_in_millis";
+        static final String WARMED_COMPILATIONS = "warmed_compilations";
         static final String FIVE_MINUTES = "5m";
         static final String FIFTEEN_MINUTES = "15m";
         static final String TWENTY_FOUR_HOURS = "24h";
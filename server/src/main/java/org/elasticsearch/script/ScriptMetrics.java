@@ -16,14 +16,25 @@ public class ScriptMetrics {
     final CounterMetric compilationLimitTriggered = new CounterMetric();
     final TimeSeriesCounter compilations;
     final TimeSeriesCounter cacheEvictions;
+    final CounterMetric compilationTimeInNanos = new CounterMetric();
+    final CounterMetric warmedCompilations = new CounterMetric();
 
     public ScriptMetrics(LongSupplier timeProvider) {
         compilations = new TimeSeriesCounter(timeProvider);
         cacheEvictions = new TimeSeriesCounter(timeProvider);
     }
 
-    public void onCompilation() {
+    public void onCompilation(long tookInNanos) {
         compilations.inc();
+        compilationTimeInNanos.inc(tookInNanos);
+    }
+
+    /**
+     * Called for compilations that were done ahead of time to warm the cache rather than on behalf of a request.
+     */
+    public void onWarmedCompilation(long tookInNanos) {
+        onCompilation(tookInNanos);
+        warmedCompilations.inc();
     }
 
     public void onCacheEviction() {
@@ -42,13 +53,22 @@ public class ScriptMetrics {
             cacheEvictionsTimeSeries.total,
             compilationLimitTriggered.count(),
             compilationsTimeSeries,
-            cacheEvictionsTimeSeries
+            cacheEvictionsTimeSeries,
+            compilationTimeInNanos.count(),
+            warmedCompilations.count()
         );
     }
 
     public ScriptContextStats stats(String context) {
         TimeSeries compilationsTimeSeries = compilations.timeSeries();
         TimeSeries cacheEvictionsTimeSeries = cacheEvictions.timeSeries();
-        return new ScriptContextStats(context, compilationLimitTriggered.count(), compilationsTimeSeries, cacheEvictionsTimeSeries);
+        return new ScriptContextStats(
+            context,
+            compilationLimitTriggered.count(),
+            compilationsTimeSeries,
+            cacheEvictionsTimeSeries,
+            compilationTimeInNanos.count(),
+            warmedCompilations.count()
+        );
     }
 }
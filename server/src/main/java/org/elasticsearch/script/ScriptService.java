@@ -161,6 +161,16 @@ public class ScriptService implements Closeable, ClusterStateApplier, ScriptComp
         Property.NodeScope
     );
 
+    /**
+     * Whether to write the cached scripts to the data path on shutdown and compile them again on startup. Off by default because the
+     * sources of inline scripts end up on disk in plain text.
+     */
+    public static final Setting<Boolean> SCRIPT_CACHE_PERSIST_SETTING = Setting.boolSetting(
+        "script.cache.persist",
+        false,
+        Property.NodeScope
+    );
+
     public static final String ALLOW_NONE = "none";
 
     public static final Setting<List<String>> TYPES_ALLOWED_SETTING = Setting.listSetting(
@@ -638,6 +648,33 @@ public class ScriptService implements Closeable, ClusterStateApplier, ScriptComp
         return scriptCache.compile(context, scriptEngine, id, idOrCode, type, options);
     }
 
+    /**
+     * The scripts currently held in the script cache(s) of this node.
+     */
+    List<ScriptCache.CachedScript> cachedScripts() {
+        return cacheHolder.get().cachedScripts();
+    }
+
+    /**
+     * Compiles a script that was in the cache before this node restarted, without counting it against the compilation rate limit.
+     * Scripts whose language, type or context are no longer available or allowed are skipped.
+     *
+     * @return {@code true} if the script was compiled, {@code false} if it was skipped or already in the cache
+     */
+    boolean warm(ScriptCache.CachedScript script) {
+        ScriptEngine scriptEngine = engines.get(script.lang());
+        ScriptContext<?> context = contexts.get(script.context());
+        if (scriptEngine == null || context == null || isTypeEnabled(script.type()) == false || isContextEnabled(context) == false) {
+            return false;
+        }
+        if (script.type() == ScriptType.INLINE && script.source().getBytes(StandardCharsets.UTF_8).length > maxSizeInBytes) {
+            return false;
+        }
+        ScriptCache scriptCache = cacheHolder.get().get(context.name);
+        assert scriptCache != null : "script context [" + context.name + "] has no script cache";
+        return scriptCache.warm(context, scriptEngine, script);
+    }
+
     public boolean isLangSupported(String lang) {
         Objects.requireNonNull(lang);
         return engines.containsKey(lang);
@@ -948,6 +985,17 @@ public class ScriptService implements Closeable, ClusterStateApplier, ScriptComp
             return new ScriptStats(contextStats);
         }
 
+        List<ScriptCache.CachedScript> cachedScripts() {
+            if (general != null) {
+                return general.cachedScripts();
+            }
+            List<ScriptCache.CachedScript> scripts = new ArrayList<>();
+            for (AtomicReference<ScriptCache> ref : contextCache.values()) {
+                scripts.addAll(ref.get().cachedScripts());
+            }
+            return scripts;
+        }
+
         ScriptCacheStats cacheStats() {
             if (general != null) {
                 return new ScriptCacheStats(general.stats());
@@ -13,6 +13,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.util.Maps;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
 
@@ -21,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class ScriptStats implements Writeable, ToXContentFragment {
     private final List<ScriptContextStats> contextStats;
@@ -29,6 +31,8 @@ public class ScriptStats implements Writeable, ToXContentFragment {
     private final long compilationLimitTriggered;
     private final TimeSeries compilationsHistory;
     private final TimeSeries cacheEvictionsHistory;
+    private final long compilationTimeInNanos;
+    private final long warmedCompilations;
 
     public ScriptStats(List<ScriptContextStats> contextStats) {
         ArrayList<ScriptContextStats> ctxStats = new ArrayList<>(contextStats.size());
@@ -38,14 +42,20 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         long compilations = 0;
         long cacheEvictions = 0;
         long compilationLimitTriggered = 0;
+        long compilationTimeInNanos = 0;
+        long warmedCompilations = 0;
         for (ScriptContextStats stats : contextStats) {
             compilations += stats.getCompilations();
             cacheEvictions += stats.getCacheEvictions();
             compilationLimitTriggered += stats.getCompilationLimitTriggered();
+            compilationTimeInNanos += stats.getCompilationTimeInNanos();
+            warmedCompilations += stats.getWarmedCompilations();
         }
         this.compilations = compilations;
         this.cacheEvictions = cacheEvictions;
         this.compilationLimitTriggered = compilationLimitTriggered;
+        this.compilationTimeInNanos = compilationTimeInNanos;
+        this.warmedCompilations = warmedCompilations;
         this.compilationsHistory = new TimeSeries(compilations);
         this.cacheEvictionsHistory = new TimeSeries(cacheEvictions);
     }
@@ -56,6 +66,18 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         long compilationLimitTriggered,
         TimeSeries compilationsHistory,
         TimeSeries cacheEvictionsHistory
+    ) {
+        this(compilations, cacheEvictions, compilationLimitTriggered, compilationsHistory, cacheEvictionsHistory, 0, 0);
+    }
+
+    public ScriptStats(
+        long compilations,
+        long cacheEvictions,
+        long compilationLimitTriggered,
+        TimeSeries compilationsHistory,
+        TimeSeries cacheEvictionsHistory,
+        long compilationTimeInNanos,
+        long warmedCompilations
     ) {
         this.contextStats = Collections.emptyList();
         this.compilations = compilations;
@@ -63,6 +85,8 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         this.compilationLimitTriggered = compilationLimitTriggered;
         this.compilationsHistory = compilationsHistory == null ? new TimeSeries(compilations) : compilationsHistory;
         this.cacheEvictionsHistory = cacheEvictionsHistory == null ? new TimeSeries(cacheEvictions) : cacheEvictionsHistory;
+        this.compilationTimeInNanos = compilationTimeInNanos;
+        this.warmedCompilations = warmedCompilations;
     }
 
     public ScriptStats(ScriptContextStats context) {
@@ -71,7 +95,9 @@ public class ScriptStats implements Writeable, ToXContentFragment {
             context.getCacheEvictions(),
             context.getCompilationLimitTriggered(),
             context.getCompilationsHistory(),
-            context.getCacheEvictionsHistory()
+            context.getCacheEvictionsHistory(),
+            context.getCompilationTimeInNanos(),
+            context.getWarmedCompilations()
         );
     }
 
@@ -88,6 +114,13 @@ public class ScriptStats implements Writeable, ToXContentFragment {
             cacheEvictionsHistory = new TimeSeries(cacheEvictions);
         }
         compilationLimitTriggered = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_8_3_0)) {
+            compilationTimeInNanos = in.readVLong();
+            warmedCompilations = in.readVLong();
+        } else {
+            compilationTimeInNanos = 0;
+            warmedCompilations = 0;
+        }
         contextStats = in.readList(ScriptContextStats::new);
     }
 
@@ -101,6 +134,10 @@ public class ScriptStats implements Writeable, ToXContentFragment {
             out.writeVLong(cacheEvictions);
         }
         out.writeVLong(compilationLimitTriggered);
+        if (out.getVersion().onOrAfter(Version.V_8_3_0)) {
+            out.writeVLong(compilationTimeInNanos);
+            out.writeVLong(warmedCompilations);
+        }
         out.writeList(contextStats);
     }
 
@@ -120,6 +157,14 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         return compilationLimitTriggered;
     }
 
+    public TimeValue getCompilationTime() {
+        return new TimeValue(compilationTimeInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getWarmedCompilations() {
+        return warmedCompilations;
+    }
+
     public ScriptCacheStats toScriptCacheStats() {
         if (contextStats.isEmpty()) {
             return new ScriptCacheStats(this);
@@ -137,6 +182,8 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         builder.field(Fields.COMPILATIONS, compilations);
         builder.field(Fields.CACHE_EVICTIONS, cacheEvictions);
         builder.field(Fields.COMPILATION_LIMIT_TRIGGERED, compilationLimitTriggered);
+        builder.humanReadableField(Fields.COMPILATION_TIME_IN_MILLIS, Fields.COMPILATION_TIME, getCompilationTime());
+        builder.field(Fields.WARMED_COMPILATIONS, warmedCompilations);
         if (compilationsHistory != null && compilationsHistory.areTimingsEmpty() == false) {
             builder.startObject(ScriptContextStats.Fields.COMPILATIONS_HISTORY);
             compilationsHistory.toXContent(builder, params);
@@ -162,5 +209,8 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         static final String COMPILATIONS = "compilations";
         static final String CACHE_EVICTIONS = "cache_evictions";
         static final String COMPILATION_LIMIT_TRIGGERED = "compilation_limit_triggered";
+        static final String COMPILATION_TIME = "compilation_time";
+        static final String COMPILATION_TIME_IN_MILLIS = "compilation_time_in_millis";
+        static final String WARMED_COMPILATIONS = "warmed_compilations";
     }
 }
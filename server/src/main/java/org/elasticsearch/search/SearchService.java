@@ -39,6 +39,8 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.CollectionUtils;
+import org.elasticsearch.common.util.DirectPagePool;
+import org.elasticsearch.common.util.OffHeapBigArrays;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Releasable;
@@ -66,6 +68,7 @@ import org.elasticsearch.indices.ExecutorSelector;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
+import org.elasticsearch.monitor.jvm.JvmInfo;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.script.FieldScript;
 import org.elasticsearch.script.ScriptService;
@@ -216,6 +219,35 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         Property.NodeScope
     );
 
+    /**
+     * Should aggregations keep their large arrays off heap, in direct memory?
+     */
+    public static final Setting<Boolean> AGGS_USE_OFF_HEAP_BIG_ARRAYS = Setting.boolSetting(
+        "search.aggs.use_off_heap_big_arrays",
+        false,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
+    /**
+     * How much direct memory released by aggregations is kept around for the next ones.
+     */
+    public static final Setting<ByteSizeValue> AGGS_OFF_HEAP_PAGE_POOL_SIZE = Setting.byteSizeSetting(
+        "search.aggs.off_heap_page_pool_size",
+        new ByteSizeValue(64, ByteSizeUnit.MB),
+        Property.NodeScope
+    );
+
+    /**
+     * How much direct memory the arrays of aggregations may use at once. The circuit breakers are sized by the heap,
+     * so they can't keep aggregations from running out of direct memory. Defaults to half of the direct memory of the JVM.
+     */
+    public static final Setting<ByteSizeValue> AGGS_OFF_HEAP_MAX_SIZE = Setting.byteSizeSetting(
+        "search.aggs.off_heap_max_size",
+        s -> (maxDirectMemory(JvmInfo.jvmInfo()) / 2) + "b",
+        Property.NodeScope
+    );
+
     public static final Setting<ByteSizeValue> MAX_ASYNC_SEARCH_RESPONSE_SIZE_SETTING = Setting.byteSizeSetting(
         "search.max_async_search_response_size",
         new ByteSizeValue(10, ByteSizeUnit.MB),
@@ -258,6 +290,10 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private volatile boolean enableRewriteAggsToFilterByFilter;
 
+    private volatile boolean useOffHeapAggsBigArrays;
+
+    private final DirectPagePool aggsDirectPagePool;
+
     private final Cancellable keepAliveReaper;
 
     private final AtomicLong idGenerator = new AtomicLong();
@@ -324,6 +360,34 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         enableRewriteAggsToFilterByFilter = ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER.get(settings);
         clusterService.getClusterSettings()
             .addSettingsUpdateConsumer(ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER, this::setEnableRewriteAggsToFilterByFilter);
+
+        aggsDirectPagePool = new DirectPagePool(
+            AGGS_OFF_HEAP_PAGE_POOL_SIZE.get(settings).getBytes(),
+            AGGS_OFF_HEAP_MAX_SIZE.get(settings).getBytes()
+        );
+        useOffHeapAggsBigArrays = AGGS_USE_OFF_HEAP_BIG_ARRAYS.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(AGGS_USE_OFF_HEAP_BIG_ARRAYS, this::setUseOffHeapAggsBigArrays);
+    }
+
+    /**
+     * The direct memory that the JVM may allocate, configured with {@code -XX:MaxDirectMemorySize} or else the maximum heap size.
+     */
+    static long maxDirectMemory(JvmInfo jvmInfo) {
+        long directMemoryMax = jvmInfo.getMem().getDirectMemoryMax().getBytes();
+        if (directMemoryMax > 0) {
+            return directMemoryMax;
+        }
+        final String option = "-XX:MaxDirectMemorySize=";
+        for (String argument : jvmInfo.getInputArguments()) {
+            if (argument.startsWith(option)) {
+                String value = argument.substring(option.length());
+                // the last occurrence of an option wins
+                directMemoryMax = Character.isDigit(value.charAt(value.length() - 1))
+                    ? Long.parseLong(value)
+                    : ByteSizeValue.parseBytesSizeValue(value, option).getBytes();
+            }
+        }
+        return directMemoryMax > 0 ? directMemoryMax : jvmInfo.getMem().getHeapMax().getBytes();
     }
 
     private static void validateKeepAlives(TimeValue defaultKeepAlive, TimeValue maxKeepAlive) {
@@ -374,6 +438,10 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         this.enableRewriteAggsToFilterByFilter = enableRewriteAggsToFilterByFilter;
     }
 
+    private void setUseOffHeapAggsBigArrays(boolean useOffHeapAggsBigArrays) {
+        this.useOffHeapAggsBigArrays = useOffHeapAggsBigArrays;
+    }
+
     @Override
     public void afterIndexRemoved(Index index, IndexSettings indexSettings, IndexRemovalReason reason) {
         // once an index is removed due to deletion or closing, we can just clean up all the pending search context information
@@ -1206,7 +1274,13 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
             AggregationContext aggContext = new ProductionAggregationContext(
                 indicesService.getAnalysis(),
                 context.getSearchExecutionContext(),
-                bigArrays,
+                /*
+                 * Off heap big arrays are an arena that the aggregation
+                 * context closes so every request gets its own.
+                 */
+                useOffHeapAggsBigArrays
+                    ? OffHeapBigArrays.arena(bigArrays, aggsDirectPagePool, CircuitBreaker.REQUEST)
+                    : bigArrays,
                 source.aggregations().bytesToPreallocate(),
                 /*
                  * The query on the search context right now doesn't include
@@ -11,6 +11,7 @@ package org.elasticsearch.search.aggregations;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.util.BytesRef;
 
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -22,6 +23,7 @@ import java.util.function.Supplier;
 public class AggregationExecutionContext {
 
     private final Supplier<BytesRef> tsidProvider;
+    private final LongSupplier tsidOrdProvider;
     private final Supplier<Long> timestampProvider;
     private final LeafReaderContext leafReaderContext;
 
@@ -29,9 +31,19 @@ public class AggregationExecutionContext {
         LeafReaderContext leafReaderContext,
         Supplier<BytesRef> tsidProvider,
         Supplier<Long> timestampProvider
+    ) {
+        this(leafReaderContext, tsidProvider, null, timestampProvider);
+    }
+
+    public AggregationExecutionContext(
+        LeafReaderContext leafReaderContext,
+        Supplier<BytesRef> tsidProvider,
+        LongSupplier tsidOrdProvider,
+        Supplier<Long> timestampProvider
     ) {
         this.leafReaderContext = leafReaderContext;
         this.tsidProvider = tsidProvider;
+        this.tsidOrdProvider = tsidOrdProvider;
         this.timestampProvider = timestampProvider;
     }
 
@@ -43,6 +55,15 @@ public class AggregationExecutionContext {
         return tsidProvider != null ? tsidProvider.get() : null;
     }
 
+    /**
+     * The ordinal of the current time series id, shared by all segments walked by the same search, or {@code -1} if it is
+     * unknown. Ordinals follow the order of the time series ids, so two documents have the same time series id if and only
+     * if they have the same ordinal.
+     */
+    public long getTsidOrd() {
+        return tsidOrdProvider != null ? tsidOrdProvider.getAsLong() : -1;
+    }
+
     public Long getTimestamp() {
         return timestampProvider.get();
     }
@@ -10,6 +10,9 @@ package org.elasticsearch.search.aggregations;
 import org.apache.lucene.search.Collector;
 import org.elasticsearch.action.search.SearchShardTask;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
+import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.aggregations.timeseries.TimeSeriesIndexSearcher;
 import org.elasticsearch.search.internal.SearchContext;
@@ -43,7 +46,15 @@ public class AggregationPhase {
         }
         if (context.aggregations().factories().context() != null
             && context.aggregations().factories().context().isInSortOrderExecutionRequired()) {
-            TimeSeriesIndexSearcher searcher = new TimeSeriesIndexSearcher(context.searcher(), getCancellationChecks(context));
+            SearchExecutionContext searchExecutionContext = context.getSearchExecutionContext();
+            IndexOrdinalsFieldData tsidFieldData = searchExecutionContext.getForField(
+                searchExecutionContext.getFieldType(TimeSeriesIdFieldMapper.NAME)
+            );
+            TimeSeriesIndexSearcher searcher = new TimeSeriesIndexSearcher(
+                context.searcher(),
+                tsidFieldData,
+                getCancellationChecks(context)
+            );
             try {
                 searcher.search(context.rewrittenQuery(), bucketCollector);
             } catch (IOException e) {
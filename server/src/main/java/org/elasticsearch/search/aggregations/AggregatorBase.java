@@ -8,13 +8,18 @@
 package org.elasticsearch.search.aggregations;
 
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.Maps;
+import org.elasticsearch.index.query.DateRangeIncludingNowQuery;
 import org.elasticsearch.search.aggregations.bucket.filter.FiltersAggregator;
 import org.elasticsearch.search.aggregations.metrics.MinAggregator;
 import org.elasticsearch.search.aggregations.metrics.SumAggregator;
@@ -46,6 +51,7 @@ public abstract class AggregatorBase extends Aggregator {
 
     private Map<String, Aggregator> subAggregatorbyName;
     private long requestBytesUsed;
+    private final List<BlockBufferingLeafBucketCollector> blockCollectors = new ArrayList<>();
 
     /**
      * Constructs a new Aggregator.
@@ -124,6 +130,51 @@ public abstract class AggregatorBase extends Aggregator {
         return config.getPointReaderOrNull();
     }
 
+    /**
+     * Returns the top level query if it is a one dimensional {@link PointRangeQuery}
+     * on the field of the {@code config}, once the wrappers that don't change the
+     * matching docs are stripped. Aggregations can then read the values of the
+     * matching docs from the points of the field, converting them with
+     * {@link ValuesSourceConfig#getPointReaderOrNull()}, rather than collecting
+     * every hit. Like {@link #pointReaderIfAvailable} this is only safe for top
+     * level aggregations of indexed fields without scripts or missing values.
+     *
+     * If those conditions aren't met, return <code>null</code>.
+     *
+     * @param config The config for the values source metric.
+     */
+    public final PointRangeQuery pointRangeQueryIfAvailable(ValuesSourceConfig config) {
+        if (parent != null || config.getPointReaderOrNull() == null || config.fieldContext() == null) {
+            return null;
+        }
+        return asPointRangeQuery(topLevelQuery(), config.fieldContext().field());
+    }
+
+    /**
+     * Returns {@code query} if it is a one dimensional {@link PointRangeQuery} on
+     * {@code field} once the wrappers that don't change the matching docs are
+     * stripped, <code>null</code> otherwise.
+     */
+    public static PointRangeQuery asPointRangeQuery(Query query, String field) {
+        while (true) {
+            if (query instanceof BoostQuery boostQuery) {
+                query = boostQuery.getQuery();
+            } else if (query instanceof ConstantScoreQuery constantScoreQuery) {
+                query = constantScoreQuery.getQuery();
+            } else if (query instanceof IndexOrDocValuesQuery indexOrDocValuesQuery) {
+                query = indexOrDocValuesQuery.getIndexQuery();
+            } else if (query instanceof DateRangeIncludingNowQuery dateRangeIncludingNowQuery) {
+                query = dateRangeIncludingNowQuery.getQuery();
+            } else {
+                break;
+            }
+        }
+        if (query instanceof PointRangeQuery rangeQuery && rangeQuery.getNumDims() == 1 && rangeQuery.getField().equals(field)) {
+            return rangeQuery;
+        }
+        return null;
+    }
+
     /**
      * Increment or decrement the number of bytes that have been allocated to service
      * this request and potentially trigger a {@link CircuitBreakingException}. The
@@ -219,7 +270,34 @@ public abstract class AggregatorBase extends Aggregator {
     public final LeafBucketCollector getLeafCollector(AggregationExecutionContext aggCtx) throws IOException {
         preGetSubLeafCollectors(aggCtx.getLeafReaderContext());
         final LeafBucketCollector sub = collectableSubAggregators.getLeafCollector(aggCtx);
-        return getLeafCollector(aggCtx.getLeafReaderContext(), sub, aggCtx);
+        final LeafBucketCollector leaf = getLeafCollector(aggCtx.getLeafReaderContext(), sub, aggCtx);
+        if (parent != null || leaf.isNoop() || supportsBlockCollection() == false || scoreMode().needsScores()) {
+            return leaf;
+        }
+        // Hand the blocks of the previous segments over now, while their doc values are still hot
+        flushBlockCollectors();
+        BlockBufferingLeafBucketCollector buffering = new BlockBufferingLeafBucketCollector(leaf);
+        blockCollectors.add(buffering);
+        return buffering;
+    }
+
+    /**
+     * Can this aggregator receive its docs in blocks through
+     * {@link LeafBucketCollector#collect(int[], int, long)}? Only top level
+     * aggregators that don't need scores are ever collected in blocks: the
+     * docs are buffered and collected after the query has moved past them
+     * so neither the scorer nor the buckets of a parent aggregator would
+     * still be positioned on them. Aggregators that opt in must not have
+     * sub-aggregators.
+     */
+    protected boolean supportsBlockCollection() {
+        return false;
+    }
+
+    private void flushBlockCollectors() throws IOException {
+        for (BlockBufferingLeafBucketCollector collector : blockCollectors) {
+            collector.flush();
+        }
     }
 
     /**
@@ -283,6 +361,9 @@ public abstract class AggregatorBase extends Aggregator {
      */
     @Override
     public void postCollection() throws IOException {
+        // Lucene doesn't tell collectors that a segment is done so the last blocks are only handed over here
+        flushBlockCollectors();
+        blockCollectors.clear();
         // post-collect this agg before subs to make it possible to buffer and then replay in postCollection()
         doPostCollection();
         collectableSubAggregators.postCollection();
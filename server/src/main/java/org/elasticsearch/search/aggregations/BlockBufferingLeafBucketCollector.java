@@ -0,0 +1,69 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.search.Scorable;
+
+import java.io.IOException;
+
+/**
+ * Buffers the docs collected into the bucket {@code 0} and hands them over
+ * to the wrapped {@link LeafBucketCollector} in blocks through
+ * {@link LeafBucketCollector#collect(int[], int, long)}. Docs collected into
+ * any other bucket flush the buffer and are collected right away so the
+ * wrapped collector still sees every segment's docs in order.
+ * See {@link AggregatorBase#supportsBlockCollection()}.
+ */
+final class BlockBufferingLeafBucketCollector extends LeafBucketCollector {
+    static final int BLOCK_SIZE = 256;
+
+    private final LeafBucketCollector in;
+    private final int[] docs = new int[BLOCK_SIZE];
+    private int count;
+
+    BlockBufferingLeafBucketCollector(LeafBucketCollector in) {
+        this.in = in;
+    }
+
+    @Override
+    public void collect(int doc, long owningBucketOrd) throws IOException {
+        if (owningBucketOrd != 0) {
+            flush();
+            in.collect(doc, owningBucketOrd);
+            return;
+        }
+        docs[count++] = doc;
+        if (count == BLOCK_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void collect(int[] docs, int count, long owningBucketOrd) throws IOException {
+        flush();
+        in.collect(docs, count, owningBucketOrd);
+    }
+
+    /**
+     * Collect all buffered docs.
+     */
+    void flush() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        int toCollect = count;
+        count = 0;
+        in.collect(docs, toCollect, 0);
+    }
+
+    @Override
+    public void setScorer(Scorable scorer) throws IOException {
+        in.setScorer(scorer);
+    }
+}
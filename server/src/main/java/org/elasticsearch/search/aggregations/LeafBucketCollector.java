@@ -73,6 +73,24 @@ public abstract class LeafBucketCollector implements LeafCollector {
      */
     public abstract void collect(int doc, long owningBucketOrd) throws IOException;
 
+    /**
+     * Collect the first {@code count} docs of {@code docs} in the bucket owned
+     * by {@code owningBucketOrd}. The docs come from the same segment and are
+     * in increasing order.
+     * <p>
+     * {@link AggregatorBase}s that return {@code true} from
+     * {@link AggregatorBase#supportsBlockCollection()} receive their docs in
+     * blocks through this method. They can override it to load the values of
+     * the whole block into a primitive array and aggregate them in a tight
+     * loop rather than paying for a virtual call and a doc values lookup per
+     * doc. The default implementation collects the docs one at a time.
+     */
+    public void collect(int[] docs, int count, long owningBucketOrd) throws IOException {
+        for (int i = 0; i < count; i++) {
+            collect(docs[i], owningBucketOrd);
+        }
+    }
+
     /**
      * Does this collector collect anything? If this returns true we can safely
      * just never call {@link #collect}.
@@ -9,18 +9,29 @@ package org.elasticsearch.search.aggregations.bucket.histogram;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.util.CollectionUtil;
 import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.Rounding.DateTimeUnit;
 import org.elasticsearch.core.CheckedFunction;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.AdaptingAggregator;
 import org.elasticsearch.search.aggregations.Aggregator;
+import org.elasticsearch.search.aggregations.AggregatorBase;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.BucketOrder;
 import org.elasticsearch.search.aggregations.CardinalityUpperBound;
@@ -45,6 +56,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
 
 /**
  * Aggregator for {@code date_histogram} that rounds values using
@@ -70,7 +82,9 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
      * optimized, it is going to be marginally faster and consume less memory
      * than the {@linkplain DateHistogramAggregator} because it doesn't need
      * to the round points and because it can pass precise cardinality
-     * estimates to its child aggregations.
+     * estimates to its child aggregations. The exception is an index sorted
+     * on the field where the {@linkplain DateHistogramAggregator} can count
+     * whole buckets without collecting them, see {@link #canCountFromIndexSort}.
      */
     public static Aggregator build(
         String name,
@@ -88,6 +102,25 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         Map<String, Object> metadata
     ) throws IOException {
         Rounding.Prepared preparedRounding = valuesSourceConfig.roundingPreparer().apply(rounding);
+        if (canCountFromIndexSort(factories, valuesSourceConfig, context, parent)) {
+            logger.trace("not adapting [{}] into a range because it can count its buckets from the index sort", name);
+            return new DateHistogramAggregator(
+                name,
+                factories,
+                rounding,
+                preparedRounding,
+                order,
+                keyed,
+                minDocCount,
+                extendedBounds,
+                hardBounds,
+                valuesSourceConfig,
+                context,
+                parent,
+                cardinality,
+                metadata
+            );
+        }
         Aggregator asRange = adaptIntoRangeOrNull(
             name,
             factories,
@@ -195,6 +228,47 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         );
     }
 
+    /**
+     * Can a top level {@code date_histogram} without sub-aggregations count
+     * its buckets from the index sort? That needs the index to be sorted on
+     * the histogrammed field first so every bucket is a contiguous range of
+     * doc ids. And the top level query has to be either {@code match_all} or a
+     * range on that field, which is a contiguous range of doc ids as well.
+     * Ranges are only supported on millisecond resolution dates.
+     * Segments still have to be checked, see {@link #countFromIndexSort}.
+     */
+    private static boolean canCountFromIndexSort(
+        AggregatorFactories factories,
+        ValuesSourceConfig valuesSourceConfig,
+        AggregationContext context,
+        Aggregator parent
+    ) {
+        if (parent != null || factories.countAggregators() > 0) {
+            return false;
+        }
+        if (valuesSourceConfig.hasValues() == false
+            || valuesSourceConfig.alignesWithSearchIndex() == false
+            || valuesSourceConfig.fieldType() instanceof DateFieldMapper.DateFieldType == false) {
+            return false;
+        }
+        String field = valuesSourceConfig.fieldContext().field();
+        if (context.getIndexSettings().getIndexSortConfig().hasPrimarySortOnField(field) == false) {
+            return false;
+        }
+        Query query = context.query();
+        if (query == null || query.getClass() == MatchAllDocsQuery.class) {
+            return true;
+        }
+        DateFieldMapper.DateFieldType fieldType = (DateFieldMapper.DateFieldType) valuesSourceConfig.fieldType();
+        if (fieldType.resolution() != DateFieldMapper.Resolution.MILLISECONDS) {
+            // The bounds of the range are in the resolution of the field but date_nanos values are read as milliseconds, which
+            // can't be compared with the bounds without losing the docs on either side of the bounds in the same millisecond.
+            return false;
+        }
+        PointRangeQuery range = AggregatorBase.asPointRangeQuery(query, field);
+        return range != null && range.getBytesPerDim() == Long.BYTES;
+    }
+
     private static RangeAggregator.Range[] ranges(LongBounds hardBounds, long[] fixedRoundingPoints) {
         if (hardBounds == null) {
             RangeAggregator.Range[] ranges = new RangeAggregator.Range[fixedRoundingPoints.length];
@@ -232,6 +306,17 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
 
     private final LongKeyedBucketOrds bucketOrds;
 
+    /**
+     * The field the index is sorted on if we can count buckets from the
+     * index sort, {@code null} otherwise.
+     */
+    private final String indexSortField;
+    /**
+     * The top level range query, {@code null} if the top level query
+     * matches all docs.
+     */
+    private final PointRangeQuery indexSortRange;
+
     DateHistogramAggregator(
         String name,
         AggregatorFactories factories,
@@ -262,6 +347,13 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         this.formatter = valuesSourceConfig.format();
 
         bucketOrds = LongKeyedBucketOrds.build(bigArrays(), cardinality);
+        if (canCountFromIndexSort(factories, valuesSourceConfig, context, parent)) {
+            this.indexSortField = valuesSourceConfig.fieldContext().field();
+            this.indexSortRange = pointRangeQueryIfAvailable(valuesSourceConfig);
+        } else {
+            this.indexSortField = null;
+            this.indexSortRange = null;
+        }
     }
 
     @Override
@@ -277,6 +369,9 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
+        if (indexSortField != null && countFromIndexSort(ctx)) {
+            return LeafBucketCollector.NO_OP_COLLECTOR;
+        }
         SortedNumericDocValues values = valuesSource.longValues(ctx);
         return new LeafBucketCollectorBase(sub, values) {
             @Override
@@ -308,6 +403,124 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         };
     }
 
+    /**
+     * Count the docs in each bucket of a segment that is sorted on the field
+     * by binary searching for the first doc of every bucket rather than
+     * collecting the docs one by one.
+     * @return {@code true} if the segment was counted, {@code false} if the
+     *         segment has to be collected
+     */
+    private boolean countFromIndexSort(LeafReaderContext ctx) throws IOException {
+        LeafReader reader = ctx.reader();
+        if (reader.getLiveDocs() != null || docCountProvider.alwaysOne() == false) {
+            return false;
+        }
+        Sort sort = reader.getMetaData().getSort();
+        if (sort == null) {
+            return false;
+        }
+        SortField primarySort = sort.getSort()[0];
+        if (primarySort instanceof SortedNumericSortField == false
+            || ((SortedNumericSortField) primarySort).getNumericType() != SortField.Type.LONG
+            || primarySort.getField().equals(indexSortField) == false) {
+            return false;
+        }
+        // Every doc must have exactly one value or the docs wouldn't be sorted by "the" value
+        PointValues points = reader.getPointValues(indexSortField);
+        int maxDoc = reader.maxDoc();
+        if (points == null || points.getDocCount() != maxDoc || points.size() != maxDoc) {
+            return false;
+        }
+        boolean descending = primarySort.getReverse();
+        SortedValues values = new SortedValues(valuesSource, ctx);
+
+        int start = 0;
+        int end = maxDoc;
+        if (indexSortRange != null) {
+            long lower = LongPoint.decodeDimension(indexSortRange.getLowerPoint(), 0);
+            long upper = LongPoint.decodeDimension(indexSortRange.getUpperPoint(), 0);
+            if (descending) {
+                start = values.firstDoc(0, maxDoc, v -> v <= upper);
+                end = values.firstDoc(start, maxDoc, v -> v < lower);
+            } else {
+                start = values.firstDoc(0, maxDoc, v -> v >= lower);
+                end = values.firstDoc(start, maxDoc, v -> v > upper);
+            }
+        }
+
+        int doc = start;
+        while (doc < end) {
+            long rounded = preparedRounding.round(values.valueAt(doc));
+            int bucketEnd = descending
+                ? values.firstDoc(doc + 1, end, v -> preparedRounding.round(v) < rounded)
+                : values.firstDoc(doc + 1, end, v -> preparedRounding.round(v) > rounded);
+            if (hardBounds == null || hardBounds.contain(rounded)) {
+                long bucketOrd = bucketOrds.add(0, rounded);
+                if (bucketOrd < 0) { // already seen
+                    bucketOrd = -1 - bucketOrd;
+                }
+                incrementBucketDocCount(bucketOrd, bucketEnd - doc);
+            }
+            doc = bucketEnd;
+        }
+        return true;
+    }
+
+    /**
+     * Random access to the values of a segment in which every doc has a
+     * single value. Reading a doc before the last one read starts over with
+     * a fresh iterator.
+     */
+    private static class SortedValues {
+        private final ValuesSource.Numeric valuesSource;
+        private final LeafReaderContext ctx;
+        private SortedNumericDocValues values;
+
+        SortedValues(ValuesSource.Numeric valuesSource, LeafReaderContext ctx) throws IOException {
+            this.valuesSource = valuesSource;
+            this.ctx = ctx;
+            this.values = valuesSource.longValues(ctx);
+        }
+
+        long valueAt(int doc) throws IOException {
+            if (values.docID() > doc) {
+                values = valuesSource.longValues(ctx);
+            }
+            if (values.advanceExact(doc) == false) {
+                throw new IllegalStateException("expected a value for every doc but [" + doc + "] doesn't have one");
+            }
+            return values.nextValue();
+        }
+
+        /**
+         * Find the first doc in {@code [from, to)} whose value matches
+         * {@code predicate}, or {@code to} if none match. The docs that
+         * match must all come after the docs that don't. Gallops forward
+         * from {@code from} first so that finding small buckets only reads
+         * docs close to each other.
+         */
+        int firstDoc(int from, int to, LongPredicate predicate) throws IOException {
+            int lo = from;
+            int hi = from;
+            int step = 1;
+            while (hi < to && predicate.test(valueAt(hi)) == false) {
+                lo = hi + 1;
+                hi = (int) Math.min(to, (long) lo + step);
+                step <<= 1;
+            }
+            // the first match is in [lo, hi]
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (predicate.test(valueAt(mid))) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+
     @Override
     public InternalAggregation[] buildAggregations(long[] owningBucketOrds) throws IOException {
         return buildAggregationsForVariableBuckets(
@@ -59,6 +59,11 @@ class AvgAggregator extends NumericMetricsAggregator.SingleValue {
         return valuesSource != null && valuesSource.needsScores() ? ScoreMode.COMPLETE : ScoreMode.COMPLETE_NO_SCORES;
     }
 
+    @Override
+    protected boolean supportsBlockCollection() {
+        return true;
+    }
+
     @Override
     public LeafBucketCollector getLeafCollector(LeafReaderContext ctx, final LeafBucketCollector sub) throws IOException {
         if (valuesSource == null) {
@@ -66,6 +71,7 @@ class AvgAggregator extends NumericMetricsAggregator.SingleValue {
         }
         final SortedNumericDoubleValues values = valuesSource.doubleValues(ctx);
         final CompensatedSum kahanSummation = new CompensatedSum(0, 0);
+        final DoubleBlockLoader loader = new DoubleBlockLoader(values);
 
         return new LeafBucketCollectorBase(sub, values) {
             @Override
@@ -93,6 +99,22 @@ class AvgAggregator extends NumericMetricsAggregator.SingleValue {
                     compensations.set(bucket, kahanSummation.delta());
                 }
             }
+
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                counts = bigArrays().grow(counts, bucket + 1);
+                sums = bigArrays().grow(sums, bucket + 1);
+                compensations = bigArrays().grow(compensations, bucket + 1);
+
+                int loaded = loader.load(docs, count);
+                if (loaded > 0) {
+                    counts.increment(bucket, loaded);
+                    kahanSummation.reset(sums.get(bucket), compensations.get(bucket));
+                    kahanSummation.add(loader.values(), loaded);
+                    sums.set(bucket, kahanSummation.value());
+                    compensations.set(bucket, kahanSummation.delta());
+                }
+            }
         };
     }
 
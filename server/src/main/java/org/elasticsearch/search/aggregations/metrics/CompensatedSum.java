@@ -84,4 +84,28 @@ public class CompensatedSum {
         return this;
     }
 
+    /**
+     * Increments the Kahan sum by adding the first {@code count} values of {@code values}, one after the other
+     * exactly like {@link #add(double)} would, but keeping the running sum and correction term in locals.
+     */
+    public CompensatedSum add(double[] values, int count) {
+        double sum = this.value;
+        double compensation = this.delta;
+        for (int i = 0; i < count; i++) {
+            double value = values[i];
+            if (Double.isFinite(value) == false) {
+                sum = value + sum;
+            }
+            if (Double.isFinite(sum)) {
+                double correctedSum = value + (compensation + NO_CORRECTION);
+                double updatedValue = sum + correctedSum;
+                compensation = correctedSum - (updatedValue - sum);
+                sum = updatedValue;
+            }
+        }
+        this.value = sum;
+        this.delta = compensation;
+        return this;
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations.metrics;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.fielddata.NumericDoubleValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.search.aggregations.LeafBucketCollector;
+
+import java.io.IOException;
+
+/**
+ * Loads all values of a block of docs into a reusable {@code double[]} so metric aggregators can
+ * implement {@link LeafBucketCollector#collect(int[], int, long)} as a loop over a primitive array.
+ * Single valued fields skip the per doc value count.
+ */
+final class DoubleBlockLoader {
+    private final SortedNumericDoubleValues values;
+    private final NumericDoubleValues singleValues;
+    private double[] buffer = new double[0];
+
+    DoubleBlockLoader(SortedNumericDoubleValues values) {
+        this.values = values;
+        this.singleValues = FieldData.unwrapSingleton(values);
+    }
+
+    DoubleBlockLoader(NumericDoubleValues values) {
+        this(FieldData.singleton(values));
+    }
+
+    /**
+     * Load the values of the first {@code count} docs of {@code docs}.
+     * @return the number of values loaded into {@link #values()}
+     */
+    int load(int[] docs, int count) throws IOException {
+        if (singleValues != null) {
+            buffer = ArrayUtil.grow(buffer, count);
+            int loaded = 0;
+            for (int i = 0; i < count; i++) {
+                if (singleValues.advanceExact(docs[i])) {
+                    buffer[loaded++] = singleValues.doubleValue();
+                }
+            }
+            return loaded;
+        }
+        int loaded = 0;
+        for (int i = 0; i < count; i++) {
+            if (values.advanceExact(docs[i])) {
+                int valuesCount = values.docValueCount();
+                buffer = ArrayUtil.grow(buffer, loaded + valuesCount);
+                for (int v = 0; v < valuesCount; v++) {
+                    buffer[loaded++] = values.nextValue();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * The values loaded by the last call to {@link #load}.
+     */
+    double[] values() {
+        return buffer;
+    }
+}
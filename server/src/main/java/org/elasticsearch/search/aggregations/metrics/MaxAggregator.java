@@ -10,6 +10,7 @@ package org.elasticsearch.search.aggregations.metrics;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.util.DoubleArray;
@@ -38,6 +39,11 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
 
     final String pointField;
     final Function<byte[], Number> pointConverter;
+    /**
+     * The top level range query on {@link #pointField} or {@code null} if the
+     * top level query matches all docs.
+     */
+    final PointRangeQuery pointRange;
 
     DoubleArray maxes;
 
@@ -51,7 +57,8 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
             maxes.fill(0, maxes.size(), Double.NEGATIVE_INFINITY);
         }
         this.formatter = config.format();
-        this.pointConverter = pointReaderIfAvailable(config);
+        this.pointRange = pointRangeQueryIfAvailable(config);
+        this.pointConverter = pointRange != null ? config.getPointReaderOrNull() : pointReaderIfAvailable(config);
         if (pointConverter != null) {
             pointField = config.fieldContext().field();
         } else {
@@ -64,13 +71,20 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
         return valuesSource != null && valuesSource.needsScores() ? ScoreMode.COMPLETE : ScoreMode.COMPLETE_NO_SCORES;
     }
 
+    @Override
+    protected boolean supportsBlockCollection() {
+        return true;
+    }
+
     @Override
     public LeafBucketCollector getLeafCollector(LeafReaderContext ctx, final LeafBucketCollector sub) throws IOException {
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
         if (pointConverter != null) {
-            Number segMax = findLeafMaxValue(ctx.reader(), pointField, pointConverter);
+            Number segMax = pointRange == null
+                ? findLeafMaxValue(ctx.reader(), pointField, pointConverter)
+                : findLeafMaxValue(ctx.reader(), pointRange, pointConverter);
             if (segMax != null) {
                 /*
                  * There is no parent aggregator (see {@link AggregatorBase#getPointReaderOrNull}
@@ -86,6 +100,7 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
         }
         final SortedNumericDoubleValues allValues = valuesSource.doubleValues(ctx);
         final NumericDoubleValues values = MultiValueMode.MAX.select(allValues);
+        final DoubleBlockLoader loader = new DoubleBlockLoader(values);
         return new LeafBucketCollectorBase(sub, allValues) {
 
             @Override
@@ -103,6 +118,24 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
                 }
             }
 
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                if (bucket >= maxes.size()) {
+                    long from = maxes.size();
+                    maxes = bigArrays().grow(maxes, bucket + 1);
+                    maxes.fill(from, maxes.size(), Double.NEGATIVE_INFINITY);
+                }
+                int loaded = loader.load(docs, count);
+                if (loaded > 0) {
+                    double[] loadedValues = loader.values();
+                    double max = maxes.get(bucket);
+                    for (int i = 0; i < loaded; i++) {
+                        max = Math.max(max, loadedValues[i]);
+                    }
+                    maxes.set(bucket, max);
+                }
+            }
+
         };
     }
 
@@ -178,4 +211,18 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
         });
         return result[0] != null ? converter.apply(result[0]) : null;
     }
+
+    /**
+     * Returns the maximum value indexed in the field of the {@code range} for the docs that
+     * match the {@code range} or <code>null</code> if the value cannot be inferred from the
+     * indexed {@link PointValues}.
+     */
+    static Number findLeafMaxValue(LeafReader reader, PointRangeQuery range, Function<byte[], Number> converter) throws IOException {
+        final PointValues pointValues = reader.getPointValues(range.getField());
+        if (pointValues == null || PointRangeMetrics.isSingleValued(pointValues) == false) {
+            return null;
+        }
+        byte[] max = PointRangeMetrics.findMaxValue(pointValues, range, reader.getLiveDocs());
+        return max == null ? null : converter.apply(max);
+    }
 }
@@ -11,6 +11,7 @@ import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PointValues;
 import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.util.DoubleArray;
@@ -39,6 +40,11 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
 
     final String pointField;
     final Function<byte[], Number> pointConverter;
+    /**
+     * The top level range query on {@link #pointField} or {@code null} if the
+     * top level query matches all docs.
+     */
+    final PointRangeQuery pointRange;
 
     DoubleArray mins;
 
@@ -52,7 +58,8 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
             mins.fill(0, mins.size(), Double.POSITIVE_INFINITY);
         }
         this.format = config.format();
-        this.pointConverter = pointReaderIfAvailable(config);
+        this.pointRange = pointRangeQueryIfAvailable(config);
+        this.pointConverter = pointRange != null ? config.getPointReaderOrNull() : pointReaderIfAvailable(config);
         if (pointConverter != null) {
             pointField = config.fieldContext().field();
         } else {
@@ -65,13 +72,20 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
         return valuesSource != null && valuesSource.needsScores() ? ScoreMode.COMPLETE : ScoreMode.COMPLETE_NO_SCORES;
     }
 
+    @Override
+    protected boolean supportsBlockCollection() {
+        return true;
+    }
+
     @Override
     public LeafBucketCollector getLeafCollector(LeafReaderContext ctx, final LeafBucketCollector sub) throws IOException {
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
         if (pointConverter != null) {
-            Number segMin = findLeafMinValue(ctx.reader(), pointField, pointConverter);
+            Number segMin = pointRange == null
+                ? findLeafMinValue(ctx.reader(), pointField, pointConverter)
+                : findLeafMinValue(ctx.reader(), pointRange, pointConverter);
             if (segMin != null) {
                 /*
                  * There is no parent aggregator (see {@link MinAggregator#getPointReaderOrNull}
@@ -86,6 +100,7 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
         }
         final SortedNumericDoubleValues allValues = valuesSource.doubleValues(ctx);
         final NumericDoubleValues values = MultiValueMode.MIN.select(allValues);
+        final DoubleBlockLoader loader = new DoubleBlockLoader(values);
         return new LeafBucketCollectorBase(sub, allValues) {
             @Override
             public void collect(int doc, long bucket) throws IOException {
@@ -102,6 +117,24 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
                 }
             }
 
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                if (bucket >= mins.size()) {
+                    long from = mins.size();
+                    mins = bigArrays().grow(mins, bucket + 1);
+                    mins.fill(from, mins.size(), Double.POSITIVE_INFINITY);
+                }
+                int loaded = loader.load(docs, count);
+                if (loaded > 0) {
+                    double[] loadedValues = loader.values();
+                    double min = mins.get(bucket);
+                    for (int i = 0; i < loaded; i++) {
+                        min = Math.min(min, loadedValues[i]);
+                    }
+                    mins.set(bucket, min);
+                }
+            }
+
         };
     }
 
@@ -174,4 +207,18 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
         } catch (CollectionTerminatedException e) {}
         return result[0];
     }
+
+    /**
+     * Returns the minimum value indexed in the field of the {@code range} for the docs that
+     * match the {@code range} or <code>null</code> if the value cannot be inferred from the
+     * indexed {@link PointValues}.
+     */
+    static Number findLeafMinValue(LeafReader reader, PointRangeQuery range, Function<byte[], Number> converter) throws IOException {
+        final PointValues pointValues = reader.getPointValues(range.getField());
+        if (pointValues == null || PointRangeMetrics.isSingleValued(pointValues) == false) {
+            return null;
+        }
+        byte[] min = PointRangeMetrics.findMinValue(pointValues, range, reader.getLiveDocs());
+        return min == null ? null : converter.apply(min);
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations.metrics;
+
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Computes metrics over the docs matching a one dimensional {@link PointRangeQuery} by walking the
+ * {@link PointValues.PointTree} of the queried field instead of collecting the matching docs. Cells
+ * outside of the range are skipped, the min and the max stop at the first leaf that holds a matching
+ * value and counts take the number of points of the cells that are entirely inside of the range, so
+ * only the leaves on the edges of the range are decoded.
+ * <p>
+ * A doc matches the range if any of its values does but all of its values count towards its metrics
+ * so these are only correct on segments where every doc has a single value, see {@link #isSingleValued}.
+ */
+final class PointRangeMetrics {
+    /**
+     * How many deleted docs in the range the min and max look at before giving up.
+     */
+    static final int MAX_DELETED_LOOKUPS = 1024;
+
+    private PointRangeMetrics() {}
+
+    /**
+     * Does every doc with a point in {@code values} have exactly one point?
+     */
+    static boolean isSingleValued(PointValues values) {
+        return values.size() == values.getDocCount();
+    }
+
+    /**
+     * Find the smallest value in the range that belongs to a live doc.
+     * @param liveDocs the live docs of the segment, {@code null} if all docs are live
+     * @return the packed value or {@code null} if there isn't any value in the range or if there were
+     *         more than {@link #MAX_DELETED_LOOKUPS} deleted docs in the way
+     */
+    static byte[] findMinValue(PointValues values, PointRangeQuery range, Bits liveDocs) throws IOException {
+        ExtremeValueFinder finder = new ExtremeValueFinder(range, liveDocs, false);
+        finder.search(values.getPointTree());
+        return finder.result;
+    }
+
+    /**
+     * Find the largest value in the range that belongs to a live doc.
+     * @param liveDocs the live docs of the segment, {@code null} if all docs are live
+     * @return the packed value or {@code null} if there isn't any value in the range or if there were
+     *         more than {@link #MAX_DELETED_LOOKUPS} deleted docs in the way
+     */
+    static byte[] findMaxValue(PointValues values, PointRangeQuery range, Bits liveDocs) throws IOException {
+        ExtremeValueFinder finder = new ExtremeValueFinder(range, liveDocs, true);
+        finder.search(values.getPointTree());
+        return finder.result;
+    }
+
+    /**
+     * Count the values in the range, ignoring deletes.
+     */
+    static long countValues(PointValues values, PointRangeQuery range) throws IOException {
+        return countValues(values.getPointTree(), range.getLowerPoint(), range.getUpperPoint());
+    }
+
+    private static long countValues(PointValues.PointTree tree, byte[] lower, byte[] upper) throws IOException {
+        PointValues.Relation relation = relate(tree.getMinPackedValue(), tree.getMaxPackedValue(), lower, upper);
+        if (relation == PointValues.Relation.CELL_OUTSIDE_QUERY) {
+            return 0;
+        }
+        if (relation == PointValues.Relation.CELL_INSIDE_QUERY) {
+            return tree.size();
+        }
+        if (tree.moveToChild()) {
+            long count = 0;
+            do {
+                count += countValues(tree, lower, upper);
+            } while (tree.moveToSibling());
+            tree.moveToParent();
+            return count;
+        }
+        long[] count = new long[1];
+        tree.visitDocValues(new PointValues.IntersectVisitor() {
+            @Override
+            public void visit(int docID) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void visit(int docID, byte[] packedValue) {
+                if (inRange(packedValue, lower, upper)) {
+                    count[0]++;
+                }
+            }
+
+            @Override
+            public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+                return PointValues.Relation.CELL_CROSSES_QUERY;
+            }
+        });
+        return count[0];
+    }
+
+    private static PointValues.Relation relate(byte[] minPackedValue, byte[] maxPackedValue, byte[] lower, byte[] upper) {
+        int bytes = lower.length;
+        if (Arrays.compareUnsigned(maxPackedValue, 0, bytes, lower, 0, bytes) < 0
+            || Arrays.compareUnsigned(minPackedValue, 0, bytes, upper, 0, bytes) > 0) {
+            return PointValues.Relation.CELL_OUTSIDE_QUERY;
+        }
+        if (Arrays.compareUnsigned(minPackedValue, 0, bytes, lower, 0, bytes) >= 0
+            && Arrays.compareUnsigned(maxPackedValue, 0, bytes, upper, 0, bytes) <= 0) {
+            return PointValues.Relation.CELL_INSIDE_QUERY;
+        }
+        return PointValues.Relation.CELL_CROSSES_QUERY;
+    }
+
+    private static boolean inRange(byte[] packedValue, byte[] lower, byte[] upper) {
+        int bytes = lower.length;
+        return Arrays.compareUnsigned(packedValue, 0, bytes, lower, 0, bytes) >= 0
+            && Arrays.compareUnsigned(packedValue, 0, bytes, upper, 0, bytes) <= 0;
+    }
+
+    /**
+     * Walks the leaves that overlap with the range from the smallest to the largest values, or
+     * the other way around when looking for the max, and stops at the first leaf with a value
+     * in the range from a live doc. Leaves of one dimensional trees don't overlap so that leaf
+     * has the answer.
+     */
+    private static class ExtremeValueFinder implements PointValues.IntersectVisitor {
+        private final byte[] lower;
+        private final byte[] upper;
+        private final Bits liveDocs;
+        private final boolean max;
+
+        private byte[] result;
+        private int deletedLookups;
+        private boolean gaveUp;
+
+        ExtremeValueFinder(PointRangeQuery range, Bits liveDocs, boolean max) {
+            this.lower = range.getLowerPoint();
+            this.upper = range.getUpperPoint();
+            this.liveDocs = liveDocs;
+            this.max = max;
+        }
+
+        /**
+         * Search the sub-tree rooted at the current node of {@code tree}, leaving {@code tree}
+         * on that node.
+         * @return {@code true} if the search is over
+         */
+        boolean search(PointValues.PointTree tree) throws IOException {
+            if (relate(tree.getMinPackedValue(), tree.getMaxPackedValue(), lower, upper) == PointValues.Relation.CELL_OUTSIDE_QUERY) {
+                return false;
+            }
+            if (tree.moveToChild() == false) {
+                tree.visitDocValues(this);
+                if (gaveUp) {
+                    result = null;
+                }
+                return result != null || gaveUp;
+            }
+            boolean done;
+            if (max) {
+                // the tree can only move forward between siblings so we count them and come back from the parent
+                int children = 1;
+                while (tree.moveToSibling()) {
+                    children++;
+                }
+                done = search(tree);
+                for (int child = children - 2; child >= 0 && done == false; child--) {
+                    tree.moveToParent();
+                    tree.moveToChild();
+                    for (int i = 0; i < child; i++) {
+                        tree.moveToSibling();
+                    }
+                    done = search(tree);
+                }
+            } else {
+                done = search(tree);
+                while (done == false && tree.moveToSibling()) {
+                    done = search(tree);
+                }
+            }
+            tree.moveToParent();
+            return done;
+        }
+
+        @Override
+        public void visit(int docID) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void visit(int docID, byte[] packedValue) {
+            if (gaveUp || inRange(packedValue, lower, upper) == false) {
+                return;
+            }
+            if (liveDocs != null && liveDocs.get(docID) == false) {
+                gaveUp = ++deletedLookups > MAX_DELETED_LOOKUPS;
+                return;
+            }
+            int bytes = lower.length;
+            if (result == null) {
+                result = Arrays.copyOf(packedValue, bytes);
+                return;
+            }
+            int cmp = Arrays.compareUnsigned(packedValue, 0, bytes, result, 0, bytes);
+            if (max ? cmp > 0 : cmp < 0) {
+                System.arraycopy(packedValue, 0, result, 0, bytes);
+            }
+        }
+
+        @Override
+        public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+            // we need the values so never let the tree skip them
+            return PointValues.Relation.CELL_CROSSES_QUERY;
+        }
+    }
+}
@@ -64,6 +64,11 @@ class StatsAggregator extends NumericMetricsAggregator.MultiValue {
         return valuesSource != null && valuesSource.needsScores() ? ScoreMode.COMPLETE : ScoreMode.COMPLETE_NO_SCORES;
     }
 
+    @Override
+    protected boolean supportsBlockCollection() {
+        return true;
+    }
+
     @Override
     public LeafBucketCollector getLeafCollector(LeafReaderContext ctx, final LeafBucketCollector sub) throws IOException {
         if (valuesSource == null) {
@@ -71,21 +76,12 @@ class StatsAggregator extends NumericMetricsAggregator.MultiValue {
         }
         final SortedNumericDoubleValues values = valuesSource.doubleValues(ctx);
         final CompensatedSum kahanSummation = new CompensatedSum(0, 0);
+        final DoubleBlockLoader loader = new DoubleBlockLoader(values);
 
         return new LeafBucketCollectorBase(sub, values) {
             @Override
             public void collect(int doc, long bucket) throws IOException {
-                if (bucket >= counts.size()) {
-                    final long from = counts.size();
-                    final long overSize = BigArrays.overSize(bucket + 1);
-                    counts = bigArrays().resize(counts, overSize);
-                    sums = bigArrays().resize(sums, overSize);
-                    compensations = bigArrays().resize(compensations, overSize);
-                    mins = bigArrays().resize(mins, overSize);
-                    maxes = bigArrays().resize(maxes, overSize);
-                    mins.fill(from, overSize, Double.POSITIVE_INFINITY);
-                    maxes.fill(from, overSize, Double.NEGATIVE_INFINITY);
-                }
+                maybeGrow(bucket);
 
                 if (values.advanceExact(doc)) {
                     final int valuesCount = values.docValueCount();
@@ -110,9 +106,46 @@ class StatsAggregator extends NumericMetricsAggregator.MultiValue {
                     maxes.set(bucket, max);
                 }
             }
+
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                maybeGrow(bucket);
+
+                int loaded = loader.load(docs, count);
+                if (loaded > 0) {
+                    double[] loadedValues = loader.values();
+                    counts.increment(bucket, loaded);
+                    double min = mins.get(bucket);
+                    double max = maxes.get(bucket);
+                    for (int i = 0; i < loaded; i++) {
+                        min = Math.min(min, loadedValues[i]);
+                        max = Math.max(max, loadedValues[i]);
+                    }
+                    kahanSummation.reset(sums.get(bucket), compensations.get(bucket));
+                    kahanSummation.add(loadedValues, loaded);
+                    sums.set(bucket, kahanSummation.value());
+                    compensations.set(bucket, kahanSummation.delta());
+                    mins.set(bucket, min);
+                    maxes.set(bucket, max);
+                }
+            }
         };
     }
 
+    private void maybeGrow(long bucket) {
+        if (bucket >= counts.size()) {
+            final long from = counts.size();
+            final long overSize = BigArrays.overSize(bucket + 1);
+            counts = bigArrays().resize(counts, overSize);
+            sums = bigArrays().resize(sums, overSize);
+            compensations = bigArrays().resize(compensations, overSize);
+            mins = bigArrays().resize(mins, overSize);
+            maxes = bigArrays().resize(maxes, overSize);
+            mins.fill(from, overSize, Double.POSITIVE_INFINITY);
+            maxes.fill(from, overSize, Double.NEGATIVE_INFINITY);
+        }
+    }
+
     @Override
     public boolean hasMetric(String name) {
         try {
@@ -7,8 +7,11 @@
  */
 package org.elasticsearch.search.aggregations.metrics;
 
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.ScoreMode;
 import org.elasticsearch.common.util.LongArray;
 import org.elasticsearch.core.Releasables;
@@ -35,6 +38,17 @@ public class ValueCountAggregator extends NumericMetricsAggregator.SingleValue {
 
     final ValuesSource valuesSource;
 
+    /**
+     * The field to count the points of instead of collecting docs or
+     * {@code null} if the points can't be used.
+     */
+    final String pointField;
+    /**
+     * The top level range query on {@link #pointField} or {@code null} if the
+     * top level query matches all docs.
+     */
+    final PointRangeQuery pointRange;
+
     // a count per bucket
     LongArray counts;
 
@@ -51,6 +65,12 @@ public class ValueCountAggregator extends NumericMetricsAggregator.SingleValue {
         if (valuesSource != null) {
             counts = bigArrays().newLongArray(1, true);
         }
+        this.pointRange = pointRangeQueryIfAvailable(valuesSourceConfig);
+        if (pointRange != null || pointReaderIfAvailable(valuesSourceConfig) != null) {
+            pointField = valuesSourceConfig.fieldContext().field();
+        } else {
+            pointField = null;
+        }
     }
 
     @Override
@@ -58,6 +78,15 @@ public class ValueCountAggregator extends NumericMetricsAggregator.SingleValue {
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
+        if (pointField != null) {
+            Long segCount = countLeafValues(ctx.reader());
+            if (segCount != null) {
+                // there is no parent aggregator so the ordinal for the bucket is always 0
+                counts.increment(0, segCount);
+                // the values have been counted, we don't need to collect hits on this segment
+                return LeafBucketCollector.NO_OP_COLLECTOR;
+            }
+        }
 
         if (valuesSource instanceof ValuesSource.Numeric) {
             final SortedNumericDocValues values = ((ValuesSource.Numeric) valuesSource).longValues(ctx);
@@ -100,6 +129,29 @@ public class ValueCountAggregator extends NumericMetricsAggregator.SingleValue {
         };
     }
 
+    /**
+     * Count the values of the docs matching the top level query in this segment from the points
+     * of the field or return {@code null} if they can't be counted that way. Every value of the
+     * field is indexed as a point so this is the number of points if all docs match. When the
+     * query is a range on the field only docs with a single value can be counted with the points.
+     */
+    private Long countLeafValues(LeafReader reader) throws IOException {
+        if (reader.getLiveDocs() != null) {
+            return null;
+        }
+        PointValues pointValues = reader.getPointValues(pointField);
+        if (pointValues == null) {
+            return null;
+        }
+        if (pointRange == null) {
+            return pointValues.size();
+        }
+        if (PointRangeMetrics.isSingleValued(pointValues) == false) {
+            return null;
+        }
+        return PointRangeMetrics.countValues(pointValues, pointRange);
+    }
+
     @Override
     public double metric(long owningBucketOrd) {
         return (valuesSource == null || owningBucketOrd >= counts.size()) ? 0 : counts.get(owningBucketOrd);
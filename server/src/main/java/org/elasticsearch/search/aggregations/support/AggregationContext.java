@@ -581,9 +581,13 @@ public abstract class AggregationContext implements Releasable {
         public void close() {
             /*
              * Add the breakerService to the end of the list so we release it
-             * after all the aggregations that allocate bytes on it.
+             * after all the aggregations that allocate bytes on it. Off heap
+             * big arrays free whatever the aggregations left open before it.
              */
             List<Releasable> releaseMe = new ArrayList<>(this.releaseMe);
+            if (bigArrays instanceof Releasable arena) {
+                releaseMe.add(arena);
+            }
             releaseMe.add(preallocatedBreakerService);
             Releasables.close(releaseMe);
         }
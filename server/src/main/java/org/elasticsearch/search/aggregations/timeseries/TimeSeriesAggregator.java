@@ -97,10 +97,22 @@ public class TimeSeriesAggregator extends BucketsAggregator {
     protected LeafBucketCollector getLeafCollector(LeafReaderContext context, LeafBucketCollector sub, AggregationExecutionContext aggCtx)
         throws IOException {
         return new LeafBucketCollectorBase(sub, null) {
+            // Documents arrive grouped by tsid so we remember the bucket of the last tsid instead of hashing its bytes every time
+            long lastTsidOrd = -1;
+            long lastOwningBucket = -1;
+            long lastBucketOrdinal = -1;
 
             @Override
             public void collect(int doc, long bucket) throws IOException {
+                long tsidOrd = aggCtx.getTsidOrd();
+                if (tsidOrd != -1 && tsidOrd == lastTsidOrd && bucket == lastOwningBucket) {
+                    collectExistingBucket(sub, doc, lastBucketOrdinal);
+                    return;
+                }
                 long bucketOrdinal = bucketOrds.add(bucket, aggCtx.getTsid());
+                lastTsidOrd = tsidOrd;
+                lastOwningBucket = bucket;
+                lastBucketOrdinal = bucketOrdinal < 0 ? -1 - bucketOrdinal : bucketOrdinal;
                 if (bucketOrdinal < 0) { // already seen
                     bucketOrdinal = -1 - bucketOrdinal;
                     collectExistingBucket(sub, doc, bucketOrdinal);
@@ -8,8 +8,10 @@
 
 package org.elasticsearch.search.aggregations.timeseries;
 
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.search.DocIdSetIterator;
@@ -20,8 +22,10 @@ import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.LongValues;
 import org.apache.lucene.util.PriorityQueue;
 import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.mapper.DataStreamTimestampFieldMapper;
 import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
 import org.elasticsearch.search.aggregations.AggregationExecutionContext;
@@ -37,7 +41,9 @@ import java.util.List;
 import static org.elasticsearch.index.IndexSortConfig.TIME_SERIES_SORT;
 
 /**
- * An IndexSearcher wrapper that executes the searches in time-series indices by traversing them by tsid and timestamp
+ * An IndexSearcher wrapper that executes the searches in time-series indices by traversing them by tsid and timestamp.
+ * Segments are merged by tsid using the global ordinals of the {@code _tsid} field data, which are cached per reader, so that
+ * switching from one time series to the next only compares longs. The bytes of the tsid are loaded once per time series and segment.
  * TODO: Convert it to use index sort instead of hard-coded tsid and timestamp values
  */
 public class TimeSeriesIndexSearcher {
@@ -46,12 +52,14 @@ public class TimeSeriesIndexSearcher {
     // We need to delegate to the other searcher here as opposed to extending IndexSearcher and inheriting default implementations as the
     // IndexSearcher would most of the time be a ContextIndexSearcher that has important logic related to e.g. document-level security.
     private final IndexSearcher searcher;
+    private final IndexOrdinalsFieldData tsidFieldData;
     private final List<Runnable> cancellations;
     private final boolean tsidReverse;
     private final boolean timestampReverse;
 
-    public TimeSeriesIndexSearcher(IndexSearcher searcher, List<Runnable> cancellations) {
+    public TimeSeriesIndexSearcher(IndexSearcher searcher, IndexOrdinalsFieldData tsidFieldData, List<Runnable> cancellations) {
         this.searcher = searcher;
+        this.tsidFieldData = tsidFieldData;
         this.cancellations = cancellations;
 
         assert TIME_SERIES_SORT.length == 2;
@@ -87,6 +95,8 @@ public class TimeSeriesIndexSearcher {
             }
         }
 
+        setGlobalTsidOrds(leafWalkers);
+
         PriorityQueue<LeafWalker> queue = new PriorityQueue<>(searcher.getIndexReader().leaves().size()) {
             @Override
             protected boolean lessThan(LeafWalker a, LeafWalker b) {
@@ -118,9 +128,27 @@ public class TimeSeriesIndexSearcher {
         }
     }
 
+    /**
+     * Map the segment ordinals of the {@code _tsid} of each walker to global ordinals. If there is only a single segment
+     * to walk its ordinals are already global.
+     */
+    private void setGlobalTsidOrds(List<LeafWalker> leafWalkers) {
+        if (leafWalkers.size() <= 1) {
+            return;
+        }
+        OrdinalMap ordinalMap = tsidFieldData.loadGlobal((DirectoryReader) searcher.getIndexReader()).getOrdinalMap();
+        if (ordinalMap == null) {
+            // segments and global ordinals are the same
+            return;
+        }
+        for (LeafWalker leafWalker : leafWalkers) {
+            leafWalker.segmentToGlobalTsidOrd = ordinalMap.getGlobalOrds(leafWalker.context.ord);
+        }
+    }
+
     // Re-populate the queue with walkers on the same TSID.
     private boolean populateQueue(List<LeafWalker> leafWalkers, PriorityQueue<LeafWalker> queue) throws IOException {
-        BytesRef currentTsid = null;
+        long currentTsidOrd = -1;
         assert queue.size() == 0;
         Iterator<LeafWalker> it = leafWalkers.iterator();
         while (it.hasNext()) {
@@ -131,11 +159,11 @@ public class TimeSeriesIndexSearcher {
                 it.remove();
                 continue;
             }
-            BytesRef tsid = leafWalker.getTsid();
-            if (currentTsid == null) {
-                currentTsid = tsid;
+            long tsidOrd = leafWalker.readTsidOrd();
+            if (currentTsidOrd == -1) {
+                currentTsidOrd = tsidOrd;
             }
-            int comp = tsid.compareTo(currentTsid);
+            int comp = Long.compare(tsidOrd, currentTsidOrd);
             if (comp == 0) {
                 queue.add(leafWalker);
             } else if ((tsidReverse && comp > 0) || (false == tsidReverse && comp < 0)) {
@@ -144,18 +172,24 @@ public class TimeSeriesIndexSearcher {
                 // to be the lower value
                 queue.clear();
                 queue.add(leafWalker);
-                currentTsid = tsid;
+                currentTsidOrd = tsidOrd;
             }
         }
-        assert queueAllHaveTsid(queue, currentTsid);
+        for (LeafWalker leafWalker : queue) {
+            leafWalker.loadTsid();
+        }
+        assert queueAllHaveTsid(queue);
         // If all walkers are exhausted then nothing will have been added to the queue
         // and we're done
         return queue.size() > 0;
     }
 
-    private static boolean queueAllHaveTsid(PriorityQueue<LeafWalker> queue, BytesRef tsid) throws IOException {
+    private static boolean queueAllHaveTsid(PriorityQueue<LeafWalker> queue) throws IOException {
+        LeafWalker first = queue.top();
         for (LeafWalker leafWalker : queue) {
+            assert leafWalker.globalTsidOrd == first.globalTsidOrd;
             BytesRef walkerId = leafWalker.tsids.lookupOrd(leafWalker.tsids.ordValue());
+            BytesRef tsid = first.scratch.get();
             assert walkerId.equals(tsid) : tsid.utf8ToString() + " != " + walkerId.utf8ToString();
         }
         return true;
@@ -168,18 +202,23 @@ public class TimeSeriesIndexSearcher {
     }
 
     private static class LeafWalker {
+        private final LeafReaderContext context;
         private final LeafBucketCollector collector;
         private final Bits liveDocs;
         private final DocIdSetIterator iterator;
         private final SortedDocValues tsids;
         private final SortedNumericDocValues timestamps;    // TODO can we have this just a NumericDocValues?
         private final BytesRefBuilder scratch = new BytesRefBuilder();
+        private LongValues segmentToGlobalTsidOrd = LongValues.IDENTITY;
         int docId = -1;
         int tsidOrd;
+        long globalTsidOrd;
+        int loadedTsidOrd = -1;
         long timestamp;
 
         LeafWalker(LeafReaderContext context, Scorer scorer, BucketCollector bucketCollector, LeafReaderContext leaf) throws IOException {
-            AggregationExecutionContext aggCtx = new AggregationExecutionContext(leaf, scratch::get, () -> timestamp);
+            this.context = context;
+            AggregationExecutionContext aggCtx = new AggregationExecutionContext(leaf, scratch::get, () -> globalTsidOrd, () -> timestamp);
             this.collector = bucketCollector.getLeafCollector(aggCtx);
             liveDocs = context.reader().getLiveDocs();
             this.collector.setScorer(scorer);
@@ -207,10 +246,22 @@ public class TimeSeriesIndexSearcher {
             return docId;
         }
 
-        BytesRef getTsid() throws IOException {
+        /**
+         * Read the ordinal of the tsid of the current document.
+         * @return the global ordinal of the tsid
+         */
+        long readTsidOrd() throws IOException {
             tsidOrd = tsids.ordValue();
-            scratch.copyBytes(tsids.lookupOrd(tsidOrd));
-            return scratch.get();
+            globalTsidOrd = segmentToGlobalTsidOrd.get(tsidOrd);
+            return globalTsidOrd;
+        }
+
+        // load the bytes of the current tsid unless we already have them
+        void loadTsid() throws IOException {
+            if (loadedTsidOrd != tsidOrd) {
+                scratch.copyBytes(tsids.lookupOrd(tsidOrd));
+                loadedTsidOrd = tsidOrd;
+            }
         }
 
         // invalid if the doc is deleted or if it doesn't have a tsid or timestamp entry
@@ -43,6 +43,7 @@ import org.elasticsearch.search.sort.SortBuilder;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.search.suggest.SuggestBuilder;
+import org.elasticsearch.search.vectors.KnnSearchBuilder;
 import org.elasticsearch.xcontent.ParseField;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.ToXContentObject;
@@ -106,6 +107,7 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
     public static final ParseField SLICE = new ParseField("slice");
     public static final ParseField POINT_IN_TIME = new ParseField("pit");
     public static final ParseField RUNTIME_MAPPINGS_FIELD = new ParseField("runtime_mappings");
+    public static final ParseField KNN_FIELD = new ParseField("knn");
 
     public static SearchSourceBuilder fromXContent(XContentParser parser) throws IOException {
         return fromXContent(parser, true);
@@ -135,6 +137,8 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
 
     private QueryBuilder postQueryBuilder;
 
+    private KnnSearchBuilder knnSearch;
+
     private int from = -1;
 
     private int size = -1;
@@ -251,6 +255,9 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
         if (in.getVersion().onOrAfter(Version.V_7_11_0)) {
             runtimeMappings = in.readMap();
         }
+        if (in.getVersion().onOrAfter(Version.V_8_3_0)) {
+            knnSearch = in.readOptionalWriteable(KnnSearchBuilder::new);
+        }
     }
 
     @Override
@@ -321,6 +328,13 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
                 );
             }
         }
+        if (out.getVersion().onOrAfter(Version.V_8_3_0)) {
+            out.writeOptionalWriteable(knnSearch);
+        } else if (knnSearch != null) {
+            throw new IllegalArgumentException(
+                "Versions before 8.3.0 don't support the [knn] search section and search was sent to [" + out.getVersion() + "]"
+            );
+        }
     }
 
     /**
@@ -340,6 +354,23 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
         return queryBuilder;
     }
 
+    /**
+     * Defines a kNN search. The nearest neighbors of all shards are gathered
+     * before the query phase and the global top {@code k} are scored along
+     * with the {@link #query(QueryBuilder) query}.
+     */
+    public SearchSourceBuilder knnSearch(@Nullable KnnSearchBuilder knnSearch) {
+        this.knnSearch = knnSearch;
+        return this;
+    }
+
+    /**
+     * Gets the kNN search, {@code null} if there isn't one.
+     */
+    public KnnSearchBuilder knnSearch() {
+        return knnSearch;
+    }
+
     /**
      * Sets a filter that will be executed after the query has been executed and
      * only has affect on the search hits (not aggregations). This filter is
@@ -1023,6 +1054,10 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
         if (this.postQueryBuilder != null) {
             postQueryBuilder = this.postQueryBuilder.rewrite(context);
         }
+        KnnSearchBuilder knnSearch = null;
+        if (this.knnSearch != null) {
+            knnSearch = this.knnSearch.rewrite(context);
+        }
         AggregatorFactories.Builder aggregations = null;
         if (this.aggregations != null) {
             aggregations = this.aggregations.rewrite(context);
@@ -1040,9 +1075,20 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
             || aggregations != this.aggregations
             || rescoreBuilders != this.rescoreBuilders
             || sorts != this.sorts
-            || this.highlightBuilder != highlightBuilder;
+            || this.highlightBuilder != highlightBuilder
+            || knnSearch != this.knnSearch;
         if (rewritten) {
-            return shallowCopy(queryBuilder, postQueryBuilder, aggregations, this.sliceBuilder, sorts, rescoreBuilders, highlightBuilder);
+            SearchSourceBuilder rewrittenBuilder = shallowCopy(
+                queryBuilder,
+                postQueryBuilder,
+                aggregations,
+                this.sliceBuilder,
+                sorts,
+                rescoreBuilders,
+                highlightBuilder
+            );
+            rewrittenBuilder.knnSearch = knnSearch;
+            return rewrittenBuilder;
         }
         return this;
     }
@@ -1081,6 +1127,7 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
         rewrittenBuilder.indexBoosts = indexBoosts;
         rewrittenBuilder.minScore = minScore;
         rewrittenBuilder.postQueryBuilder = postQueryBuilder;
+        rewrittenBuilder.knnSearch = knnSearch;
         rewrittenBuilder.profile = profile;
         rewrittenBuilder.queryBuilder = queryBuilder;
         rewrittenBuilder.rescoreBuilders = rescoreBuilders;
@@ -1256,6 +1303,8 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
                             pointInTimeBuilder = PointInTimeBuilder.fromXContent(parser);
                         } else if (RUNTIME_MAPPINGS_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
                             runtimeMappings = parser.map();
+                        } else if (KNN_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                            knnSearch = KnnSearchBuilder.fromXContent(parser);
                         } else {
                             throw new ParsingException(
                                 parser.getTokenLocation(),
@@ -1357,6 +1406,12 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
             builder.field(POST_FILTER_FIELD.getPreferredName(), postQueryBuilder);
         }
 
+        if (knnSearch != null) {
+            builder.startObject(KNN_FIELD.getPreferredName());
+            knnSearch.toXContent(builder, params);
+            builder.endObject();
+        }
+
         if (minScore != null) {
             builder.field(MIN_SCORE_FIELD.getPreferredName(), minScore);
         }
@@ -1732,6 +1787,7 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
             minScore,
             postQueryBuilder,
             queryBuilder,
+            knnSearch,
             rescoreBuilders,
             scriptFields,
             size,
@@ -1775,6 +1831,7 @@ public final class SearchSourceBuilder implements Writeable, ToXContentObject, R
             && Objects.equals(minScore, other.minScore)
             && Objects.equals(postQueryBuilder, other.postQueryBuilder)
             && Objects.equals(queryBuilder, other.queryBuilder)
+            && Objects.equals(knnSearch, other.knnSearch)
             && Objects.equals(rescoreBuilders, other.rescoreBuilders)
             && Objects.equals(scriptFields, other.scriptFields)
             && Objects.equals(size, other.size)
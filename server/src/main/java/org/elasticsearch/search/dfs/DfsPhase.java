@@ -14,8 +14,13 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TermStatistics;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.rescore.RescoreContext;
+import org.elasticsearch.search.vectors.KnnSearchBuilder;
+import org.elasticsearch.search.vectors.KnnVectorQueryBuilder;
 import org.elasticsearch.tasks.TaskCancelledException;
 
 import java.io.IOException;
@@ -75,9 +80,30 @@ public class DfsPhase {
                 .termsStatistics(terms, termStatistics)
                 .fieldStatistics(fieldStatistics)
                 .maxDoc(context.searcher().getIndexReader().maxDoc());
+
+            if (context.request().source() != null && context.request().source().knnSearch() != null) {
+                executeKnnVectorQuery(context);
+            }
         } catch (Exception e) {
             throw new DfsPhaseExecutionException(context.shardTarget(), "Exception during dfs phase", e);
         }
     }
 
+    /**
+     * Find the top {@code k} nearest neighbors on this shard. The coordinating node
+     * merges them with those of the other shards and sends the global top {@code k}
+     * back for the query phase.
+     */
+    private static void executeKnnVectorQuery(SearchContext context) throws IOException {
+        KnnSearchBuilder knnSearch = context.request().source().knnSearch();
+        KnnVectorQueryBuilder knnVectorQueryBuilder = knnSearch.toQueryBuilder();
+        QueryBuilder aliasFilter = context.request().getAliasFilter().getQueryBuilder();
+        if (aliasFilter != null) {
+            knnVectorQueryBuilder.addFilterQuery(aliasFilter);
+        }
+        SearchExecutionContext searchExecutionContext = context.getSearchExecutionContext();
+        Query knnQuery = searchExecutionContext.toQuery(knnVectorQueryBuilder).query();
+        TopDocs topDocs = context.searcher().search(knnQuery, knnSearch.k());
+        context.dfsResult().knnResults(new DfsKnnResults(topDocs.scoreDocs));
+    }
 }
@@ -32,6 +32,7 @@ public class DfsSearchResult extends SearchPhaseResult {
     private TermStatistics[] termStatistics;
     private Map<String, CollectionStatistics> fieldStatistics = new HashMap<>();
     private int maxDoc;
+    private DfsKnnResults knnResults;
 
     public DfsSearchResult(StreamInput in) throws IOException {
         super(in);
@@ -52,6 +53,9 @@ public class DfsSearchResult extends SearchPhaseResult {
         if (in.getVersion().onOrAfter(Version.V_7_10_0)) {
             setShardSearchRequest(in.readOptionalWriteable(ShardSearchRequest::new));
         }
+        if (in.getVersion().onOrAfter(Version.V_8_3_0)) {
+            knnResults = in.readOptionalWriteable(DfsKnnResults::new);
+        }
     }
 
     public DfsSearchResult(ShardSearchContextId contextId, SearchShardTarget shardTarget, ShardSearchRequest shardSearchRequest) {
@@ -80,6 +84,19 @@ public class DfsSearchResult extends SearchPhaseResult {
         return this;
     }
 
+    public DfsSearchResult knnResults(DfsKnnResults knnResults) {
+        this.knnResults = knnResults;
+        return this;
+    }
+
+    /**
+     * The nearest neighbors found for the {@code knn} section of the request,
+     * {@code null} if it doesn't have one.
+     */
+    public DfsKnnResults knnResults() {
+        return knnResults;
+    }
+
     public Term[] terms() {
         return terms;
     }
@@ -106,6 +123,9 @@ public class DfsSearchResult extends SearchPhaseResult {
         if (out.getVersion().onOrAfter(Version.V_7_10_0)) {
             out.writeOptionalWriteable(getShardSearchRequest());
         }
+        if (out.getVersion().onOrAfter(Version.V_8_3_0)) {
+            out.writeOptionalWriteable(knnResults);
+        }
     }
 
     public static void writeFieldStats(StreamOutput out, Map<String, CollectionStatistics> fieldStatistics) throws IOException {
@@ -149,6 +149,13 @@ public class FetchContext {
         return searchContext.highlight();
     }
 
+    /**
+     * Is the fetch phase being profiled?
+     */
+    public boolean profile() {
+        return searchContext.getProfilers() != null;
+    }
+
     /**
      * Does the index analyzer for this field have token filters that may produce
      * backwards offsets in term vectors
@@ -14,15 +14,18 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.common.CheckedBiConsumer;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.lucene.index.SequentialStoredFieldsLeafReader;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.fieldvisitor.CustomFieldsVisitor;
 import org.elasticsearch.index.fieldvisitor.FieldsVisitor;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.SourceFieldMapper;
+import org.elasticsearch.index.mapper.SyntheticSourceLoader;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.search.LeafNestedDocuments;
 import org.elasticsearch.search.NestedDocuments;
@@ -110,6 +113,9 @@ public class FetchPhase {
         Map<String, Set<String>> storedToRequestedFields = new HashMap<>();
         FieldsVisitor fieldsVisitor = createStoredFieldsVisitor(context, storedToRequestedFields);
         profiler.visitor(fieldsVisitor);
+        SyntheticSourceLoader syntheticSourceLoader = fieldsVisitor != null && sourceRequired(context)
+            ? context.getSearchExecutionContext().newSyntheticSourceLoader()
+            : null;
 
         FetchContext fetchContext = new FetchContext(context);
 
@@ -122,6 +128,7 @@ public class FetchPhase {
         LeafReaderContext currentReaderContext = null;
         LeafNestedDocuments leafNestedDocuments = null;
         CheckedBiConsumer<Integer, FieldsVisitor, IOException> fieldReader = null;
+        SyntheticSourceLoader.Leaf syntheticSourceLeaf = null;
         boolean hasSequentialDocs = hasSequentialDocs(docs);
         for (int index = 0; index < context.docIdsToLoadSize(); index++) {
             if (context.isCancelled()) {
@@ -150,6 +157,9 @@ public class FetchPhase {
                             processor.setNextReader(currentReaderContext);
                         }
                         leafNestedDocuments = nestedDocuments.getLeafNestedDocuments(currentReaderContext);
+                        if (syntheticSourceLoader != null) {
+                            syntheticSourceLeaf = syntheticSourceLoader.leaf(currentReaderContext.reader());
+                        }
                     } finally {
                         profiler.stopNextReader();
                     }
@@ -163,7 +173,8 @@ public class FetchPhase {
                     docId,
                     storedToRequestedFields,
                     currentReaderContext,
-                    fieldReader
+                    fieldReader,
+                    syntheticSourceLeaf
                 );
                 for (FetchSubPhaseProcessor processor : processors) {
                     processor.process(hit);
@@ -264,7 +275,8 @@ public class FetchPhase {
         int docId,
         Map<String, Set<String>> storedToRequestedFields,
         LeafReaderContext subReaderContext,
-        CheckedBiConsumer<Integer, FieldsVisitor, IOException> storedFieldReader
+        CheckedBiConsumer<Integer, FieldsVisitor, IOException> storedFieldReader,
+        @Nullable SyntheticSourceLoader.Leaf syntheticSourceLeaf
     ) throws IOException {
         if (nestedDocuments.advance(docId - subReaderContext.docBase) == null) {
             return prepareNonNestedHitContext(
@@ -274,7 +286,8 @@ public class FetchPhase {
                 docId,
                 storedToRequestedFields,
                 subReaderContext,
-                storedFieldReader
+                storedFieldReader,
+                syntheticSourceLeaf
             );
         } else {
             return prepareNestedHitContext(
@@ -294,7 +307,8 @@ public class FetchPhase {
      * document. This includes the following:
      *   - Adding an initial {@link SearchHit} instance.
      *   - Loading the document source and setting it on {@link HitContext#sourceLookup()}. This
-     *     allows fetch subphases that use the hit context to access the preloaded source.
+     *     allows fetch subphases that use the hit context to access the preloaded source. If the
+     *     index uses synthetic source then the source is rebuilt from doc values instead.
      */
     private static HitContext prepareNonNestedHitContext(
         SearchContext context,
@@ -303,7 +317,8 @@ public class FetchPhase {
         int docId,
         Map<String, Set<String>> storedToRequestedFields,
         LeafReaderContext subReaderContext,
-        CheckedBiConsumer<Integer, FieldsVisitor, IOException> fieldReader
+        CheckedBiConsumer<Integer, FieldsVisitor, IOException> fieldReader,
+        @Nullable SyntheticSourceLoader.Leaf syntheticSourceLeaf
     ) throws IOException {
         int subDocId = docId - subReaderContext.docBase;
         if (fieldsVisitor == null) {
@@ -322,14 +337,15 @@ public class FetchPhase {
             }
 
             HitContext hitContext = new HitContext(hit, subReaderContext, subDocId);
-            if (fieldsVisitor.source() != null) {
+            BytesReference source = syntheticSourceLeaf != null ? syntheticSourceLeaf.source(subDocId) : fieldsVisitor.source();
+            if (source != null) {
                 // Store the loaded source on the hit context so that fetch subphases can access it.
                 // Also make it available to scripts by storing it on the shared SearchLookup instance.
-                hitContext.sourceLookup().setSource(fieldsVisitor.source());
+                hitContext.sourceLookup().setSource(source);
 
                 SourceLookup scriptSourceLookup = context.getSearchExecutionContext().lookup().source();
                 scriptSourceLookup.setSegmentAndDocument(subReaderContext, subDocId);
-                scriptSourceLookup.setSource(fieldsVisitor.source());
+                scriptSourceLookup.setSource(source);
             }
             return hitContext;
         }
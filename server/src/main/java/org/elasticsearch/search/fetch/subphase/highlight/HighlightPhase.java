@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -50,7 +51,14 @@ public class HighlightPhase implements FetchSubPhase {
             sharedCache
         );
 
+        List<Map.Entry<String, Function<HitContext, FieldHighlightContext>>> fields = List.copyOf(contextBuilders.entrySet());
+        boolean profile = context.profile();
+
         return new FetchSubPhaseProcessor() {
+            // per field, indexed like fields, so the profile can tell which field the time went to
+            private final long[] timeInNanos = new long[fields.size()];
+            private final int[] highlighted = new int[fields.size()];
+
             @Override
             public void setNextReader(LeafReaderContext readerContext) {
 
@@ -59,8 +67,10 @@ public class HighlightPhase implements FetchSubPhase {
             @Override
             public void process(HitContext hitContext) throws IOException {
                 Map<String, HighlightField> highlightFields = new HashMap<>();
-                for (String field : contextBuilders.keySet()) {
-                    FieldHighlightContext fieldContext = contextBuilders.get(field).apply(hitContext);
+                for (int i = 0; i < fields.size(); i++) {
+                    long start = profile ? System.nanoTime() : 0;
+                    String field = fields.get(i).getKey();
+                    FieldHighlightContext fieldContext = fields.get(i).getValue().apply(hitContext);
                     Highlighter highlighter = getHighlighter(fieldContext.field);
                     HighlightField highlightField = highlighter.highlight(fieldContext);
                     if (highlightField != null) {
@@ -68,10 +78,23 @@ public class HighlightPhase implements FetchSubPhase {
                         // original field could be an alias, and highlighter implementations may instead reference the
                         // concrete field it points to.
                         highlightFields.put(field, new HighlightField(field, highlightField.fragments()));
+                        highlighted[i]++;
+                    }
+                    if (profile) {
+                        timeInNanos[i] += System.nanoTime() - start;
                     }
                 }
                 hitContext.hit().highlightFields(highlightFields);
             }
+
+            @Override
+            public Map<String, Object> getDebugInfo() {
+                Map<String, Object> perField = new LinkedHashMap<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    perField.put(fields.get(i).getKey(), Map.of("time_in_nanos", timeInNanos[i], "highlighted", highlighted[i]));
+                }
+                return Map.of("fields", perField);
+            }
         };
     }
 
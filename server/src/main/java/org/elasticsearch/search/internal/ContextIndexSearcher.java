@@ -37,6 +37,7 @@ import org.elasticsearch.core.Releasable;
 import org.elasticsearch.lucene.util.CombinedBitSet;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.profile.Timer;
+import org.elasticsearch.search.profile.query.DebugInfoWeight;
 import org.elasticsearch.search.profile.query.ProfileWeight;
 import org.elasticsearch.search.profile.query.QueryProfileBreakdown;
 import org.elasticsearch.search.profile.query.QueryProfiler;
@@ -156,6 +157,9 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
                 timer.stop();
                 profiler.pollLastElement();
             }
+            if (weight instanceof DebugInfoWeight debugInfoWeight) {
+                debugInfoWeight.collectDebugInfo(profile::addDebugInfo);
+            }
             return new ProfileWeight(query, weight, profile);
         } else {
             return super.createWeight(query, scoreMode, boost);
@@ -32,7 +32,7 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
 
     private int docId = -1;
 
-    private final Map<String, DocValuesScriptFieldFactory> localCacheScriptFieldData = Maps.newMapWithExpectedSize(4);
+    private final Map<String, CachedFieldFactory> localCacheScriptFieldData = Maps.newMapWithExpectedSize(4);
 
     LeafDocLookup(
         Function<String, MappedFieldType> fieldTypeLookup,
@@ -49,9 +49,9 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     }
 
     public DocValuesScriptFieldFactory getScriptFieldFactory(String fieldName) {
-        DocValuesScriptFieldFactory factory = localCacheScriptFieldData.get(fieldName);
+        CachedFieldFactory cached = localCacheScriptFieldData.get(fieldName);
 
-        if (factory == null) {
+        if (cached == null) {
             final MappedFieldType fieldType = fieldTypeLookup.apply(fieldName);
 
             if (fieldType == null) {
@@ -60,23 +60,27 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
 
             // Load the field data on behalf of the script. Otherwise, it would require
             // additional permissions to deal with pagedbytes/ramusagestimator/etc.
-            factory = AccessController.doPrivileged(new PrivilegedAction<DocValuesScriptFieldFactory>() {
+            DocValuesScriptFieldFactory factory = AccessController.doPrivileged(new PrivilegedAction<DocValuesScriptFieldFactory>() {
                 @Override
                 public DocValuesScriptFieldFactory run() {
                     return fieldDataLookup.apply(fieldType).load(reader).getScriptFieldFactory(fieldName);
                 }
             });
 
-            localCacheScriptFieldData.put(fieldName, factory);
+            cached = new CachedFieldFactory(factory);
+            localCacheScriptFieldData.put(fieldName, cached);
         }
 
-        try {
-            factory.setNextDocId(docId);
-        } catch (IOException ioe) {
-            throw ExceptionsHelper.convertToElastic(ioe);
+        if (cached.docId != docId) {
+            try {
+                cached.factory.setNextDocId(docId);
+            } catch (IOException ioe) {
+                throw ExceptionsHelper.convertToElastic(ioe);
+            }
+            cached.docId = docId;
         }
 
-        return factory;
+        return cached.factory;
     }
 
     public Field<?> getScriptField(String fieldName) {
@@ -92,8 +96,7 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     @Override
     public boolean containsKey(Object key) {
         String fieldName = key.toString();
-        DocValuesScriptFieldFactory docValuesFieldFactory = localCacheScriptFieldData.get(fieldName);
-        return docValuesFieldFactory != null || fieldTypeLookup.apply(fieldName) != null;
+        return localCacheScriptFieldData.containsKey(fieldName) || fieldTypeLookup.apply(fieldName) != null;
     }
 
     @Override
@@ -145,4 +148,19 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     public Set<Map.Entry<String, ScriptDocValues<?>>> entrySet() {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * A field's doc values along with the document they were last positioned on. Scripts often access the same field several
+     * times for a document, like {@code doc['f'].size() == 0 ? 0 : doc['f'].value}, and loading the values again every time is
+     * wasteful. For runtime fields it is expensive because loading the values runs the field's script.
+     */
+    private static final class CachedFieldFactory {
+        private final DocValuesScriptFieldFactory factory;
+        // not positioned on any document yet, not even the -1 of a lookup that hasn't been given a document
+        private int docId = Integer.MIN_VALUE;
+
+        private CachedFieldFactory(DocValuesScriptFieldFactory factory) {
+            this.factory = factory;
+        }
+    }
 }
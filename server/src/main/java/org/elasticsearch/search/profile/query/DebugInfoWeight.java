@@ -0,0 +1,26 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.profile.query;
+
+import org.apache.lucene.search.Weight;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Implemented by {@link Weight}s that do enough work while they are built
+ * that the timings alone don't explain where the time went.
+ */
+public interface DebugInfoWeight {
+    /**
+     * Collect debugging information about how the weight was built. Called
+     * once, right after the weight is created, when the search is profiled.
+     * @param add call this with the key and value of each piece of information
+     */
+    void collectDebugInfo(BiConsumer<String, Object> add);
+}
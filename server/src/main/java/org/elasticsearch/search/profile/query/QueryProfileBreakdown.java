@@ -10,15 +10,34 @@ package org.elasticsearch.search.profile.query;
 
 import org.elasticsearch.search.profile.AbstractProfileBreakdown;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+
 /**
  * A record of timings for the various operations that may happen during query execution.
  * A node's time may be composed of several internal attributes (rewriting, weighting,
  * scoring, etc).
  */
 public final class QueryProfileBreakdown extends AbstractProfileBreakdown<QueryTimingType> {
+    private final Map<String, Object> extra = new HashMap<>();
 
     /** Sole constructor. */
     public QueryProfileBreakdown() {
         super(QueryTimingType.class);
     }
+
+    /**
+     * Add extra debugging information about the query.
+     */
+    public void addDebugInfo(String key, Object value) {
+        Object old = extra.put(key, value);
+        assert old == null : "debug info duplicate key [" + key + "] was [" + old + "] is [" + value + "]";
+    }
+
+    @Override
+    protected Map<String, Object> toDebugMap() {
+        return unmodifiableMap(extra);
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A query that matches the provided docs with their scores. The docs are the
+ * top level doc ids of the reader that the query was built for, usually the
+ * nearest neighbors found by the dfs phase of a search with a {@code knn} section.
+ *
+ * NOTE: this is an internal class and should not be used outside of core Elasticsearch code.
+ */
+public class KnnScoreDocQuery extends Query {
+    private final int[] docs;
+    private final float[] scores;
+    /**
+     * The index in {@link #docs} of the first doc of each segment, plus the number of docs.
+     */
+    private final int[] segmentStarts;
+    private final float maxScore;
+    private final Object contextIdentity;
+
+    /**
+     * Build the query.
+     * @param scoreDocs the docs and their scores
+     * @param reader the reader that the doc ids belong to
+     */
+    public KnnScoreDocQuery(ScoreDoc[] scoreDocs, IndexReader reader) {
+        ScoreDoc[] sorted = scoreDocs.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(scoreDoc -> scoreDoc.doc));
+        this.docs = new int[sorted.length];
+        this.scores = new float[sorted.length];
+        float maxScore = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            docs[i] = sorted[i].doc;
+            scores[i] = sorted[i].score;
+            maxScore = Math.max(maxScore, sorted[i].score);
+        }
+        this.maxScore = maxScore;
+        this.segmentStarts = findSegmentStarts(reader, docs);
+        this.contextIdentity = reader.getContext().id();
+    }
+
+    private static int[] findSegmentStarts(IndexReader reader, int[] docs) {
+        int[] starts = new int[reader.leaves().size() + 1];
+        starts[starts.length - 1] = docs.length;
+        if (starts.length == 2) {
+            return starts;
+        }
+        int resultIndex = 0;
+        for (int i = 1; i < starts.length - 1; i++) {
+            int upper = reader.leaves().get(i).docBase;
+            resultIndex = Arrays.binarySearch(docs, resultIndex, docs.length, upper);
+            if (resultIndex < 0) {
+                resultIndex = -1 - resultIndex;
+            }
+            starts[i] = resultIndex;
+        }
+        return starts;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        if (searcher.getIndexReader().getContext().id() != contextIdentity) {
+            throw new IllegalStateException("This KnnScoreDocQuery was created by a different reader");
+        }
+        return new Weight(this) {
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) {
+                int found = Arrays.binarySearch(docs, doc + context.docBase);
+                if (found < 0) {
+                    return Explanation.noMatch("not in top k documents");
+                }
+                return Explanation.match(scores[found] * boost, "within top k documents");
+            }
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) {
+                final int lower = segmentStarts[context.ord];
+                final int upper = segmentStarts[context.ord + 1];
+                if (lower == upper) {
+                    return null;
+                }
+                return new Scorer(this) {
+                    int upTo = -1;
+
+                    @Override
+                    public DocIdSetIterator iterator() {
+                        return new DocIdSetIterator() {
+                            @Override
+                            public int docID() {
+                                return currentDocId();
+                            }
+
+                            @Override
+                            public int nextDoc() {
+                                if (upTo == -1) {
+                                    upTo = lower;
+                                } else {
+                                    ++upTo;
+                                }
+                                return currentDocId();
+                            }
+
+                            @Override
+                            public int advance(int target) throws IOException {
+                                return slowAdvance(target);
+                            }
+
+                            @Override
+                            public long cost() {
+                                return upper - lower;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public float getMaxScore(int docId) {
+                        return maxScore * boost;
+                    }
+
+                    @Override
+                    public float score() {
+                        return scores[upTo] * boost;
+                    }
+
+                    @Override
+                    public int docID() {
+                        return currentDocId();
+                    }
+
+                    private int currentDocId() {
+                        if (upTo == -1) {
+                            return -1;
+                        }
+                        if (upTo >= upper) {
+                            return NO_MORE_DOCS;
+                        }
+                        return docs[upTo] - context.docBase;
+                    }
+                };
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public String toString(String field) {
+        return "KnnScoreDocQuery";
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        visitor.visitLeaf(this);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (sameClassAs(obj) == false) {
+            return false;
+        }
+        KnnScoreDocQuery other = (KnnScoreDocQuery) obj;
+        return contextIdentity == other.contextIdentity && Arrays.equals(docs, other.docs) && Arrays.equals(scores, other.scores);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), contextIdentity, Arrays.hashCode(docs), Arrays.hashCode(scores));
+    }
+}
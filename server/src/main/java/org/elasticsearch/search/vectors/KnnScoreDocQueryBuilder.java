@@ -0,0 +1,108 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.index.query.AbstractQueryBuilder;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Builds a {@link KnnScoreDocQuery} for the nearest neighbors that the coordinating
+ * node picked out of the results of the dfs phase on all shards.
+ *
+ * NOTE: this is an internal class and should not be used outside of core Elasticsearch code.
+ */
+public class KnnScoreDocQueryBuilder extends AbstractQueryBuilder<KnnScoreDocQueryBuilder> {
+    public static final String NAME = "knn_score_doc";
+    private final ScoreDoc[] scoreDocs;
+
+    /**
+     * Creates a query builder.
+     *
+     * @param scoreDocs the docs and scores this query should match. The array isn't
+     *                  copied, so it is the caller's responsibility not to change it.
+     */
+    public KnnScoreDocQueryBuilder(ScoreDoc[] scoreDocs) {
+        this.scoreDocs = scoreDocs;
+    }
+
+    public KnnScoreDocQueryBuilder(StreamInput in) throws IOException {
+        super(in);
+        this.scoreDocs = in.readArray(Lucene::readScoreDoc, ScoreDoc[]::new);
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    ScoreDoc[] scoreDocs() {
+        return scoreDocs;
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeArray(Lucene::writeScoreDoc, scoreDocs);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(NAME);
+        builder.startArray("values");
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            builder.startObject().field("doc", scoreDoc.doc).field("score", scoreDoc.score).endObject();
+        }
+        builder.endArray();
+        printBoostAndQueryName(builder);
+        builder.endObject();
+    }
+
+    @Override
+    protected Query doToQuery(SearchExecutionContext context) throws IOException {
+        return new KnnScoreDocQuery(scoreDocs, context.getIndexReader());
+    }
+
+    @Override
+    protected boolean doEquals(KnnScoreDocQueryBuilder other) {
+        if (scoreDocs.length != other.scoreDocs.length) {
+            return false;
+        }
+        for (int i = 0; i < scoreDocs.length; i++) {
+            ScoreDoc scoreDoc = scoreDocs[i];
+            ScoreDoc otherScoreDoc = other.scoreDocs[i];
+            if (scoreDoc.doc != otherScoreDoc.doc || scoreDoc.score != otherScoreDoc.score) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected int doHashCode() {
+        int result = 1;
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            result = 31 * result + Objects.hash(scoreDoc.doc, scoreDoc.score);
+        }
+        return result;
+    }
+
+    @Override
+    public Version getMinimalSupportedVersion() {
+        return Version.V_8_3_0;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.search.Query;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.mapper.MappedFieldType;
+
+/**
+ * Implemented by {@link MappedFieldType}s that index vectors and can find the
+ * nearest neighbors of a query vector. {@link KnnVectorQueryBuilder} and the
+ * {@code knn} section of the search request run against these.
+ */
+public interface KnnVectorFieldType {
+
+    /**
+     * Build a query that finds the {@code numCands} nearest neighbors of {@code queryVector}.
+     * @param filter only docs matching this query are candidates, {@code null} if all docs are
+     */
+    Query createKnnQuery(float[] queryVector, int numCands, @Nullable Query filter);
+}
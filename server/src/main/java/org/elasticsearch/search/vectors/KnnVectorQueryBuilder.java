@@ -1,11 +1,12 @@
 /*
  * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
  * or more contributor license agreements. Licensed under the Elastic License
- * 2.0; you may not use this file except in compliance with the Elastic License
- * 2.0.
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
  */
 
-package org.elasticsearch.xpack.vectors.query;
+package org.elasticsearch.search.vectors;
 
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
@@ -21,8 +22,6 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.xcontent.XContentBuilder;
-import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper;
-import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.DenseVectorFieldType;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -138,10 +137,8 @@ public class KnnVectorQueryBuilder extends AbstractQueryBuilder<KnnVectorQueryBu
             throw new IllegalArgumentException("field [" + fieldName + "] does not exist in the mapping");
         }
 
-        if (fieldType instanceof DenseVectorFieldType == false) {
-            throw new IllegalArgumentException(
-                "[" + NAME + "] queries are only supported on [" + DenseVectorFieldMapper.CONTENT_TYPE + "] fields"
-            );
+        if (fieldType instanceof KnnVectorFieldType == false) {
+            throw new IllegalArgumentException("[" + NAME + "] queries are only supported on [dense_vector] fields");
         }
 
         BooleanQuery.Builder builder = new BooleanQuery.Builder();
@@ -151,7 +148,7 @@ public class KnnVectorQueryBuilder extends AbstractQueryBuilder<KnnVectorQueryBu
         BooleanQuery booleanQuery = builder.build();
         Query filterQuery = booleanQuery.clauses().isEmpty() ? null : booleanQuery;
 
-        DenseVectorFieldType vectorFieldType = (DenseVectorFieldType) fieldType;
+        KnnVectorFieldType vectorFieldType = (KnnVectorFieldType) fieldType;
         return vectorFieldType.createKnnQuery(queryVector, numCands, filterQuery);
     }
 
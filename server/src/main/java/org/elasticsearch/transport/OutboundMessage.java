@@ -63,6 +63,8 @@ abstract class OutboundMessage extends NetworkMessage {
             if (message instanceof BytesTransportRequest bRequest) {
                 bRequest.writeThin(stream);
                 zeroCopyBuffer = bRequest.bytes;
+            } else if (compress == false && message instanceof TrailingBytesTransportMessage trailingBytesMessage) {
+                zeroCopyBuffer = trailingBytesMessage.writeWithoutTrailingBytes(stream);
             } else if (message instanceof RemoteTransportException) {
                 stream.writeException((RemoteTransportException) message);
                 zeroCopyBuffer = BytesArray.EMPTY;
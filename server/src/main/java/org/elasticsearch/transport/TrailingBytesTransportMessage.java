@@ -0,0 +1,32 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import java.io.IOException;
+
+/**
+ * A transport message whose serialized form may end with a large {@link BytesReference}. If the message is not compressed, the network
+ * layer appends these trailing bytes to the serialized message as they are instead of copying them into its own buffers.
+ */
+public interface TrailingBytesTransportMessage extends Writeable {
+
+    /**
+     * Writes this message to the given stream, except for the trailing bytes which are returned instead of being written. The bytes
+     * written to the stream followed by the returned bytes must be identical to what {@link #writeTo} writes. Implementations that cannot
+     * separate any trailing bytes for the stream's version write the full message and return {@link BytesArray#EMPTY}.
+     *
+     * @return the trailing bytes that must be sent right after the bytes written to the stream
+     */
+    BytesReference writeWithoutTrailingBytes(StreamOutput out) throws IOException;
+}
@@ -18,22 +18,35 @@ import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.dfs.DfsKnnResults;
 import org.elasticsearch.search.dfs.DfsSearchResult;
+import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.ShardSearchContextId;
+import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.search.query.QuerySearchRequest;
 import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.vectors.KnnScoreDocQueryBuilder;
+import org.elasticsearch.search.vectors.KnnSearchBuilder;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.InternalAggregationTestCase;
 import org.elasticsearch.transport.Transport;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.hamcrest.Matchers.equalTo;
+
 public class DfsQueryPhaseTests extends ESTestCase {
 
     private static DfsSearchResult newSearchResult(int shardIndex, ShardSearchContextId contextId, SearchShardTarget target) {
@@ -280,6 +293,51 @@ public class DfsQueryPhaseTests extends ESTestCase {
         assertTrue(mockSearchPhaseContext.releasedSearchContexts.isEmpty()); // phase execution will clean up on the contexts
     }
 
+    public void testKnnResultsMergedAndRewritten() {
+        KnnSearchBuilder knnSearch = new KnnSearchBuilder("vector", new float[] { 1.0f, 2.0f }, 3, 10).boost(2.0f);
+        SearchSourceBuilder source = new SearchSourceBuilder().query(new TermQueryBuilder("field", "value")).knnSearch(knnSearch);
+        SearchRequest searchRequest = new SearchRequest().source(source);
+
+        List<DfsSearchResult> dfsResults = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            ShardId shardId = new ShardId("test", "na", shard);
+            ShardSearchRequest shardRequest = new ShardSearchRequest(shardId, 0, AliasFilter.EMPTY);
+            shardRequest.source(source);
+            DfsSearchResult dfsResult = new DfsSearchResult(
+                new ShardSearchContextId("", shard),
+                new SearchShardTarget("node", shardId, null),
+                shardRequest
+            );
+            dfsResult.setShardIndex(shard);
+            dfsResults.add(dfsResult);
+        }
+        dfsResults.get(0)
+            .knnResults(new DfsKnnResults(new ScoreDoc[] { new ScoreDoc(1, 0.9f), new ScoreDoc(4, 0.5f), new ScoreDoc(7, 0.1f) }));
+        dfsResults.get(1)
+            .knnResults(new DfsKnnResults(new ScoreDoc[] { new ScoreDoc(2, 0.8f), new ScoreDoc(3, 0.2f), new ScoreDoc(5, 0.05f) }));
+
+        Map<Integer, List<ScoreDoc>> merged = DfsQueryPhase.mergeKnnResults(searchRequest, dfsResults);
+        assertThat(merged.get(0).stream().map(d -> d.doc).toList(), equalTo(List.of(1, 4)));
+        assertThat(merged.get(1).stream().map(d -> d.doc).toList(), equalTo(List.of(2)));
+
+        ShardSearchRequest rewritten = DfsQueryPhase.rewriteShardSearchRequest(merged, dfsResults.get(1));
+        assertNull(rewritten.source().knnSearch());
+        assertThat(
+            rewritten.source().query(),
+            equalTo(
+                new BoolQueryBuilder().should(new TermQueryBuilder("field", "value"))
+                    .should(new KnnScoreDocQueryBuilder(new ScoreDoc[] { new ScoreDoc(2, 0.8f) }).boost(2.0f))
+            )
+        );
+        // the original request is left alone
+        assertSame(knnSearch, dfsResults.get(1).getShardSearchRequest().source().knnSearch());
+    }
+
+    public void testNoKnnResults() {
+        SearchRequest searchRequest = new SearchRequest().source(new SearchSourceBuilder());
+        assertNull(DfsQueryPhase.mergeKnnResults(searchRequest, List.of()));
+    }
+
     private SearchPhaseController searchPhaseController() {
         return new SearchPhaseController((task, request) -> InternalAggregationTestCase.emptyReduceContextBuilder());
     }
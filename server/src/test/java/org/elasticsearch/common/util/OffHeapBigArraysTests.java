@@ -0,0 +1,222 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.PreallocatedCircuitBreakerService;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.List;
+
+import static org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class OffHeapBigArraysTests extends ESTestCase {
+    private final DirectPagePool pool = new DirectPagePool(ByteSizeUnit.MB.toBytes(1), ByteSizeUnit.MB.toBytes(64));
+
+    public void testLongArrayMatchesHeap() {
+        try (OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST)) {
+            LongArray heap = BigArrays.NON_RECYCLING_INSTANCE.newLongArray(1);
+            LongArray offHeap = arena.newLongArray(1);
+            for (int i = 0; i < 10000; i++) {
+                long index = randomLongBetween(0, 100000);
+                heap = BigArrays.NON_RECYCLING_INSTANCE.grow(heap, index + 1);
+                offHeap = arena.grow(offHeap, index + 1);
+                long value = randomLong();
+                assertThat(offHeap.set(index, value), equalTo(heap.set(index, value)));
+                long inc = randomLongBetween(-10, 10);
+                assertThat(offHeap.increment(index, inc), equalTo(heap.increment(index, inc)));
+            }
+            long from = randomLongBetween(0, heap.size() - 1);
+            long to = randomLongBetween(from, heap.size());
+            heap.fill(from, to, 42);
+            offHeap.fill(from, to, 42);
+            for (long i = 0; i < heap.size(); i++) {
+                assertThat(offHeap.get(i), equalTo(heap.get(i)));
+            }
+            heap.close();
+        }
+    }
+
+    public void testDoubleArrayMatchesHeap() {
+        try (OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST)) {
+            DoubleArray heap = BigArrays.NON_RECYCLING_INSTANCE.newDoubleArray(1);
+            DoubleArray offHeap = arena.newDoubleArray(1);
+            for (int i = 0; i < 10000; i++) {
+                long index = randomLongBetween(0, 100000);
+                heap = BigArrays.NON_RECYCLING_INSTANCE.grow(heap, index + 1);
+                offHeap = arena.grow(offHeap, index + 1);
+                double value = randomDouble();
+                assertThat(offHeap.set(index, value), equalTo(heap.set(index, value)));
+                assertThat(offHeap.increment(index, 1.5), equalTo(heap.increment(index, 1.5)));
+            }
+            for (long i = 0; i < heap.size(); i++) {
+                assertThat(offHeap.get(i), equalTo(heap.get(i)));
+            }
+            heap.close();
+        }
+    }
+
+    public void testIntArrayMatchesHeap() {
+        try (OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST)) {
+            IntArray heap = BigArrays.NON_RECYCLING_INSTANCE.newIntArray(1);
+            IntArray offHeap = arena.newIntArray(1);
+            for (int i = 0; i < 10000; i++) {
+                long index = randomLongBetween(0, 100000);
+                heap = BigArrays.NON_RECYCLING_INSTANCE.grow(heap, index + 1);
+                offHeap = arena.grow(offHeap, index + 1);
+                int value = randomInt();
+                assertThat(offHeap.set(index, value), equalTo(heap.set(index, value)));
+                assertThat(offHeap.increment(index, 3), equalTo(heap.increment(index, 3)));
+            }
+            for (long i = 0; i < heap.size(); i++) {
+                assertThat(offHeap.get(i), equalTo(heap.get(i)));
+            }
+            heap.close();
+        }
+    }
+
+    public void testShrinkAndGrowClears() {
+        try (OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST)) {
+            LongArray array = arena.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 3);
+            array.fill(0, array.size(), 7);
+            array = arena.resize(array, PageCacheRecycler.LONG_PAGE_SIZE);
+            array = arena.resize(array, PageCacheRecycler.LONG_PAGE_SIZE * 3);
+            for (long i = 0; i < PageCacheRecycler.LONG_PAGE_SIZE; i++) {
+                assertThat(array.get(i), equalTo(7L));
+            }
+            // pages from the pool come back zeroed
+            for (long i = PageCacheRecycler.LONG_PAGE_SIZE; i < array.size(); i++) {
+                assertThat(array.get(i), equalTo(0L));
+            }
+        }
+    }
+
+    public void testCloseReleasesOpenArrays() {
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        try (HierarchyCircuitBreakerService breakers = new HierarchyCircuitBreakerService(Settings.EMPTY, List.of(), clusterSettings)) {
+            CircuitBreaker breaker = breakers.getBreaker(CircuitBreaker.REQUEST);
+            int pooledBefore = pool.pooledPages();
+            OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, breakers, CircuitBreaker.REQUEST);
+            LongArray longs = arena.newLongArray(randomLongBetween(PageCacheRecycler.LONG_PAGE_SIZE, 100000));
+            DoubleArray doubles = arena.newDoubleArray(randomLongBetween(PageCacheRecycler.DOUBLE_PAGE_SIZE, 100000));
+            IntArray ints = arena.newIntArray(randomLongBetween(PageCacheRecycler.INT_PAGE_SIZE, 100000));
+            assertThat(arena.openArrays(), equalTo(3));
+            assertThat(breaker.getUsed(), equalTo(longs.ramBytesUsed() + doubles.ramBytesUsed() + ints.ramBytesUsed()));
+            if (randomBoolean()) {
+                longs.close();
+                assertThat(arena.openArrays(), equalTo(2));
+            }
+            arena.close();
+            assertThat(arena.openArrays(), equalTo(0));
+            assertThat(breaker.getUsed(), equalTo(0L));
+            assertThat(pool.reservedBytes(), equalTo(0L));
+            assertThat(pool.pooledPages(), greaterThan(pooledBefore));
+            expectThrows(IllegalStateException.class, () -> arena.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE));
+        }
+    }
+
+    public void testSmallArraysStayOnHeap() {
+        try (OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST)) {
+            LongArray array = arena.newLongArray(randomLongBetween(0, PageCacheRecycler.LONG_PAGE_SIZE / 2 - 1));
+            assertThat(arena.openArrays(), equalTo(0));
+            array.close();
+        }
+    }
+
+    public void testBreaks() {
+        long limit = ByteSizeUnit.KB.toBytes(between(64, 256));
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        try (
+            HierarchyCircuitBreakerService breakers = new HierarchyCircuitBreakerService(
+                Settings.builder()
+                    .put(REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), limit, ByteSizeUnit.BYTES)
+                    .put(HierarchyCircuitBreakerService.USE_REAL_MEMORY_USAGE_SETTING.getKey(), false)
+                    .build(),
+                List.of(),
+                clusterSettings
+            )
+        ) {
+            CircuitBreaker breaker = breakers.getBreaker(CircuitBreaker.REQUEST);
+            try (OffHeapBigArrays arena = new OffHeapBigArrays(null, pool, breakers, CircuitBreaker.REQUEST)) {
+                LongArray array = arena.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE);
+                LongArray current = array;
+                expectThrows(CircuitBreakingException.class, () -> {
+                    LongArray grown = current;
+                    while (true) {
+                        grown = arena.resize(grown, grown.size() * 2);
+                    }
+                });
+                assertThat(breaker.getUsed(), equalTo(array.ramBytesUsed()));
+            }
+            assertThat(breaker.getUsed(), equalTo(0L));
+        }
+    }
+
+    public void testDirectMemoryLimit() {
+        int limitPages = between(1, 10);
+        DirectPagePool limited = new DirectPagePool(0, (long) limitPages * PageCacheRecycler.PAGE_SIZE_IN_BYTES);
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        try (HierarchyCircuitBreakerService breakers = new HierarchyCircuitBreakerService(Settings.EMPTY, List.of(), clusterSettings)) {
+            CircuitBreaker breaker = breakers.getBreaker(CircuitBreaker.REQUEST);
+            try (OffHeapBigArrays arena = new OffHeapBigArrays(null, limited, breakers, CircuitBreaker.REQUEST)) {
+                LongArray array = arena.newLongArray((long) limitPages * PageCacheRecycler.LONG_PAGE_SIZE);
+                assertThat(limited.reservedBytes(), equalTo(array.ramBytesUsed()));
+                // the request breaker has plenty of room but the direct memory is used up
+                expectThrows(CircuitBreakingException.class, () -> arena.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE));
+                expectThrows(CircuitBreakingException.class, () -> arena.resize(array, array.size() + 1));
+                assertThat(breaker.getUsed(), equalTo(array.ramBytesUsed()));
+                assertThat(limited.reservedBytes(), equalTo(array.ramBytesUsed()));
+                arena.resize(array, PageCacheRecycler.LONG_PAGE_SIZE);
+                assertThat(limited.reservedBytes(), equalTo((long) PageCacheRecycler.PAGE_SIZE_IN_BYTES));
+            }
+            assertThat(breaker.getUsed(), equalTo(0L));
+            assertThat(limited.reservedBytes(), equalTo(0L));
+        }
+    }
+
+    public void testPreallocatedArena() {
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        try (HierarchyCircuitBreakerService breakers = new HierarchyCircuitBreakerService(Settings.EMPTY, List.of(), clusterSettings)) {
+            CircuitBreaker breaker = breakers.getBreaker(CircuitBreaker.REQUEST);
+            OffHeapBigArrays prototype = new OffHeapBigArrays(null, pool, breakers, CircuitBreaker.REQUEST);
+            try (
+                PreallocatedCircuitBreakerService preallocated = new PreallocatedCircuitBreakerService(
+                    breakers,
+                    CircuitBreaker.REQUEST,
+                    ByteSizeUnit.KB.toBytes(64),
+                    "test"
+                )
+            ) {
+                BigArrays bigArrays = prototype.withBreakerService(preallocated).withCircuitBreaking();
+                assertThat(bigArrays, equalTo(bigArrays.withCircuitBreaking()));
+                bigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 2);
+                ((OffHeapBigArrays) bigArrays).close();
+                assertThat(prototype.openArrays(), equalTo(0));
+            }
+            assertThat(breaker.getUsed(), equalTo(0L));
+        }
+    }
+
+    public void testArenaSharesRecycler() {
+        PageCacheRecycler recycler = new PageCacheRecycler(Settings.EMPTY);
+        BigArrays bigArrays = new BigArrays(recycler, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST);
+        try (OffHeapBigArrays arena = OffHeapBigArrays.arena(bigArrays, pool, CircuitBreaker.REQUEST)) {
+            assertSame(recycler, arena.recycler);
+            assertSame(recycler, arena.withBreakerService(new NoneCircuitBreakerService()).recycler);
+        }
+    }
+}
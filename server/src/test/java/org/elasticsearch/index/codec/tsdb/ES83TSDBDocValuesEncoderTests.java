@@ -0,0 +1,109 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.util.NumericUtils;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ES83TSDBDocValuesEncoderTests extends ESTestCase {
+
+    public void testConstant() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        Arrays.fill(values, randomLong());
+        byte[] encoded = assertRoundTrip(values, values.length);
+        assertThat(encoded[0], equalTo(ES83TSDBDocValuesEncoder.FRAME_OF_REFERENCE));
+        // the header only, no bits per value
+        assertThat(encoded.length, lessThan(16));
+    }
+
+    public void testRegularTimestamps() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        long start = randomLongBetween(0, 1L << 45);
+        long interval = randomLongBetween(1, 60_000);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = start + i * interval;
+        }
+        byte[] encoded = assertRoundTrip(values, values.length);
+        assertThat(encoded[0], equalTo(ES83TSDBDocValuesEncoder.DELTA_OF_DELTA));
+        assertThat(encoded.length, lessThan(32));
+    }
+
+    public void testJitteryTimestamps() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        long timestamp = randomLongBetween(0, 1L << 45);
+        for (int i = 0; i < values.length; i++) {
+            timestamp += 10_000 + randomIntBetween(-50, 50);
+            values[i] = timestamp;
+        }
+        byte[] encoded = assertRoundTrip(values, values.length);
+        // 8 bits per value is enough for the differences between deltas
+        assertThat(encoded.length, lessThan(32 + values.length));
+    }
+
+    public void testSlowlyChangingDoubles() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        double value = randomDoubleBetween(-1000, 1000, true);
+        for (int i = 0; i < values.length; i++) {
+            if (randomBoolean()) {
+                value += 0.5;
+            }
+            values[i] = NumericUtils.doubleToSortableLong(value);
+        }
+        byte[] encoded = assertRoundTrip(values, values.length);
+        assertThat(encoded.length, lessThan(values.length * Long.BYTES));
+    }
+
+    public void testRandom() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = randomFrom(Long.MIN_VALUE, Long.MAX_VALUE, 0L, randomLong());
+        }
+        assertRoundTrip(values, between(1, values.length));
+    }
+
+    public void testSmallRange() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        long base = randomLongBetween(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = base + randomIntBetween(0, 15);
+        }
+        byte[] encoded = assertRoundTrip(values, values.length);
+        assertThat(encoded.length, lessThan(32 + values.length / 2));
+    }
+
+    public void testPartialBlocks() throws IOException {
+        long[] values = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = randomLongBetween(-100, 100);
+        }
+        for (int count = 1; count <= values.length; count++) {
+            assertRoundTrip(values, count);
+        }
+    }
+
+    private static byte[] assertRoundTrip(long[] values, int count) throws IOException {
+        ByteBuffersDataOutput out = new ByteBuffersDataOutput();
+        ES83TSDBDocValuesEncoder.encode(values, count, out);
+        byte[] encoded = out.toArrayCopy();
+        long[] decoded = new long[ES83TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        ByteArrayDataInput in = new ByteArrayDataInput(encoded);
+        ES83TSDBDocValuesEncoder.decode(in, decoded, count);
+        assertArrayEquals(Arrays.copyOf(values, count), Arrays.copyOf(decoded, count));
+        assertThat("decoding must consume the whole block", in.getPosition(), equalTo(encoded.length));
+        return encoded;
+    }
+}
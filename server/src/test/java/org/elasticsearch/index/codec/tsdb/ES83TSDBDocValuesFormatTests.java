@@ -0,0 +1,186 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import com.carrotsearch.randomizedtesting.generators.RandomPicks;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.DocValuesFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.BaseDocValuesFormatTestCase;
+import org.apache.lucene.tests.util.TestUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+/**
+ * Runs the format through Lucene's doc values format tests, which cover iteration, advancing on sparse fields,
+ * merges and the doc values types that the format delegates, plus some time series shaped data of our own.
+ */
+public class ES83TSDBDocValuesFormatTests extends BaseDocValuesFormatTestCase {
+
+    private final Codec codec = TestUtil.alwaysDocValuesFormat(new ES83TSDBDocValuesFormat());
+
+    @Override
+    protected Codec getCodec() {
+        return codec;
+    }
+
+    public void testLoadedByName() {
+        assertThat(DocValuesFormat.forName("ES83TSDB"), instanceOf(ES83TSDBDocValuesFormat.class));
+    }
+
+    public void testTimeSeriesNumeric() throws IOException {
+        int numDocs = TestUtil.nextInt(random(), 1, 5000);
+        Map<String, Long> expected = new HashMap<>();
+        boolean sparse = random().nextBoolean();
+        long timestamp = TestUtil.nextLong(random(), 0, 1L << 40);
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, config())) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    String id = Integer.toString(i);
+                    doc.add(new StringField("id", id, StringField.Store.YES));
+                    timestamp += TestUtil.nextInt(random(), 0, 1000);
+                    if (sparse == false || random().nextBoolean()) {
+                        long value = random().nextBoolean() ? timestamp : random().nextLong();
+                        doc.add(new NumericDocValuesField("field", value));
+                        expected.put(id, value);
+                    }
+                    writer.addDocument(doc);
+                    maybeCommitOrDelete(writer, expected);
+                }
+                try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                    assertNumeric(reader, expected);
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertNumeric(reader, expected);
+            }
+        }
+    }
+
+    public void testTimeSeriesSortedNumeric() throws IOException {
+        int numDocs = TestUtil.nextInt(random(), 1, 5000);
+        Map<String, long[]> expected = new HashMap<>();
+        boolean sparse = random().nextBoolean();
+        boolean multiValued = random().nextBoolean();
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, config())) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    String id = Integer.toString(i);
+                    doc.add(new StringField("id", id, StringField.Store.YES));
+                    if (sparse == false || random().nextBoolean()) {
+                        long[] values = new long[multiValued ? TestUtil.nextInt(random(), 1, 5) : 1];
+                        for (int v = 0; v < values.length; v++) {
+                            values[v] = TestUtil.nextLong(random(), -1000, 1000);
+                            doc.add(new SortedNumericDocValuesField("field", values[v]));
+                        }
+                        Arrays.sort(values);
+                        expected.put(id, values);
+                    }
+                    writer.addDocument(doc);
+                    maybeCommitOrDelete(writer, expected);
+                }
+                try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                    assertSortedNumeric(reader, expected);
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertSortedNumeric(reader, expected);
+            }
+        }
+    }
+
+    private IndexWriterConfig config() {
+        IndexWriterConfig config = newIndexWriterConfig();
+        config.setCodec(codec);
+        return config;
+    }
+
+    private static void maybeCommitOrDelete(IndexWriter writer, Map<String, ?> expected) throws IOException {
+        if (rarely()) {
+            writer.commit();
+        }
+        if (rarely() && expected.isEmpty() == false) {
+            String id = RandomPicks.randomFrom(random(), new ArrayList<>(expected.keySet()));
+            writer.deleteDocuments(new Term("id", id));
+            expected.remove(id);
+        }
+    }
+
+    private static void assertNumeric(DirectoryReader reader, Map<String, Long> expected) throws IOException {
+        int seen = 0;
+        for (LeafReaderContext context : reader.leaves()) {
+            LeafReader leaf = context.reader();
+            NumericDocValues values = leaf.getNumericDocValues("field");
+            for (int doc = 0; doc < leaf.maxDoc(); doc++) {
+                if (leaf.getLiveDocs() != null && leaf.getLiveDocs().get(doc) == false) {
+                    continue;
+                }
+                Long value = expected.get(leaf.document(doc).get("id"));
+                if (value == null) {
+                    assertTrue(values == null || values.advanceExact(doc) == false);
+                } else {
+                    assertTrue(values.advanceExact(doc));
+                    assertThat(values.longValue(), equalTo(value));
+                    seen++;
+                }
+            }
+        }
+        assertThat(seen, equalTo(expected.size()));
+    }
+
+    private static void assertSortedNumeric(DirectoryReader reader, Map<String, long[]> expected) throws IOException {
+        int seen = 0;
+        for (LeafReaderContext context : reader.leaves()) {
+            LeafReader leaf = context.reader();
+            SortedNumericDocValues values = leaf.getSortedNumericDocValues("field");
+            for (int doc = 0; doc < leaf.maxDoc(); doc++) {
+                if (leaf.getLiveDocs() != null && leaf.getLiveDocs().get(doc) == false) {
+                    continue;
+                }
+                long[] expectedValues = expected.get(leaf.document(doc).get("id"));
+                if (expectedValues == null) {
+                    assertTrue(values == null || values.advanceExact(doc) == false);
+                } else {
+                    assertTrue(values.advanceExact(doc));
+                    long[] actual = new long[values.docValueCount()];
+                    for (int v = 0; v < actual.length; v++) {
+                        actual[v] = values.nextValue();
+                    }
+                    assertArrayEquals(expectedValues, actual);
+                    seen++;
+                }
+            }
+        }
+        assertThat(seen, equalTo(expected.size()));
+    }
+}
@@ -17,22 +17,33 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.PagedBytesIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.SortedSetOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.TextFieldMapper;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
 import org.elasticsearch.script.field.DelegateDocValuesField;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.FieldMaskingReader;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 
 public class FieldDataCacheTests extends ESTestCase {
     private static final ToScriptFieldFactory<SortedSetDocValues> MOCK_TO_SCRIPT_FIELD = (dv, n) -> new DelegateDocValuesField(
@@ -78,6 +89,98 @@ public class FieldDataCacheTests extends ESTestCase {
         dir.close();
     }
 
+    public void testLoadGlobalReusesOrdinalMapOfUnchangedSegments() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        for (int i = 1; i <= 100; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            doc.add(new SortedSetDocValuesField("field1", new BytesRef(String.valueOf(i % 17))));
+            iw.addDocument(doc);
+            if (i % 24 == 0) {
+                iw.commit();
+            }
+        }
+        ShardId shardId = new ShardId("_index", "_na_", 0);
+        DirectoryReader first = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(iw), shardId);
+        SortedSetOrdinalsIndexFieldData fieldData = createSortedDV("field1", new DummyAccountingFieldDataCache());
+        GlobalOrdinalsIndexFieldData firstGlobal = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(first, null);
+        assertFalse(firstGlobal.reusedOrdinalMap());
+
+        // deletes don't change the terms of the segments
+        iw.deleteDocuments(new Term("id", "7"));
+        DirectoryReader second = DirectoryReader.openIfChanged(first);
+        assertNotNull(second);
+        GlobalOrdinalsIndexFieldData secondGlobal = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(second, firstGlobal);
+        assertTrue(secondGlobal.reusedOrdinalMap());
+        assertSame(firstGlobal.getOrdinalMap(), secondGlobal.getOrdinalMap());
+
+        // but a new segment does
+        Document doc = new Document();
+        doc.add(new StringField("id", "101", Field.Store.NO));
+        doc.add(new SortedSetDocValuesField("field1", new BytesRef("new")));
+        iw.addDocument(doc);
+        DirectoryReader third = DirectoryReader.openIfChanged(second);
+        assertNotNull(third);
+        GlobalOrdinalsIndexFieldData thirdGlobal = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(third, secondGlobal);
+        assertFalse(thirdGlobal.reusedOrdinalMap());
+        assertThat(thirdGlobal.getOrdinalMap().getValueCount(), equalTo(firstGlobal.getOrdinalMap().getValueCount() + 1));
+
+        IOUtils.close(first, second, third, iw, dir);
+    }
+
+    public void testCacheKeepsLastGlobalOrdinalsUntilTheirSegmentsClose() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        for (int i = 1; i <= 100; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            doc.add(new SortedSetDocValuesField("field1", new BytesRef(String.valueOf(i % 17))));
+            iw.addDocument(doc);
+            if (i % 24 == 0) {
+                iw.commit();
+            }
+        }
+        AtomicLong cachedBytes = new AtomicLong();
+        IndexFieldDataCache.Listener listener = new IndexFieldDataCache.Listener() {
+            @Override
+            public void onCache(ShardId shardId, String fieldName, Accountable ramUsage) {
+                cachedBytes.addAndGet(ramUsage.ramBytesUsed());
+            }
+
+            @Override
+            public void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, long sizeInBytes) {
+                cachedBytes.addAndGet(-sizeInBytes);
+            }
+        };
+        IndicesFieldDataCache indicesCache = new IndicesFieldDataCache(Settings.EMPTY, listener);
+        IndexFieldDataCache cache = indicesCache.buildIndexFieldDataCache(listener, new Index("_index", "_na_"), "field1");
+        SortedSetOrdinalsIndexFieldData fieldData = createSortedDV("field1", cache);
+        ShardId shardId = new ShardId("_index", "_na_", 0);
+
+        DirectoryReader first = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(iw), shardId);
+        OrdinalMap firstMap = fieldData.loadGlobal(first).getOrdinalMap();
+        iw.deleteDocuments(new Term("id", "7"));
+        DirectoryReader second = DirectoryReader.openIfChanged(first);
+        assertNotNull(second);
+        first.close();
+        // the global ordinals of the first reader are kept, and accounted for, after it is closed
+        assertThat(cachedBytes.get(), greaterThan(0L));
+
+        // so global ordinals that are loaded lazily for the second reader reuse them
+        assertSame(firstMap, fieldData.loadGlobal(second).getOrdinalMap());
+
+        second.close();
+        iw.close();
+        // once the segments are gone the last global ordinals are dropped too
+        assertThat(cachedBytes.get(), equalTo(0L));
+        IOUtils.close(indicesCache, dir);
+    }
+
     private SortedSetOrdinalsIndexFieldData createSortedDV(String fieldName, IndexFieldDataCache indexFieldDataCache) {
         return new SortedSetOrdinalsIndexFieldData(
             indexFieldDataCache,
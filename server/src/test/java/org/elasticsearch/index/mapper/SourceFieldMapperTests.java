@@ -42,6 +42,7 @@ public class SourceFieldMapperTests extends MetadataMapperTestCase {
             topMapping(b -> b.startObject(SourceFieldMapper.NAME).field("enabled", false).endObject()),
             dm -> assertFalse(dm.metadataMapper(SourceFieldMapper.class).enabled())
         );
+        checker.registerConflictCheck("synthetic", b -> b.field("synthetic", true));
         checker.registerConflictCheck("includes", b -> b.array("includes", "foo*"));
         checker.registerConflictCheck("excludes", b -> b.array("excludes", "foo*"));
     }
@@ -70,6 +71,24 @@ public class SourceFieldMapperTests extends MetadataMapperTestCase {
         assertThat(XContentHelper.xContentType(doc.source()), equalTo(XContentType.SMILE));
     }
 
+    public void testSyntheticConflicts() {
+        Exception e = expectThrows(
+            MapperParsingException.class,
+            () -> createDocumentMapper(
+                topMapping(b -> b.startObject("_source").field("synthetic", true).field("enabled", false).endObject())
+            )
+        );
+        assertThat(e.getMessage(), containsString("[_source] can't be both [synthetic] and disabled"));
+
+        e = expectThrows(
+            MapperParsingException.class,
+            () -> createDocumentMapper(
+                topMapping(b -> b.startObject("_source").field("synthetic", true).array("includes", "path1*").endObject())
+            )
+        );
+        assertThat(e.getMessage(), containsString("[_source] can't be [synthetic] and filter its fields with [includes] or [excludes]"));
+    }
+
     public void testIncludes() throws Exception {
         DocumentMapper documentMapper = createDocumentMapper(
             topMapping(b -> b.startObject("_source").array("includes", "path1*").endObject())
@@ -0,0 +1,217 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.mapper;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.util.SetOnce;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SyntheticSourceLoaderTests extends MapperServiceTestCase {
+
+    private XContentBuilder syntheticSourceMapping(CheckedConsumer<XContentBuilder, IOException> extraFields) throws IOException {
+        return topMapping(b -> {
+            b.startObject(SourceFieldMapper.NAME).field("synthetic", true).endObject();
+            b.startObject("properties");
+            {
+                b.startObject("kwd").field("type", "keyword").endObject();
+                b.startObject("long").field("type", "long").endObject();
+                b.startObject("double").field("type", "double").endObject();
+                b.startObject("float").field("type", "float").endObject();
+                b.startObject("date").field("type", "date").endObject();
+                b.startObject("obj").startObject("properties");
+                b.startObject("sub").field("type", "keyword").endObject();
+                b.endObject().endObject();
+                b.startObject("empty").startObject("properties");
+                b.startObject("sub").field("type", "integer").endObject();
+                b.endObject().endObject();
+                extraFields.accept(b);
+            }
+            b.endObject();
+        });
+    }
+
+    public void testRebuildsSource() throws IOException {
+        MapperService mapperService = createMapperService(syntheticSourceMapping(b -> {}));
+        Map<String, Object> source = syntheticSource(mapperService, b -> {
+            b.field("kwd", "foo");
+            b.field("long", 12L);
+            b.field("double", 1.5);
+            b.field("float", 0.25f);
+            b.field("date", "2022-04-01T10:15:30.000Z");
+            b.startObject("obj").field("sub", "bar").endObject();
+        });
+        assertThat(
+            source,
+            equalTo(
+                Map.of(
+                    "kwd",
+                    "foo",
+                    "long",
+                    12,
+                    "double",
+                    1.5,
+                    "float",
+                    0.25,
+                    "date",
+                    "2022-04-01T10:15:30.000Z",
+                    "obj",
+                    Map.of("sub", "bar")
+                )
+            )
+        );
+    }
+
+    public void testMultiValuedFieldsAreSorted() throws IOException {
+        MapperService mapperService = createMapperService(syntheticSourceMapping(b -> {}));
+        Map<String, Object> source = syntheticSource(mapperService, b -> {
+            b.array("kwd", "c", "a", "b", "a");
+            b.array("long", 3L, 1L, 2L);
+        });
+        assertThat(source, equalTo(Map.of("kwd", List.of("a", "b", "c"), "long", List.of(1, 2, 3))));
+    }
+
+    public void testEmptyDocument() throws IOException {
+        MapperService mapperService = createMapperService(syntheticSourceMapping(b -> {}));
+        assertThat(syntheticSource(mapperService, b -> {}), equalTo(Map.of()));
+    }
+
+    public void testSourceIsNotStored() throws IOException {
+        MapperService mapperService = createMapperService(syntheticSourceMapping(b -> {}));
+        ParsedDocument doc = mapperService.documentMapper().parse(source(b -> b.field("kwd", "foo")));
+        assertThat(doc.rootDoc().getField(SourceFieldMapper.NAME), nullValue());
+        // the original source is still needed for operation based recovery
+        assertThat(doc.rootDoc().getField(SourceFieldMapper.RECOVERY_SOURCE_NAME), notNullValue());
+    }
+
+    public void testUnsupportedField() {
+        Exception e = expectThrows(
+            IllegalArgumentException.class,
+            () -> createMapperService(syntheticSourceMapping(b -> b.startObject("txt").field("type", "text").endObject()))
+        );
+        assertThat(e.getMessage(), containsString("field [txt] of type [text] doesn't support synthetic source"));
+    }
+
+    public void testKeywordWithoutDocValues() {
+        Exception e = expectThrows(
+            IllegalArgumentException.class,
+            () -> createMapperService(
+                syntheticSourceMapping(b -> b.startObject("nodv").field("type", "keyword").field("doc_values", false).endObject())
+            )
+        );
+        assertThat(e.getMessage(), containsString("field [nodv] of type [keyword] doesn't support synthetic source"));
+    }
+
+    public void testNested() {
+        Exception e = expectThrows(
+            IllegalArgumentException.class,
+            () -> createMapperService(syntheticSourceMapping(b -> b.startObject("n").field("type", "nested").endObject()))
+        );
+        assertThat(e.getMessage(), containsString("field [n] of type [nested] doesn't support synthetic source"));
+    }
+
+    public void testDisabledObject() {
+        Exception e = expectThrows(
+            IllegalArgumentException.class,
+            () -> createMapperService(syntheticSourceMapping(b -> b.startObject("off").field("enabled", false).endObject()))
+        );
+        assertThat(e.getMessage(), containsString("object [off] doesn't support synthetic source because it sets [enabled] to [false]"));
+    }
+
+    public void testDynamicFalse() {
+        String dynamic = randomFrom("false", "runtime");
+        Exception e = expectThrows(IllegalArgumentException.class, () -> createMapperService(topMapping(b -> {
+            b.startObject(SourceFieldMapper.NAME).field("synthetic", true).endObject();
+            b.field("dynamic", dynamic);
+        })));
+        assertThat(
+            e.getMessage(),
+            containsString("object [_doc] doesn't support synthetic source because it sets [dynamic] to [" + dynamic + "]")
+        );
+    }
+
+    public void testDynamicFalseInheritedBySubObject() {
+        Exception e = expectThrows(IllegalArgumentException.class, () -> createMapperService(topMapping(b -> {
+            b.startObject(SourceFieldMapper.NAME).field("synthetic", true).endObject();
+            b.startObject("properties");
+            {
+                b.startObject("outer").field("dynamic", false).startObject("properties");
+                {
+                    b.startObject("inner").startObject("properties");
+                    b.startObject("kwd").field("type", "keyword").endObject();
+                    b.endObject().endObject();
+                }
+                b.endObject().endObject();
+            }
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("object [outer] doesn't support synthetic source because it sets [dynamic] to [false]"));
+    }
+
+    public void testDynamicStrict() throws IOException {
+        MapperService mapperService = createMapperService(topMapping(b -> {
+            b.startObject(SourceFieldMapper.NAME).field("synthetic", true).endObject();
+            b.field("dynamic", "strict");
+            b.startObject("properties").startObject("kwd").field("type", "keyword").endObject().endObject();
+        }));
+        assertThat(syntheticSource(mapperService, b -> b.field("kwd", "foo")), equalTo(Map.of("kwd", "foo")));
+    }
+
+    public void testRuntimeField() {
+        Exception e = expectThrows(IllegalArgumentException.class, () -> createMapperService(topMapping(b -> {
+            b.startObject(SourceFieldMapper.NAME).field("synthetic", true).endObject();
+            b.startObject("runtime").startObject("rt").field("type", "keyword").endObject().endObject();
+        })));
+        assertThat(e.getMessage(), containsString("runtime field [rt] doesn't support synthetic source"));
+    }
+
+    public void testNullValue() {
+        String type = randomFrom("keyword", "long", "date");
+        Object nullValue = switch (type) {
+            case "keyword" -> "missing";
+            case "long" -> 0;
+            default -> "2022-01-01";
+        };
+        Exception e = expectThrows(
+            IllegalArgumentException.class,
+            () -> createMapperService(
+                syntheticSourceMapping(b -> b.startObject("nv").field("type", type).field("null_value", nullValue).endObject())
+            )
+        );
+        assertThat(
+            e.getMessage(),
+            containsString("field [nv] of type [" + type + "] doesn't support synthetic source because it declares null_value")
+        );
+    }
+
+    private Map<String, Object> syntheticSource(MapperService mapperService, CheckedConsumer<XContentBuilder, IOException> build)
+        throws IOException {
+        ParsedDocument doc = mapperService.documentMapper().parse(source(build));
+        SetOnce<Map<String, Object>> source = new SetOnce<>();
+        withLuceneIndex(mapperService, iw -> iw.addDocument(doc.rootDoc()), reader -> {
+            assertThat(reader.leaves().size(), equalTo(1));
+            LeafReader leafReader = reader.leaves().get(0).reader();
+            BytesReference bytes = SyntheticSourceLoader.build(mapperService.mappingLookup()).leaf(leafReader).source(0);
+            source.set(XContentHelper.convertToMap(bytes, false, XContentType.JSON).v2());
+        });
+        return source.get();
+    }
+}
@@ -22,6 +22,8 @@ import org.elasticsearch.xcontent.XContentType;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.function.LongSupplier;
 
 import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_PRIMARY_TERM;
@@ -202,4 +204,32 @@ public class ShardGetServiceTests extends IndexShardTestCase {
 
         closeShards(shard);
     }
+
+    public void testRealtimeGetWithSyntheticSource() throws IOException {
+        Settings settings = Settings.builder()
+            .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 1)
+            .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+            .build();
+        IndexMetadata metadata = IndexMetadata.builder("test").putMapping("""
+            { "_source": { "synthetic": true }, "properties": { "foo":  { "type": "keyword"}}}""")
+            .settings(settings)
+            .primaryTerm(0, 1)
+            .build();
+        IndexShard primary = newShard(new ShardId(metadata.getIndex(), 0), true, "n1", metadata, null);
+        recoverShardFromStore(primary);
+        LongSupplier translogInMemorySegmentCount = ((InternalEngine) primary.getEngine()).translogInMemorySegmentsCount::get;
+        indexDoc(primary, "test", "0", "{\"foo\" : [\"baz\", \"bar\", \"baz\"]}");
+        assertTrue(primary.getEngine().refreshNeeded());
+
+        // the same _source as after a refresh, not the one in the translog
+        GetResult get = primary.getService().getForUpdate("0", UNASSIGNED_SEQ_NO, UNASSIGNED_PRIMARY_TERM);
+        assertEquals(Map.of("foo", List.of("bar", "baz")), get.sourceAsMap());
+        assertEquals(0, translogInMemorySegmentCount.getAsLong());
+        try (Engine.Searcher searcher = primary.getEngine().acquireSearcher("test", Engine.SearcherScope.INTERNAL)) {
+            assertEquals(1, searcher.getIndexReader().maxDoc()); // we refreshed
+        }
+
+        closeShards(primary);
+    }
 }
@@ -54,9 +54,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
@@ -72,17 +75,72 @@ import java.util.stream.LongStream;
 
 import static java.util.Collections.emptyList;
 import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_SEQ_NO;
+import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Mockito.mock;
 
 public class PeerRecoveryTargetServiceTests extends IndexShardTestCase {
     private static final ByteSizeValue SNAPSHOT_FILE_PART_SIZE = new ByteSizeValue(Long.MAX_VALUE, ByteSizeUnit.BYTES);
 
+    public void testPartitionOperationsById() {
+        final int numDocs = between(1, 50);
+        final List<Translog.Operation> operations = new ArrayList<>();
+        final int numOps = between(0, 1000);
+        for (int seqNo = 0; seqNo < numOps; seqNo++) {
+            final String id = Integer.toString(between(0, numDocs - 1));
+            operations.add(switch (between(0, 2)) {
+                case 0 -> new Translog.Index(id, seqNo, 1, "{}".getBytes(StandardCharsets.UTF_8));
+                case 1 -> new Translog.Delete(id, seqNo, 1);
+                default -> new Translog.NoOp(seqNo, 1, "test");
+            });
+        }
+        final int maxPartitions = between(1, 4);
+        final List<List<Translog.Operation>> partitions = PeerRecoveryTargetService.partitionOperationsById(operations, maxPartitions);
+
+        assertThat(partitions.size(), lessThanOrEqualTo(Math.max(1, maxPartitions)));
+        if (operations.size() < PeerRecoveryTargetService.MIN_OPERATIONS_PER_PARTITION * 2) {
+            assertThat(partitions, equalTo(List.of(operations)));
+        }
+        final Map<String, Integer> partitionById = new HashMap<>();
+        final List<Translog.Operation> allOperations = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            final List<Translog.Operation> partition = partitions.get(i);
+            if (operations.isEmpty() == false) {
+                assertThat(partition, not(empty()));
+            }
+            for (int j = 0; j < partition.size(); j++) {
+                final Translog.Operation operation = partition.get(j);
+                if (j > 0) {
+                    assertThat("operations must keep their original order", operation.seqNo(), greaterThan(partition.get(j - 1).seqNo()));
+                }
+                final String id;
+                if (operation instanceof Translog.Index index) {
+                    id = index.id();
+                } else if (operation instanceof Translog.Delete delete) {
+                    id = delete.id();
+                } else {
+                    id = null;
+                }
+                if (id != null) {
+                    final Integer existing = partitionById.putIfAbsent(id, i);
+                    assertThat("all operations on [" + id + "] must be in the same partition", existing, anyOf(nullValue(), equalTo(i)));
+                }
+                allOperations.add(operation);
+            }
+        }
+        allOperations.sort(Comparator.comparingLong(Translog.Operation::seqNo));
+        assertThat(allOperations, equalTo(operations));
+    }
+
     public void testWriteFileChunksConcurrently() throws Exception {
         IndexShard sourceShard = newStartedShard(true);
         int numDocs = between(20, 100);
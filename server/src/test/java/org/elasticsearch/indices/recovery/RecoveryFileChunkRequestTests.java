@@ -0,0 +1,107 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.VersionUtils;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class RecoveryFileChunkRequestTests extends ESTestCase {
+
+    public void testSerialization() throws IOException {
+        final Version version = VersionUtils.randomCompatibleVersion(random(), Version.CURRENT);
+        final RecoveryFileChunkRequest outRequest = randomRequest();
+        try {
+            final BytesStreamOutput out = new BytesStreamOutput();
+            out.setVersion(version);
+            outRequest.writeTo(out);
+
+            final StreamInput in = out.bytes().streamInput();
+            in.setVersion(version);
+            final RecoveryFileChunkRequest inRequest = new RecoveryFileChunkRequest(in);
+            try {
+                assertThat(inRequest.recoveryId(), equalTo(outRequest.recoveryId()));
+                assertThat(inRequest.requestSeqNo(), equalTo(outRequest.requestSeqNo()));
+                assertThat(inRequest.shardId(), equalTo(outRequest.shardId()));
+                assertThat(inRequest.name(), equalTo(outRequest.name()));
+                assertThat(inRequest.position(), equalTo(outRequest.position()));
+                assertThat(inRequest.length(), equalTo(outRequest.length()));
+                assertThat(inRequest.metadata().checksum(), equalTo(outRequest.metadata().checksum()));
+                assertThat(inRequest.metadata().writtenBy(), equalTo(outRequest.metadata().writtenBy()));
+                assertThat(inRequest.content(), equalTo(outRequest.content()));
+                assertThat(inRequest.lastChunk(), equalTo(outRequest.lastChunk()));
+                assertThat(inRequest.totalTranslogOps(), equalTo(outRequest.totalTranslogOps()));
+                assertThat(inRequest.sourceThrottleTimeInNanos(), equalTo(outRequest.sourceThrottleTimeInNanos()));
+            } finally {
+                inRequest.decRef();
+            }
+        } finally {
+            outRequest.decRef();
+        }
+    }
+
+    public void testWriteWithoutTrailingBytes() throws IOException {
+        final Version version = VersionUtils.randomCompatibleVersion(random(), Version.CURRENT);
+        final RecoveryFileChunkRequest request = randomRequest();
+        try {
+            final BytesStreamOutput full = new BytesStreamOutput();
+            full.setVersion(version);
+            request.writeTo(full);
+
+            final BytesStreamOutput thin = new BytesStreamOutput();
+            thin.setVersion(version);
+            final BytesReference trailingBytes = request.writeWithoutTrailingBytes(thin);
+            if (version.onOrAfter(RecoveryFileChunkRequest.CONTENT_LAST_VERSION)) {
+                assertSame(request.content(), trailingBytes);
+            } else {
+                assertThat(trailingBytes.length(), equalTo(0));
+            }
+            assertThat(CompositeBytesReference.of(thin.bytes(), trailingBytes), equalTo(full.bytes()));
+        } finally {
+            request.decRef();
+        }
+    }
+
+    private static RecoveryFileChunkRequest randomRequest() {
+        final ReleasableBytesReference content = ReleasableBytesReference.wrap(new BytesArray(randomByteArrayOfLength(between(0, 1024))));
+        try {
+            final long position = randomNonNegativeLong() / 2;
+            return new RecoveryFileChunkRequest(
+                randomNonNegativeLong(),
+                randomNonNegativeLong(),
+                new ShardId(randomAlphaOfLength(10), randomAlphaOfLength(10), between(0, 10)),
+                new StoreFileMetadata(
+                    randomAlphaOfLength(10),
+                    position + content.length() + randomIntBetween(0, 1024),
+                    randomAlphaOfLength(8),
+                    org.apache.lucene.util.Version.LATEST.toString()
+                ),
+                position,
+                content,
+                randomBoolean(),
+                between(0, Integer.MAX_VALUE),
+                randomNonNegativeLong()
+            );
+        } finally {
+            content.decRef();
+        }
+    }
+}
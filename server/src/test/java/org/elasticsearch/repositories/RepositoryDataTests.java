@@ -67,6 +67,34 @@ public class RepositoryDataTests extends ESTestCase {
         );
     }
 
+    public void testIndicesToUpdateAfterRemovingSeveralSnapshots() {
+        final RepositoryData repositoryData = generateRandomRepoData();
+        final List<SnapshotId> removed = randomSubsetOf(repositoryData.getSnapshotIds());
+        final IndexId[] indicesToUpdate = repositoryData.getIndices().values().stream().filter(index -> {
+            final List<SnapshotId> snapshotIds = repositoryData.getSnapshots(index);
+            return snapshotIds.stream().anyMatch(removed::contains) && removed.containsAll(snapshotIds) == false;
+        }).toArray(IndexId[]::new);
+        assertThat(repositoryData.indicesToUpdateAfterRemovingSnapshot(removed), containsInAnyOrder(indicesToUpdate));
+    }
+
+    public void testIndexMetaDataGenerationsWithRemovedSnapshots() {
+        final IndexMetaDataGenerations generations = generateRandomRepoData().indexMetaDataGenerations();
+        final List<SnapshotId> removed = randomSubsetOf(generations.lookup.keySet());
+        final IndexMetaDataGenerations updated = generations.withRemovedSnapshots(removed);
+
+        final Map<SnapshotId, Map<IndexId, String>> expectedLookup = new HashMap<>(generations.lookup);
+        expectedLookup.keySet().removeAll(removed);
+        assertEquals(expectedLookup, updated.lookup);
+        // only the identifiers that a remaining snapshot still references are kept, with their blob ids
+        final Map<String, String> expectedIdentifiers = new HashMap<>();
+        for (Map<IndexId, String> indexLookup : expectedLookup.values()) {
+            for (String identifier : indexLookup.values()) {
+                expectedIdentifiers.put(identifier, generations.getIndexMetaBlobId(identifier));
+            }
+        }
+        assertEquals(expectedIdentifiers, updated.identifiers);
+    }
+
     public void testXContent() throws IOException {
         RepositoryData repositoryData = generateRandomRepoData().withClusterUuid(UUIDs.randomBase64UUID(random()));
         XContentBuilder builder = JsonXContent.contentBuilder();
@@ -17,6 +17,8 @@ import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Numbers;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.BlobPath;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
@@ -41,6 +43,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xcontent.NamedXContentRegistry;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -54,6 +57,7 @@ import static org.elasticsearch.repositories.RepositoryDataTests.generateRandomR
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
@@ -330,6 +334,32 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         snapshotDetailsAsserter.accept(PlainActionFuture.get(repository::getRepositoryData).getSnapshotDetails(snapshotId));
     }
 
+    public void testDeleteStaleShardBlobsInChunks() throws Exception {
+        final BlobStoreRepository repository = setupRepo();
+        final int numShards = randomIntBetween(1, 5);
+        final int numBlobs = randomIntBetween(1, 3) * BlobStoreRepository.STALE_BLOBS_DELETE_CHUNK_SIZE + randomIntBetween(1, 100);
+        final List<BlobContainer> shardContainers = new ArrayList<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            final BlobPath shardPath = repository.basePath().add("indices").add("idx").add(Integer.toString(shard));
+            shardContainers.add(repository.blobStore().blobContainer(shardPath));
+        }
+        final List<String> staleBlobs = new ArrayList<>(numBlobs);
+        for (int i = 0; i < numBlobs; i++) {
+            final int shard = i % numShards;
+            final String blobName = "__" + i;
+            shardContainers.get(shard).writeBlob(blobName, BytesArray.EMPTY, true);
+            staleBlobs.add("indices/idx/" + shard + "/" + blobName);
+        }
+
+        PlainActionFuture.<Void, Exception>get(
+            f -> repository.deleteStaleShardBlobs(List.of(new SnapshotId("snap", UUIDs.randomBase64UUID())), staleBlobs.iterator(), f)
+        );
+
+        for (BlobContainer shardContainer : shardContainers) {
+            assertThat(shardContainer.listBlobs().keySet(), empty());
+        }
+    }
+
     private static void writeIndexGen(BlobStoreRepository repository, RepositoryData repositoryData, long generation) throws Exception {
         PlainActionFuture.<RepositoryData, Exception>get(
             f -> repository.writeIndexGen(repositoryData, generation, Version.CURRENT, Function.identity(), f)
@@ -27,6 +27,7 @@ import org.elasticsearch.xcontent.XContentType;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -247,6 +248,40 @@ public class ScriptServiceTests extends ESTestCase {
         assertEquals(numberOfCompilations, scriptService.stats().getCompilations());
     }
 
+    public void testWarmCacheFromPersistedScripts() throws IOException {
+        buildScriptService(Settings.EMPTY);
+        int numberOfScripts = randomIntBetween(2, 20);
+        for (int i = 0; i < numberOfScripts; i++) {
+            scriptService.compile(
+                new Script(ScriptType.INLINE, "test", i + "+" + i, Collections.emptyMap()),
+                randomFrom(contexts.values())
+            );
+        }
+        Path dataPath = createTempDir();
+        new ScriptCacheWarmer(scriptService, dataPath).persist();
+
+        // warming doesn't count against the compilation rate limit
+        buildScriptService(Settings.builder().put(SCRIPT_GENERAL_MAX_COMPILATIONS_RATE_SETTING.getKey(), "1/1m").build());
+        new ScriptCacheWarmer(scriptService, dataPath).warm();
+        assertEquals(numberOfScripts, scriptService.stats().getCompilations());
+        assertEquals(numberOfScripts, scriptService.stats().getWarmedCompilations());
+        assertEquals(numberOfScripts, scriptService.cachedScripts().size());
+
+        // scripts that are already cached aren't compiled again
+        new ScriptCacheWarmer(scriptService, dataPath).warm();
+        assertEquals(numberOfScripts, scriptService.stats().getCompilations());
+    }
+
+    public void testWarmCacheSkipsDisallowedScripts() throws IOException {
+        buildScriptService(Settings.builder().put("script.allowed_types", "stored").build());
+        String context = randomFrom(contexts.keySet());
+        assertFalse(scriptService.warm(new ScriptCache.CachedScript("test", "1+1", "1+1", ScriptType.INLINE, context, Map.of())));
+        assertFalse(scriptService.warm(new ScriptCache.CachedScript("unknown", "1+1", "1+1", ScriptType.STORED, context, Map.of())));
+        assertFalse(scriptService.warm(new ScriptCache.CachedScript("test", "1+1", "1+1", ScriptType.STORED, "unknown", Map.of())));
+        assertTrue(scriptService.warm(new ScriptCache.CachedScript("test", "test1", "1+1", ScriptType.STORED, context, Map.of())));
+        assertEquals(1L, scriptService.stats().getWarmedCompilations());
+    }
+
     public void testCompilationGeneralStatsOnCacheHit() throws IOException {
         buildScriptService(Settings.EMPTY);
         Script script = new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap());
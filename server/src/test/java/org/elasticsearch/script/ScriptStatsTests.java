@@ -43,12 +43,16 @@ public class ScriptStatsTests extends ESTestCase {
                 "compilations" : 1100,
                 "cache_evictions" : 2211,
                 "compilation_limit_triggered" : 3322,
+                "compilation_time_in_millis" : 0,
+                "warmed_compilations" : 0,
                 "contexts" : [
                   {
                     "context" : "contextA",
                     "compilations" : 1000,
                     "cache_evictions" : 2010,
-                    "compilation_limit_triggered" : 3020
+                    "compilation_limit_triggered" : 3020,
+                    "compilation_time_in_millis" : 0,
+                    "warmed_compilations" : 0
                   },
                   {
                     "context" : "contextB",
@@ -64,7 +68,9 @@ public class ScriptStatsTests extends ESTestCase {
                       "15m" : 2001,
                       "24h" : 2002
                     },
-                    "compilation_limit_triggered" : 302
+                    "compilation_limit_triggered" : 302,
+                    "compilation_time_in_millis" : 0,
+                    "warmed_compilations" : 0
                   }
                 ]
               }
@@ -83,7 +89,9 @@ public class ScriptStatsTests extends ESTestCase {
               "context" : "c",
               "compilations" : 1111,
               "cache_evictions" : 2222,
-              "compilation_limit_triggered" : 3333
+              "compilation_limit_triggered" : 3333,
+              "compilation_time_in_millis" : 0,
+              "warmed_compilations" : 0
             }""";
 
         assertThat(Strings.toString(builder), equalTo(expected));
@@ -103,7 +111,9 @@ public class ScriptStatsTests extends ESTestCase {
                 "15m" : %s,
                 "24h" : %s
               },
-              "compilation_limit_triggered" : 3333
+              "compilation_limit_triggered" : 3333,
+              "compilation_time_in_millis" : 0,
+              "warmed_compilations" : 0
             }""";
 
         XContentBuilder builder = XContentFactory.jsonBuilder().prettyPrint();
@@ -164,6 +174,34 @@ public class ScriptStatsTests extends ESTestCase {
         assertEquals(stats.getCompilationLimitTriggered(), deserStats.getCompilationLimitTriggered());
         assertEquals(stats.getCompilationsHistory(), deserStats.getCompilationsHistory());
         assertEquals(stats.getCacheEvictionsHistory(), deserStats.getCacheEvictionsHistory());
+        assertEquals(0, deserStats.getCompilationTimeInNanos());
+        assertEquals(0, deserStats.getWarmedCompilations());
+
+        deserStats = serDeser(Version.V_8_3_0, Version.V_8_3_0, stats);
+        assertEquals(stats.getCompilations(), deserStats.getCompilations());
+        assertEquals(stats.getCompilationsHistory(), deserStats.getCompilationsHistory());
+        assertEquals(stats.getCompilationTimeInNanos(), deserStats.getCompilationTimeInNanos());
+        assertEquals(stats.getWarmedCompilations(), deserStats.getWarmedCompilations());
+    }
+
+    public void testCompilationTimeXContent() throws IOException {
+        ScriptContextStats stats = new ScriptContextStats("c", 0, new TimeSeries(10), new TimeSeries(0), 1_500_000_000L, 4);
+
+        XContentBuilder builder = XContentFactory.jsonBuilder().prettyPrint();
+        stats.toXContent(builder, ToXContent.EMPTY_PARAMS);
+
+        String expected = """
+            {
+              "context" : "c",
+              "compilations" : 10,
+              "cache_evictions" : 0,
+              "compilation_limit_triggered" : 0,
+              "compilation_time_in_millis" : 1500,
+              "warmed_compilations" : 4
+            }""";
+
+        assertThat(Strings.toString(builder), equalTo(expected));
+        assertThat(new ScriptStats(List.of(stats, stats)).getWarmedCompilations(), equalTo(8L));
     }
 
     public ScriptContextStats serDeser(Version outVersion, Version inVersion, ScriptContextStats stats) throws IOException {
@@ -190,6 +228,13 @@ public class ScriptStatsTests extends ESTestCase {
                 timeSeries.add(new TimeSeries(histStats[j]));
             }
         }
-        return new ScriptContextStats(randomAlphaOfLength(15), randomLongBetween(0, 1024), timeSeries.get(0), timeSeries.get(1));
+        return new ScriptContextStats(
+            randomAlphaOfLength(15),
+            randomLongBetween(0, 1024),
+            timeSeries.get(0),
+            timeSeries.get(1),
+            randomNonNegativeLong(),
+            randomLongBetween(0, histStats[0])
+        );
     }
 }
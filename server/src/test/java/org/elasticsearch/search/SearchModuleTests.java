@@ -440,6 +440,8 @@ public class SearchModuleTests extends ESTestCase {
         "geo_shape",
         "ids",
         "intervals",
+        "knn",
+        "knn_score_doc",
         "match",
         "match_all",
         "match_bool_prefix",
@@ -9,9 +9,14 @@
 package org.elasticsearch.search.aggregations;
 
 import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.common.breaker.CircuitBreaker;
@@ -31,6 +36,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -69,6 +75,10 @@ public class AggregatorBaseTests extends MapperServiceTestCase {
         return new BogusAggregator(context, parent).pointReaderIfAvailable(config);
     }
 
+    private PointRangeQuery pointRangeShim(AggregationContext context, Aggregator parent, ValuesSourceConfig config) throws IOException {
+        return new BogusAggregator(context, parent).pointRangeQueryIfAvailable(config);
+    }
+
     private Aggregator mockAggregator() {
         return mock(Aggregator.class);
     }
@@ -161,4 +171,22 @@ public class AggregatorBaseTests extends MapperServiceTestCase {
             );
         });
     }
+
+    public void testRangeShortcutIsApplicable() throws IOException {
+        MapperService mapperService = createMapperService(fieldMapping(b -> b.field("type", "keyword")));
+        withAggregationContext(mapperService, List.of(source(b -> b.field("field", "abc"))), context -> {
+            ValuesSourceConfig config = getVSConfig("number", NumberFieldMapper.NumberType.LONG, true, context);
+            Query range = LongPoint.newRangeQuery("number", 0, 10);
+            assertThat(pointRangeShim(context(range), null, config), sameInstance(range));
+            assertThat(pointRangeShim(context(new BoostQuery(new ConstantScoreQuery(range), 0f)), null, config), sameInstance(range));
+            Query indexOrDocValues = new IndexOrDocValuesQuery(range, SortedNumericDocValuesField.newSlowRangeQuery("number", 0, 10));
+            assertThat(pointRangeShim(context(indexOrDocValues), null, config), sameInstance(range));
+
+            assertNull(pointRangeShim(context(range), mockAggregator(), config));
+            assertNull(pointRangeShim(context(LongPoint.newRangeQuery("other", 0, 10)), null, config));
+            assertNull(pointRangeShim(context(new MatchAllDocsQuery()), null, config));
+            assertNull(pointRangeShim(context(new TermQuery(new Term("foo", "bar"))), null, config));
+            assertNull(pointRangeShim(context(range), null, getVSConfig("number", NumberFieldMapper.NumberType.LONG, false, context)));
+        });
+    }
 }
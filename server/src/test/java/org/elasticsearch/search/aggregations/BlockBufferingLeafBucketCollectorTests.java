@@ -0,0 +1,75 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class BlockBufferingLeafBucketCollectorTests extends ESTestCase {
+
+    private static class RecordingCollector extends LeafBucketCollector {
+        private final List<String> collected = new ArrayList<>();
+        private final List<Integer> blockSizes = new ArrayList<>();
+
+        @Override
+        public void collect(int doc, long owningBucketOrd) {
+            collected.add(doc + "@" + owningBucketOrd);
+        }
+
+        @Override
+        public void collect(int[] docs, int count, long owningBucketOrd) throws IOException {
+            blockSizes.add(count);
+            super.collect(docs, count, owningBucketOrd);
+        }
+    }
+
+    public void testCollectsEverythingInOrder() throws IOException {
+        RecordingCollector in = new RecordingCollector();
+        BlockBufferingLeafBucketCollector buffering = new BlockBufferingLeafBucketCollector(in);
+        List<String> expected = new ArrayList<>();
+        int numDocs = between(0, 5 * BlockBufferingLeafBucketCollector.BLOCK_SIZE);
+        int doc = 0;
+        for (int i = 0; i < numDocs; i++) {
+            doc += between(1, 10);
+            long bucket = rarely() ? between(1, 5) : 0;
+            buffering.collect(doc, bucket);
+            expected.add(doc + "@" + bucket);
+        }
+        buffering.flush();
+
+        assertThat(in.collected, equalTo(expected));
+        for (int blockSize : in.blockSizes) {
+            assertThat(blockSize, lessThanOrEqualTo(BlockBufferingLeafBucketCollector.BLOCK_SIZE));
+        }
+    }
+
+    public void testFullBlocks() throws IOException {
+        RecordingCollector in = new RecordingCollector();
+        BlockBufferingLeafBucketCollector buffering = new BlockBufferingLeafBucketCollector(in);
+        int blocks = between(1, 5);
+        int extra = between(1, BlockBufferingLeafBucketCollector.BLOCK_SIZE - 1);
+        for (int doc = 0; doc < blocks * BlockBufferingLeafBucketCollector.BLOCK_SIZE + extra; doc++) {
+            buffering.collect(doc, 0);
+        }
+        assertThat(in.blockSizes.size(), equalTo(blocks));
+        buffering.flush();
+        assertThat(in.blockSizes.size(), equalTo(blocks + 1));
+        assertThat(in.blockSizes.get(blocks), equalTo(extra));
+
+        // flushing an empty buffer doesn't collect anything
+        buffering.flush();
+        assertThat(in.blockSizes.size(), equalTo(blocks + 1));
+    }
+}
@@ -14,20 +14,29 @@ import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.time.DateFormatters;
 import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.BooleanFieldMapper;
 import org.elasticsearch.index.mapper.CustomTermFreqField;
 import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.index.mapper.DocCountFieldMapper;
 import org.elasticsearch.index.mapper.FieldNamesFieldMapper;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.AggregationReduceContext;
 import org.elasticsearch.search.aggregations.Aggregator;
@@ -37,18 +46,23 @@ import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator.PipelineTree;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.test.IndexSettingsModule;
 import org.hamcrest.Matcher;
 
 import java.io.IOException;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
+import static org.elasticsearch.test.InternalAggregationTestCase.DEFAULT_MAX_BUCKETS;
 import static org.elasticsearch.test.ListMatcher.matchesList;
 import static org.elasticsearch.test.MapMatcher.assertMap;
 import static org.elasticsearch.test.MapMatcher.matchesMap;
@@ -1002,6 +1016,122 @@ public class DateHistogramAggregatorTests extends DateHistogramAggregatorTestCas
         );
     }
 
+    /**
+     * An index sorted on the date counts the buckets from the index sort
+     * instead of running a range.
+     */
+    public void testCountsFromIndexSort() throws IOException {
+        boolean descending = randomBoolean();
+        DateFieldMapper.DateFieldType ft = aggregableDateFieldType(false, true);
+        IndexSettings indexSettings = IndexSettingsModule.newIndexSettings(
+            new Index("_index", "0"),
+            Settings.builder().put("index.sort.field", AGGREGABLE_DATE).put("index.sort.order", descending ? "desc" : "asc").build()
+        );
+        IndexWriterConfig config = newIndexWriterConfig().setIndexSort(
+            new Sort(new SortedNumericSortField(AGGREGABLE_DATE, SortField.Type.LONG, descending))
+        );
+        long start = asLong("2020-01-01T00:00:00");
+        long day = TimeUnit.DAYS.toMillis(1);
+        Query query;
+        Map<Long, Long> expected = new TreeMap<>();
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, config)) {
+            long lower = start + randomLongBetween(0, 30 * day);
+            long upper = randomLongBetween(lower, start + 30 * day);
+            query = randomBoolean() ? new MatchAllDocsQuery() : LongPoint.newRangeQuery(AGGREGABLE_DATE, lower, upper);
+            int numDocs = between(1, 5000);
+            for (int i = 0; i < numDocs; i++) {
+                long date = start + randomLongBetween(0, 30 * day);
+                writer.addDocument(List.of(new SortedNumericDocValuesField(AGGREGABLE_DATE, date), new LongPoint(AGGREGABLE_DATE, date)));
+                if (rarely()) {
+                    writer.commit();
+                }
+                if (query instanceof MatchAllDocsQuery || (date >= lower && date <= upper)) {
+                    expected.merge(date - (date - start) % day, 1L, Long::sum);
+                }
+            }
+            try (IndexReader reader = DirectoryReader.open(writer)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                DateHistogramAggregationBuilder builder = new DateHistogramAggregationBuilder("test").field(AGGREGABLE_DATE)
+                    .calendarInterval(DateHistogramInterval.DAY)
+                    .minDocCount(1);
+
+                AggregationContext context = createAggregationContext(
+                    searcher,
+                    indexSettings,
+                    query,
+                    new NoneCircuitBreakerService(),
+                    AggregationBuilder.DEFAULT_PREALLOCATION,
+                    DEFAULT_MAX_BUCKETS,
+                    false,
+                    ft
+                );
+                assertThat(createAggregator(builder, context), instanceOf(DateHistogramAggregator.class));
+
+                InternalDateHistogram result = searchAndReduce(indexSettings, searcher, query, builder, DEFAULT_MAX_BUCKETS, ft);
+                Map<Long, Long> actual = new TreeMap<>();
+                for (InternalDateHistogram.Bucket bucket : result.getBuckets()) {
+                    actual.put(((ZonedDateTime) bucket.getKey()).toInstant().toEpochMilli(), bucket.getDocCount());
+                }
+                assertThat(actual, equalTo(expected));
+            }
+        }
+    }
+
+    /**
+     * A range on a {@code date_nanos} field that is the index sort must count
+     * the same docs as collecting them even though the values of the field are
+     * read as milliseconds.
+     */
+    public void testDateNanosRangeOnIndexSort() throws IOException {
+        boolean descending = randomBoolean();
+        DateFieldMapper.DateFieldType ft = aggregableDateFieldType(true, true);
+        IndexSettings sortedIndexSettings = IndexSettingsModule.newIndexSettings(
+            new Index("_index", "0"),
+            Settings.builder().put("index.sort.field", AGGREGABLE_DATE).put("index.sort.order", descending ? "desc" : "asc").build()
+        );
+        IndexSettings unsortedIndexSettings = createIndexSettings();
+        IndexWriterConfig config = newIndexWriterConfig().setIndexSort(
+            new Sort(new SortedNumericSortField(AGGREGABLE_DATE, SortField.Type.LONG, descending))
+        );
+        long start = TimeUnit.MILLISECONDS.toNanos(asLong("2020-01-01T00:00:00"));
+        long range = TimeUnit.DAYS.toNanos(10);
+        long lower = start + randomLongBetween(0, range);
+        long upper = randomLongBetween(lower, start + range);
+        Query query = LongPoint.newRangeQuery(AGGREGABLE_DATE, lower, upper);
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, config)) {
+            int numDocs = between(1, 5000);
+            for (int i = 0; i < numDocs; i++) {
+                long date = switch (between(0, 4)) {
+                    // docs on either side of the bounds that fall into the same millisecond as the bound
+                    case 0 -> lower - between(0, (int) (lower % 1_000_000));
+                    case 1 -> upper + between(0, 999_999 - (int) (upper % 1_000_000));
+                    default -> start + randomLongBetween(0, range);
+                };
+                writer.addDocument(List.of(new SortedNumericDocValuesField(AGGREGABLE_DATE, date), new LongPoint(AGGREGABLE_DATE, date)));
+                if (rarely()) {
+                    writer.commit();
+                }
+            }
+            try (IndexReader reader = DirectoryReader.open(writer)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                DateHistogramAggregationBuilder builder = new DateHistogramAggregationBuilder("test").field(AGGREGABLE_DATE)
+                    .calendarInterval(DateHistogramInterval.HOUR)
+                    .minDocCount(1);
+                InternalDateHistogram sorted = searchAndReduce(sortedIndexSettings, searcher, query, builder, DEFAULT_MAX_BUCKETS, ft);
+                InternalDateHistogram collected = searchAndReduce(unsortedIndexSettings, searcher, query, builder, DEFAULT_MAX_BUCKETS, ft);
+                assertThat(bucketCounts(sorted), equalTo(bucketCounts(collected)));
+            }
+        }
+    }
+
+    private static Map<Long, Long> bucketCounts(InternalDateHistogram histogram) {
+        Map<Long, Long> counts = new TreeMap<>();
+        for (InternalDateHistogram.Bucket bucket : histogram.getBuckets()) {
+            counts.put(((ZonedDateTime) bucket.getKey()).toInstant().toEpochMilli(), bucket.getDocCount());
+        }
+        return counts;
+    }
+
     private void aggregationImplementationChoiceTestCase(
         DateFieldMapper.DateFieldType ft,
         List<String> data,
@@ -74,4 +74,26 @@ public class CompensatedSumTests extends ESTestCase {
 
         Assert.assertTrue(Double.isNaN(compensatedResult1.value()));
     }
+
+    public void testAddArrayMatchesAddingOneByOne() {
+        double[] values = new double[between(0, 1000)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (between(0, 20)) {
+                case 0 -> randomFrom(Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+                case 1 -> randomFrom(0.0, -0.0);
+                default -> randomDoubleBetween(-1e10, 1e10, true);
+            };
+        }
+        int count = between(0, values.length);
+        double start = randomDouble();
+
+        CompensatedSum oneByOne = new CompensatedSum(start, 0);
+        for (int i = 0; i < count; i++) {
+            oneByOne.add(values[i]);
+        }
+        CompensatedSum block = new CompensatedSum(start, 0).add(values, count);
+
+        Assert.assertEquals(oneByOne.value(), block.value(), 0.0);
+        Assert.assertEquals(oneByOne.delta(), block.delta(), 0.0);
+    }
 }
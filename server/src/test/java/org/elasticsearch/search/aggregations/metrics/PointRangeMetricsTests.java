@@ -0,0 +1,118 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations.metrics;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PointRangeMetricsTests extends ESTestCase {
+
+    public void testAgainstBruteForce() throws IOException {
+        // a single segment that keeps its deletes
+        IndexWriterConfig config = new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, config)) {
+            int numDocs = between(1, 5000);
+            long[] values = new long[numDocs];
+            boolean[] deleted = new boolean[numDocs];
+            List<Document> docs = new ArrayList<>();
+            for (int i = 0; i < numDocs; i++) {
+                values[i] = randomLongBetween(-1000, 1000);
+                Document doc = new Document();
+                doc.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+                doc.add(new LongPoint("number", values[i]));
+                docs.add(doc);
+            }
+            writer.addDocuments(docs);
+            if (randomBoolean()) {
+                for (int i = 0; i < numDocs; i++) {
+                    // keep the first doc so the segment sticks around
+                    if (i > 0 && rarely()) {
+                        deleted[i] = true;
+                        writer.deleteDocuments(new Term("id", Integer.toString(i)));
+                    }
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertThat(reader.leaves().size(), equalTo(1));
+                LeafReader leaf = reader.leaves().get(0).reader();
+                PointValues points = leaf.getPointValues("number");
+                assertTrue(PointRangeMetrics.isSingleValued(points));
+                for (int r = 0; r < 20; r++) {
+                    long lower = randomLongBetween(-1100, 1100);
+                    long upper = randomLongBetween(lower, 1100);
+                    PointRangeQuery range = (PointRangeQuery) LongPoint.newRangeQuery("number", lower, upper);
+
+                    Long expectedMin = null;
+                    Long expectedMax = null;
+                    long expectedCount = 0;
+                    for (int i = 0; i < numDocs; i++) {
+                        if (values[i] < lower || values[i] > upper) {
+                            continue;
+                        }
+                        // counting ignores deletes
+                        expectedCount++;
+                        if (deleted[i]) {
+                            continue;
+                        }
+                        expectedMin = expectedMin == null ? values[i] : Math.min(expectedMin, values[i]);
+                        expectedMax = expectedMax == null ? values[i] : Math.max(expectedMax, values[i]);
+                    }
+
+                    byte[] min = PointRangeMetrics.findMinValue(points, range, leaf.getLiveDocs());
+                    byte[] max = PointRangeMetrics.findMaxValue(points, range, leaf.getLiveDocs());
+                    if (expectedMin == null) {
+                        assertThat(min, nullValue());
+                        assertThat(max, nullValue());
+                    } else {
+                        // we only give up after too many deleted docs
+                        if (min != null || leaf.getLiveDocs() == null) {
+                            assertThat(LongPoint.decodeDimension(min, 0), equalTo(expectedMin));
+                        }
+                        if (max != null || leaf.getLiveDocs() == null) {
+                            assertThat(LongPoint.decodeDimension(max, 0), equalTo(expectedMax));
+                        }
+                    }
+                    assertThat(PointRangeMetrics.countValues(points, range), equalTo(expectedCount));
+                }
+            }
+        }
+    }
+
+    public void testMultiValued() throws IOException {
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+            Document doc = new Document();
+            doc.add(new LongPoint("number", 1));
+            doc.add(new LongPoint("number", 50));
+            writer.addDocument(doc);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                PointValues points = reader.leaves().get(0).reader().getPointValues("number");
+                assertFalse(PointRangeMetrics.isSingleValued(points));
+            }
+        }
+    }
+}
@@ -88,6 +88,7 @@ public class TimeSeriesCancellationTests extends ESTestCase {
         );
         TimeSeriesIndexSearcher timeSeriesIndexSearcher = new TimeSeriesIndexSearcher(
             searcher,
+            TimeSeriesIndexSearcherTests.tsidFieldData(),
             List.of(() -> { throw new TaskCancelledException("Cancel"); })
         );
         CountingBucketCollector bc = new CountingBucketCollector();
@@ -27,7 +27,10 @@ import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.search.aggregations.AggregationExecutionContext;
 import org.elasticsearch.search.aggregations.BucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
@@ -83,7 +86,7 @@ public class TimeSeriesIndexSearcherTests extends ESTestCase {
         IndexReader reader = DirectoryReader.open(dir);
         IndexSearcher searcher = new IndexSearcher(reader);
 
-        TimeSeriesIndexSearcher indexSearcher = new TimeSeriesIndexSearcher(searcher, List.of());
+        TimeSeriesIndexSearcher indexSearcher = new TimeSeriesIndexSearcher(searcher, tsidFieldData(), List.of());
 
         BucketCollector collector = getBucketCollector(THREADS * DOC_COUNTS);
 
@@ -147,7 +150,7 @@ public class TimeSeriesIndexSearcherTests extends ESTestCase {
         IndexReader reader = DirectoryReader.open(dir);
         IndexSearcher searcher = new IndexSearcher(reader);
 
-        TimeSeriesIndexSearcher indexSearcher = new TimeSeriesIndexSearcher(searcher, List.of());
+        TimeSeriesIndexSearcher indexSearcher = new TimeSeriesIndexSearcher(searcher, tsidFieldData(), List.of());
 
         BucketCollector collector = getBucketCollector(2 * DOC_COUNTS);
 
@@ -159,6 +162,12 @@ public class TimeSeriesIndexSearcherTests extends ESTestCase {
         dir.close();
     }
 
+    static IndexOrdinalsFieldData tsidFieldData() {
+        return (IndexOrdinalsFieldData) TimeSeriesIdFieldMapper.FIELD_TYPE.fielddataBuilder("test", () -> {
+            throw new UnsupportedOperationException();
+        }).build(new IndexFieldDataCache.None(), new NoneCircuitBreakerService());
+    }
+
     private RandomIndexWriter getIndexWriter(Directory dir) throws IOException {
 
         IndexWriterConfig iwc = newIndexWriterConfig();
@@ -178,6 +187,7 @@ public class TimeSeriesIndexSearcherTests extends ESTestCase {
             boolean tsidReverse = TIME_SERIES_SORT[0].getOrder() == SortOrder.DESC;
             boolean timestampReverse = TIME_SERIES_SORT[1].getOrder() == SortOrder.DESC;
             BytesRef currentTSID = null;
+            long currentTsidOrd = -1;
             long currentTimestamp = 0;
             long total = 0;
 
@@ -198,8 +208,13 @@ public class TimeSeriesIndexSearcherTests extends ESTestCase {
                         long latestTimestamp = timestamp.longValue();
                         assertEquals(latestTSID, aggCtx.getTsid());
                         assertEquals(latestTimestamp, aggCtx.getTimestamp().longValue());
+                        long latestTsidOrd = aggCtx.getTsidOrd();
+                        assertTrue(latestTsidOrd >= 0);
 
                         if (currentTSID != null) {
+                            // ordinals are shared across segments and follow the order of the tsids
+                            assertEquals(latestTSID.equals(currentTSID), latestTsidOrd == currentTsidOrd);
+                            assertTrue(tsidReverse ? latestTsidOrd <= currentTsidOrd : latestTsidOrd >= currentTsidOrd);
                             assertTrue(
                                 currentTSID + "->" + latestTSID.utf8ToString(),
                                 tsidReverse ? latestTSID.compareTo(currentTSID) <= 0 : latestTSID.compareTo(currentTSID) >= 0
@@ -213,6 +228,7 @@ public class TimeSeriesIndexSearcherTests extends ESTestCase {
                         }
                         currentTimestamp = latestTimestamp;
                         currentTSID = BytesRef.deepCopyOf(latestTSID);
+                        currentTsidOrd = latestTsidOrd;
                         total++;
                     }
                 };
@@ -19,8 +19,11 @@ import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
@@ -96,6 +99,34 @@ public class LeafDocLookupTests extends ESTestCase {
         assertEquals(docValues2, docLookup.get("flattened.key2"));
     }
 
+    public void testLoadsValuesOncePerDocument() throws IOException {
+        List<Integer> loadedDocs = new ArrayList<>();
+        DelegateDocValuesField field = new DelegateDocValuesField(docValues, "field") {
+            @Override
+            public void setNextDocId(int id) {
+                loadedDocs.add(id);
+            }
+        };
+        LeafFieldData leafFieldData = mock(LeafFieldData.class);
+        doReturn(field).when(leafFieldData).getScriptFieldFactory("field");
+        IndexFieldData<?> fieldData = mock(IndexFieldData.class);
+        doReturn(leafFieldData).when(fieldData).load(any());
+        MappedFieldType fieldType = mock(MappedFieldType.class);
+        LeafDocLookup docLookup = new LeafDocLookup(name -> name.equals("field") ? fieldType : null, ft -> fieldData, null);
+
+        docLookup.setDocument(0);
+        docLookup.get("field");
+        docLookup.get("field");
+        docLookup.getScriptField("field");
+        assertThat(loadedDocs, equalTo(List.of(0)));
+
+        docLookup.setDocument(3);
+        docLookup.get("field");
+        docLookup.setDocument(3);
+        docLookup.get("field");
+        assertThat(loadedDocs, equalTo(List.of(0, 3)));
+    }
+
     private IndexFieldData<?> createFieldData(ScriptDocValues<?> scriptDocValues, String name) throws IOException {
         DelegateDocValuesField delegateDocValuesField = new DelegateDocValuesField(scriptDocValues, name) {
             @Override
@@ -16,7 +16,9 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.FilterWeight;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.LRUQueryCache;
 import org.apache.lucene.search.LeafCollector;
@@ -45,6 +47,7 @@ import org.junit.BeforeClass;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
@@ -220,6 +223,62 @@ public class QueryProfilerTests extends ESTestCase {
         assertThat(profileCollector.getTime(), greaterThan(time));
     }
 
+    public void testDebugInfo() throws IOException {
+        QueryProfiler profiler = new QueryProfiler();
+        searcher.setProfiler(profiler);
+        searcher.search(new DebugInfoQuery(new TermQuery(new Term("foo", "bar"))), 1);
+        List<ProfileResult> results = profiler.getTree();
+        assertEquals(1, results.size());
+        assertThat(results.get(0).getDebugInfo(), equalTo(Map.of("wrapped", "foo:bar")));
+        assertThat(results.get(0).getProfiledChildren().size(), equalTo(1));
+    }
+
+    /**
+     * Wraps a query and reports it in the profile's debug info.
+     */
+    private static class DebugInfoQuery extends Query {
+        private final Query query;
+
+        DebugInfoQuery(Query query) {
+            this.query = query;
+        }
+
+        @Override
+        public String toString(String field) {
+            return getClass().getSimpleName();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return sameClassAs(obj) && query.equals(((DebugInfoQuery) obj).query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * classHash() + query.hashCode();
+        }
+
+        @Override
+        public void visit(QueryVisitor visitor) {
+            query.visit(visitor.getSubVisitor(BooleanClause.Occur.MUST, this));
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+            class DebugWeight extends FilterWeight implements DebugInfoWeight {
+                DebugWeight(Weight weight) {
+                    super(DebugInfoQuery.this, weight);
+                }
+
+                @Override
+                public void collectDebugInfo(BiConsumer<String, Object> add) {
+                    add.accept("wrapped", query.toString());
+                }
+            }
+            return new DebugWeight(searcher.createWeight(query, scoreMode, boost));
+        }
+    }
+
     private static class DummyQuery extends Query {
 
         @Override
@@ -0,0 +1,156 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.test.AbstractSerializingTestCase;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+public class KnnSearchBuilderTests extends AbstractSerializingTestCase<KnnSearchBuilder> {
+    private NamedWriteableRegistry namedWriteableRegistry;
+    private NamedXContentRegistry namedXContentRegistry;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        SearchModule searchModule = new SearchModule(Settings.EMPTY, emptyList());
+        namedWriteableRegistry = new NamedWriteableRegistry(searchModule.getNamedWriteables());
+        namedXContentRegistry = new NamedXContentRegistry(searchModule.getNamedXContents());
+    }
+
+    @Override
+    protected NamedWriteableRegistry getNamedWriteableRegistry() {
+        return namedWriteableRegistry;
+    }
+
+    @Override
+    protected NamedXContentRegistry xContentRegistry() {
+        return namedXContentRegistry;
+    }
+
+    @Override
+    protected KnnSearchBuilder doParseInstance(XContentParser parser) throws IOException {
+        return KnnSearchBuilder.fromXContent(parser);
+    }
+
+    @Override
+    protected Writeable.Reader<KnnSearchBuilder> instanceReader() {
+        return KnnSearchBuilder::new;
+    }
+
+    @Override
+    protected KnnSearchBuilder createTestInstance() {
+        String field = randomAlphaOfLength(6);
+        int dim = randomIntBetween(2, 30);
+        float[] vector = randomVector(dim);
+        int k = randomIntBetween(1, 100);
+        int numCands = randomIntBetween(k, 1000);
+        KnnSearchBuilder builder = new KnnSearchBuilder(field, vector, k, numCands);
+        if (randomBoolean()) {
+            builder.boost(randomFloat());
+        }
+        int numFilters = randomIntBetween(0, 3);
+        for (int i = 0; i < numFilters; i++) {
+            builder.addFilterQuery(QueryBuilders.termQuery(randomAlphaOfLength(5), randomAlphaOfLength(10)));
+        }
+        return builder;
+    }
+
+    @Override
+    protected KnnSearchBuilder mutateInstance(KnnSearchBuilder instance) {
+        return switch (random().nextInt(6)) {
+            case 0 -> new KnnSearchBuilder(instance.field() + "x", instance.queryVector(), instance.k(), instance.numCands()).boost(
+                instance.boost()
+            ).addFilterQueries(instance.filterQueries());
+            case 1 -> new KnnSearchBuilder(
+                instance.field(),
+                randomVector(instance.queryVector().length + 1),
+                instance.k(),
+                instance.numCands()
+            ).boost(instance.boost()).addFilterQueries(instance.filterQueries());
+            case 2 -> new KnnSearchBuilder(instance.field(), instance.queryVector(), instance.k() + 1, instance.numCands() + 1).boost(
+                instance.boost()
+            ).addFilterQueries(instance.filterQueries());
+            case 3 -> new KnnSearchBuilder(instance.field(), instance.queryVector(), instance.k(), instance.numCands() + 1).boost(
+                instance.boost()
+            ).addFilterQueries(instance.filterQueries());
+            case 4 -> {
+                List<QueryBuilder> filters = new ArrayList<>(instance.filterQueries());
+                filters.add(QueryBuilders.termQuery("new_field", "new-value"));
+                yield new KnnSearchBuilder(instance.field(), instance.queryVector(), instance.k(), instance.numCands()).boost(
+                    instance.boost()
+                ).addFilterQueries(filters);
+            }
+            case 5 -> new KnnSearchBuilder(instance.field(), instance.queryVector(), instance.k(), instance.numCands()).boost(
+                instance.boost() + 1.0f
+            ).addFilterQueries(instance.filterQueries());
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    public void testInvalidK() {
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> new KnnSearchBuilder("field", randomVector(3), 0, 100)
+        );
+        assertThat(e.getMessage(), containsString("[k] must be greater than 0"));
+    }
+
+    public void testNumCandsLessThanK() {
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> new KnnSearchBuilder("field", randomVector(3), 50, 10)
+        );
+        assertThat(e.getMessage(), containsString("[num_candidates] cannot be less than [k]"));
+    }
+
+    public void testNumCandsExceedsLimit() {
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> new KnnSearchBuilder("field", randomVector(3), 100, 10002)
+        );
+        assertThat(e.getMessage(), containsString("[num_candidates] cannot exceed [10000]"));
+    }
+
+    public void testToQueryBuilder() {
+        String field = randomAlphaOfLength(6);
+        float[] vector = randomVector(randomIntBetween(2, 30));
+        int k = randomIntBetween(1, 100);
+        int numCands = randomIntBetween(k, 1000);
+        KnnSearchBuilder builder = new KnnSearchBuilder(field, vector, k, numCands);
+        TermQueryBuilder filter = QueryBuilders.termQuery(randomAlphaOfLength(5), randomAlphaOfLength(10));
+        builder.addFilterQuery(filter);
+
+        KnnVectorQueryBuilder expected = new KnnVectorQueryBuilder(field, vector, numCands).addFilterQuery(filter);
+        assertThat(builder.toQueryBuilder(), equalTo(expected));
+    }
+
+    private static float[] randomVector(int dim) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
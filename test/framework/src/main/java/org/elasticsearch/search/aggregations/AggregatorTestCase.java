@@ -71,6 +71,7 @@ import org.elasticsearch.index.cache.bitset.BitsetFilterCache;
 import org.elasticsearch.index.cache.query.DisabledQueryCache;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.mapper.BinaryFieldMapper;
 import org.elasticsearch.index.mapper.CompletionFieldMapper;
 import org.elasticsearch.index.mapper.DataStreamTimestampFieldMapper;
@@ -536,6 +537,12 @@ public abstract class AggregatorTestCase extends ESTestCase {
         );
     }
 
+    private static IndexOrdinalsFieldData tsidFieldData() {
+        return (IndexOrdinalsFieldData) TimeSeriesIdFieldMapper.FIELD_TYPE.fielddataBuilder("test", () -> {
+            throw new UnsupportedOperationException();
+        }).build(new IndexFieldDataCache.None(), new NoneCircuitBreakerService());
+    }
+
     @SuppressWarnings("unchecked")
     private <A extends InternalAggregation, C extends Aggregator> A searchAndReduce(
         IndexSettings indexSettings,
@@ -579,7 +586,7 @@ public abstract class AggregatorTestCase extends ESTestCase {
                 C a = createAggregator(builder, context);
                 a.preCollection();
                 if (context.isInSortOrderExecutionRequired()) {
-                    new TimeSeriesIndexSearcher(subSearcher, List.of()).search(rewritten, a);
+                    new TimeSeriesIndexSearcher(subSearcher, tsidFieldData(), List.of()).search(rewritten, a);
                 } else {
                     Weight weight = subSearcher.createWeight(rewritten, ScoreMode.COMPLETE, 1f);
                     subSearcher.search(weight, a);
@@ -590,7 +597,10 @@ public abstract class AggregatorTestCase extends ESTestCase {
         } else {
             root.preCollection();
             if (context.isInSortOrderExecutionRequired()) {
-                new TimeSeriesIndexSearcher(searcher, List.of()).search(rewritten, MultiBucketCollector.wrap(true, List.of(root)));
+                new TimeSeriesIndexSearcher(searcher, tsidFieldData(), List.of()).search(
+                    rewritten,
+                    MultiBucketCollector.wrap(true, List.of(root))
+                );
             } else {
                 searcher.search(rewritten, MultiBucketCollector.wrap(true, List.of(root)));
             }
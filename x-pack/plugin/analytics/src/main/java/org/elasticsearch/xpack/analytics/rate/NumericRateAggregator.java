@@ -10,6 +10,8 @@ package org.elasticsearch.xpack.analytics.rate;
 import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.common.Rounding;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.search.aggregations.AggregationExecutionContext;
+import org.elasticsearch.search.aggregations.AggregationExecutionException;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
@@ -26,6 +28,16 @@ public class NumericRateAggregator extends AbstractRateAggregator {
 
     private final DocCountProvider docCountProvider;
 
+    /*
+     * State of the [counter] mode. Samples of a time series arrive one after the other, but may come from different segments,
+     * so the increase is accumulated here and only added to the bucket when the time series or the bucket changes.
+     */
+    private long counterTsidOrd = -1;
+    private long counterBucket = -1;
+    private long counterTimestamp;
+    private double counterValue;
+    private double counterIncrease;
+
     public NumericRateAggregator(
         String name,
         ValuesSourceConfig valuesSourceConfig,
@@ -39,6 +51,69 @@ public class NumericRateAggregator extends AbstractRateAggregator {
         docCountProvider = computeWithDocCount ? new DocCountProvider() : null;
     }
 
+    @Override
+    protected LeafBucketCollector getLeafCollector(LeafReaderContext ctx, LeafBucketCollector sub, AggregationExecutionContext aggCtx)
+        throws IOException {
+        if (rateMode != RateMode.COUNTER) {
+            return getLeafCollector(ctx, sub);
+        }
+        final SortedNumericDoubleValues values = ((ValuesSource.Numeric) valuesSource).doubleValues(ctx);
+        return new LeafBucketCollectorBase(sub, values) {
+            @Override
+            public void collect(int doc, long bucket) throws IOException {
+                if (values.advanceExact(doc) == false) {
+                    return;
+                }
+                long tsidOrd = aggCtx.getTsidOrd();
+                if (tsidOrd == -1) {
+                    throw new AggregationExecutionException(
+                        "The ["
+                            + RateMode.COUNTER.value()
+                            + "] mode of the rate aggregation is only supported inside a time series aggregation"
+                    );
+                }
+                // a counter has a single value per sample, if there are more take the largest
+                double value = values.nextValue();
+                for (int i = 1; i < values.docValueCount(); i++) {
+                    value = values.nextValue();
+                }
+                long timestamp = aggCtx.getTimestamp();
+                if (tsidOrd == counterTsidOrd && bucket == counterBucket) {
+                    double earlier = timestamp < counterTimestamp ? value : counterValue;
+                    double later = timestamp < counterTimestamp ? counterValue : value;
+                    // a counter that went down was reset to zero in between
+                    counterIncrease += later >= earlier ? later - earlier : later;
+                } else {
+                    flushCounter();
+                    counterTsidOrd = tsidOrd;
+                    counterBucket = bucket;
+                }
+                counterTimestamp = timestamp;
+                counterValue = value;
+            }
+        };
+    }
+
+    @Override
+    protected void doPostCollection() throws IOException {
+        flushCounter();
+    }
+
+    private void flushCounter() {
+        if (counterBucket < 0) {
+            return;
+        }
+        sums = bigArrays().grow(sums, counterBucket + 1);
+        compensations = bigArrays().grow(compensations, counterBucket + 1);
+        CompensatedSum kahanSummation = new CompensatedSum(sums.get(counterBucket), compensations.get(counterBucket));
+        kahanSummation.add(counterIncrease);
+        compensations.set(counterBucket, kahanSummation.delta());
+        sums.set(counterBucket, kahanSummation.value());
+        counterTsidOrd = -1;
+        counterBucket = -1;
+        counterIncrease = 0;
+    }
+
     @Override
     public LeafBucketCollector getLeafCollector(LeafReaderContext ctx, final LeafBucketCollector sub) throws IOException {
         final CompensatedSum kahanSummation = new CompensatedSum(0, 0);
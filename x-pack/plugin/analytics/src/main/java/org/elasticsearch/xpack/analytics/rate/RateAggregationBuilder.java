@@ -110,6 +110,11 @@ public class RateAggregationBuilder extends ValuesSourceAggregationBuilder.Singl
             out.writeByte((byte) 0);
         }
         if (out.getVersion().onOrAfter(Version.V_7_11_0)) {
+            if (rateMode == RateMode.COUNTER && out.getVersion().before(Version.V_8_3_0)) {
+                throw new IllegalArgumentException(
+                    "[" + MODE_FIELD.getPreferredName() + "] [" + rateMode.value() + "] is not supported on versions before 8.3.0"
+                );
+            }
             if (rateMode != null) {
                 out.writeBoolean(true);
                 out.writeEnum(rateMode);
@@ -136,6 +141,9 @@ public class RateAggregationBuilder extends ValuesSourceAggregationBuilder.Singl
                 throw new IllegalArgumentException("The mode parameter is only supported with field or script");
             }
         }
+        if (rateMode == RateMode.COUNTER && config.valueSourceType() != CoreValuesSourceType.NUMERIC) {
+            throw new IllegalArgumentException("The [" + rateMode.value() + "] mode is only supported on numeric fields");
+        }
 
         RateAggregatorSupplier aggregatorSupplier = context.getValuesSourceRegistry().getAggregator(REGISTRY_KEY, config);
         return new RateAggregatorFactory(
@@ -9,11 +9,16 @@ package org.elasticsearch.xpack.analytics.rate;
 import java.util.Locale;
 
 /**
- * Rate mode - value_count or sum
+ * Rate mode - value_count, sum or counter
  */
 public enum RateMode {
     VALUE_COUNT,
-    SUM;
+    SUM,
+    /**
+     * The increase of a monotonic counter between the samples of each time series, restarting from zero when the counter
+     * resets. Only supported inside a {@code time_series} aggregation.
+     */
+    COUNTER;
 
     public static RateMode resolve(String name) {
         return RateMode.valueOf(name.toUpperCase(Locale.ROOT));
@@ -11,6 +11,7 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
@@ -25,10 +26,12 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.core.CheckedConsumer;
 import org.elasticsearch.index.fielddata.ScriptDocValues;
 import org.elasticsearch.index.mapper.CustomTermFreqField;
+import org.elasticsearch.index.mapper.DataStreamTimestampFieldMapper;
 import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.index.mapper.KeywordFieldMapper;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
 import org.elasticsearch.plugins.SearchPlugin;
 import org.elasticsearch.script.MockScriptEngine;
 import org.elasticsearch.script.Script;
@@ -52,6 +55,8 @@ import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInter
 import org.elasticsearch.search.aggregations.bucket.histogram.InternalDateHistogram;
 import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.timeseries.InternalTimeSeries;
+import org.elasticsearch.search.aggregations.timeseries.TimeSeriesAggregationBuilder;
 import org.elasticsearch.search.lookup.LeafDocLookup;
 import org.elasticsearch.xpack.analytics.AnalyticsPlugin;
 import org.elasticsearch.xpack.analytics.mapper.HistogramFieldMapper;
@@ -860,6 +865,82 @@ public class RateAggregatorTests extends AggregatorTestCase {
         assertEquals("The mode parameter is only supported with field or script", ex.getMessage());
     }
 
+    public void testCounterInTimeSeries() throws IOException {
+        RateAggregationBuilder rateAggregationBuilder = new RateAggregationBuilder("counter_rate").field("val")
+            .rateUnit("hour")
+            .rateMode("counter");
+        DateHistogramAggregationBuilder dateHistogramAggregationBuilder = new DateHistogramAggregationBuilder("date").field("@timestamp")
+            .fixedInterval(new DateHistogramInterval("1h"))
+            .subAggregation(rateAggregationBuilder);
+        TimeSeriesAggregationBuilder timeSeriesAggregationBuilder = new TimeSeriesAggregationBuilder("ts").subAggregation(
+            dateHistogramAggregationBuilder
+        );
+        long start = dateFieldType(DATE_FIELD).parse("2022-04-01T00:00:00");
+        long minute = 60_000;
+
+        testCase(timeSeriesAggregationBuilder, new MatchAllDocsQuery(), iw -> {
+            // increases by 10, resets and reaches 5, increases by 10
+            iw.addDocument(timeSeriesDoc("a", start, 10));
+            iw.addDocument(timeSeriesDoc("a", start + 10 * minute, 20));
+            iw.addDocument(timeSeriesDoc("a", start + 20 * minute, 5));
+            iw.addDocument(timeSeriesDoc("a", start + 30 * minute, 15));
+            // the second hour only has a single sample
+            iw.addDocument(timeSeriesDoc("a", start + 70 * minute, 30));
+            iw.addDocument(timeSeriesDoc("b", start, 100));
+            iw.addDocument(timeSeriesDoc("b", start + 30 * minute, 160));
+            // samples of a series are read one after the other, even across segments, but every sub-searcher of the
+            // test would start from scratch
+            iw.forceMerge(1);
+        }, (InternalTimeSeries ts) -> {
+            assertThat(ts.getBuckets(), hasSize(2));
+            InternalDateHistogram a = ts.getBucketByKey("{dim=a}").getAggregations().get("date");
+            assertThat(a.getBuckets(), hasSize(2));
+            assertThat(((InternalRate) a.getBuckets().get(0).getAggregations().get("counter_rate")).value(), closeTo(25.0, 0.000001));
+            assertThat(((InternalRate) a.getBuckets().get(1).getAggregations().get("counter_rate")).value(), closeTo(0.0, 0.000001));
+            InternalDateHistogram b = ts.getBucketByKey("{dim=b}").getAggregations().get("date");
+            assertThat(b.getBuckets(), hasSize(1));
+            assertThat(((InternalRate) b.getBuckets().get(0).getAggregations().get("counter_rate")).value(), closeTo(60.0, 0.000001));
+        },
+            TimeSeriesIdFieldMapper.FIELD_TYPE,
+            new DateFieldMapper.DateFieldType("@timestamp"),
+            new NumberFieldMapper.NumberFieldType("val", NumberFieldMapper.NumberType.LONG)
+        );
+    }
+
+    public void testCounterOutsideOfTimeSeries() {
+        MappedFieldType dateType = dateFieldType(DATE_FIELD);
+        MappedFieldType numType = new NumberFieldMapper.NumberFieldType("val", NumberFieldMapper.NumberType.INTEGER);
+        RateAggregationBuilder rateAggregationBuilder = new RateAggregationBuilder("my_rate").field("val").rateMode("counter");
+
+        AbstractAggregationBuilder<?> dateHistogramAggregationBuilder = randomValidMultiBucketAggBuilder(
+            rateAggregationBuilder,
+            new DateHistogramInterval("month")
+        );
+
+        AggregationExecutionException ex = expectThrows(
+            AggregationExecutionException.class,
+            () -> testCase(
+                dateHistogramAggregationBuilder,
+                new MatchAllDocsQuery(),
+                iw -> { iw.addDocument(doc("2010-03-12T01:07:45", new SortedNumericDocValuesField("val", 1))); },
+                h -> { fail("Shouldn't be here"); },
+                dateType,
+                numType
+            )
+        );
+        assertEquals("The [counter] mode of the rate aggregation is only supported inside a time series aggregation", ex.getMessage());
+    }
+
+    private static Iterable<IndexableField> timeSeriesDoc(String dim, long timestamp, long value) {
+        TimeSeriesIdFieldMapper.TimeSeriesIdBuilder tsid = new TimeSeriesIdFieldMapper.TimeSeriesIdBuilder();
+        tsid.addString("dim", dim);
+        return List.of(
+            new SortedDocValuesField(TimeSeriesIdFieldMapper.NAME, tsid.build().toBytesRef()),
+            new SortedNumericDocValuesField(DataStreamTimestampFieldMapper.DEFAULT_PATH, timestamp),
+            new SortedNumericDocValuesField("val", value)
+        );
+    }
+
     public void testWithCustomDocCount() throws IOException {
         testCase(new MatchAllDocsQuery(), "month", true, "month", null, iw -> {
             iw.addDocument(doc("2010-03-12T01:07:45", new CustomTermFreqField("_doc_count", "_doc_count", 10)));
@@ -15,6 +15,7 @@ import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.ScoreMode;
@@ -23,6 +24,7 @@ import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
 import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkItemResponse;
@@ -40,18 +42,26 @@ import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.IndexMode;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.fielddata.FormattedDocValues;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.DataStreamTimestampFieldMapper;
 import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.index.mapper.DocCountFieldMapper;
 import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.AggregationExecutionContext;
+import org.elasticsearch.search.aggregations.BucketCollector;
+import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.timeseries.TimeSeriesIndexSearcher;
 import org.elasticsearch.xpack.core.rollup.RollupActionConfig;
 import org.elasticsearch.xpack.core.rollup.RollupActionDateHistogramGroupConfig;
 import org.elasticsearch.xpack.core.rollup.job.HistogramGroupConfig;
@@ -77,7 +87,8 @@ import java.util.stream.Collectors;
 
 /**
  * An indexer for rollup that sorts the buckets from the provided source shard on disk and send them
- * to the target rollup index.
+ * to the target rollup index. Shards of time series indices that are grouped by exactly their dimensions
+ * are already sorted by bucket so they are rolled up in a single pass over the shard without sorting.
  */
 class RollupShardIndexer {
     private static final Logger logger = LogManager.getLogger(RollupShardIndexer.class);
@@ -97,6 +108,7 @@ class RollupShardIndexer {
     private final List<FieldValueFetcher> groupFieldFetchers;
     private final List<FieldValueFetcher> metricsFieldFetchers;
 
+    private final boolean timeSeriesOrdered;
     private final CompressingOfflineSorter sorter;
 
     private final BulkProcessor bulkProcessor;
@@ -176,7 +188,8 @@ class RollupShardIndexer {
                 this.metricsFieldFetchers = Collections.emptyList();
             }
 
-            this.sorter = new CompressingOfflineSorter(dir, "rollup-", keyComparator(), ramBufferSizeMB);
+            this.timeSeriesOrdered = isTimeSeriesOrdered(indexService.getIndexSettings().getMode(), config, searchExecutionContext);
+            this.sorter = timeSeriesOrdered ? null : new CompressingOfflineSorter(dir, "rollup-", keyComparator(), ramBufferSizeMB);
             toClose = null;
         } finally {
             IOUtils.closeWhileHandlingException(toClose);
@@ -197,12 +210,47 @@ class RollupShardIndexer {
         }
     }
 
+    /**
+     * Documents in time series indices are sorted by {@code _tsid} and then {@code @timestamp} so if the rollup groups
+     * by {@code @timestamp} and all the dimensions, and nothing else, then all documents of a bucket are adjacent.
+     */
+    private static boolean isTimeSeriesOrdered(IndexMode mode, RollupActionConfig config, SearchExecutionContext context) {
+        if (mode != IndexMode.TIME_SERIES) {
+            return false;
+        }
+        if (config.getGroupConfig().getDateHistogram().getField().equals(DataStreamTimestampFieldMapper.DEFAULT_PATH) == false) {
+            return false;
+        }
+        if (config.getGroupConfig().getHistogram() != null) {
+            return false;
+        }
+        Set<String> dimensions = new HashSet<>();
+        for (String field : context.getMatchingFieldNames("*")) {
+            if (context.getFieldType(field).isDimension()) {
+                dimensions.add(field);
+            }
+        }
+        TermsGroupConfig terms = config.getGroupConfig().getTerms();
+        Set<String> groupFields = terms == null ? Set.of() : new HashSet<>(Arrays.asList(terms.getFields()));
+        return dimensions.equals(groupFields);
+    }
+
     public long execute() throws IOException {
-        Long bucket = Long.MIN_VALUE;
         try (searcher; bulkProcessor) {
-            do {
-                bucket = computeBucket(bucket);
-            } while (bucket != null);
+            if (timeSeriesOrdered) {
+                TimeSeriesBucketCollector collector = new TimeSeriesBucketCollector();
+                collector.preCollection();
+                IndexOrdinalsFieldData tsidFieldData = searchExecutionContext.getForField(
+                    searchExecutionContext.getFieldType(TimeSeriesIdFieldMapper.NAME)
+                );
+                new TimeSeriesIndexSearcher(searcher, tsidFieldData, List.of()).search(new MatchAllDocsQuery(), collector);
+                collector.postCollection();
+            } else {
+                Long bucket = Long.MIN_VALUE;
+                do {
+                    bucket = computeBucket(bucket);
+                } while (bucket != null);
+            }
         }
         // TODO: check that numIndexed == numSent, otherwise throw an exception
         logger.info("Successfully sent [" + numIndexed.get() + "], indexed [" + numIndexed.get() + "]");
@@ -487,12 +535,78 @@ class RollupShardIndexer {
             };
         }
 
-        private List<FormattedDocValues> leafFetchers(LeafReaderContext context, List<FieldValueFetcher> fetchers) {
-            List<FormattedDocValues> leaves = new ArrayList<>();
-            for (FieldValueFetcher fetcher : fetchers) {
-                leaves.add(fetcher.getLeaf(context));
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+    }
+
+    /**
+     * Rolls up documents visited in {@code _tsid} and {@code @timestamp} order, indexing each bucket as soon as
+     * the first document of the next one is collected.
+     */
+    private class TimeSeriesBucketCollector extends BucketCollector {
+        private final List<FieldMetricsProducer> fieldsMetrics = FieldMetricsProducer.buildMetrics(config.getMetricsConfig());
+        private final BytesRefBuilder tsid = new BytesRefBuilder();
+        private BucketKey key;
+        private int docCount;
+
+        @Override
+        public LeafBucketCollector getLeafCollector(AggregationExecutionContext aggCtx) {
+            final List<FormattedDocValues> groupFieldLeaves = leafFetchers(aggCtx.getLeafReaderContext(), groupFieldFetchers);
+            final List<FormattedDocValues> metricsFieldLeaves = leafFetchers(aggCtx.getLeafReaderContext(), metricsFieldFetchers);
+            return new LeafBucketCollector() {
+                @Override
+                public void collect(int docID, long owningBucketOrd) throws IOException {
+                    long timestamp = rounding.round(aggCtx.getTimestamp());
+                    BytesRef docTsid = aggCtx.getTsid();
+                    if (key == null || key.timestamp != timestamp || tsid.get().equals(docTsid) == false) {
+                        indexCurrentBucket();
+                        tsid.copyBytes(docTsid);
+                        // dimensions are single valued and identical for all documents of a time series
+                        List<Object> groupFields = new ArrayList<>(groupFieldLeaves.size());
+                        for (FormattedDocValues leafField : groupFieldLeaves) {
+                            groupFields.add(leafField.advanceExact(docID) ? leafField.nextValue() : null);
+                        }
+                        key = new BucketKey(timestamp, groupFields);
+                    }
+                    for (int i = 0; i < metricsFieldLeaves.size(); i++) {
+                        FormattedDocValues formattedDocValues = metricsFieldLeaves.get(i);
+                        if (formattedDocValues.advanceExact(docID)) {
+                            for (int v = 0; v < formattedDocValues.docValueCount(); v++) {
+                                Object obj = formattedDocValues.nextValue();
+                                if (obj instanceof Number == false) {
+                                    throw new IllegalArgumentException("Expected [Number], got [" + obj.getClass() + "]");
+                                }
+                                double value = ((Number) obj).doubleValue();
+                                for (FieldMetricsProducer.Metric metric : fieldsMetrics.get(i).metrics) {
+                                    metric.collect(value);
+                                }
+                            }
+                        }
+                    }
+                    ++docCount;
+                }
+            };
+        }
+
+        private void indexCurrentBucket() {
+            if (docCount == 0) {
+                return;
+            }
+            indexBucket(key, fieldsMetrics, docCount);
+            docCount = 0;
+            for (FieldMetricsProducer producer : fieldsMetrics) {
+                producer.reset();
             }
-            return leaves;
+        }
+
+        @Override
+        public void preCollection() {}
+
+        @Override
+        public void postCollection() {
+            indexCurrentBucket();
         }
 
         @Override
@@ -501,6 +615,14 @@ class RollupShardIndexer {
         }
     }
 
+    private static List<FormattedDocValues> leafFetchers(LeafReaderContext context, List<FieldValueFetcher> fetchers) {
+        List<FormattedDocValues> leaves = new ArrayList<>();
+        for (FieldValueFetcher fetcher : fetchers) {
+            leaves.add(fetcher.getLeaf(context));
+        }
+        return leaves;
+    }
+
     private class NextRoundingVisitor implements PointValues.IntersectVisitor {
         final Rounding.Prepared rounding;
         final long lastRounding;
@@ -23,14 +23,17 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.cluster.metadata.ComposableIndexTemplate;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.Template;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.datastreams.DataStreamsPlugin;
 import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexMode;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.indices.IndicesService;
@@ -65,6 +68,7 @@ import org.elasticsearch.xpack.rollup.Rollup;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -76,6 +80,7 @@ import java.util.concurrent.ExecutionException;
 
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitCount;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 
 @LuceneTestCase.AwaitsFix(bugUrl = "https://github.com/elastic/elasticsearch/issues/69799")
@@ -344,6 +349,59 @@ public class RollupActionSingleNodeTests extends ESSingleNodeTestCase {
         assertRollupIndex(config, oldIndexName, rollupIndexName + "-2");
     }
 
+    public void testRollupTimeSeriesIndex() throws IOException {
+        assumeTrue("requires time series mode", IndexSettings.isTimeSeriesModeEnabled());
+        RollupActionDateHistogramGroupConfig dateHistogramGroupConfig = randomRollupActionDateHistogramGroupConfig(timestampFieldName);
+        long endTime = startTime + 11 * dateHistogramGroupConfig.getInterval().estimateMillis();
+        client().admin()
+            .indices()
+            .prepareCreate(index + "-tsdb")
+            .setSettings(
+                Settings.builder()
+                    .put("index.number_of_shards", 1)
+                    .put(IndexSettings.MODE.getKey(), IndexMode.TIME_SERIES)
+                    .putList(IndexMetadata.INDEX_ROUTING_PATH.getKey(), List.of("dimension_1", "dimension_2"))
+                    .put(IndexSettings.TIME_SERIES_START_TIME.getKey(), Instant.ofEpochMilli(startTime).toString())
+                    .put(IndexSettings.TIME_SERIES_END_TIME.getKey(), Instant.ofEpochMilli(endTime).toString())
+                    .build()
+            )
+            .setMapping(
+                timestampFieldName,
+                "type=date",
+                "dimension_1",
+                "type=keyword,time_series_dimension=true",
+                "dimension_2",
+                "type=keyword,time_series_dimension=true",
+                "numeric_1",
+                "type=double"
+            )
+            .get();
+        SourceSupplier sourceSupplier = () -> XContentFactory.jsonBuilder()
+            .startObject()
+            .field(timestampFieldName, randomDateForInterval(dateHistogramGroupConfig.getInterval()))
+            .field("dimension_1", randomAlphaOfLength(1))
+            .field("dimension_2", randomFrom("a", "b", "c"))
+            .field("numeric_1", randomDouble())
+            .endObject();
+        RollupActionConfig config = new RollupActionConfig(
+            new RollupActionGroupConfig(dateHistogramGroupConfig, null, new TermsGroupConfig("dimension_1", "dimension_2")),
+            Collections.singletonList(new MetricConfig("numeric_1", List.of("max", "min", "value_count")))
+        );
+        bulkIndex(index + "-tsdb", sourceSupplier);
+
+        IndicesService indexServices = getInstanceFromNode(IndicesService.class);
+        IndexService indexService = indexServices.indexServiceSafe(resolveIndex(index + "-tsdb"));
+        IndexShard shard = indexService.getShard(0);
+        client().admin().indices().prepareCreate(index + "-target").get();
+        RollupShardIndexer indexer = new RollupShardIndexer(client(), indexService, shard.shardId(), config, index + "-target", 2);
+        indexer.execute();
+        // the time series is already sorted by bucket so nothing was sorted on disk
+        assertThat(indexer.tmpFiles, empty());
+
+        rollup(index + "-tsdb", rollupIndex, config);
+        assertRollupIndex(config, index + "-tsdb", rollupIndex);
+    }
+
     private RollupActionDateHistogramGroupConfig randomRollupActionDateHistogramGroupConfig(String field) {
         RollupActionDateHistogramGroupConfig randomConfig = ConfigTestHelpers.randomRollupActionDateHistogramGroupConfig(random());
         if (randomConfig instanceof RollupActionDateHistogramGroupConfig.FixedInterval) {
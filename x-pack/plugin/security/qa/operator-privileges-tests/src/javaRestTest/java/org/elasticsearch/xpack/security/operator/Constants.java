@@ -261,6 +261,7 @@ public class Constants {
         "cluster:monitor/nodes/info",
         "cluster:monitor/nodes/stats",
         "cluster:monitor/nodes/usage",
+        "cluster:monitor/percolator/query_cache/stats",
         "cluster:monitor/remote/info",
         "cluster:monitor/state",
         "cluster:monitor/stats",
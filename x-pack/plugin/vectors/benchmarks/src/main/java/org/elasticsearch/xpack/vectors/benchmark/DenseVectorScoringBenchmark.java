@@ -0,0 +1,148 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.benchmark;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.Version;
+import org.elasticsearch.xpack.vectors.query.BinaryDenseVector;
+import org.elasticsearch.xpack.vectors.query.ByteBinaryDenseVector;
+import org.elasticsearch.xpack.vectors.query.DenseVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brute force top k over {@code dense_vector} doc values with {@code float} and
+ * {@code byte} elements. The {@code byte} vectors are the {@code float} vectors
+ * scaled so the largest value is {@code 127}, like a user would before indexing
+ * them. The recall of the {@code byte} top hits against the {@code float} ones is
+ * checked by {@code ByteBinaryDenseVectorScriptDocValuesTests}.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class DenseVectorScoringBenchmark {
+    private static final int K = 10;
+
+    @Param({ "float", "byte" })
+    public String elementType;
+
+    @Param({ "768" })
+    public int dims;
+
+    @Param({ "100000" })
+    public int docs;
+
+    private BytesRef[] docVectors;
+    private float[] queryVector;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        float[][] vectors = new float[docs][];
+        for (int d = 0; d < docs; d++) {
+            vectors[d] = randomUnitVector(random, dims);
+        }
+        float maxAbs = 0;
+        for (float[] vector : vectors) {
+            for (float value : vector) {
+                maxAbs = Math.max(maxAbs, Math.abs(value));
+            }
+        }
+        float byteScale = Byte.MAX_VALUE / maxAbs;
+        docVectors = new BytesRef[docs];
+        for (int d = 0; d < docs; d++) {
+            docVectors[d] = encode(vectors[d], byteScale);
+        }
+        queryVector = randomUnitVector(random, dims);
+    }
+
+    @Benchmark
+    public Set<Integer> topK() {
+        PriorityQueue<ScoredDoc> queue = new PriorityQueue<>(K + 1, (lhs, rhs) -> Double.compare(lhs.score, rhs.score));
+        for (int d = 0; d < docs; d++) {
+            DenseVector vector = elementType.equals("byte")
+                ? new ByteBinaryDenseVector(docVectors[d], dims)
+                : new BinaryDenseVector(docVectors[d], dims, Version.CURRENT);
+            offer(queue, d, vector.dotProduct(queryVector));
+        }
+        return docs(queue);
+    }
+
+    private static void offer(PriorityQueue<ScoredDoc> queue, int doc, double score) {
+        if (queue.size() < K) {
+            queue.add(new ScoredDoc(doc, score));
+        } else if (queue.peek().score < score) {
+            queue.poll();
+            queue.add(new ScoredDoc(doc, score));
+        }
+    }
+
+    private static Set<Integer> docs(PriorityQueue<ScoredDoc> queue) {
+        Set<Integer> docs = new HashSet<>();
+        for (ScoredDoc scoredDoc : queue) {
+            docs.add(scoredDoc.doc);
+        }
+        return docs;
+    }
+
+    /**
+     * Encodes the vector the way that {@code dense_vector} writes it to doc values.
+     */
+    private BytesRef encode(float[] vector, float byteScale) {
+        boolean isByte = elementType.equals("byte");
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * (isByte ? 1 : Float.BYTES) + Float.BYTES);
+        double squaredMagnitude = 0;
+        for (float value : vector) {
+            if (isByte) {
+                byte b = (byte) Math.round(value * byteScale);
+                buffer.put(b);
+                squaredMagnitude += b * b;
+            } else {
+                buffer.putFloat(value);
+                squaredMagnitude += value * value;
+            }
+        }
+        buffer.putFloat((float) Math.sqrt(squaredMagnitude));
+        return new BytesRef(buffer.array());
+    }
+
+    private static float[] randomUnitVector(Random random, int dims) {
+        float[] vector = new float[dims];
+        double squaredMagnitude = 0;
+        for (int i = 0; i < dims; i++) {
+            vector[i] = (float) random.nextGaussian();
+            squaredMagnitude += vector[i] * vector[i];
+        }
+        float magnitude = (float) Math.sqrt(squaredMagnitude);
+        for (int i = 0; i < dims; i++) {
+            vector[i] /= magnitude;
+        }
+        return vector;
+    }
+
+    private record ScoredDoc(int doc, double score) {}
+}
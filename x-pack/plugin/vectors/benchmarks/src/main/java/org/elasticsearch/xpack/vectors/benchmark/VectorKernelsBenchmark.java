@@ -0,0 +1,117 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.benchmark;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.xpack.vectors.mapper.VectorEncoderDecoder;
+import org.elasticsearch.xpack.vectors.query.VectorKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link VectorKernels} across vector sizes. The {@code scalar}
+ * benchmarks are the single, {@code double} accumulator loops that scripts
+ * still use on {@code float} vectors to keep their scores, for comparison.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class VectorKernelsBenchmark {
+    @Param({ "96", "128", "384", "768", "1024", "2048" })
+    public int dims;
+
+    private float[] floatsA;
+    private float[] floatsB;
+    private byte[] bytes;
+    private BytesRef encoded;
+    private float[] scratch;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        floatsA = new float[dims];
+        floatsB = new float[dims];
+        bytes = new byte[dims];
+        ByteBuffer buffer = ByteBuffer.allocate(dims * Float.BYTES + Float.BYTES);
+        for (int i = 0; i < dims; i++) {
+            floatsA[i] = random.nextFloat();
+            floatsB[i] = random.nextFloat();
+            bytes[i] = (byte) random.nextInt(256);
+            buffer.putFloat(floatsA[i]);
+        }
+        buffer.putFloat(1.0f);
+        encoded = new BytesRef(buffer.array());
+        scratch = new float[dims];
+    }
+
+    @Benchmark
+    public float floatDotProduct() {
+        return VectorKernels.dotProduct(floatsA, floatsB);
+    }
+
+    @Benchmark
+    public float floatSquareDistance() {
+        return VectorKernels.squareDistance(floatsA, floatsB);
+    }
+
+    @Benchmark
+    public float byteDotProduct() {
+        return VectorKernels.dotProduct(bytes, 0, floatsB);
+    }
+
+    @Benchmark
+    public float byteSquareDistance() {
+        return VectorKernels.squareDistance(bytes, 0, floatsB);
+    }
+
+    @Benchmark
+    public float byteL1Norm() {
+        return VectorKernels.l1Norm(bytes, 0, floatsB);
+    }
+
+    @Benchmark
+    public float decodeAndDotProduct() {
+        VectorEncoderDecoder.decodeDenseVector(encoded, scratch);
+        return VectorKernels.dotProduct(scratch, floatsB);
+    }
+
+    @Benchmark
+    public double scalarDecodeAndDotProduct() {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(encoded.bytes, encoded.offset, encoded.length);
+        double dotProduct = 0;
+        for (float v : floatsB) {
+            dotProduct += byteBuffer.getFloat() * v;
+        }
+        return dotProduct;
+    }
+
+    @Benchmark
+    public double scalarL1Norm() {
+        double l1norm = 0;
+        for (int i = 0; i < dims; i++) {
+            l1norm += Math.abs(floatsA[i] - floatsB[i]);
+        }
+        return l1norm;
+    }
+}
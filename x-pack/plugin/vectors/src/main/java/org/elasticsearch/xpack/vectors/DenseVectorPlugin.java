@@ -17,13 +17,11 @@ import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.plugins.ActionPlugin;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.plugins.Plugin;
-import org.elasticsearch.plugins.SearchPlugin;
 import org.elasticsearch.rest.RestController;
 import org.elasticsearch.rest.RestHandler;
 import org.elasticsearch.xpack.vectors.action.RestKnnSearchAction;
 import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper;
 import org.elasticsearch.xpack.vectors.mapper.SparseVectorFieldMapper;
-import org.elasticsearch.xpack.vectors.query.KnnVectorQueryBuilder;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -31,7 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
-public class DenseVectorPlugin extends Plugin implements ActionPlugin, MapperPlugin, SearchPlugin {
+public class DenseVectorPlugin extends Plugin implements ActionPlugin, MapperPlugin {
 
     public DenseVectorPlugin() {}
 
@@ -55,18 +53,4 @@ public class DenseVectorPlugin extends Plugin implements ActionPlugin, MapperPlu
     ) {
         return List.of(new RestKnnSearchAction());
     }
-
-    @Override
-    public List<QuerySpec<?>> getQueries() {
-        // This query is only meant to be used internally, and not passed to the _search endpoint
-        return List.of(
-            new QuerySpec<>(
-                KnnVectorQueryBuilder.NAME,
-                KnnVectorQueryBuilder::new,
-                parser -> {
-                    throw new IllegalArgumentException("[knn] queries cannot be provided directly, use the [_knn_search] endpoint instead");
-                }
-            )
-        );
-    }
 }
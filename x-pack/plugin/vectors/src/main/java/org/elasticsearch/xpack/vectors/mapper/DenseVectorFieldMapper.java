@@ -37,15 +37,18 @@ import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.search.vectors.KnnVectorFieldType;
 import org.elasticsearch.xcontent.ToXContent;
 import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentParser.Token;
+import org.elasticsearch.xpack.vectors.query.FilteredKnnVectorQuery;
 import org.elasticsearch.xpack.vectors.query.VectorIndexFieldData;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -53,7 +56,7 @@ import java.util.function.Supplier;
 import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
 
 /**
- * A {@link FieldMapper} for indexing a dense vector of floats.
+ * A {@link FieldMapper} for indexing a dense vector of floats or bytes.
  */
 public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVectorsFormatFieldMapper {
 
@@ -91,6 +94,15 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
             }
         });
 
+        private final Parameter<ElementType> elementType = new Parameter<>(
+            "element_type",
+            false,
+            () -> ElementType.FLOAT,
+            (n, c, o) -> ElementType.fromString(n, XContentMapValues.nodeStringValue(o)),
+            m -> toType(m).elementType,
+            XContentBuilder::field,
+            Objects::toString
+        );
         private final Parameter<Boolean> indexed = Parameter.indexParam(m -> toType(m).indexed, false);
         private final Parameter<VectorSimilarity> similarity = Parameter.enumParam(
             "similarity",
@@ -121,11 +133,25 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
             this.similarity.requiresParameter(indexed);
             this.indexOptions.requiresParameter(indexed);
             this.indexOptions.setSerializerCheck((id, ic, v) -> v != null);
+            this.similarity.addValidator(similarity -> {
+                if (similarity == VectorSimilarity.dot_product && elementType.getValue() == ElementType.BYTE) {
+                    // byte vectors can't be unit length
+                    throw new MapperParsingException(
+                        "The ["
+                            + VectorSimilarity.dot_product
+                            + "] similarity is not supported for [element_type] ["
+                            + ElementType.BYTE
+                            + "], use ["
+                            + VectorSimilarity.cosine
+                            + "] instead"
+                    );
+                }
+            });
         }
 
         @Override
         protected List<Parameter<?>> getParameters() {
-            return List.of(dims, indexed, similarity, indexOptions, meta);
+            return List.of(elementType, dims, indexed, similarity, indexOptions, meta);
         }
 
         @Override
@@ -135,11 +161,13 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
                 new DenseVectorFieldType(
                     context.buildFullName(name),
                     indexVersionCreated,
+                    elementType.getValue(),
                     dims.getValue(),
                     indexed.getValue(),
                     similarity.getValue(),
                     meta.getValue()
                 ),
+                elementType.getValue(),
                 dims.getValue(),
                 indexed.getValue(),
                 similarity.getValue(),
@@ -151,6 +179,41 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
         }
     }
 
+    /**
+     * The type of the values of the vector. {@code byte} vectors take a quarter of the
+     * space of {@code float} vectors in doc values. The HNSW graph only holds floats so
+     * indexed {@code byte} vectors take as much space there as {@code float} ones.
+     */
+    public enum ElementType {
+        FLOAT(4),
+        BYTE(1);
+
+        /**
+         * The number of bytes that each dimension takes in doc values.
+         */
+        public final int elementBytes;
+
+        ElementType(int elementBytes) {
+            this.elementBytes = elementBytes;
+        }
+
+        static ElementType fromString(String fieldName, String name) {
+            for (ElementType elementType : values()) {
+                if (elementType.toString().equals(name)) {
+                    return elementType;
+                }
+            }
+            throw new MapperParsingException(
+                "Unknown value [" + name + "] for field [element_type] of [" + fieldName + "] - accepted values are [float, byte]"
+            );
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
     enum VectorSimilarity {
         l2_norm(VectorSimilarityFunction.EUCLIDEAN),
         cosine(VectorSimilarityFunction.COSINE),
@@ -230,7 +293,8 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
         notInMultiFields(CONTENT_TYPE)
     );
 
-    public static final class DenseVectorFieldType extends SimpleMappedFieldType {
+    public static final class DenseVectorFieldType extends SimpleMappedFieldType implements KnnVectorFieldType {
+        private final ElementType elementType;
         private final int dims;
         private final boolean indexed;
         private final VectorSimilarity similarity;
@@ -239,12 +303,14 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
         public DenseVectorFieldType(
             String name,
             Version indexVersionCreated,
+            ElementType elementType,
             int dims,
             boolean indexed,
             VectorSimilarity similarity,
             Map<String, String> meta
         ) {
             super(name, indexed, false, indexed == false, TextSearchInfo.NONE, meta);
+            this.elementType = elementType;
             this.dims = dims;
             this.indexed = indexed;
             this.similarity = similarity;
@@ -283,7 +349,14 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
 
         @Override
         public IndexFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName, Supplier<SearchLookup> searchLookup) {
-            return new VectorIndexFieldData.Builder(name(), CoreValuesSourceType.KEYWORD, indexVersionCreated, dims, indexed);
+            return new VectorIndexFieldData.Builder(
+                name(),
+                CoreValuesSourceType.KEYWORD,
+                indexVersionCreated,
+                elementType,
+                dims,
+                indexed
+            );
         }
 
         @Override
@@ -301,7 +374,8 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
             throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support term queries");
         }
 
-        public KnnVectorQuery createKnnQuery(float[] queryVector, int numCands, Query filter) {
+        @Override
+        public Query createKnnQuery(float[] queryVector, int numCands, Query filter) {
             if (isIndexed() == false) {
                 throw new IllegalArgumentException(
                     "to perform knn search on field [" + name() + "], its mapping must have [index] set to [true]"
@@ -314,6 +388,12 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
                 );
             }
 
+            if (elementType == ElementType.BYTE) {
+                for (float value : queryVector) {
+                    checkByteValue(value, "the query vector");
+                }
+            }
+
             if (similarity == VectorSimilarity.dot_product || similarity == VectorSimilarity.cosine) {
                 float squaredMagnitude = 0.0f;
                 for (float e : queryVector) {
@@ -321,7 +401,29 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
                 }
                 checkVectorMagnitude(queryVector, squaredMagnitude);
             }
-            return new KnnVectorQuery(name(), queryVector, numCands, filter);
+            if (filter == null) {
+                return new KnnVectorQuery(name(), queryVector, numCands);
+            }
+            return new FilteredKnnVectorQuery(name(), queryVector, numCands, filter);
+        }
+
+        private void checkByteValue(float value, String description) {
+            if (value != (byte) value) {
+                throw new IllegalArgumentException(
+                    description
+                        + " contains the value ["
+                        + value
+                        + "] but the field ["
+                        + name()
+                        + "] has [element_type] ["
+                        + ElementType.BYTE
+                        + "] which only supports integers between ["
+                        + Byte.MIN_VALUE
+                        + "] and ["
+                        + Byte.MAX_VALUE
+                        + "]"
+                );
+            }
         }
 
         private void checkVectorMagnitude(float[] vector, float squaredMagnitude) {
@@ -354,6 +456,7 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
         }
     }
 
+    private final ElementType elementType;
     private final int dims;
     private final boolean indexed;
     private final VectorSimilarity similarity;
@@ -363,6 +466,7 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
     private DenseVectorFieldMapper(
         String simpleName,
         MappedFieldType mappedFieldType,
+        ElementType elementType,
         int dims,
         boolean indexed,
         VectorSimilarity similarity,
@@ -372,6 +476,7 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
         CopyTo copyTo
     ) {
         super(simpleName, mappedFieldType, multiFields, copyTo);
+        this.elementType = elementType;
         this.dims = dims;
         this.indexed = indexed;
         this.similarity = similarity;
@@ -414,6 +519,9 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
             ensureExpectedToken(Token.VALUE_NUMBER, token, context.parser());
 
             float value = context.parser().floatValue(true);
+            if (elementType == ElementType.BYTE) {
+                fieldType().checkByteValue(value, "The vector in doc [" + context.documentDescription() + "]");
+            }
             vector[index++] = value;
             squaredMagnitude += value * value;
         }
@@ -425,7 +533,8 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
     private Field parseBinaryDocValuesVector(DocumentParserContext context) throws IOException {
         // encode array of floats as array of integers and store into buf
         // this code is here and not int the VectorEncoderDecoder so not to create extra arrays
-        byte[] bytes = indexCreatedVersion.onOrAfter(Version.V_7_5_0) ? new byte[dims * INT_BYTES + INT_BYTES] : new byte[dims * INT_BYTES];
+        int vectorBytes = dims * elementType.elementBytes;
+        byte[] bytes = indexCreatedVersion.onOrAfter(Version.V_7_5_0) ? new byte[vectorBytes + INT_BYTES] : new byte[vectorBytes];
 
         ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
         double dotProduct = 0f;
@@ -435,7 +544,12 @@ public class DenseVectorFieldMapper extends FieldMapper implements PerFieldKnnVe
             checkDimensionExceeded(index, context);
             ensureExpectedToken(Token.VALUE_NUMBER, token, context.parser());
             float value = context.parser().floatValue(true);
-            byteBuffer.putFloat(value);
+            if (elementType == ElementType.BYTE) {
+                fieldType().checkByteValue(value, "The vector in doc [" + context.documentDescription() + "]");
+                byteBuffer.put((byte) value);
+            } else {
+                byteBuffer.putFloat(value);
+            }
             dotProduct += value * value;
             index++;
         }
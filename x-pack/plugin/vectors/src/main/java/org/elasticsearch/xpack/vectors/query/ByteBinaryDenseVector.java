@@ -0,0 +1,122 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A {@link DenseVector} with one byte per dimension, read straight from doc values.
+ */
+public class ByteBinaryDenseVector implements DenseVector {
+    private final BytesRef docVector;
+    private final int dims;
+
+    private float[] decodedDocVector;
+
+    public ByteBinaryDenseVector(BytesRef docVector, int dims) {
+        this.docVector = docVector;
+        this.dims = dims;
+    }
+
+    @Override
+    public float[] getVector() {
+        if (decodedDocVector == null) {
+            decodedDocVector = new float[dims];
+            for (int i = 0; i < dims; i++) {
+                decodedDocVector[i] = docVector.bytes[docVector.offset + i];
+            }
+        }
+        return decodedDocVector;
+    }
+
+    @Override
+    public float getMagnitude() {
+        // the magnitude is stored as a float after the values
+        return ByteBuffer.wrap(docVector.bytes, docVector.offset, docVector.length).getFloat(docVector.offset + dims);
+    }
+
+    @Override
+    public double dotProduct(float[] queryVector) {
+        return VectorKernels.dotProduct(docVector.bytes, docVector.offset, queryVector);
+    }
+
+    @Override
+    public double dotProduct(List<Number> queryVector) {
+        byte[] bytes = docVector.bytes;
+        int offset = docVector.offset;
+        double dotProduct = 0;
+        for (int i = 0; i < queryVector.size(); i++) {
+            dotProduct += bytes[offset + i] * queryVector.get(i).floatValue();
+        }
+        return dotProduct;
+    }
+
+    @Override
+    public double l1Norm(float[] queryVector) {
+        return VectorKernels.l1Norm(docVector.bytes, docVector.offset, queryVector);
+    }
+
+    @Override
+    public double l1Norm(List<Number> queryVector) {
+        byte[] bytes = docVector.bytes;
+        int offset = docVector.offset;
+        double l1norm = 0;
+        for (int i = 0; i < queryVector.size(); i++) {
+            l1norm += Math.abs(queryVector.get(i).floatValue() - bytes[offset + i]);
+        }
+        return l1norm;
+    }
+
+    @Override
+    public double l2Norm(float[] queryVector) {
+        return Math.sqrt(VectorKernels.squareDistance(docVector.bytes, docVector.offset, queryVector));
+    }
+
+    @Override
+    public double l2Norm(List<Number> queryVector) {
+        byte[] bytes = docVector.bytes;
+        int offset = docVector.offset;
+        double l2norm = 0;
+        for (int i = 0; i < queryVector.size(); i++) {
+            double diff = bytes[offset + i] - queryVector.get(i).floatValue();
+            l2norm += diff * diff;
+        }
+        return Math.sqrt(l2norm);
+    }
+
+    @Override
+    public double cosineSimilarity(float[] queryVector, boolean normalizeQueryVector) {
+        if (normalizeQueryVector) {
+            return dotProduct(queryVector) / (DenseVector.getMagnitude(queryVector) * getMagnitude());
+        }
+        return dotProduct(queryVector) / getMagnitude();
+    }
+
+    @Override
+    public double cosineSimilarity(List<Number> queryVector) {
+        return dotProduct(queryVector) / (DenseVector.getMagnitude(queryVector) * getMagnitude());
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public int getDims() {
+        return dims;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BitSet;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.index.cache.bitset.BitsetFilterCache;
+import org.elasticsearch.search.profile.query.DebugInfoWeight;
+import org.elasticsearch.search.vectors.KnnScoreDocQuery;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Finds the {@code k} nearest neighbors of a vector among the docs that match a filter.
+ * The filter is collected into a bitset for each segment when the query is rewritten. These
+ * bitsets only live as long as the rewrite, unlike the {@link BitsetFilterCache} which
+ * keeps them until the segment goes away. Each segment picks one of these strategies:
+ * <ul>
+ *     <li>{@code exact}: score every doc in the filter. Used when so few docs pass
+ *     the filter that the graph search would have to visit more vectors to find
+ *     {@code k} of them.</li>
+ *     <li>{@code approximate}: search the HNSW graph, skipping docs that aren't in
+ *     the filter. The search may visit at most as many vectors as there are docs in
+ *     the filter. If it hits that limit then exact scoring is cheaper and we switch
+ *     to it. The profiler reports these segments as {@code approximate_then_exact}.</li>
+ * </ul>
+ * Like Lucene's {@link org.apache.lucene.search.KnnVectorQuery} this runs the search
+ * in {@link #rewrite}. The query it rewrites to keeps the strategies and the number of
+ * vectors that each one visited so the profiler can report them.
+ *
+ * NOTE: this is an internal class and should not be used outside of core Elasticsearch code.
+ */
+public class FilteredKnnVectorQuery extends Query {
+    private static final TopDocs NO_RESULTS = new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+
+    private final String field;
+    private final float[] target;
+    private final int k;
+    private final Query filter;
+
+    public FilteredKnnVectorQuery(String field, float[] target, int k, Query filter) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1, got: " + k);
+        }
+        this.field = Objects.requireNonNull(field, "field");
+        this.target = Objects.requireNonNull(target, "target");
+        this.k = k;
+        this.filter = Objects.requireNonNull(filter, "filter");
+    }
+
+    @Override
+    public Query rewrite(IndexReader reader) throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        Weight filterWeight = searcher.createWeight(searcher.rewrite(filter), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        SearchStats stats = new SearchStats();
+        TopDocs[] perLeafResults = new TopDocs[reader.leaves().size()];
+        for (LeafReaderContext ctx : reader.leaves()) {
+            TopDocs results = searchLeaf(ctx, filterWeight, stats);
+            if (ctx.docBase > 0) {
+                for (ScoreDoc scoreDoc : results.scoreDocs) {
+                    scoreDoc.doc += ctx.docBase;
+                }
+            }
+            perLeafResults[ctx.ord] = results;
+        }
+        TopDocs topK = TopDocs.merge(k, perLeafResults);
+        return new KnnResultsQuery(new KnnScoreDocQuery(topK.scoreDocs, reader), stats);
+    }
+
+    private TopDocs searchLeaf(LeafReaderContext ctx, Weight filterWeight, SearchStats stats) throws IOException {
+        LeafReader reader = ctx.reader();
+        VectorValues vectorValues = reader.getVectorValues(field);
+        if (vectorValues == null) {
+            return NO_RESULTS;
+        }
+        Scorer filterScorer = filterWeight.scorer(ctx);
+        if (filterScorer == null) {
+            return NO_RESULTS;
+        }
+        BitSet filterBits = BitSet.of(filterScorer.iterator(), reader.maxDoc());
+        Bits liveDocs = reader.getLiveDocs();
+        int cost = cardinality(filterBits, liveDocs);
+        if (cost == 0) {
+            return NO_RESULTS;
+        }
+        stats.filteredDocs += cost;
+
+        if (preferExact(k, cost, vectorValues.size())) {
+            stats.exactSegments++;
+            return exactSearch(reader, vectorValues, filterBits, liveDocs, stats);
+        }
+
+        Bits acceptDocs = liveDocs == null ? filterBits : new Bits() {
+            @Override
+            public boolean get(int index) {
+                return filterBits.get(index) && liveDocs.get(index);
+            }
+
+            @Override
+            public int length() {
+                return filterBits.length();
+            }
+        };
+        TopDocs results = reader.searchNearestVectors(field, target, k, acceptDocs, cost);
+        if (results == null) {
+            return NO_RESULTS;
+        }
+        stats.approximateVisited += results.totalHits.value;
+        if (results.totalHits.relation == TotalHits.Relation.EQUAL_TO) {
+            stats.approximateSegments++;
+            return results;
+        }
+        // The graph search gave up before finding k docs in the filter
+        stats.approximateThenExactSegments++;
+        return exactSearch(reader, vectorValues, filterBits, liveDocs, stats);
+    }
+
+    /**
+     * Should we score every doc in the filter rather than search the graph? A graph
+     * search visits about {@code k * ln(numVectors)} vectors to find {@code k} neighbors
+     * but only {@code cost / numVectors} of the vectors it visits are in the filter, so
+     * it has to visit proportionally more as the filter gets more restrictive. Scoring
+     * every doc in the filter visits {@code cost} vectors.
+     */
+    static boolean preferExact(int k, long cost, int numVectors) {
+        if (cost <= k) {
+            return true;
+        }
+        double selectivity = Math.min(1.0, (double) cost / numVectors);
+        double approximateCost = k * Math.max(1.0, Math.log(numVectors)) / selectivity;
+        return cost <= approximateCost;
+    }
+
+    private TopDocs exactSearch(LeafReader reader, VectorValues vectorValues, BitSet filterBits, Bits liveDocs, SearchStats stats)
+        throws IOException {
+        FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+        VectorSimilarityFunction similarityFunction = fieldInfo.getVectorSimilarityFunction();
+        PriorityQueue<ScoreDoc> queue = new PriorityQueue<>(k) {
+            @Override
+            protected boolean lessThan(ScoreDoc a, ScoreDoc b) {
+                return a.score < b.score || (a.score == b.score && a.doc > b.doc);
+            }
+        };
+        long visited = 0;
+        int doc = nextSetBit(filterBits, 0);
+        while (doc != DocIdSetIterator.NO_MORE_DOCS) {
+            if (liveDocs != null && liveDocs.get(doc) == false) {
+                doc = nextSetBit(filterBits, doc + 1);
+                continue;
+            }
+            int vectorDoc = vectorValues.docID() < doc ? vectorValues.advance(doc) : vectorValues.docID();
+            if (vectorDoc == DocIdSetIterator.NO_MORE_DOCS) {
+                break;
+            }
+            if (vectorDoc != doc) {
+                // The doc has no vector, skip to the next doc in the filter that might
+                doc = nextSetBit(filterBits, vectorDoc);
+                continue;
+            }
+            visited++;
+            float score = score(similarityFunction, vectorValues.vectorValue());
+            if (queue.size() < k) {
+                queue.add(new ScoreDoc(doc, score));
+            } else if (score > queue.top().score) {
+                ScoreDoc top = queue.top();
+                top.doc = doc;
+                top.score = score;
+                queue.updateTop();
+            }
+            doc = nextSetBit(filterBits, doc + 1);
+        }
+        stats.exactVisited += visited;
+
+        ScoreDoc[] scoreDocs = new ScoreDoc[queue.size()];
+        for (int i = scoreDocs.length - 1; i >= 0; i--) {
+            scoreDocs[i] = queue.pop();
+        }
+        return new TopDocs(new TotalHits(visited, TotalHits.Relation.EQUAL_TO), scoreDocs);
+    }
+
+    /**
+     * Score a vector the same way that the graph search does.
+     */
+    private float score(VectorSimilarityFunction similarityFunction, float[] vector) {
+        float similarity = switch (similarityFunction) {
+            case EUCLIDEAN -> VectorKernels.squareDistance(target, vector);
+            case DOT_PRODUCT -> VectorKernels.dotProduct(target, vector);
+            default -> similarityFunction.compare(target, vector);
+        };
+        return similarityFunction.convertToScore(similarity);
+    }
+
+    private static int cardinality(BitSet filterBits, Bits liveDocs) {
+        if (liveDocs == null) {
+            return filterBits.cardinality();
+        }
+        int count = 0;
+        for (int doc = nextSetBit(filterBits, 0); doc != DocIdSetIterator.NO_MORE_DOCS; doc = nextSetBit(filterBits, doc + 1)) {
+            if (liveDocs.get(doc)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int nextSetBit(BitSet bits, int from) {
+        return from >= bits.length() ? DocIdSetIterator.NO_MORE_DOCS : bits.nextSetBit(from);
+    }
+
+    @Override
+    public String toString(String field) {
+        return getClass().getSimpleName() + ":" + this.field + "[" + target[0] + ",...][" + k + "][" + filter + "]";
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(field)) {
+            visitor.visitLeaf(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (sameClassAs(obj) == false) {
+            return false;
+        }
+        FilteredKnnVectorQuery other = (FilteredKnnVectorQuery) obj;
+        return field.equals(other.field) && Arrays.equals(target, other.target) && k == other.k && filter.equals(other.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), field, Arrays.hashCode(target), k, filter);
+    }
+
+    private static class SearchStats {
+        int exactSegments;
+        int approximateSegments;
+        int approximateThenExactSegments;
+        long filteredDocs;
+        long exactVisited;
+        long approximateVisited;
+    }
+
+    /**
+     * The top {@code k} docs found by {@link FilteredKnnVectorQuery#rewrite} along with
+     * how they were found.
+     */
+    static class KnnResultsQuery extends Query {
+        private final KnnScoreDocQuery results;
+        private final SearchStats stats;
+
+        KnnResultsQuery(KnnScoreDocQuery results, SearchStats stats) {
+            this.results = results;
+            this.stats = stats;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+            return new FilteredKnnWeight(this, results.createWeight(searcher, scoreMode, boost), stats);
+        }
+
+        @Override
+        public String toString(String field) {
+            return results.toString(field);
+        }
+
+        @Override
+        public void visit(QueryVisitor visitor) {
+            visitor.visitLeaf(this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return sameClassAs(obj) && results.equals(((KnnResultsQuery) obj).results);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classHash(), results);
+        }
+    }
+
+    private static class FilteredKnnWeight extends FilterWeight implements DebugInfoWeight {
+        private final SearchStats stats;
+
+        FilteredKnnWeight(Query query, Weight weight, SearchStats stats) {
+            super(query, weight);
+            this.stats = stats;
+        }
+
+        @Override
+        public boolean isCacheable(LeafReaderContext ctx) {
+            // The matches in a segment depend on the top k of the whole reader
+            return false;
+        }
+
+        @Override
+        public void collectDebugInfo(BiConsumer<String, Object> add) {
+            add.accept("exact_segments", stats.exactSegments);
+            add.accept("approximate_segments", stats.approximateSegments);
+            add.accept("approximate_then_exact_segments", stats.approximateThenExactSegments);
+            add.accept("filtered_docs", stats.filteredDocs);
+            add.accept("exact_vectors_visited", stats.exactVisited);
+            add.accept("approximate_vectors_visited", stats.approximateVisited);
+        }
+    }
+}
@@ -7,8 +7,6 @@
 
 package org.elasticsearch.xpack.vectors.query;
 
-import org.apache.lucene.util.VectorUtil;
-
 import java.util.Arrays;
 import java.util.List;
 
@@ -33,7 +31,7 @@ public class KnnDenseVector implements DenseVector {
 
     @Override
     public double dotProduct(float[] queryVector) {
-        return VectorUtil.dotProduct(docVector, queryVector);
+        return VectorKernels.dotProduct(docVector, queryVector);
     }
 
     @Override
@@ -65,7 +63,7 @@ public class KnnDenseVector implements DenseVector {
 
     @Override
     public double l2Norm(float[] queryVector) {
-        return Math.sqrt(VectorUtil.squareDistance(docVector, queryVector));
+        return Math.sqrt(VectorKernels.squareDistance(docVector, queryVector));
     }
 
     @Override
@@ -16,6 +16,7 @@ import org.elasticsearch.Version;
 import org.elasticsearch.index.fielddata.LeafFieldData;
 import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
 import org.elasticsearch.script.field.DocValuesScriptFieldFactory;
+import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.ElementType;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -26,13 +27,15 @@ final class VectorDVLeafFieldData implements LeafFieldData {
     private final LeafReader reader;
     private final String field;
     private final Version indexVersion;
+    private final ElementType elementType;
     private final int dims;
     private final boolean indexed;
 
-    VectorDVLeafFieldData(LeafReader reader, String field, Version indexVersion, int dims, boolean indexed) {
+    VectorDVLeafFieldData(LeafReader reader, String field, Version indexVersion, ElementType elementType, int dims, boolean indexed) {
         this.reader = reader;
         this.field = field;
         this.indexVersion = indexVersion;
+        this.elementType = elementType;
         this.dims = dims;
         this.indexed = indexed;
     }
@@ -65,7 +68,10 @@ final class VectorDVLeafFieldData implements LeafFieldData {
                 return new KnnDenseVectorDocValuesField(values, name, dims);
             } else {
                 BinaryDocValues values = DocValues.getBinary(reader, field);
-                return new BinaryDenseVectorDocValuesField(values, name, dims, indexVersion);
+                return switch (elementType) {
+                    case BYTE -> new ByteBinaryDenseVectorDocValuesField(values, name, dims);
+                    case FLOAT -> new BinaryDenseVectorDocValuesField(values, name, dims, indexVersion);
+                };
             }
         } catch (IOException e) {
             throw new IllegalStateException("Cannot load doc values for vector field!", e);
@@ -22,19 +22,29 @@ import org.elasticsearch.search.aggregations.support.ValuesSourceType;
 import org.elasticsearch.search.sort.BucketedSort;
 import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper;
+import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.ElementType;
 
 public class VectorIndexFieldData implements IndexFieldData<VectorDVLeafFieldData> {
 
     protected final String fieldName;
     protected final ValuesSourceType valuesSourceType;
     private final Version indexVersion;
+    private final ElementType elementType;
     private final int dims;
     private final boolean indexed;
 
-    public VectorIndexFieldData(String fieldName, ValuesSourceType valuesSourceType, Version indexVersion, int dims, boolean indexed) {
+    public VectorIndexFieldData(
+        String fieldName,
+        ValuesSourceType valuesSourceType,
+        Version indexVersion,
+        ElementType elementType,
+        int dims,
+        boolean indexed
+    ) {
         this.fieldName = fieldName;
         this.valuesSourceType = valuesSourceType;
         this.indexVersion = indexVersion;
+        this.elementType = elementType;
         this.dims = dims;
         this.indexed = indexed;
     }
@@ -72,7 +82,7 @@ public class VectorIndexFieldData implements IndexFieldData<VectorDVLeafFieldDat
 
     @Override
     public VectorDVLeafFieldData load(LeafReaderContext context) {
-        return new VectorDVLeafFieldData(context.reader(), fieldName, indexVersion, dims, indexed);
+        return new VectorDVLeafFieldData(context.reader(), fieldName, indexVersion, elementType, dims, indexed);
     }
 
     @Override
@@ -84,20 +94,29 @@ public class VectorIndexFieldData implements IndexFieldData<VectorDVLeafFieldDat
         private final String name;
         private final ValuesSourceType valuesSourceType;
         private final Version indexVersion;
+        private final ElementType elementType;
         private final int dims;
         private final boolean indexed;
 
-        public Builder(String name, ValuesSourceType valuesSourceType, Version indexVersion, int dims, boolean indexed) {
+        public Builder(
+            String name,
+            ValuesSourceType valuesSourceType,
+            Version indexVersion,
+            ElementType elementType,
+            int dims,
+            boolean indexed
+        ) {
             this.name = name;
             this.valuesSourceType = valuesSourceType;
             this.indexVersion = indexVersion;
+            this.elementType = elementType;
             this.dims = dims;
             this.indexed = indexed;
         }
 
         @Override
         public IndexFieldData<?> build(IndexFieldDataCache cache, CircuitBreakerService breakerService) {
-            return new VectorIndexFieldData(name, valuesSourceType, indexVersion, dims, indexed);
+            return new VectorIndexFieldData(name, valuesSourceType, indexVersion, elementType, dims, indexed);
         }
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.util.VectorUtil;
+
+/**
+ * The similarity functions behind {@link DenseVector}. {@code float[]} against
+ * {@code float[]} goes to Lucene's {@link VectorUtil} so we pick up whatever it
+ * does to speed these up. The others keep several independent accumulators so
+ * the CPU can overlap the additions rather than wait on a single running sum.
+ */
+public final class VectorKernels {
+    private VectorKernels() {}
+
+    public static float dotProduct(float[] a, float[] b) {
+        return VectorUtil.dotProduct(a, b);
+    }
+
+    public static float squareDistance(float[] a, float[] b) {
+        return VectorUtil.squareDistance(a, b);
+    }
+
+    /**
+     * Dot product of {@code b.length} bytes starting at {@code offset} in {@code a} and {@code b}.
+     */
+    public static float dotProduct(byte[] a, int offset, float[] b) {
+        float acc0 = 0, acc1 = 0, acc2 = 0, acc3 = 0;
+        int i = 0;
+        for (int upperBound = b.length & ~3; i < upperBound; i += 4) {
+            acc0 += a[offset + i] * b[i];
+            acc1 += a[offset + i + 1] * b[i + 1];
+            acc2 += a[offset + i + 2] * b[i + 2];
+            acc3 += a[offset + i + 3] * b[i + 3];
+        }
+        for (; i < b.length; i++) {
+            acc0 += a[offset + i] * b[i];
+        }
+        return acc0 + acc1 + acc2 + acc3;
+    }
+
+    /**
+     * Squared euclidean distance between {@code b.length} bytes starting at {@code offset} in {@code a} and {@code b}.
+     */
+    public static float squareDistance(byte[] a, int offset, float[] b) {
+        float acc0 = 0, acc1 = 0, acc2 = 0, acc3 = 0;
+        int i = 0;
+        for (int upperBound = b.length & ~3; i < upperBound; i += 4) {
+            float diff0 = a[offset + i] - b[i];
+            float diff1 = a[offset + i + 1] - b[i + 1];
+            float diff2 = a[offset + i + 2] - b[i + 2];
+            float diff3 = a[offset + i + 3] - b[i + 3];
+            acc0 += diff0 * diff0;
+            acc1 += diff1 * diff1;
+            acc2 += diff2 * diff2;
+            acc3 += diff3 * diff3;
+        }
+        for (; i < b.length; i++) {
+            float diff = a[offset + i] - b[i];
+            acc0 += diff * diff;
+        }
+        return acc0 + acc1 + acc2 + acc3;
+    }
+
+    /**
+     * L1 distance between {@code b.length} bytes starting at {@code offset} in {@code a} and {@code b}.
+     */
+    public static float l1Norm(byte[] a, int offset, float[] b) {
+        float acc0 = 0, acc1 = 0, acc2 = 0, acc3 = 0;
+        int i = 0;
+        for (int upperBound = b.length & ~3; i < upperBound; i += 4) {
+            acc0 += Math.abs(a[offset + i] - b[i]);
+            acc1 += Math.abs(a[offset + i + 1] - b[i + 1]);
+            acc2 += Math.abs(a[offset + i + 2] - b[i + 2]);
+            acc3 += Math.abs(a[offset + i + 3] - b[i + 3]);
+        }
+        for (; i < b.length; i++) {
+            acc0 += Math.abs(a[offset + i] - b[i]);
+        }
+        return acc0 + acc1 + acc2 + acc3;
+    }
+}
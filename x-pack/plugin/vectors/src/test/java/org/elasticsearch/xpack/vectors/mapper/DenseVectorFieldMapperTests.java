@@ -88,6 +88,11 @@ public class DenseVectorFieldMapperTests extends MapperTestCase {
             fieldMapping(b -> b.field("type", "dense_vector").field("dims", 4)),
             fieldMapping(b -> b.field("type", "dense_vector").field("dims", 5))
         );
+        checker.registerConflictCheck(
+            "element_type",
+            fieldMapping(b -> b.field("type", "dense_vector").field("dims", 4).field("element_type", "float")),
+            fieldMapping(b -> b.field("type", "dense_vector").field("dims", 4).field("element_type", "byte"))
+        );
         checker.registerConflictCheck(
             "similarity",
             fieldMapping(b -> b.field("type", "dense_vector").field("dims", 4).field("index", true).field("similarity", "dot_product")),
@@ -199,6 +204,90 @@ public class DenseVectorFieldMapperTests extends MapperTestCase {
         assertArrayEquals("Decoded dense vector values is not equal to the indexed one.", validVector, decodedValues, 0.001f);
     }
 
+    public void testByteVectorDocValues() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(
+            fieldMapping(b -> b.field("type", "dense_vector").field("dims", 3).field("element_type", "byte"))
+        );
+
+        float[] validVector = { -12, 127, -128 };
+        double dotProduct = 0.0f;
+        for (float value : validVector) {
+            dotProduct += value * value;
+        }
+        float expectedMagnitude = (float) Math.sqrt(dotProduct);
+        ParsedDocument doc1 = mapper.parse(source(b -> b.array("field", validVector)));
+
+        IndexableField[] fields = doc1.rootDoc().getFields("field");
+        assertEquals(1, fields.length);
+        assertThat(fields[0], instanceOf(BinaryDocValuesField.class));
+        BytesRef vectorBR = fields[0].binaryValue();
+        // one byte per dimension and the magnitude
+        assertEquals(3 + 4, vectorBR.length);
+        for (int i = 0; i < validVector.length; i++) {
+            assertEquals(validVector[i], vectorBR.bytes[vectorBR.offset + i], 0f);
+        }
+        assertEquals(expectedMagnitude, VectorEncoderDecoder.decodeMagnitude(Version.CURRENT, vectorBR), 0.001f);
+    }
+
+    public void testByteVectorIndexed() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(
+            fieldMapping(
+                b -> b.field("type", "dense_vector")
+                    .field("dims", 3)
+                    .field("element_type", "byte")
+                    .field("index", true)
+                    .field("similarity", VectorSimilarity.cosine)
+            )
+        );
+        float[] vector = { -1, 5, 100 };
+        ParsedDocument doc1 = mapper.parse(source(b -> b.array("field", vector)));
+        IndexableField[] fields = doc1.rootDoc().getFields("field");
+        assertEquals(1, fields.length);
+        assertThat(fields[0], instanceOf(KnnVectorField.class));
+        assertArrayEquals(vector, ((KnnVectorField) fields[0]).vectorValue(), 0f);
+    }
+
+    public void testByteVectorInvalidValues() throws Exception {
+        boolean indexed = randomBoolean();
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> {
+            b.field("type", "dense_vector").field("dims", 3).field("element_type", "byte");
+            if (indexed) {
+                b.field("index", true).field("similarity", VectorSimilarity.l2_norm);
+            }
+        }));
+        float[] fraction = { 1, 2.5f, 3 };
+        MapperParsingException e = expectThrows(MapperParsingException.class, () -> mapper.parse(source(b -> b.array("field", fraction))));
+        assertThat(e.getCause().getMessage(), containsString("contains the value [2.5]"));
+
+        float[] outOfRange = { 1, 2, 128 };
+        e = expectThrows(MapperParsingException.class, () -> mapper.parse(source(b -> b.array("field", outOfRange))));
+        assertThat(e.getCause().getMessage(), containsString("only supports integers between [-128] and [127]"));
+    }
+
+    public void testByteVectorDotProduct() {
+        MapperParsingException e = expectThrows(
+            MapperParsingException.class,
+            () -> createDocumentMapper(
+                fieldMapping(
+                    b -> b.field("type", "dense_vector")
+                        .field("dims", 3)
+                        .field("element_type", "byte")
+                        .field("index", true)
+                        .field("similarity", VectorSimilarity.dot_product)
+                )
+            )
+        );
+        assertThat(e.getMessage(), containsString("The [dot_product] similarity is not supported for [element_type] [byte]"));
+    }
+
+    public void testUnknownElementType() {
+        MapperParsingException e = expectThrows(
+            MapperParsingException.class,
+            () -> createDocumentMapper(fieldMapping(b -> b.field("type", "dense_vector").field("dims", 3).field("element_type", "half")))
+        );
+        assertThat(e.getMessage(), containsString("Unknown value [half] for field [element_type]"));
+    }
+
     public void testIndexedVector() throws Exception {
         VectorSimilarity similarity = RandomPicks.randomFrom(random(), VectorSimilarity.values());
         DocumentMapper mapper = createDocumentMapper(
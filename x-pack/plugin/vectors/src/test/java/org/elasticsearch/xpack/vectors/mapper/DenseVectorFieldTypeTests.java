@@ -10,6 +10,7 @@ package org.elasticsearch.xpack.vectors.mapper;
 import org.elasticsearch.Version;
 import org.elasticsearch.index.mapper.FieldTypeTestCase;
 import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.DenseVectorFieldType;
+import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.ElementType;
 import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.VectorSimilarity;
 
 import java.io.IOException;
@@ -26,7 +27,15 @@ public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
     }
 
     private DenseVectorFieldType createFieldType() {
-        return new DenseVectorFieldType("f", Version.CURRENT, 5, indexed, VectorSimilarity.cosine, Collections.emptyMap());
+        return new DenseVectorFieldType(
+            "f",
+            Version.CURRENT,
+            ElementType.FLOAT,
+            5,
+            indexed,
+            VectorSimilarity.cosine,
+            Collections.emptyMap()
+        );
     }
 
     public void testHasDocValues() {
@@ -69,6 +78,7 @@ public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
         DenseVectorFieldType unindexedField = new DenseVectorFieldType(
             "f",
             Version.CURRENT,
+            ElementType.FLOAT,
             3,
             false,
             VectorSimilarity.cosine,
@@ -83,6 +93,7 @@ public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
         DenseVectorFieldType dotProductField = new DenseVectorFieldType(
             "f",
             Version.CURRENT,
+            ElementType.FLOAT,
             3,
             true,
             VectorSimilarity.dot_product,
@@ -94,6 +105,7 @@ public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
         DenseVectorFieldType cosineField = new DenseVectorFieldType(
             "f",
             Version.CURRENT,
+            ElementType.FLOAT,
             3,
             true,
             VectorSimilarity.cosine,
@@ -102,4 +114,22 @@ public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
         e = expectThrows(IllegalArgumentException.class, () -> cosineField.createKnnQuery(new float[] { 0.0f, 0.0f, 0.0f }, 10, null));
         assertThat(e.getMessage(), containsString("The [cosine] similarity does not support vectors with zero magnitude."));
     }
+
+    public void testCreateByteKnnQuery() {
+        DenseVectorFieldType byteField = new DenseVectorFieldType(
+            "f",
+            Version.CURRENT,
+            ElementType.BYTE,
+            3,
+            true,
+            VectorSimilarity.cosine,
+            Collections.emptyMap()
+        );
+        assertNotNull(byteField.createKnnQuery(new float[] { 1, -128, 127 }, 10, null));
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> byteField.createKnnQuery(new float[] { 0.3f, 1, 2 }, 10, null)
+        );
+        assertThat(e.getMessage(), containsString("the query vector contains the value [0.3]"));
+    }
 }
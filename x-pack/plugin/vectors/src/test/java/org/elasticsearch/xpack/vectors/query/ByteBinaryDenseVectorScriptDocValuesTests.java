@@ -0,0 +1,203 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.Version;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.vectors.mapper.VectorEncoderDecoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class ByteBinaryDenseVectorScriptDocValuesTests extends ESTestCase {
+
+    public void testGetVectorValueAndGetMagnitude() throws IOException {
+        int dims = 3;
+        float[][] vectors = { { 1, 1, 1 }, { 1, 1, 2 }, { 1, 1, 3 } };
+        float[] expectedMagnitudes = { 1.7320f, 2.4495f, 3.3166f };
+
+        ByteBinaryDenseVectorDocValuesField field = new ByteBinaryDenseVectorDocValuesField(wrap(vectors), "test", dims);
+        DenseVectorScriptDocValues scriptDocValues = field.toScriptDocValues();
+        for (int i = 0; i < vectors.length; i++) {
+            field.setNextDocId(i);
+            assertEquals(1, field.size());
+            assertEquals(dims, scriptDocValues.dims());
+            assertArrayEquals(vectors[i], scriptDocValues.getVectorValue(), 0.0001f);
+            assertEquals(expectedMagnitudes[i], scriptDocValues.getMagnitude(), 0.0001f);
+        }
+        field.setNextDocId(vectors.length);
+        assertEquals(DenseVector.EMPTY, field.get());
+    }
+
+    public void testMatchesFloatVectors() throws IOException {
+        int dims = between(1, 100);
+        float[] docVector = new float[dims];
+        float[] queryVector = new float[dims];
+        List<Number> queryVectorList = new ArrayList<>(dims);
+        for (int i = 0; i < dims; i++) {
+            docVector[i] = randomByte();
+            queryVector[i] = randomFloat() * 100 - 50;
+            queryVectorList.add(queryVector[i]);
+        }
+        ByteBinaryDenseVectorDocValuesField byteField = new ByteBinaryDenseVectorDocValuesField(
+            wrap(new float[][] { docVector }),
+            "test",
+            dims
+        );
+        BinaryDenseVectorDocValuesField floatField = new BinaryDenseVectorDocValuesField(
+            BinaryDenseVectorScriptDocValuesTests.wrap(new float[][] { docVector }, Version.CURRENT),
+            "test",
+            dims,
+            Version.CURRENT
+        );
+        byteField.setNextDocId(0);
+        floatField.setNextDocId(0);
+        DenseVector byteVector = byteField.get();
+        DenseVector floatVector = floatField.get();
+
+        assertEquals(floatVector.getMagnitude(), byteVector.getMagnitude(), 0.001);
+        assertEquals(floatVector.dotProduct(queryVector), byteVector.dotProduct(queryVector), 0.001);
+        assertEquals(floatVector.dotProduct(queryVectorList), byteVector.dotProduct(queryVectorList), 0.001);
+        assertEquals(floatVector.l1Norm(queryVector), byteVector.l1Norm(queryVector), 0.001);
+        assertEquals(floatVector.l1Norm(queryVectorList), byteVector.l1Norm(queryVectorList), 0.001);
+        assertEquals(floatVector.l2Norm(queryVector), byteVector.l2Norm(queryVector), 0.001);
+        assertEquals(floatVector.l2Norm(queryVectorList), byteVector.l2Norm(queryVectorList), 0.001);
+    }
+
+    /**
+     * Float vectors scaled so the largest value is {@code 127} and rounded to
+     * bytes, like a user would before indexing them, should mostly find the
+     * same top hits as the float vectors.
+     */
+    public void testRecallAgainstFloatVectors() {
+        int k = 10;
+        int dims = between(32, 128);
+        float[][] vectors = new float[between(500, 1000)][];
+        float maxAbs = 0;
+        for (int d = 0; d < vectors.length; d++) {
+            vectors[d] = randomUnitVector(dims);
+            for (float value : vectors[d]) {
+                maxAbs = Math.max(maxAbs, Math.abs(value));
+            }
+        }
+        float byteScale = Byte.MAX_VALUE / maxAbs;
+        DenseVector[] byteVectors = new DenseVector[vectors.length];
+        for (int d = 0; d < vectors.length; d++) {
+            float[] scaled = new float[dims];
+            for (int i = 0; i < dims; i++) {
+                scaled[i] = Math.round(vectors[d][i] * byteScale);
+            }
+            byteVectors[d] = new ByteBinaryDenseVector(mockEncodeDenseVector(scaled), dims);
+        }
+
+        int queries = 20;
+        double recall = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnitVector(dims);
+            double[] floatScores = new double[vectors.length];
+            double[] byteScores = new double[vectors.length];
+            for (int d = 0; d < vectors.length; d++) {
+                for (int i = 0; i < dims; i++) {
+                    floatScores[d] += vectors[d][i] * query[i];
+                }
+                byteScores[d] = byteVectors[d].dotProduct(query);
+            }
+            Set<Integer> expected = topK(floatScores, k);
+            Set<Integer> actual = topK(byteScores, k);
+            actual.retainAll(expected);
+            recall += (double) actual.size() / k;
+        }
+        assertThat(recall / queries, greaterThanOrEqualTo(0.8));
+    }
+
+    private static Set<Integer> topK(double[] scores, int k) {
+        return IntStream.range(0, scores.length)
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer d) -> scores[d]).reversed())
+            .limit(k)
+            .collect(Collectors.toSet());
+    }
+
+    private static float[] randomUnitVector(int dims) {
+        float[] vector = new float[dims];
+        double squaredMagnitude = 0;
+        for (int i = 0; i < dims; i++) {
+            vector[i] = (float) random().nextGaussian();
+            squaredMagnitude += vector[i] * vector[i];
+        }
+        float magnitude = (float) Math.sqrt(squaredMagnitude);
+        for (int i = 0; i < dims; i++) {
+            vector[i] /= magnitude;
+        }
+        return vector;
+    }
+
+    static BinaryDocValues wrap(float[][] vectors) {
+        return new BinaryDocValues() {
+            int idx = -1;
+            int maxIdx = vectors.length;
+
+            @Override
+            public BytesRef binaryValue() {
+                if (idx >= maxIdx) {
+                    throw new IllegalStateException("max index exceeded");
+                }
+                return mockEncodeDenseVector(vectors[idx]);
+            }
+
+            @Override
+            public boolean advanceExact(int target) {
+                idx = target;
+                return target < maxIdx;
+            }
+
+            @Override
+            public int docID() {
+                return idx;
+            }
+
+            @Override
+            public int nextDoc() {
+                return idx++;
+            }
+
+            @Override
+            public int advance(int target) {
+                throw new IllegalArgumentException("not defined!");
+            }
+
+            @Override
+            public long cost() {
+                throw new IllegalArgumentException("not defined!");
+            }
+        };
+    }
+
+    static BytesRef mockEncodeDenseVector(float[] values) {
+        byte[] bytes = new byte[values.length + VectorEncoderDecoder.INT_BYTES];
+        double dotProduct = 0f;
+
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        for (float value : values) {
+            byteBuffer.put((byte) value);
+            dotProduct += value * value;
+        }
+        byteBuffer.putFloat((float) Math.sqrt(dotProduct));
+        return new BytesRef(bytes);
+    }
+}
@@ -81,4 +81,29 @@ public class DenseVectorTests extends ESTestCase {
         }
     }
 
+    public void testBinaryDenseVectorDecodesOnce() {
+        int dims = randomIntBetween(1, 16);
+        float[] docVector = new float[dims];
+        for (int i = 0; i < docVector.length; i++) {
+            docVector[i] = randomFloat();
+        }
+        BytesRef value = BinaryDenseVectorScriptDocValuesTests.mockEncodeDenseVector(docVector, Version.CURRENT);
+        BinaryDenseVector bdv = new BinaryDenseVector(value, dims, Version.CURRENT);
+        float[] decoded = bdv.getVector();
+        assertArrayEquals(docVector, decoded, 0f);
+        assertSame(decoded, bdv.getVector());
+    }
+
+    public void testKnnDenseVectorL1NormSumsInDouble() {
+        int dims = randomIntBetween(1, 1024);
+        float[] docVector = new float[dims];
+        float[] queryVector = new float[dims];
+        double expected = 0;
+        for (int i = 0; i < dims; i++) {
+            docVector[i] = randomFloat() * 1000;
+            queryVector[i] = randomFloat();
+            expected += Math.abs(docVector[i] - queryVector[i]);
+        }
+        assertEquals(expected, new KnnDenseVector(docVector).l1Norm(queryVector), 0d);
+    }
 }
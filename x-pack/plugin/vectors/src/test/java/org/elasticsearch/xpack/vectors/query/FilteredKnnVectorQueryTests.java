@@ -0,0 +1,223 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnVectorField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.search.profile.query.DebugInfoWeight;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class FilteredKnnVectorQueryTests extends ESTestCase {
+    private static final String FIELD = "vector";
+
+    public void testRestrictiveFilterScoresExactly() throws IOException {
+        int dims = between(2, 8);
+        int numDocs = between(20, 500);
+        int k = between(1, 10);
+        VectorSimilarityFunction similarity = randomFrom(VectorSimilarityFunction.values());
+        float[][] vectors = randomVectors(numDocs, dims);
+        Set<Integer> deleted = new HashSet<>();
+
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    writer.addDocument(document(i, vectors[i], similarity, i % 20 == 0 ? "rare" : "common"));
+                    if (rarely()) {
+                        writer.commit();
+                    }
+                }
+                for (int i = 0; i < numDocs; i++) {
+                    if (rarely()) {
+                        writer.deleteDocuments(new Term("id", Integer.toString(i)));
+                        deleted.add(i);
+                    }
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                float[] target = randomVectors(1, dims)[0];
+                FilteredKnnVectorQuery query = new FilteredKnnVectorQuery(FIELD, target, k, filter("rare"));
+
+                List<ScoreDoc> expected = new ArrayList<>();
+                for (int i = 0; i < numDocs; i += 20) {
+                    if (deleted.contains(i) == false) {
+                        expected.add(new ScoreDoc(i, similarity.convertToScore(similarity.compare(target, vectors[i]))));
+                    }
+                }
+                expected.sort(Comparator.comparing((ScoreDoc scoreDoc) -> scoreDoc.score).reversed());
+                expected = expected.subList(0, Math.min(k, expected.size()));
+
+                TopDocs topDocs = searcher.search(query, k);
+                assertThat(topDocs.scoreDocs.length, equalTo(expected.size()));
+                for (int i = 0; i < expected.size(); i++) {
+                    String id = searcher.doc(topDocs.scoreDocs[i].doc).get("id");
+                    assertThat(Integer.parseInt(id) % 20, equalTo(0));
+                    assertEquals(expected.get(i).score, topDocs.scoreDocs[i].score, 0.0001f);
+                }
+
+                Map<String, Object> debug = debugInfo(searcher, query);
+                assertThat(debug.get("approximate_segments"), equalTo(0));
+                assertThat(debug.get("approximate_then_exact_segments"), equalTo(0));
+                assertThat(debug.get("approximate_vectors_visited"), equalTo(0L));
+                assertThat(debug.get("exact_vectors_visited"), equalTo((long) (numDocs + 19) / 20 - countRare(deleted)));
+            }
+        }
+    }
+
+    public void testPermissiveFilterSearchesGraph() throws IOException {
+        int dims = between(2, 8);
+        int numDocs = 1000;
+        int k = between(1, 5);
+        VectorSimilarityFunction similarity = randomFrom(VectorSimilarityFunction.values());
+        float[][] vectors = randomVectors(numDocs, dims);
+
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    writer.addDocument(document(i, vectors[i], similarity, i % 2 == 0 ? "even" : "odd"));
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                FilteredKnnVectorQuery query = new FilteredKnnVectorQuery(FIELD, randomVectors(1, dims)[0], k, filter("even"));
+
+                TopDocs topDocs = searcher.search(query, k);
+                assertThat(topDocs.scoreDocs.length, equalTo(k));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertThat(Integer.parseInt(searcher.doc(scoreDoc.doc).get("id")) % 2, equalTo(0));
+                }
+
+                Map<String, Object> debug = debugInfo(searcher, query);
+                assertThat(debug.get("exact_segments"), equalTo(0));
+                assertThat(debug.get("filtered_docs"), equalTo(500L));
+                assertThat((int) debug.get("approximate_segments") + (int) debug.get("approximate_then_exact_segments"), equalTo(1));
+                assertThat((long) debug.get("approximate_vectors_visited"), greaterThan(0L));
+            }
+        }
+    }
+
+    public void testNoMatchingDocs() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                writer.addDocument(document(0, new float[] { 1, 0 }, VectorSimilarityFunction.EUCLIDEAN, "tag"));
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                FilteredKnnVectorQuery query = new FilteredKnnVectorQuery(FIELD, new float[] { 1, 0 }, 10, filter("missing"));
+                assertThat(searcher.count(query), equalTo(0));
+            }
+        }
+    }
+
+    public void testSearchesInRewrite() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                for (int i = 0; i < 10; i++) {
+                    writer.addDocument(document(i, randomVectors(1, 2)[0], VectorSimilarityFunction.EUCLIDEAN, "tag"));
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                FilteredKnnVectorQuery query = new FilteredKnnVectorQuery(FIELD, new float[] { 1, 0 }, 5, filter("tag"));
+                Query rewritten = searcher.rewrite(query);
+                assertThat(rewritten, instanceOf(FilteredKnnVectorQuery.KnnResultsQuery.class));
+                assertSame(rewritten, searcher.rewrite(rewritten));
+                // each weight reports the stats of the one search that rewrite ran
+                for (int i = 0; i < 2; i++) {
+                    Weight weight = searcher.createWeight(rewritten, ScoreMode.COMPLETE, 1f);
+                    Map<String, Object> debug = new HashMap<>();
+                    ((DebugInfoWeight) weight).collectDebugInfo(debug::put);
+                    assertThat(debug.get("filtered_docs"), equalTo(10L));
+                    assertThat(debug.get("exact_vectors_visited"), equalTo(10L));
+                }
+                assertThat(searcher.count(rewritten), equalTo(5));
+            }
+        }
+    }
+
+    public void testPreferExact() {
+        // fewer docs in the filter than we're looking for
+        assertTrue(FilteredKnnVectorQuery.preferExact(10, 10, 1_000_000));
+        // 1% of a million vectors
+        assertTrue(FilteredKnnVectorQuery.preferExact(100, 10_000, 1_000_000));
+        // half of a million vectors
+        assertFalse(FilteredKnnVectorQuery.preferExact(100, 500_000, 1_000_000));
+        // small segments are cheap to score exactly
+        assertTrue(FilteredKnnVectorQuery.preferExact(100, 500, 1_000));
+    }
+
+    private static Document document(int id, float[] vector, VectorSimilarityFunction similarity, String tag) {
+        Document document = new Document();
+        document.add(new StringField("id", Integer.toString(id), Field.Store.YES));
+        document.add(new StringField("tag", tag, Field.Store.NO));
+        document.add(new KnnVectorField(FIELD, vector, similarity));
+        return document;
+    }
+
+    private static Query filter(String tag) {
+        return new TermQuery(new Term("tag", tag));
+    }
+
+    private static long countRare(Set<Integer> deleted) {
+        return deleted.stream().filter(i -> i % 20 == 0).count();
+    }
+
+    private static Map<String, Object> debugInfo(IndexSearcher searcher, FilteredKnnVectorQuery query) throws IOException {
+        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE, 1f);
+        Map<String, Object> debug = new HashMap<>();
+        ((DebugInfoWeight) weight).collectDebugInfo(debug::put);
+        return debug;
+    }
+
+    /**
+     * Random unit vectors so they work with every similarity.
+     */
+    private static float[][] randomVectors(int count, int dims) {
+        float[][] vectors = new float[count][dims];
+        for (float[] vector : vectors) {
+            double squaredMagnitude = 0;
+            for (int i = 0; i < dims; i++) {
+                vector[i] = randomFloat() + 0.01f;
+                squaredMagnitude += vector[i] * vector[i];
+            }
+            float magnitude = (float) Math.sqrt(squaredMagnitude);
+            for (int i = 0; i < dims; i++) {
+                vector[i] /= magnitude;
+            }
+        }
+        return vectors;
+    }
+}
@@ -7,6 +7,8 @@
 
 package org.elasticsearch.xpack.vectors.query;
 
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.KnnVectorQuery;
 import org.apache.lucene.search.Query;
 import org.elasticsearch.Version;
@@ -22,6 +24,7 @@ import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.index.query.TermQueryBuilder;
 import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.search.vectors.KnnVectorQueryBuilder;
 import org.elasticsearch.test.AbstractBuilderTestCase;
 import org.elasticsearch.test.AbstractQueryTestCase;
 import org.elasticsearch.test.TestGeoShapeFieldMapperPlugin;
@@ -98,12 +101,20 @@ public class KnnVectorQueryBuilderTests extends AbstractQueryTestCase<KnnVectorQ
     }
 
     @Override
-    protected void doAssertLuceneQuery(KnnVectorQueryBuilder queryBuilder, Query query, SearchExecutionContext context) {
-        assertTrue(query instanceof KnnVectorQuery);
-        KnnVectorQuery knnVectorQuery = (KnnVectorQuery) query;
-
+    protected void doAssertLuceneQuery(KnnVectorQueryBuilder queryBuilder, Query query, SearchExecutionContext context) throws IOException {
         // The field should always be resolved to the concrete field
-        assertThat(knnVectorQuery, equalTo(new KnnVectorQuery(VECTOR_FIELD, queryBuilder.queryVector(), queryBuilder.numCands())));
+        if (queryBuilder.filterQueries().isEmpty()) {
+            assertThat(query, equalTo(new KnnVectorQuery(VECTOR_FIELD, queryBuilder.queryVector(), queryBuilder.numCands())));
+            return;
+        }
+        BooleanQuery.Builder filter = new BooleanQuery.Builder();
+        for (QueryBuilder filterQuery : queryBuilder.filterQueries()) {
+            filter.add(filterQuery.toQuery(context), BooleanClause.Occur.FILTER);
+        }
+        assertThat(
+            query,
+            equalTo(new FilteredKnnVectorQuery(VECTOR_FIELD, queryBuilder.queryVector(), queryBuilder.numCands(), filter.build()))
+        );
     }
 
     public void testWrongDimension() {
@@ -0,0 +1,54 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.vectors.query;
+
+import org.elasticsearch.test.ESTestCase;
+
+public class VectorKernelsTests extends ESTestCase {
+
+    public void testFloatKernels() {
+        int dims = between(1, 300);
+        float[] a = randomVector(dims);
+        float[] b = randomVector(dims);
+        double dotProduct = 0;
+        double squareDistance = 0;
+        for (int i = 0; i < dims; i++) {
+            dotProduct += a[i] * b[i];
+            squareDistance += (a[i] - b[i]) * (a[i] - b[i]);
+        }
+        assertEquals(dotProduct, VectorKernels.dotProduct(a, b), 0.01);
+        assertEquals(squareDistance, VectorKernels.squareDistance(a, b), 0.01);
+    }
+
+    public void testByteKernels() {
+        int dims = between(1, 300);
+        int offset = between(0, 10);
+        byte[] a = randomByteArrayOfLength(offset + dims + between(0, 10));
+        float[] b = randomVector(dims);
+        double dotProduct = 0;
+        double squareDistance = 0;
+        double l1Norm = 0;
+        for (int i = 0; i < dims; i++) {
+            float value = a[offset + i];
+            dotProduct += value * b[i];
+            squareDistance += (value - b[i]) * (value - b[i]);
+            l1Norm += Math.abs(value - b[i]);
+        }
+        assertEquals(dotProduct, VectorKernels.dotProduct(a, offset, b), 0.1);
+        assertEquals(squareDistance, VectorKernels.squareDistance(a, offset, b), squareDistance * 1e-5);
+        assertEquals(l1Norm, VectorKernels.l1Norm(a, offset, b), 0.1);
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat() * 2 - 1;
+        }
+        return vector;
+    }
+}